@@ -0,0 +1,90 @@
+package com.saasautomationbuilder.backend;
+
+import com.saasautomationbuilder.backend.domain.ConnectorDefinition;
+import com.saasautomationbuilder.backend.domain.User;
+import com.saasautomationbuilder.backend.domain.UserConnection;
+import com.saasautomationbuilder.backend.domain.Workflow;
+
+import java.time.Instant;
+
+// Realistic entities and config payloads shared by the benchmarks
+public final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+    }
+
+    public static User user() {
+        return new User(42L, "firebase-uid-42", "user42@example.com", "Bench User", User.PlanTier.FREE, Instant.now(), Instant.now());
+    }
+
+    public static String triggerConfig() {
+        return "{\"type\":\"webhook\",\"connectorKey\":\"slack\",\"event\":\"message.created\",\"connectionId\":7,"
+                + "\"filters\":{\"channel\":\"C024BE91L\",\"containsText\":\"deploy\"}}";
+    }
+
+    // actionConfig with the given number of steps, mixing short log steps and larger templated steps
+    public static String actionConfig(int actions) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < actions; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            if (i % 2 == 0) {
+                json.append("{\"type\":\"log\",\"message\":\"Step ").append(i).append(" for {{trigger.user}}\"}");
+            } else {
+                json.append("{\"type\":\"log\",\"connectorKey\":\"google_sheets\",\"connectionId\":").append(i)
+                        .append(",\"spreadsheetId\":\"1BxiMVs0XRA5nFMdKvBdBZjgmUUqptlbs74OgvE2upms\",\"range\":\"Sheet1!A1:F1\",")
+                        .append("\"values\":[[\"{{trigger.text}}\",\"{{trigger.user}}\",\"{{trigger.ts}}\",\"")
+                        .append("x".repeat(64)).append("\"]],\"options\":{\"valueInputOption\":\"USER_ENTERED\"}}");
+            }
+        }
+        return json.append(']').toString();
+    }
+
+    public static Workflow workflow(int actions) {
+        Workflow workflow = new Workflow();
+        workflow.setId(1001L);
+        workflow.setName("Post deploy messages to sheet");
+        workflow.setDescription("Copies Slack deploy announcements into the release tracker spreadsheet");
+        workflow.setEnabled(true);
+        workflow.setTriggerConfig(triggerConfig());
+        workflow.setActionConfig(actionConfig(actions));
+        workflow.setUser(user());
+        workflow.setCreatedAt(Instant.now());
+        workflow.setUpdatedAt(Instant.now());
+        return workflow;
+    }
+
+    public static ConnectorDefinition connectorDefinition() {
+        ConnectorDefinition definition = new ConnectorDefinition();
+        definition.setId(3L);
+        definition.setKey("google_sheets");
+        definition.setName("Google Sheets");
+        definition.setDescription("Read and write spreadsheet rows");
+        definition.setLogoUrl("https://example.com/logos/google-sheets.svg");
+        definition.setAuthType(ConnectorDefinition.AuthenticationType.OAUTH2);
+        definition.setCredentialFieldsSchema("{\"type\":\"object\",\"properties\":{\"access_token\":{\"type\":\"string\"},"
+                + "\"refresh_token\":{\"type\":\"string\"}},\"required\":[\"access_token\"]}");
+        definition.setOauth2ClientId("client-id.apps.googleusercontent.com");
+        definition.setOauth2Scopes("https://www.googleapis.com/auth/spreadsheets");
+        definition.setOauth2AuthorizationUrl("https://accounts.google.com/o/oauth2/v2/auth");
+        definition.setOauth2TokenUrl("https://oauth2.googleapis.com/token");
+        definition.setCreatedAt(Instant.now());
+        definition.setUpdatedAt(Instant.now());
+        return definition;
+    }
+
+    public static UserConnection userConnection() {
+        UserConnection connection = new UserConnection();
+        connection.setId(7L);
+        connection.setUser(user());
+        connection.setConnectorDefinition(connectorDefinition());
+        connection.setConnectionName("Release tracker");
+        connection.setEncryptedCredentials("ciphertext");
+        connection.setExpiresAt(Instant.now().plusSeconds(3600));
+        connection.setActive(true);
+        connection.setCreatedAt(Instant.now());
+        connection.setUpdatedAt(Instant.now());
+        return connection;
+    }
+}
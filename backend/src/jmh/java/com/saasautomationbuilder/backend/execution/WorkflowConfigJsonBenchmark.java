@@ -0,0 +1,84 @@
+package com.saasautomationbuilder.backend.execution;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.saasautomationbuilder.backend.BenchmarkFixtures;
+import com.saasautomationbuilder.backend.domain.Workflow;
+import com.saasautomationbuilder.backend.dto.WorkflowDto;
+import com.saasautomationbuilder.backend.execution.plan.WorkflowPlan;
+import com.saasautomationbuilder.backend.execution.plan.WorkflowPlanCache;
+import com.saasautomationbuilder.backend.execution.plan.WorkflowPlanCompiler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON handling of triggerConfig/actionConfig payloads of various sizes: raw parsing, plan compilation,
+ * cached plan lookup and serializing the full WorkflowDto as the API does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WorkflowConfigJsonBenchmark {
+
+    @Param({"1", "10", "100"})
+    public int actionCount;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private Workflow workflow;
+    private WorkflowDto workflowDto;
+    private WorkflowPlanCompiler compiler;
+    private WorkflowPlanCache planCache;
+
+    @Setup
+    public void setUp() {
+        workflow = BenchmarkFixtures.workflow(actionCount);
+        workflowDto = new WorkflowDto(workflow.getId(), workflow.getName(), workflow.getDescription(), workflow.isEnabled(),
+                workflow.getTriggerConfig(), workflow.getActionConfig(), workflow.getUser().getId(),
+                workflow.getCreatedAt(), workflow.getUpdatedAt(), workflow.getVersion());
+        compiler = new WorkflowPlanCompiler(objectMapper, List.of(new LogActionHandler()));
+        planCache = new WorkflowPlanCache(null, compiler, 1_000, Duration.ofMinutes(10));
+        planCache.getPlan(workflow);
+    }
+
+    @Benchmark
+    public JsonNode parseActionConfig() throws Exception {
+        return objectMapper.readTree(workflow.getActionConfig());
+    }
+
+    @Benchmark
+    public JsonNode parseTriggerConfig() throws Exception {
+        return objectMapper.readTree(workflow.getTriggerConfig());
+    }
+
+    @Benchmark
+    public WorkflowPlan compilePlan() {
+        return compiler.compile(workflow);
+    }
+
+    @Benchmark
+    public WorkflowPlan cachedPlan() {
+        return planCache.getPlan(workflow);
+    }
+
+    @Benchmark
+    public byte[] serializeWorkflowDto() throws Exception {
+        return objectMapper.writeValueAsBytes(workflowDto);
+    }
+}
@@ -0,0 +1,130 @@
+package com.saasautomationbuilder.backend.security;
+
+import com.google.firebase.auth.FirebaseToken;
+import com.saasautomationbuilder.backend.BenchmarkFixtures;
+import com.saasautomationbuilder.backend.cache.CacheInvalidationBus;
+import com.saasautomationbuilder.backend.cache.InvalidatableCache;
+import com.saasautomationbuilder.backend.domain.User;
+import com.saasautomationbuilder.backend.repository.UserRepository;
+import com.saasautomationbuilder.backend.service.UserService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request authentication hot path: bearer token extraction and the full FirebaseTokenFilter with a stubbed
+ * verifier. {@code tokenCacheSize=0} disables the verified-token cache, so every call pays the (stubbed) verification.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuthenticationBenchmark {
+
+    // A realistically sized (~900 byte) JWT-shaped token
+    private static final String ID_TOKEN = "eyJhbGciOiJSUzI1NiIsImtpZCI6ImJlbmNoIn0." + "a".repeat(600) + "." + "s".repeat(342);
+
+    @Param({"0", "10000"})
+    public int tokenCacheSize;
+
+    private final SecurityUtils securityUtils = new SecurityUtils();
+    private final FilterChain noopChain = (request, response) -> { };
+    private MockHttpServletRequest request;
+    private MockHttpServletRequest anonymousRequest;
+    private MockHttpServletResponse response;
+    private FirebaseTokenFilter filter;
+
+    @Setup
+    public void setUp() throws Exception {
+        request = new MockHttpServletRequest("GET", "/api/v1/workflows");
+        request.addHeader("Authorization", "Bearer " + ID_TOKEN);
+        anonymousRequest = new MockHttpServletRequest("GET", "/api/v1/workflows");
+        response = new MockHttpServletResponse();
+
+        FirebaseToken decoded = firebaseToken(Map.of(
+                "sub", "firebase-uid-42",
+                "exp", System.currentTimeMillis() / 1000 + 3600,
+                "iat", System.currentTimeMillis() / 1000));
+        VerifiedTokenCache tokenCache = new VerifiedTokenCache(tokenCacheSize, Duration.ofHours(1)) {
+            @Override
+            protected FirebaseToken verifyWithFirebase(String idToken) {
+                return decoded;
+            }
+        };
+        UserService userService = new UserService(userRepository(BenchmarkFixtures.user()), invalidationBus(), 10_000, Duration.ofMinutes(5));
+        filter = new FirebaseTokenFilter(securityUtils, tokenCache, userService, new SimpleMeterRegistry());
+    }
+
+    @TearDown(Level.Invocation)
+    public void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public String extractBearerToken() {
+        return securityUtils.getTokenFromRequest(request);
+    }
+
+    @Benchmark
+    public String extractMissingToken() {
+        return securityUtils.getTokenFromRequest(anonymousRequest);
+    }
+
+    @Benchmark
+    public Object tokenFilter() throws Exception {
+        filter.doFilter(request, response, noopChain);
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    // FirebaseToken has no public constructor
+    private static FirebaseToken firebaseToken(Map<String, Object> claims) throws Exception {
+        Constructor<FirebaseToken> constructor = FirebaseToken.class.getDeclaredConstructor(Map.class);
+        constructor.setAccessible(true);
+        return constructor.newInstance(claims);
+    }
+
+    // Never sends anything here: the benchmarks do not evict users
+    private static CacheInvalidationBus invalidationBus() {
+        return new CacheInvalidationBus(new RabbitTemplate(), new StaticListableBeanFactory().getBeanProvider(InvalidatableCache.class),
+                new SimpleMeterRegistry(), "bench", 1000);
+    }
+
+    private static UserRepository userRepository(User user) {
+        return (UserRepository) Proxy.newProxyInstance(
+                UserRepository.class.getClassLoader(),
+                new Class<?>[]{UserRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findByFirebaseUid" -> Optional.of(user);
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "StubUserRepository";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
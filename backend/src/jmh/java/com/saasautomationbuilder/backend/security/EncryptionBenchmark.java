@@ -0,0 +1,115 @@
+package com.saasautomationbuilder.backend.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.saasautomationbuilder.backend.domain.TenantDataKey;
+import com.saasautomationbuilder.backend.repository.TenantDataKeyRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Credential encryption throughput: AES-GCM with a cached data key, the cold path that unwraps the data key
+ * first, and the vault's cached open of a connection's credential map.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EncryptionBenchmark {
+
+    private static final long USER_ID = 42L;
+
+    private final Map<String, String> credentials = Map.of(
+            "accessToken", "ya29." + "a".repeat(180),
+            "refreshToken", "1//" + "r".repeat(100),
+            "scope", "read write");
+    private byte[] plaintext;
+    private EncryptionService encryptionService;
+    private CredentialVault credentialVault;
+    private String envelope;
+    private String sealedCredentials;
+
+    @Setup
+    public void setUp() throws Exception {
+        Path keyFile = Files.createTempDirectory("jmh-master-key").resolve("master.key");
+        MasterKeyProvider masterKeyProvider = new LocalFileMasterKeyProvider(keyFile, true);
+
+        TenantDataKey dataKey = new TenantDataKey();
+        dataKey.setId(1L);
+        dataKey.setUserId(USER_ID);
+        dataKey.setMasterKeyId(masterKeyProvider.getCurrentKeyId());
+        dataKey.setWrappedKey(Base64.getEncoder().encodeToString(
+                masterKeyProvider.wrapKey(new byte[32], ("tenant-data-key:" + USER_ID).getBytes(StandardCharsets.US_ASCII))));
+
+        encryptionService = new EncryptionService(dataKeyRepository(dataKey), masterKeyProvider,
+                stub(PlatformTransactionManager.class), 10_000, Duration.ofMinutes(5));
+        credentialVault = new CredentialVault(encryptionService, new ObjectMapper(), 10_000, Duration.ofMinutes(1));
+
+        plaintext = new ObjectMapper().writeValueAsBytes(credentials);
+        envelope = encryptionService.encrypt(USER_ID, plaintext);
+        sealedCredentials = credentialVault.seal(USER_ID, credentials);
+    }
+
+    @Benchmark
+    public String encrypt() {
+        return encryptionService.encrypt(USER_ID, plaintext);
+    }
+
+    @Benchmark
+    public byte[] decrypt() {
+        return encryptionService.decrypt(USER_ID, envelope);
+    }
+
+    // Every call misses the data key cache and unwraps with the master key
+    @Benchmark
+    public byte[] decryptColdDataKey() {
+        encryptionService.evictDataKey(USER_ID);
+        return encryptionService.decrypt(USER_ID, envelope);
+    }
+
+    @Benchmark
+    public Map<String, String> openCachedCredentials() {
+        return credentialVault.open(7L, USER_ID, sealedCredentials);
+    }
+
+    private static TenantDataKeyRepository dataKeyRepository(TenantDataKey dataKey) {
+        return (TenantDataKeyRepository) Proxy.newProxyInstance(
+                TenantDataKeyRepository.class.getClassLoader(),
+                new Class<?>[]{TenantDataKeyRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findByUserId" -> Optional.of(dataKey);
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "StubTenantDataKeyRepository";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T stub(Class<T> type) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
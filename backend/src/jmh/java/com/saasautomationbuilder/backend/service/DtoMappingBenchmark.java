@@ -0,0 +1,57 @@
+package com.saasautomationbuilder.backend.service;
+
+import com.saasautomationbuilder.backend.BenchmarkFixtures;
+import com.saasautomationbuilder.backend.domain.ConnectorDefinition;
+import com.saasautomationbuilder.backend.domain.UserConnection;
+import com.saasautomationbuilder.backend.domain.Workflow;
+import com.saasautomationbuilder.backend.dto.ConnectorDefinitionDto;
+import com.saasautomationbuilder.backend.dto.UserConnectionDto;
+import com.saasautomationbuilder.backend.dto.WorkflowDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Entity -> DTO mappers used by WorkflowService, ConnectorService and ConnectorCatalog
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DtoMappingBenchmark {
+
+    private Workflow workflow;
+    private UserConnection connection;
+    private ConnectorDefinition definition;
+
+    @Setup
+    public void setUp() {
+        workflow = BenchmarkFixtures.workflow(10);
+        connection = BenchmarkFixtures.userConnection();
+        definition = BenchmarkFixtures.connectorDefinition();
+    }
+
+    @Benchmark
+    public WorkflowDto workflowToDto() {
+        return WorkflowService.mapToDto(workflow);
+    }
+
+    @Benchmark
+    public UserConnectionDto userConnectionToDto() {
+        return ConnectorService.mapToDto(connection);
+    }
+
+    @Benchmark
+    public ConnectorDefinitionDto connectorDefinitionToDto() {
+        return ConnectorCatalog.toDto(definition);
+    }
+}
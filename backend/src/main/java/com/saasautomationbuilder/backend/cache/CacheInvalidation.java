@@ -0,0 +1,18 @@
+package com.saasautomationbuilder.backend.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+// One coalesced invalidation message: the keys to evict per cache name, and the caches to clear entirely
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheInvalidation {
+    private String origin; // InstanceId of the sender
+    private Map<String, List<String>> keys;
+    private List<String> all;
+}
@@ -0,0 +1,152 @@
+package com.saasautomationbuilder.backend.cache;
+
+import com.saasautomationbuilder.backend.support.InstanceId;
+import com.saasautomationbuilder.backend.support.TransactionCallbacks;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Evicts entries of in-process caches on the other instances after a write, over a fanout exchange.
+ * Workflow plans are not sent here: they follow the workflow's outbox change events (ChangeEventListener).
+ * <p>
+ * Write paths call {@link #broadcast} (and still evict their own instance's entry themselves). Keys are queued once
+ * the transaction commits and sent every {@code flush-interval} as one message covering all caches, so a burst of
+ * writes costs one message per interval rather than one per key; a cache with more than {@code max-keys-per-cache}
+ * pending keys is cleared entirely instead. Delivery is best effort: the caches' TTLs bound staleness if a message
+ * is lost.
+ */
+@Component
+public class CacheInvalidationBus {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheInvalidationBus.class);
+
+    private final RabbitTemplate rabbitTemplate;
+    private final ObjectProvider<InvalidatableCache> cacheProvider;
+    private final String exchange;
+    private final int maxKeysPerCache;
+    private final Counter sent;
+    private final Counter received;
+    private volatile Map<String, InvalidatableCache> caches; // Resolved lazily: caches may depend on the bus
+
+    // Guarded by this
+    private Map<String, Set<String>> pendingKeys = new HashMap<>();
+    private Set<String> pendingAll = new LinkedHashSet<>();
+
+    public CacheInvalidationBus(RabbitTemplate rabbitTemplate,
+                                ObjectProvider<InvalidatableCache> cacheProvider,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.cache.invalidation.exchange:app.cache-invalidation}") String exchange,
+                                @Value("${app.cache.invalidation.max-keys-per-cache:1000}") int maxKeysPerCache) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.cacheProvider = cacheProvider;
+        this.exchange = exchange;
+        this.maxKeysPerCache = maxKeysPerCache;
+        this.sent = meterRegistry.counter("cache.invalidation.messages", "direction", "sent");
+        this.received = meterRegistry.counter("cache.invalidation.messages", "direction", "received");
+    }
+
+    // Tells the other instances to evict the key, once the current transaction (if any) commits
+    public void broadcast(String cacheName, Object key) {
+        String value = String.valueOf(key);
+        TransactionCallbacks.afterCommit(() -> enqueue(cacheName, value));
+    }
+
+    public void broadcastAll(String cacheName) {
+        TransactionCallbacks.afterCommit(() -> enqueueAll(cacheName));
+    }
+
+    @Scheduled(fixedDelayString = "${app.cache.invalidation.flush-interval:PT0.1S}")
+    public void flush() {
+        Map<String, Set<String>> keys;
+        Set<String> all;
+        synchronized (this) {
+            if (pendingKeys.isEmpty() && pendingAll.isEmpty()) {
+                return;
+            }
+            keys = pendingKeys;
+            all = pendingAll;
+            pendingKeys = new HashMap<>();
+            pendingAll = new LinkedHashSet<>();
+        }
+        Map<String, List<String>> keyLists = new LinkedHashMap<>();
+        keys.forEach((cacheName, cacheKeys) -> keyLists.put(cacheName, List.copyOf(cacheKeys)));
+        try {
+            rabbitTemplate.convertAndSend(exchange, "", new CacheInvalidation(InstanceId.get(), keyLists, List.copyOf(all)));
+            sent.increment();
+        } catch (Exception e) {
+            // Requeue for the next flush; merging keeps the backlog bounded by max-keys-per-cache
+            logger.warn("Broadcasting cache invalidations failed, retrying: {}", e.getMessage());
+            all.forEach(this::enqueueAll);
+            keys.forEach((cacheName, cacheKeys) -> cacheKeys.forEach(key -> enqueue(cacheName, key)));
+        }
+    }
+
+    @RabbitListener(queues = "#{cacheInvalidationQueue.name}")
+    public void onInvalidation(CacheInvalidation message) {
+        if (InstanceId.get().equals(message.getOrigin())) {
+            return;
+        }
+        received.increment();
+        Map<String, InvalidatableCache> registered = caches();
+        if (message.getAll() != null) {
+            for (String cacheName : message.getAll()) {
+                InvalidatableCache cache = registered.get(cacheName);
+                if (cache != null) {
+                    cache.invalidateAll();
+                }
+            }
+        }
+        if (message.getKeys() != null) {
+            message.getKeys().forEach((cacheName, keys) -> {
+                InvalidatableCache cache = registered.get(cacheName);
+                if (cache != null) {
+                    keys.forEach(cache::invalidateKey);
+                }
+            });
+        }
+    }
+
+    synchronized void enqueue(String cacheName, String key) {
+        if (pendingAll.contains(cacheName)) {
+            return;
+        }
+        Set<String> keys = pendingKeys.computeIfAbsent(cacheName, name -> new LinkedHashSet<>());
+        keys.add(key);
+        if (keys.size() > maxKeysPerCache) {
+            enqueueAll(cacheName);
+        }
+    }
+
+    synchronized void enqueueAll(String cacheName) {
+        pendingKeys.remove(cacheName);
+        pendingAll.add(cacheName);
+    }
+
+    private Map<String, InvalidatableCache> caches() {
+        Map<String, InvalidatableCache> registered = caches;
+        if (registered == null) {
+            registered = cacheProvider.orderedStream()
+                    .collect(Collectors.toMap(InvalidatableCache::cacheName, Function.identity()));
+            caches = registered;
+            logger.info("Cache invalidation bus: caches registered {}", registered.keySet());
+        }
+        return registered;
+    }
+}
@@ -0,0 +1,18 @@
+package com.saasautomationbuilder.backend.cache;
+
+/**
+ * An in-process cache that other instances can invalidate through the {@link CacheInvalidationBus}.
+ * Beans implementing this are registered with the bus under {@link #cacheName()}.
+ * <p>
+ * Both methods are called for messages from other instances and must only touch local state.
+ */
+public interface InvalidatableCache {
+
+    // Unique across the application; used in invalidation messages
+    String cacheName();
+
+    // Keys travel as strings; the cache parses them back into its own key type
+    void invalidateKey(String key);
+
+    void invalidateAll();
+}
@@ -0,0 +1,61 @@
+package com.saasautomationbuilder.backend.config;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.saasautomationbuilder.backend.execution.plan.WorkflowPlanCache;
+import com.saasautomationbuilder.backend.security.CredentialVault;
+import com.saasautomationbuilder.backend.security.EncryptionService;
+import com.saasautomationbuilder.backend.security.VerifiedTokenCache;
+import com.saasautomationbuilder.backend.service.UserService;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.function.Supplier;
+
+/**
+ * Application metrics, scraped through the Prometheus actuator endpoint (see SecurityConfig for its access rules).
+ * <p>
+ * HTTP and Spring Data repository timings come from Spring Boot's auto-configuration
+ * ({@code http.server.requests}, {@code spring.data.repository.invocations}); this adds {@code @Timed}
+ * support for the services and hit/miss counters for the in-process caches.
+ */
+@Configuration
+public class MetricsConfig {
+
+    // Makes @Timed on service classes/methods record timers
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    @Bean
+    public MeterBinder cacheMetrics(VerifiedTokenCache verifiedTokenCache, UserService userService, WorkflowPlanCache planCache,
+                                    EncryptionService encryptionService, CredentialVault credentialVault) {
+        return registry -> {
+            bindCacheStats(registry, "verified-tokens", verifiedTokenCache::stats);
+            bindCacheStats(registry, "users", userService::cacheStats);
+            bindCacheStats(registry, "workflow-plans", planCache::stats);
+            bindCacheStats(registry, "data-keys", encryptionService::dataKeyCacheStats);
+            bindCacheStats(registry, "credentials", credentialVault::stats);
+        };
+    }
+
+    // Same meter names as Micrometer's Caffeine binder, so standard cache dashboards work
+    private static void bindCacheStats(MeterRegistry registry, String cacheName, Supplier<CacheStats> stats) {
+        FunctionCounter.builder("cache.gets", stats, s -> s.get().hitCount())
+                .tag("cache", cacheName).tag("result", "hit")
+                .description("The number of times cache lookup methods have returned a cached value")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", stats, s -> s.get().missCount())
+                .tag("cache", cacheName).tag("result", "miss")
+                .description("The number of times cache lookup methods have returned an uncached (newly loaded) value")
+                .register(registry);
+        FunctionCounter.builder("cache.evictions", stats, s -> s.get().evictionCount())
+                .tag("cache", cacheName)
+                .description("The number of times the cache was evicted")
+                .register(registry);
+    }
+}
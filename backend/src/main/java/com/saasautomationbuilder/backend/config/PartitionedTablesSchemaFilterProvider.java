@@ -0,0 +1,61 @@
+package com.saasautomationbuilder.backend.config;
+
+import org.hibernate.boot.model.relational.Namespace;
+import org.hibernate.boot.model.relational.Sequence;
+import org.hibernate.mapping.Table;
+import org.hibernate.tool.schema.spi.SchemaFilter;
+import org.hibernate.tool.schema.spi.SchemaFilterProvider;
+
+import java.util.Set;
+
+/**
+ * Keeps {@code ddl-auto=update} away from the partitioned run history tables, which Hibernate cannot
+ * create as partitioned tables; WorkflowRunPartitionManager owns their DDL. create/create-drop
+ * (used by the tests) are unaffected and create them as plain tables.
+ */
+public class PartitionedTablesSchemaFilterProvider implements SchemaFilterProvider {
+
+    private static final Set<String> PARTITIONED_TABLES = Set.of("workflow_runs", "workflow_run_steps");
+
+    private static final SchemaFilter MIGRATE_FILTER = new SchemaFilter() {
+        @Override
+        public boolean includeNamespace(Namespace namespace) {
+            return true;
+        }
+
+        @Override
+        public boolean includeTable(Table table) {
+            return !PARTITIONED_TABLES.contains(table.getName());
+        }
+
+        @Override
+        public boolean includeSequence(Sequence sequence) {
+            return true;
+        }
+    };
+
+    @Override
+    public SchemaFilter getCreateFilter() {
+        return SchemaFilter.ALL;
+    }
+
+    @Override
+    public SchemaFilter getDropFilter() {
+        return SchemaFilter.ALL;
+    }
+
+    @Override
+    public SchemaFilter getTruncatorFilter() {
+        return SchemaFilter.ALL;
+    }
+
+    @Override
+    public SchemaFilter getMigrateFilter() {
+        return MIGRATE_FILTER;
+    }
+
+    @Override
+    public SchemaFilter getValidateFilter() {
+        return MIGRATE_FILTER;
+    }
+}
@@ -0,0 +1,107 @@
+package com.saasautomationbuilder.backend.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.DirectExchange;
+import org.springframework.amqp.core.FanoutExchange;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Queues and exchanges for workflow execution, for change events relayed from the outbox and for cache invalidation.
+// Listener concurrency and prefetch are configured via spring.rabbitmq.listener.simple.* in application.properties.
+@Configuration
+public class RabbitConfig {
+
+    @Value("${app.execution.exchange:workflow.triggers}")
+    private String triggerExchange;
+
+    @Value("${app.execution.queue:workflow.trigger-events}")
+    private String triggerQueue;
+
+    @Value("${app.outbox.exchange:app.changes}")
+    private String changeExchange;
+
+    @Value("${app.cache.invalidation.exchange:app.cache-invalidation}")
+    private String cacheInvalidationExchange;
+
+    @Bean
+    public DirectExchange workflowTriggerExchange() {
+        return new DirectExchange(triggerExchange, true, false);
+    }
+
+    @Bean
+    public DirectExchange workflowTriggerDeadLetterExchange() {
+        return new DirectExchange(triggerExchange + ".dlx", true, false);
+    }
+
+    @Bean
+    public Queue workflowTriggerQueue() {
+        return QueueBuilder.durable(triggerQueue)
+                .deadLetterExchange(triggerExchange + ".dlx")
+                .deadLetterRoutingKey(triggerQueue + ".dlq")
+                .build();
+    }
+
+    // Rejected (failed or malformed) trigger events end up here for inspection
+    @Bean
+    public Queue workflowTriggerDeadLetterQueue() {
+        return QueueBuilder.durable(triggerQueue + ".dlq").build();
+    }
+
+    @Bean
+    public Binding workflowTriggerBinding() {
+        return BindingBuilder.bind(workflowTriggerQueue()).to(workflowTriggerExchange()).with(triggerQueue);
+    }
+
+    @Bean
+    public Binding workflowTriggerDeadLetterBinding() {
+        return BindingBuilder.bind(workflowTriggerDeadLetterQueue()).to(workflowTriggerDeadLetterExchange()).with(triggerQueue + ".dlq");
+    }
+
+    // Change events, routed by "<aggregate type>.<event type>"
+    @Bean
+    public TopicExchange changeEventExchange() {
+        return new TopicExchange(changeExchange, true, false);
+    }
+
+    // One auto-deleted queue per instance, so every instance sees every change
+    @Bean
+    public Queue changeEventQueue() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    public Binding workflowChangeEventBinding() {
+        return BindingBuilder.bind(changeEventQueue()).to(changeEventExchange()).with("workflow.#");
+    }
+
+    // Cache invalidations go to every instance, each through its own auto-deleted queue
+    @Bean
+    public FanoutExchange cacheInvalidationFanout() {
+        return new FanoutExchange(cacheInvalidationExchange, true, false);
+    }
+
+    @Bean
+    public Queue cacheInvalidationQueue() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    public Binding cacheInvalidationBinding() {
+        return BindingBuilder.bind(cacheInvalidationQueue()).to(cacheInvalidationFanout());
+    }
+
+    // JSON messages (picked up by both RabbitTemplate and listener containers)
+    @Bean
+    public MessageConverter rabbitMessageConverter(ObjectMapper objectMapper) {
+        return new Jackson2JsonMessageConverter(objectMapper);
+    }
+}
@@ -1,14 +1,22 @@
 package com.saasautomationbuilder.backend.config;
 
 import com.saasautomationbuilder.backend.security.FirebaseTokenFilter;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer; // For CSRF disabling
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 // Optional import if using WebSecurityCustomizer
@@ -22,7 +30,44 @@ public class SecurityConfig {
 
     private final FirebaseTokenFilter firebaseTokenFilter;
 
+    @Value("${app.metrics.username:prometheus}")
+    private String metricsUsername;
+
+    @Value("${app.metrics.password:}")
+    private String metricsPassword;
+
+    /**
+     * Actuator endpoints, checked before the API chain. Health is public; everything else (the Prometheus
+     * scrape endpoint) requires HTTP Basic with the dedicated metrics account, never a Firebase user token.
+     * With no metrics password configured, the other endpoints are closed entirely.
+     */
     @Bean
+    @Order(1)
+    public SecurityFilterChain actuatorFilterChain(HttpSecurity http) throws Exception {
+        http
+            .securityMatcher(EndpointRequest.toAnyEndpoint())
+            .csrf(AbstractHttpConfigurer::disable)
+            .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            .authorizeHttpRequests(authz -> {
+                authz.requestMatchers(EndpointRequest.to(HealthEndpoint.class)).permitAll();
+                if (metricsPassword.isBlank()) {
+                    authz.anyRequest().denyAll();
+                } else {
+                    authz.anyRequest().hasRole("METRICS");
+                }
+            })
+            .httpBasic(Customizer.withDefaults())
+            // Local to this chain, so the API chain stays token-only
+            .userDetailsService(new InMemoryUserDetailsManager(User.withUsername(metricsUsername)
+                    .password("{noop}" + metricsPassword)
+                    .roles("METRICS")
+                    .build()));
+
+        return http.build();
+    }
+
+    @Bean
+    @Order(2)
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http
             // Disable CSRF (Cross-Site Request Forgery) as we use token-based auth (stateless)
@@ -36,8 +81,11 @@ public class SecurityConfig {
 
             // Configure authorization rules for HTTP requests
             .authorizeHttpRequests(authz -> authz
-                // Define public endpoints here if needed (e.g., actuator health)
-                // .requestMatchers("/actuator/health").permitAll()
+                // Async dispatches (streamed/deferred responses) complete a request that was already authorized
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
+                // Inbound provider webhooks authenticate via the token in their URL
+                .requestMatchers("/api/v1/hooks/**").permitAll()
 
                 // Secure all other API endpoints under /api/**
                 .requestMatchers("/api/**").authenticated()
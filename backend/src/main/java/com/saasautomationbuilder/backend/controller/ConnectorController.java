@@ -1,16 +1,20 @@
 package com.saasautomationbuilder.backend.controller;
 
-import com.saasautomationbuilder.backend.domain.User;
-import com.saasautomationbuilder.backend.dto.ConnectorDefinitionDto;
 import com.saasautomationbuilder.backend.dto.CreateUserConnectionRequestDto;
 import com.saasautomationbuilder.backend.dto.UserConnectionDto;
+import com.saasautomationbuilder.backend.dto.WebhookTokenDto;
+import com.saasautomationbuilder.backend.security.UserPrincipal;
+import com.saasautomationbuilder.backend.service.ConnectorCatalog;
 import com.saasautomationbuilder.backend.service.ConnectorService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -23,16 +27,22 @@ public class ConnectorController {
 
     // --- Connector Definitions ---
 
+    // Served as pre-serialized JSON with a strong ETag; If-None-Match with the current ETag yields 304
     @GetMapping("/connector-definitions")
-    public ResponseEntity<List<ConnectorDefinitionDto>> getAvailableConnectors() {
-        List<ConnectorDefinitionDto> connectors = connectorService.getAvailableConnectors();
-        return ResponseEntity.ok(connectors);
+    public ResponseEntity<byte[]> getAvailableConnectors(WebRequest webRequest) {
+        return catalogResponse(connectorService.getAvailableConnectorsJson(), webRequest);
     }
 
     @GetMapping("/connector-definitions/{key}")
-    public ResponseEntity<ConnectorDefinitionDto> getConnectorDefinitionByKey(@PathVariable String key) {
-        ConnectorDefinitionDto definition = connectorService.getConnectorDefinitionByKey(key);
-        return ResponseEntity.ok(definition);
+    public ResponseEntity<byte[]> getConnectorDefinitionByKey(@PathVariable String key, WebRequest webRequest) {
+        return catalogResponse(connectorService.getConnectorDefinitionJson(key), webRequest);
+    }
+
+    @GetMapping("/connector-definitions/{key}/webhook-token")
+    public ResponseEntity<WebhookTokenDto> getWebhookToken(@PathVariable String key, Authentication authentication) {
+        UserPrincipal currentUser = (UserPrincipal) authentication.getPrincipal();
+        WebhookTokenDto webhookToken = connectorService.getWebhookToken(key, currentUser);
+        return ResponseEntity.ok(webhookToken);
     }
     
     // TODO: Add admin endpoint to create definitions if needed
@@ -41,7 +51,7 @@ public class ConnectorController {
 
     @GetMapping("/user-connections")
     public ResponseEntity<List<UserConnectionDto>> getUserConnections(Authentication authentication) {
-        User currentUser = (User) authentication.getPrincipal();
+        UserPrincipal currentUser = (UserPrincipal) authentication.getPrincipal();
         List<UserConnectionDto> connections = connectorService.getUserConnections(currentUser);
         return ResponseEntity.ok(connections);
     }
@@ -50,7 +60,7 @@ public class ConnectorController {
     public ResponseEntity<UserConnectionDto> createUserConnection(
             @Valid @RequestBody CreateUserConnectionRequestDto requestDto,
             Authentication authentication) {
-        User currentUser = (User) authentication.getPrincipal();
+        UserPrincipal currentUser = (UserPrincipal) authentication.getPrincipal();
         UserConnectionDto createdConnection = connectorService.createUserConnection(requestDto, currentUser);
         return ResponseEntity.status(HttpStatus.CREATED).body(createdConnection);
     }
@@ -59,8 +69,19 @@ public class ConnectorController {
     public ResponseEntity<Void> deleteUserConnection(
             @PathVariable Long connectionId,
             Authentication authentication) {
-        User currentUser = (User) authentication.getPrincipal();
+        UserPrincipal currentUser = (UserPrincipal) authentication.getPrincipal();
         connectorService.deleteUserConnection(connectionId, currentUser);
         return ResponseEntity.noContent().build();
     }
+
+    private ResponseEntity<byte[]> catalogResponse(ConnectorCatalog.Entry entry, WebRequest webRequest) {
+        if (webRequest.checkNotModified(entry.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(entry.etag()).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(entry.etag())
+                .cacheControl(CacheControl.noCache().cachePrivate()) // Clients revalidate with If-None-Match
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(entry.json());
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,54 @@
+package com.saasautomationbuilder.backend.controller;
+
+import com.saasautomationbuilder.backend.security.UserPrincipal;
+import com.saasautomationbuilder.backend.service.ExportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.zip.GZIPOutputStream;
+
+@RestController
+@RequestMapping("/api/v1/export")
+@RequiredArgsConstructor
+public class ExportController {
+
+    private final ExportService exportService;
+
+    // GET /api/v1/export?gzip=true
+    // Streams all of the current user's workflows and connections as NDJSON (optionally gzip-encoded)
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportCurrentUser(
+            @RequestParam(defaultValue = "false") boolean gzip,
+            Authentication authentication) {
+        Long userId = ((UserPrincipal) authentication.getPrincipal()).getId();
+
+        // Runs on an async thread after this method returns; the service opens its own transaction
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                GZIPOutputStream compressed = new GZIPOutputStream(out, 64 * 1024);
+                exportService.exportUserData(userId, compressed);
+                compressed.finish();
+            } else {
+                exportService.exportUserData(userId, out);
+            }
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename("export-" + userId + ".ndjson").build().toString());
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+}
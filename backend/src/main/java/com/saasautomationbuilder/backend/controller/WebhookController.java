@@ -0,0 +1,38 @@
+package com.saasautomationbuilder.backend.controller;
+
+import com.saasautomationbuilder.backend.service.WebhookIngestionService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+// Inbound webhooks from SaaS providers. Public (no Firebase token); authenticated by the URL token.
+@RestController
+@RequestMapping("/api/v1/hooks")
+@RequiredArgsConstructor
+public class WebhookController {
+
+    private final WebhookIngestionService webhookIngestionService;
+
+    // POST /api/v1/hooks/{connectorKey}/{token}
+    // Responds 202 once the broker has confirmed the trigger events (async, no request thread is held),
+    // 429 when the outbound buffer is full and 503 if publishing fails.
+    // A redelivery (same X-Event-Id as an accepted event) is answered 202 without firing again.
+    @PostMapping("/{connectorKey}/{token}")
+    public CompletableFuture<ResponseEntity<Void>> receiveWebhook(
+            @PathVariable String connectorKey,
+            @PathVariable String token,
+            @RequestParam(name = "event", required = false) String eventParam,
+            @RequestHeader(name = "X-Event-Type", required = false) String eventHeader,
+            @RequestHeader(name = "X-Event-Id", required = false) String eventId,
+            @RequestHeader(name = "X-Event-Timestamp", required = false) String eventTimestamp,
+            @RequestBody(required = false) Map<String, Object> payload) {
+        String eventType = eventParam != null ? eventParam : eventHeader;
+        return webhookIngestionService.ingest(connectorKey, token, eventType, eventId, eventTimestamp, payload)
+                .thenApply(confirmed -> ResponseEntity.accepted().<Void>build())
+                .exceptionally(e -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build());
+    }
+}
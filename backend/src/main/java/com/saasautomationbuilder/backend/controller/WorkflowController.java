@@ -1,17 +1,29 @@
 package com.saasautomationbuilder.backend.controller;
 
-import com.saasautomationbuilder.backend.domain.User;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.saasautomationbuilder.backend.dto.CreateWorkflowRequestDto;
 import com.saasautomationbuilder.backend.dto.UpdateWorkflowRequestDto;
 import com.saasautomationbuilder.backend.dto.WorkflowDto;
+import com.saasautomationbuilder.backend.dto.WorkflowImportResultDto;
+import com.saasautomationbuilder.backend.dto.WorkflowRunPageDto;
+import com.saasautomationbuilder.backend.dto.WorkflowRunStepDto;
+import com.saasautomationbuilder.backend.dto.WorkflowSummaryPageDto;
+import com.saasautomationbuilder.backend.exception.BadRequestException;
+import com.saasautomationbuilder.backend.security.UserPrincipal;
+import com.saasautomationbuilder.backend.service.WorkflowImportService;
+import com.saasautomationbuilder.backend.service.WorkflowRunService;
 import com.saasautomationbuilder.backend.service.WorkflowService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -19,14 +31,21 @@ import java.util.List;
 @RequiredArgsConstructor
 public class WorkflowController {
 
+    public static final String MERGE_PATCH_JSON_VALUE = "application/merge-patch+json";
+
     private final WorkflowService workflowService;
+    private final WorkflowRunService workflowRunService;
+    private final WorkflowImportService workflowImportService;
 
-    // GET /api/v1/workflows
-    // Get workflows for the currently authenticated user
+    // GET /api/v1/workflows?cursor=&limit=
+    // Get a page of workflow summaries (no trigger/action configs) for the currently authenticated user
     @GetMapping
-    public ResponseEntity<List<WorkflowDto>> getWorkflowsForCurrentUser(Authentication authentication) {
-        User currentUser = (User) authentication.getPrincipal(); // Get User object from principal
-        List<WorkflowDto> workflows = workflowService.getWorkflowsByUserId(currentUser.getId());
+    public ResponseEntity<WorkflowSummaryPageDto> getWorkflowsForCurrentUser(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            Authentication authentication) {
+        UserPrincipal currentUser = (UserPrincipal) authentication.getPrincipal(); // Get the authenticated user from the principal
+        WorkflowSummaryPageDto workflows = workflowService.getWorkflowSummaries(currentUser.getId(), cursor, limit);
         return ResponseEntity.ok(workflows);
     }
 
@@ -36,19 +55,29 @@ public class WorkflowController {
     public ResponseEntity<WorkflowDto> createWorkflow(
             @Valid @RequestBody CreateWorkflowRequestDto requestDto,
             Authentication authentication) {
-        User currentUser = (User) authentication.getPrincipal();
-        WorkflowDto createdWorkflow = workflowService.createWorkflow(requestDto, currentUser); // Pass User object
+        UserPrincipal currentUser = (UserPrincipal) authentication.getPrincipal();
+        WorkflowDto createdWorkflow = workflowService.createWorkflow(requestDto, currentUser); // Pass the authenticated user
         return ResponseEntity.status(HttpStatus.CREATED).body(createdWorkflow);
     }
 
+    // POST /api/v1/workflows/import
+    // Bulk create from a JSON array or NDJSON (one workflow per line); returns a result per item
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<WorkflowImportResultDto> importWorkflows(
+            InputStream body,
+            Authentication authentication) throws IOException {
+        UserPrincipal currentUser = (UserPrincipal) authentication.getPrincipal();
+        return ResponseEntity.ok(workflowImportService.importWorkflows(body, currentUser));
+    }
+
     // GET /api/v1/workflows/{workflowId}
     @GetMapping("/{workflowId}")
     public ResponseEntity<WorkflowDto> getWorkflowById(
             @PathVariable Long workflowId,
             Authentication authentication) {
-        User currentUser = (User) authentication.getPrincipal();
+        UserPrincipal currentUser = (UserPrincipal) authentication.getPrincipal();
         WorkflowDto workflow = workflowService.getWorkflowById(workflowId, currentUser);
-        return ResponseEntity.ok(workflow);
+        return ResponseEntity.ok().eTag(eTag(workflow)).body(workflow);
     }
 
     // PUT /api/v1/workflows/{workflowId}
@@ -57,9 +86,23 @@ public class WorkflowController {
             @PathVariable Long workflowId,
             @Valid @RequestBody UpdateWorkflowRequestDto requestDto,
             Authentication authentication) {
-        User currentUser = (User) authentication.getPrincipal();
+        UserPrincipal currentUser = (UserPrincipal) authentication.getPrincipal();
         WorkflowDto updatedWorkflow = workflowService.updateWorkflow(workflowId, requestDto, currentUser);
-        return ResponseEntity.ok(updatedWorkflow);
+        return ResponseEntity.ok().eTag(eTag(updatedWorkflow)).body(updatedWorkflow);
+    }
+
+    // PATCH /api/v1/workflows/{workflowId}
+    // JSON Merge Patch of name/description/enabled/triggerConfig/actionConfig; writes only the changed columns.
+    // With If-Match (the ETag of a previous response) the patch is rejected with 412 if someone else saved in between.
+    @PatchMapping(value = "/{workflowId}", consumes = {MERGE_PATCH_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<WorkflowDto> patchWorkflow(
+            @PathVariable Long workflowId,
+            @RequestBody JsonNode patch,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            Authentication authentication) {
+        UserPrincipal currentUser = (UserPrincipal) authentication.getPrincipal();
+        WorkflowDto patchedWorkflow = workflowService.patchWorkflow(workflowId, patch, expectedVersion(ifMatch), currentUser);
+        return ResponseEntity.ok().eTag(eTag(patchedWorkflow)).body(patchedWorkflow);
     }
 
     // DELETE /api/v1/workflows/{workflowId}
@@ -67,8 +110,50 @@ public class WorkflowController {
     public ResponseEntity<Void> deleteWorkflow(
             @PathVariable Long workflowId,
             Authentication authentication) {
-        User currentUser = (User) authentication.getPrincipal();
+        UserPrincipal currentUser = (UserPrincipal) authentication.getPrincipal();
         workflowService.deleteWorkflow(workflowId, currentUser);
         return ResponseEntity.noContent().build();
     }
-} 
\ No newline at end of file
+
+    // GET /api/v1/workflows/{workflowId}/runs?cursor=&limit=
+    // Run history of the workflow, newest first
+    @GetMapping("/{workflowId}/runs")
+    public ResponseEntity<WorkflowRunPageDto> getWorkflowRuns(
+            @PathVariable Long workflowId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            Authentication authentication) {
+        UserPrincipal currentUser = (UserPrincipal) authentication.getPrincipal();
+        return ResponseEntity.ok(workflowRunService.getRuns(workflowId, currentUser, cursor, limit));
+    }
+
+    // GET /api/v1/workflows/{workflowId}/runs/{runId}/steps
+    @GetMapping("/{workflowId}/runs/{runId}/steps")
+    public ResponseEntity<List<WorkflowRunStepDto>> getWorkflowRunSteps(
+            @PathVariable Long workflowId,
+            @PathVariable Long runId,
+            Authentication authentication) {
+        UserPrincipal currentUser = (UserPrincipal) authentication.getPrincipal();
+        return ResponseEntity.ok(workflowRunService.getRunSteps(workflowId, runId, currentUser));
+    }
+
+    private static String eTag(WorkflowDto workflow) {
+        return "\"" + workflow.getVersion() + "\"";
+    }
+
+    // Accepts "3", "\"3\"" and W/"3"; "*" (any version) skips the check
+    private static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String value = ifMatch.trim();
+        if (value.startsWith("W/")) {
+            value = value.substring(2);
+        }
+        try {
+            return Long.parseLong(value.replace("\"", ""));
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("If-Match must be an ETag returned for this workflow.");
+        }
+    }
+}
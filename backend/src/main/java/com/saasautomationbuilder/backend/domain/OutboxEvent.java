@@ -0,0 +1,44 @@
+package com.saasautomationbuilder.backend.domain;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.Instant;
+
+/**
+ * A change event waiting to be published, written in the same transaction as the change it describes
+ * (transactional outbox). OutboxRelay publishes and deletes the rows; the table is normally (close to) empty.
+ */
+@Entity
+@Table(name = "outbox_events")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id; // Also the publishing order
+
+    @Column(nullable = false, length = 50)
+    private String aggregateType; // ChangeEvent.WORKFLOW, ChangeEvent.CONNECTION
+
+    @Column(nullable = false)
+    private Long aggregateId;
+
+    @Column(nullable = false, length = 50)
+    private String eventType; // ChangeEvent.SAVED, ChangeEvent.DELETED
+
+    @Column
+    private Long userId; // Owner of the aggregate
+
+    @Column(nullable = false, length = 36)
+    private String origin; // InstanceId of the instance that made the change
+
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private Instant createdAt;
+}
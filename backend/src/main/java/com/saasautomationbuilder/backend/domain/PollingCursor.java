@@ -0,0 +1,51 @@
+package com.saasautomationbuilder.backend.domain;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.Instant;
+
+/**
+ * Where a polling trigger stopped reading its source, shared by all workflows polling the same thing
+ * (connector, connection, event and options; see PollingEngine). Holds the source's cursor and ETag plus
+ * a bounded set of the latest item ids, so a restart or failover resumes without re-firing old items.
+ */
+@Entity
+@Table(name = "polling_cursors")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PollingCursor {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, unique = true, length = 64)
+    private String pollKey; // hex SHA-256 of the poll definition
+
+    @Column(nullable = false)
+    private String connectorKey;
+
+    @Column
+    private Long connectionId; // Nullable: polls of public sources are not bound to a connection
+
+    @Column(length = 2048)
+    private String cursor; // Source-specific: since-timestamp, sync/page token, ...
+
+    @Column(length = 512)
+    private String etag;
+
+    @Column(length = 8192)
+    private byte[] seenItems; // SeenItems fingerprints, oldest first
+
+    @Column
+    private Instant lastPolledAt;
+
+    @UpdateTimestamp
+    @Column(nullable = false)
+    private Instant updatedAt;
+}
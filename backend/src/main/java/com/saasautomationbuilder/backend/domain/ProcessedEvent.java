@@ -0,0 +1,36 @@
+package com.saasautomationbuilder.backend.domain;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Durable record of an inbound provider event, used by EventDeduplicator only for the events its in-memory
+ * window cannot vouch for (older than the window, or arriving while the window is full). Rows are purged
+ * once they expire.
+ */
+@Entity
+@Table(name = "processed_events",
+    uniqueConstraints = @UniqueConstraint(name = "uk_processed_events_key", columnNames = {"connector_key", "event_id"}),
+    indexes = @Index(name = "idx_processed_events_expires", columnList = "expires_at"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProcessedEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 100)
+    private String connectorKey;
+
+    @Column(nullable = false)
+    private String eventId; // Provider event id (scoped by the caller, e.g., per user); hashed if longer than the column
+
+    @Column(nullable = false)
+    private Instant expiresAt;
+}
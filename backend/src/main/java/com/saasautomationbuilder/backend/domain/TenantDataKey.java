@@ -0,0 +1,38 @@
+package com.saasautomationbuilder.backend.domain;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.Instant;
+
+/**
+ * A tenant's data encryption key, stored only wrapped (encrypted) by the master key it names.
+ * Credentials of the tenant's connections are encrypted with the unwrapped key (see EncryptionService).
+ */
+@Entity
+@Table(name = "tenant_data_keys")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TenantDataKey {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, unique = true)
+    private Long userId; // One active key per tenant
+
+    @Column(nullable = false, length = 100)
+    private String masterKeyId; // Which master key wrapped it (for rotation)
+
+    @Column(nullable = false, length = 512)
+    private String wrappedKey; // base64(iv || AES-GCM(master, dataKey))
+
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private Instant createdAt;
+}
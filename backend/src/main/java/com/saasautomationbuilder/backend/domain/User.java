@@ -29,6 +29,10 @@ public class User {
     @Column
     private String displayName; // Optional
 
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private PlanTier planTier; // null means FREE; sets the user's share of workflow execution capacity
+
     @CreationTimestamp
     @Column(nullable = false, updatable = false)
     private Instant createdAt;
@@ -38,4 +42,9 @@ public class User {
     private Instant updatedAt;
 
     // Potential future relationships, e.g., @OneToMany(mappedBy = "user") List<Workflow> workflows;
+
+    // Subscription plan (weights per tier: app.execution.fair-scheduling.weights.*)
+    public enum PlanTier {
+        FREE, PRO, ENTERPRISE
+    }
 } 
\ No newline at end of file
@@ -10,7 +10,10 @@ import org.hibernate.annotations.UpdateTimestamp;
 import java.time.Instant;
 
 @Entity
-@Table(name = "user_connections")
+@Table(name = "user_connections", indexes = {
+    // Lets the OAuth token refresher scan connections by expiry
+    @Index(name = "idx_user_connections_expires_at", columnList = "expires_at, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -24,7 +27,7 @@ public class UserConnection {
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
-    @ManyToOne(fetch = FetchType.EAGER) // Eager fetch definition details
+    @ManyToOne(fetch = FetchType.LAZY) // Listing uses a DTO projection; avoid dragging the schema LOB along
     @JoinColumn(name = "connector_definition_id", nullable = false)
     private ConnectorDefinition connectorDefinition;
 
@@ -5,12 +5,21 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.type.SqlTypes;
 
 import java.time.Instant;
 
 @Entity
-@Table(name = "workflows")
+@Table(name = "workflows", indexes = {
+    // Supports keyset pagination of a user's workflows by (updatedAt, id)
+    @Index(name = "idx_workflows_user_updated", columnList = "user_id, updated_at, id"),
+    // Lets the time trigger scheduler pick up workflows changed on other instances
+    @Index(name = "idx_workflows_updated", columnList = "updated_at, id")
+})
+@DynamicUpdate // UPDATEs only write changed columns, so toggling `enabled` does not rewrite both TEXT configs
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -29,12 +38,13 @@ public class Workflow {
     @Column(nullable = false)
     private boolean enabled = false; // Default to disabled
 
-    @Lob // Use Lob for potentially large text fields (e.g., JSON)
-    @Column(nullable = false, columnDefinition = "TEXT")
+    // jsonb on PostgreSQL, GIN-indexed so configs can be searched in the DB (see WorkflowConfigQueries)
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(nullable = false)
     private String triggerConfig; // Store trigger configuration (e.g., as JSON)
 
-    @Lob
-    @Column(nullable = false, columnDefinition = "TEXT")
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(nullable = false)
     private String actionConfig; // Store action configuration (e.g., as JSON)
 
     @ManyToOne(fetch = FetchType.LAZY) // Lazy fetch user unless needed
@@ -48,4 +58,9 @@ public class Workflow {
     @UpdateTimestamp
     @Column(nullable = false)
     private Instant updatedAt;
+
+    // Optimistic lock: concurrent editors get a 409 instead of silently overwriting each other
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private long version;
 } 
\ No newline at end of file
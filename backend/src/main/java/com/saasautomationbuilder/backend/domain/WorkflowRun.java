@@ -0,0 +1,63 @@
+package com.saasautomationbuilder.backend.domain;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * One execution of a workflow (append-only).
+ * <p>
+ * Ids come from a pooled sequence (50 per round trip) instead of IDENTITY so Hibernate can batch the inserts.
+ * On PostgreSQL the table is range-partitioned by month on startedAt (see WorkflowRunPartitionManager),
+ * which is why it references the workflow by id only and has no foreign keys.
+ */
+@Entity
+@Table(name = "workflow_runs", indexes = {
+    // Keyset pagination of a workflow's runs by (startedAt, id)
+    @Index(name = "idx_workflow_runs_workflow_started", columnList = "workflow_id, started_at, id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorkflowRun {
+
+    public enum RunStatus {
+        SUCCEEDED,
+        FAILED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "workflow_runs_seq")
+    @SequenceGenerator(name = "workflow_runs_seq", sequenceName = "workflow_runs_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "workflow_id", nullable = false)
+    private Long workflowId;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    private String eventId; // TriggerEvent id, for correlating with logs and redeliveries
+
+    @Column(length = 50)
+    private String source; // webhook, schedule, manual, ...
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private RunStatus status;
+
+    @Column(name = "started_at", nullable = false)
+    private Instant startedAt;
+
+    @Column(nullable = false)
+    private Instant finishedAt;
+
+    @Column(nullable = false)
+    private long durationMicros;
+
+    @Column(length = 2000)
+    private String error; // Failure message of the failed step, if any
+}
@@ -0,0 +1,49 @@
+package com.saasautomationbuilder.backend.domain;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Outcome of one action of a {@link WorkflowRun} (append-only, pooled-sequence ids, partitioned by startedAt
+ * like the runs). Steps after a failed one did not run and have no row.
+ */
+@Entity
+@Table(name = "workflow_run_steps", indexes = {
+    @Index(name = "idx_workflow_run_steps_run", columnList = "run_id, step_index")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorkflowRunStep {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "workflow_run_steps_seq")
+    @SequenceGenerator(name = "workflow_run_steps_seq", sequenceName = "workflow_run_steps_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "run_id", nullable = false)
+    private Long runId;
+
+    @Column(name = "step_index", nullable = false)
+    private int stepIndex;
+
+    @Column(nullable = false, length = 100)
+    private String actionType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private WorkflowRun.RunStatus status;
+
+    @Column(name = "started_at", nullable = false)
+    private Instant startedAt;
+
+    @Column(nullable = false)
+    private long durationMicros;
+
+    @Column(length = 2000)
+    private String error;
+}
@@ -0,0 +1,14 @@
+package com.saasautomationbuilder.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One NDJSON line of a user data export: type is "workflow" (WorkflowDto) or "connection" (UserConnectionDto, no credentials)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExportRecordDto {
+    private String type;
+    private Object data;
+}
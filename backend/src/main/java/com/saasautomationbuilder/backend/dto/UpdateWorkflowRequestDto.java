@@ -19,4 +19,6 @@ public class UpdateWorkflowRequestDto {
     private String triggerConfig; // Can be null
 
     private String actionConfig; // Can be null
+
+    private Long version; // Version the client last saw; a mismatch is rejected with 409. Null skips the check
 } 
\ No newline at end of file
@@ -0,0 +1,15 @@
+package com.saasautomationbuilder.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Webhook URL details handed to the user to configure in the SaaS provider
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WebhookTokenDto {
+    private String connectorKey;
+    private String token;
+    private String path; // e.g., /api/v1/hooks/slack/{token}
+}
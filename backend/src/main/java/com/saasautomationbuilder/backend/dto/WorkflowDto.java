@@ -19,4 +19,5 @@ public class WorkflowDto {
     private Long userId; // Include owner ID
     private Instant createdAt;
     private Instant updatedAt;
+    private long version; // Send back as If-Match (PATCH) or "version" (PUT) to detect concurrent edits
 } 
\ No newline at end of file
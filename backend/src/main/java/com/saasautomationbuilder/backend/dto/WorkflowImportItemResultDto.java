@@ -0,0 +1,25 @@
+package com.saasautomationbuilder.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Outcome of one item of a bulk import, by its position in the request body
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorkflowImportItemResultDto {
+
+    public enum Status {
+        CREATED,
+        INVALID, // Failed validation, nothing written
+        FAILED   // Valid, but its batch could not be written
+    }
+
+    private int index;
+    private Status status;
+    private Long id; // Set when CREATED
+    private List<String> errors;
+}
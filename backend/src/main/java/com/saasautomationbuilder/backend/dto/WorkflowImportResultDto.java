@@ -0,0 +1,19 @@
+package com.saasautomationbuilder.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Summary and per-item results of a bulk import; error is set if the body could not be read to the end
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorkflowImportResultDto {
+    private int total;
+    private int created;
+    private int rejected;
+    private String error;
+    private List<WorkflowImportItemResultDto> items;
+}
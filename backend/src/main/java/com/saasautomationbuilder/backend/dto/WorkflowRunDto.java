@@ -0,0 +1,23 @@
+package com.saasautomationbuilder.backend.dto;
+
+import com.saasautomationbuilder.backend.domain.WorkflowRun;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorkflowRunDto {
+    private Long id;
+    private Long workflowId;
+    private String eventId;
+    private String source;
+    private WorkflowRun.RunStatus status;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private long durationMicros;
+    private String error;
+}
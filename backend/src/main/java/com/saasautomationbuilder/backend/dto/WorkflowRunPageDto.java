@@ -0,0 +1,16 @@
+package com.saasautomationbuilder.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// One page of a workflow's runs, newest first; pass nextCursor back as ?cursor= (null on the last page)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorkflowRunPageDto {
+    private List<WorkflowRunDto> items;
+    private String nextCursor;
+}
@@ -0,0 +1,20 @@
+package com.saasautomationbuilder.backend.dto;
+
+import com.saasautomationbuilder.backend.domain.WorkflowRun;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorkflowRunStepDto {
+    private int stepIndex;
+    private String actionType;
+    private WorkflowRun.RunStatus status;
+    private Instant startedAt;
+    private long durationMicros;
+    private String error;
+}
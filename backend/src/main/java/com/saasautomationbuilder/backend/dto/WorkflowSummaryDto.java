@@ -0,0 +1,21 @@
+package com.saasautomationbuilder.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+// List view of a workflow: everything except the trigger/action configs (served by GET /{workflowId})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorkflowSummaryDto {
+    private Long id;
+    private String name;
+    private String description;
+    private boolean enabled;
+    private Long userId;
+    private Instant createdAt;
+    private Instant updatedAt;
+}
@@ -0,0 +1,16 @@
+package com.saasautomationbuilder.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// One page of workflow summaries; pass nextCursor back as ?cursor= to get the next page (null on the last page)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorkflowSummaryPageDto {
+    private List<WorkflowSummaryDto> items;
+    private String nextCursor;
+}
@@ -0,0 +1,16 @@
+package com.saasautomationbuilder.backend.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// Encrypting or decrypting credentials failed (bad key material, tampered or foreign ciphertext)
+@ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
+public class EncryptionException extends RuntimeException {
+    public EncryptionException(String message) {
+        super(message);
+    }
+
+    public EncryptionException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,11 @@
+package com.saasautomationbuilder.backend.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST) // Map to 400 Bad Request HTTP status
+public class InvalidWorkflowConfigException extends RuntimeException {
+    public InvalidWorkflowConfigException(String message) {
+        super(message);
+    }
+}
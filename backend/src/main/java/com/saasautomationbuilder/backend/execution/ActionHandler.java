@@ -0,0 +1,22 @@
+package com.saasautomationbuilder.backend.execution;
+
+import com.saasautomationbuilder.backend.execution.plan.ActionStep;
+
+/**
+ * Executes one kind of workflow action (selected by the action's {@code "type"} field).
+ * Implementations are Spring beans and are picked up automatically by {@link WorkflowExecutor}.
+ */
+public interface ActionHandler {
+
+    // Action type this handler is responsible for, e.g., "log"
+    String getType();
+
+    /**
+     * Runs the action.
+     *
+     * @param event  The trigger event that started the workflow run.
+     * @param step   The compiled action from the workflow's plan.
+     * @throws Exception if the action fails; the remaining actions of the run are skipped.
+     */
+    void execute(TriggerEvent event, ActionStep step) throws Exception;
+}
@@ -0,0 +1,158 @@
+package com.saasautomationbuilder.backend.execution;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes trigger events to the execution queue in batches, waiting for publisher confirms once per batch.
+ * <p>
+ * Callers get a future that completes when the broker has acked their events. The outbound buffer is bounded:
+ * {@link #trySubmit(List)} returns null instead of queueing when it is full, so request threads never pile up
+ * behind a slow broker. Requires {@code spring.rabbitmq.publisher-confirm-type=simple}.
+ */
+@Component
+public class BatchingTriggerPublisher {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchingTriggerPublisher.class);
+
+    private final RabbitTemplate rabbitTemplate;
+    private final String exchange;
+    private final String routingKey;
+    private final int batchSize;
+    private final long lingerMillis;
+    private final long confirmTimeoutMillis;
+
+    private final Semaphore capacity; // One permit per buffered event
+    private final BlockingQueue<Pending> buffer = new LinkedBlockingQueue<>();
+    private volatile boolean running;
+    private Thread publisherThread;
+
+    public BatchingTriggerPublisher(RabbitTemplate rabbitTemplate,
+                                    @Value("${app.execution.exchange:workflow.triggers}") String exchange,
+                                    @Value("${app.execution.queue:workflow.trigger-events}") String routingKey,
+                                    @Value("${app.webhooks.buffer-capacity:10000}") int bufferCapacity,
+                                    @Value("${app.webhooks.batch-size:200}") int batchSize,
+                                    @Value("${app.webhooks.linger-ms:5}") long lingerMillis,
+                                    @Value("${app.webhooks.confirm-timeout-ms:5000}") long confirmTimeoutMillis) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.exchange = exchange;
+        this.routingKey = routingKey;
+        this.capacity = new Semaphore(bufferCapacity);
+        this.batchSize = batchSize;
+        this.lingerMillis = lingerMillis;
+        this.confirmTimeoutMillis = confirmTimeoutMillis;
+    }
+
+    /**
+     * Buffers the events for publishing.
+     *
+     * @return A future completed once the broker has confirmed all of the events,
+     *         or null if the buffer has no room for them (nothing is queued in that case).
+     */
+    public CompletableFuture<Void> trySubmit(List<TriggerEvent> events) {
+        if (events.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        if (!running || !capacity.tryAcquire(events.size())) {
+            return null;
+        }
+        List<CompletableFuture<Void>> confirms = new ArrayList<>(events.size());
+        for (TriggerEvent event : events) {
+            Pending pending = new Pending(event, new CompletableFuture<>());
+            confirms.add(pending.confirmed());
+            buffer.add(pending);
+        }
+        return confirms.size() == 1 ? confirms.get(0) : CompletableFuture.allOf(confirms.toArray(CompletableFuture[]::new));
+    }
+
+    public int buffered() {
+        return buffer.size();
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        publisherThread = new Thread(this::publishLoop, "trigger-batch-publisher");
+        publisherThread.setDaemon(true);
+        publisherThread.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        publisherThread.interrupt();
+        publisherThread.join(confirmTimeoutMillis);
+    }
+
+    private void publishLoop() {
+        List<Pending> batch = new ArrayList<>(batchSize);
+        while (running || !buffer.isEmpty()) {
+            try {
+                Pending first = buffer.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                // Give a burst a moment to fill the batch, then take whatever is there
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lingerMillis);
+                while (batch.size() < batchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    Pending next = remaining > 0 ? buffer.poll(remaining, TimeUnit.NANOSECONDS) : buffer.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                publish(batch);
+            } catch (InterruptedException e) {
+                // Shutting down: flush everything still buffered so no caller is left waiting
+                if (!running) {
+                    buffer.drainTo(batch);
+                    publish(batch);
+                    return;
+                }
+                publish(batch);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void publish(List<Pending> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            // One channel for the whole batch, one confirm round trip
+            rabbitTemplate.invoke(operations -> {
+                for (Pending pending : batch) {
+                    operations.convertAndSend(exchange, routingKey, pending.event());
+                }
+                operations.waitForConfirmsOrDie(confirmTimeoutMillis);
+                return null;
+            });
+            batch.forEach(pending -> pending.confirmed().complete(null));
+        } catch (Exception e) {
+            logger.error("Failed to publish batch of {} trigger events: {}", batch.size(), e.getMessage());
+            batch.forEach(pending -> pending.confirmed().completeExceptionally(e));
+        } finally {
+            capacity.release(batch.size());
+        }
+    }
+
+    private record Pending(TriggerEvent event, CompletableFuture<Void> confirmed) {
+    }
+}
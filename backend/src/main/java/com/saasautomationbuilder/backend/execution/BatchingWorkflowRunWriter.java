@@ -0,0 +1,152 @@
+package com.saasautomationbuilder.backend.execution;
+
+import com.saasautomationbuilder.backend.domain.WorkflowRun;
+import com.saasautomationbuilder.backend.domain.WorkflowRunStep;
+import com.saasautomationbuilder.backend.repository.WorkflowRunRepository;
+import com.saasautomationbuilder.backend.repository.WorkflowRunStepRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes run history asynchronously: executors hand runs to a bounded buffer and a single writer thread
+ * persists them in one transaction per batch, flushing when {@code batch-size} runs are buffered or
+ * {@code flush-interval-ms} after the first one arrived, whichever comes first.
+ * <p>
+ * Runs and steps use pooled-sequence ids, so with {@code hibernate.jdbc.batch_size} and {@code order_inserts}
+ * each batch becomes a few multi-row JDBC batches plus one sequence call per 50 rows. History is best effort:
+ * when the buffer is full or a batch fails to write, the runs are dropped and counted in {@code workflow.runs.dropped}.
+ */
+@Component
+public class BatchingWorkflowRunWriter implements WorkflowRunRecorder {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchingWorkflowRunWriter.class);
+
+    private final WorkflowRunRepository runRepository;
+    private final WorkflowRunStepRepository stepRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<PendingRun> buffer;
+    private final int batchSize;
+    private final long flushIntervalMillis;
+    private final Counter writtenRuns;
+    private final Counter droppedRuns;
+    private volatile boolean running;
+    private Thread writerThread;
+
+    public BatchingWorkflowRunWriter(WorkflowRunRepository runRepository,
+                                     WorkflowRunStepRepository stepRepository,
+                                     PlatformTransactionManager transactionManager,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${app.run-history.buffer-capacity:50000}") int bufferCapacity,
+                                     @Value("${app.run-history.batch-size:500}") int batchSize,
+                                     @Value("${app.run-history.flush-interval-ms:250}") long flushIntervalMillis) {
+        this.runRepository = runRepository;
+        this.stepRepository = stepRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.buffer = new ArrayBlockingQueue<>(bufferCapacity);
+        this.batchSize = batchSize;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.writtenRuns = Counter.builder("workflow.runs.written").register(meterRegistry);
+        this.droppedRuns = Counter.builder("workflow.runs.dropped").register(meterRegistry);
+    }
+
+    @Override
+    public void record(WorkflowRun run, List<WorkflowRunStep> steps) {
+        if (!running || !buffer.offer(new PendingRun(run, steps))) {
+            droppedRuns.increment();
+            logger.debug("Run history buffer full, dropping run of workflow {}", run.getWorkflowId());
+        }
+    }
+
+    public int buffered() {
+        return buffer.size();
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        writerThread = new Thread(this::writeLoop, "workflow-run-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        writerThread.interrupt();
+        writerThread.join(10_000);
+    }
+
+    private void writeLoop() {
+        List<PendingRun> batch = new ArrayList<>(batchSize);
+        while (running || !buffer.isEmpty()) {
+            try {
+                PendingRun first = buffer.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+                while (batch.size() < batchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    PendingRun next = remaining > 0 ? buffer.poll(remaining, TimeUnit.NANOSECONDS) : buffer.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                write(batch);
+            } catch (InterruptedException e) {
+                // Shutting down: write whatever is still buffered
+                if (!running) {
+                    buffer.drainTo(batch);
+                    write(batch);
+                    return;
+                }
+                write(batch);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<PendingRun> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                // Persisting assigns ids from the pooled sequence; the inserts are batched at flush
+                List<WorkflowRunStep> steps = new ArrayList<>();
+                for (PendingRun pending : batch) {
+                    runRepository.save(pending.run());
+                    for (WorkflowRunStep step : pending.steps()) {
+                        step.setRunId(pending.run().getId());
+                        steps.add(step);
+                    }
+                }
+                stepRepository.saveAll(steps);
+            });
+            writtenRuns.increment(batch.size());
+        } catch (Exception e) {
+            logger.error("Failed to write {} workflow runs: {}", batch.size(), e.getMessage());
+            droppedRuns.increment(batch.size());
+        }
+    }
+
+    private record PendingRun(WorkflowRun run, List<WorkflowRunStep> steps) {
+    }
+}
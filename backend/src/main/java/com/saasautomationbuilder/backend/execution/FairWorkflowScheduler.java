@@ -0,0 +1,281 @@
+package com.saasautomationbuilder.backend.execution;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Sits between the trigger queue and the workflow executors: keeps a queue per user (tenant) and hands work to a
+ * fixed pool of workers by deficit round-robin, so a tenant flooding the queue cannot starve the others.
+ * <p>
+ * Tenants with queued events take turns. At the start of its turn a tenant is credited {@code quantum} times its
+ * plan weight ({@link TenantWeights}), holding at most one such quantum of credit. Each dispatched run is charged
+ * the tenant's average run time up front and corrected by the measured time when it finishes, so capacity is
+ * shared by execution time rather than run count.
+ * A tenant keeps its turn while it has credit and stays below {@code max-concurrent-per-user} runs in flight.
+ * Idle tenants keep no credit, and a tenant's queue is bounded: {@link #submit} refuses events beyond
+ * {@code max-queued-per-user}, which the listener puts back on the broker.
+ */
+@Component
+public class FairWorkflowScheduler {
+
+    private static final double COST_SMOOTHING = 0.2; // weight of the latest run in the moving average
+
+    private final WorkflowExecutor workflowExecutor;
+    private final TenantWeights tenantWeights;
+    private final int workerCount;
+    private final int maxConcurrentPerTenant;
+    private final int maxQueuedPerTenant;
+    private final long quantumNanos;
+    private final Timer queueWait;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition workAvailable = lock.newCondition();
+    private final Map<Long, Tenant> tenants = new HashMap<>(); // tenants with queued or running events
+    private final ArrayDeque<Tenant> ring = new ArrayDeque<>(); // tenants with queued events, head has the turn
+    private final AtomicInteger queued = new AtomicInteger();
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running;
+
+    public FairWorkflowScheduler(WorkflowExecutor workflowExecutor,
+                                 TenantWeights tenantWeights,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${app.execution.workers:16}") int workerCount,
+                                 @Value("${app.execution.max-concurrent-per-user:4}") int maxConcurrentPerTenant,
+                                 @Value("${app.execution.fair-scheduling.max-queued-per-user:200}") int maxQueuedPerTenant,
+                                 @Value("${app.execution.fair-scheduling.quantum:PT0.01S}") Duration quantum) {
+        this.workflowExecutor = workflowExecutor;
+        this.tenantWeights = tenantWeights;
+        this.workerCount = workerCount;
+        this.maxConcurrentPerTenant = maxConcurrentPerTenant;
+        this.maxQueuedPerTenant = maxQueuedPerTenant;
+        this.quantumNanos = quantum.toNanos();
+        this.queueWait = Timer.builder("execution.scheduler.wait")
+                .description("Time trigger events spend queued before a worker runs them")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        meterRegistry.gauge("execution.scheduler.queued", queued);
+        meterRegistry.gauge("execution.scheduler.tenants", this, FairWorkflowScheduler::activeTenants);
+    }
+
+    /**
+     * Queues an event for execution.
+     *
+     * @return A future completed when the run has finished (exceptionally if it failed),
+     *         or null if the event's user already has {@code max-queued-per-user} events queued.
+     */
+    public CompletableFuture<Void> submit(TriggerEvent event) {
+        int weight = tenantWeights.weightOf(event.getUserId()); // cached; looked up outside the lock
+        Pending pending = new Pending(event, new CompletableFuture<>(), System.nanoTime());
+        lock.lock();
+        try {
+            Tenant tenant = tenants.computeIfAbsent(event.getUserId(), Tenant::new);
+            tenant.quantum = quantumNanos * weight;
+            if (tenant.queue.size() >= maxQueuedPerTenant) {
+                return null;
+            }
+            tenant.queue.addLast(pending);
+            queued.incrementAndGet();
+            if (!tenant.inRing) {
+                tenant.inRing = true;
+                ring.addLast(tenant);
+            }
+            workAvailable.signal();
+        } finally {
+            lock.unlock();
+        }
+        return pending.done();
+    }
+
+    public int queued() {
+        return queued.get();
+    }
+
+    public int activeTenants() {
+        lock.lock();
+        try {
+            return tenants.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        for (int i = 0; i < workerCount; i++) {
+            Thread worker = new Thread(this::workLoop, "workflow-worker-" + (i + 1));
+            worker.setDaemon(true);
+            workers.add(worker);
+            worker.start();
+        }
+    }
+
+    // Runs in progress finish; queued events are never acked and so get redelivered by the broker
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        lock.lock();
+        try {
+            workAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        for (Thread worker : workers) {
+            worker.join(TimeUnit.SECONDS.toMillis(10));
+        }
+        workers.clear();
+    }
+
+    private void workLoop() {
+        while (running) {
+            Dispatch dispatch;
+            lock.lock();
+            try {
+                while ((dispatch = nextLocked()) == null) {
+                    if (!running) {
+                        return;
+                    }
+                    workAvailable.await();
+                }
+            } catch (InterruptedException e) {
+                return;
+            } finally {
+                lock.unlock();
+            }
+
+            Pending pending = dispatch.pending();
+            long started = System.nanoTime();
+            queueWait.record(started - pending.queuedAtNanos(), TimeUnit.NANOSECONDS);
+            Throwable failure = null;
+            try {
+                workflowExecutor.execute(pending.event());
+            } catch (Throwable e) {
+                failure = e;
+            }
+            long cost = System.nanoTime() - started;
+
+            lock.lock();
+            try {
+                finishLocked(dispatch.tenant(), dispatch.charged(), cost);
+            } finally {
+                lock.unlock();
+            }
+            if (failure == null) {
+                pending.done().complete(null);
+            } else {
+                pending.done().completeExceptionally(failure);
+            }
+        }
+    }
+
+    // Deficit round-robin over the ring; null if no tenant may run anything right now
+    private Dispatch nextLocked() {
+        for (int pass = 0; pass < 2 && !ring.isEmpty(); pass++) {
+            for (int visited = 0, size = ring.size(); visited < size; visited++) {
+                Tenant tenant = ring.peekFirst();
+                if (tenant.inFlight < maxConcurrentPerTenant) {
+                    if (!tenant.inTurn) {
+                        // Credit is capped at one quantum, so time spent capped by concurrency is not banked
+                        tenant.inTurn = true;
+                        tenant.deficit = Math.min(tenant.deficit + tenant.quantum, tenant.quantum);
+                    }
+                    if (tenant.deficit > 0) {
+                        return dispatchLocked(tenant);
+                    }
+                }
+                // Turn over: out of credit or at its concurrency limit
+                tenant.inTurn = false;
+                ring.addLast(ring.pollFirst());
+            }
+            // Every runnable tenant is still in debt after a full round: grant all of them the rounds it takes
+            // for the first one to get credit at once, instead of spinning through them
+            if (!fastForwardLocked()) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    private boolean fastForwardLocked() {
+        long rounds = Long.MAX_VALUE;
+        for (Tenant tenant : ring) {
+            if (tenant.inFlight < maxConcurrentPerTenant) {
+                rounds = Math.min(rounds, -tenant.deficit / tenant.quantum + 1);
+            }
+        }
+        if (rounds == Long.MAX_VALUE) {
+            return false;
+        }
+        for (Tenant tenant : ring) {
+            if (tenant.inFlight < maxConcurrentPerTenant) {
+                tenant.deficit += rounds * tenant.quantum;
+                tenant.inTurn = true;
+            }
+        }
+        return true;
+    }
+
+    private Dispatch dispatchLocked(Tenant tenant) {
+        Pending pending = tenant.queue.pollFirst();
+        queued.decrementAndGet();
+        tenant.inFlight++;
+        long charged = tenant.averageCost;
+        tenant.deficit -= charged;
+        if (tenant.queue.isEmpty()) {
+            // Nothing left to queue: leave the ring and keep any debt, but no credit
+            ring.pollFirst(); // always the head
+            tenant.inRing = false;
+            tenant.inTurn = false;
+            tenant.deficit = Math.min(tenant.deficit, 0);
+        }
+        return new Dispatch(tenant, pending, charged);
+    }
+
+    private void finishLocked(Tenant tenant, long charged, long cost) {
+        tenant.inFlight--;
+        tenant.deficit -= cost - charged;
+        tenant.averageCost = (long) (tenant.averageCost + COST_SMOOTHING * (cost - tenant.averageCost));
+        if (tenant.queue.isEmpty() && tenant.inFlight == 0) {
+            tenants.remove(tenant.userId);
+        } else if (tenant.inRing) {
+            workAvailable.signal(); // a slot of a capped tenant may have opened up for another waiting worker
+        }
+    }
+
+    private static final class Tenant {
+        final Long userId;
+        final ArrayDeque<Pending> queue = new ArrayDeque<>();
+        long quantum;
+        long deficit; // nanos of execution time the tenant may still use in this round
+        long averageCost = TimeUnit.MILLISECONDS.toNanos(1);
+        int inFlight;
+        boolean inRing;
+        boolean inTurn;
+
+        Tenant(Long userId) {
+            this.userId = userId;
+        }
+    }
+
+    private record Pending(TriggerEvent event, CompletableFuture<Void> done, long queuedAtNanos) {
+    }
+
+    private record Dispatch(Tenant tenant, Pending pending, long charged) {
+    }
+}
@@ -0,0 +1,24 @@
+package com.saasautomationbuilder.backend.execution;
+
+import com.saasautomationbuilder.backend.execution.plan.ActionStep;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+// Built-in "log" action: { "type": "log", "message": "Workflow triggered!" }
+@Component
+public class LogActionHandler implements ActionHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(LogActionHandler.class);
+
+    @Override
+    public String getType() {
+        return "log";
+    }
+
+    @Override
+    public void execute(TriggerEvent event, ActionStep step) {
+        String message = step.getString("message");
+        logger.info("Workflow {} (event {}): {}", event.getWorkflowId(), event.getEventId(), message == null ? "" : message);
+    }
+}
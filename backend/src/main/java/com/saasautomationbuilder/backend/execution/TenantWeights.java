@@ -0,0 +1,64 @@
+package com.saasautomationbuilder.backend.execution;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.saasautomationbuilder.backend.domain.User;
+import com.saasautomationbuilder.backend.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Scheduling weight of each user, from their plan tier ({@code app.execution.fair-scheduling.weights.<tier>}).
+ * Tiers are cached per user for {@code tier-cache.ttl}, so plan changes take effect within that time.
+ */
+@Component
+public class TenantWeights {
+
+    private static final Logger logger = LoggerFactory.getLogger(TenantWeights.class);
+
+    private final UserRepository userRepository;
+    private final Map<User.PlanTier, Integer> weights = new EnumMap<>(User.PlanTier.class);
+    private final LoadingCache<Long, Integer> weightsByUser;
+
+    public TenantWeights(UserRepository userRepository,
+                         Environment environment,
+                         @Value("${app.execution.fair-scheduling.tier-cache.max-size:100000}") long maxSize,
+                         @Value("${app.execution.fair-scheduling.tier-cache.ttl:PT5M}") Duration ttl) {
+        this.userRepository = userRepository;
+        for (User.PlanTier tier : User.PlanTier.values()) {
+            int weight = environment.getProperty("app.execution.fair-scheduling.weights." + tier.name().toLowerCase(Locale.ROOT),
+                    Integer.class, 1);
+            weights.put(tier, Math.max(1, weight));
+        }
+        this.weightsByUser = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build(this::loadWeight);
+    }
+
+    public int weightOf(Long userId) {
+        return weightsByUser.get(userId);
+    }
+
+    public int weightOf(User.PlanTier tier) {
+        return weights.get(tier == null ? User.PlanTier.FREE : tier);
+    }
+
+    private Integer loadWeight(Long userId) {
+        try {
+            return weightOf(userRepository.findPlanTierById(userId).orElse(null));
+        } catch (Exception e) {
+            // Never hold up execution on the lookup; the next load after the TTL retries
+            logger.warn("Failed to load plan tier of user {}: {}", userId, e.getMessage());
+            return weightOf((User.PlanTier) null);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.saasautomationbuilder.backend.execution;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.Map;
+
+// Message published to the trigger queue: "run workflow X for user Y with this payload"
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TriggerEvent {
+    private String eventId; // Unique per trigger occurrence (used for logging/de-duplication)
+    private Long workflowId;
+    private Long userId; // Owner of the workflow, used to bound per-tenant concurrency
+    private String source; // e.g., "webhook", "schedule", "manual"
+    private Map<String, Object> payload; // Trigger data handed to the actions (nullable)
+    private Instant occurredAt;
+    private int deferrals; // How many times this event was put back because its tenant's scheduler queue was full
+}
@@ -0,0 +1,186 @@
+package com.saasautomationbuilder.backend.execution;
+
+import com.saasautomationbuilder.backend.exception.InvalidWorkflowConfigException;
+import com.saasautomationbuilder.backend.execution.plan.TriggerSpec;
+import com.saasautomationbuilder.backend.execution.plan.WorkflowPlanCompiler;
+import com.saasautomationbuilder.backend.repository.WorkflowRepository;
+import com.saasautomationbuilder.backend.repository.WorkflowTriggerView;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * In-memory inverted index from connector events to the enabled webhook workflows listening for them.
+ * <p>
+ * Each workflow is registered under (connectorKey, event) and under (connectorKey, event, userId), so both
+ * "all workflows for this event" and "this user's workflows for this event" are a single hash lookup,
+ * independent of the total number of workflows. A trigger event of {@code "*"} matches every event of its connector.
+ * <p>
+ * Kept up to date by WorkflowService (after commit) and rebuilt from the DB when the application starts.
+ */
+@Component
+public class TriggerIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(TriggerIndex.class);
+    public static final String ANY_EVENT = "*";
+
+    private final WorkflowRepository workflowRepository;
+    private final WorkflowPlanCompiler planCompiler;
+    private final int rebuildBatchSize;
+
+    private final ConcurrentMap<TriggerKey, Set<Long>> workflowsByKey = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, IndexedWorkflow> indexedWorkflows = new ConcurrentHashMap<>(); // reverse map for updates
+
+    public TriggerIndex(WorkflowRepository workflowRepository,
+                        WorkflowPlanCompiler planCompiler,
+                        @Value("${app.execution.trigger-index.rebuild-batch-size:5000}") int rebuildBatchSize) {
+        this.workflowRepository = workflowRepository;
+        this.planCompiler = planCompiler;
+        this.rebuildBatchSize = rebuildBatchSize;
+    }
+
+    // --- Matching ---
+
+    // Enabled workflow ids (any user) listening for this connector event
+    public Set<Long> match(String connectorKey, String event) {
+        return union(new TriggerKey(connectorKey, event, null), new TriggerKey(connectorKey, ANY_EVENT, null));
+    }
+
+    // Enabled workflow ids of one user listening for this connector event
+    public Set<Long> match(String connectorKey, String event, Long userId) {
+        return union(new TriggerKey(connectorKey, event, userId), new TriggerKey(connectorKey, ANY_EVENT, userId));
+    }
+
+    // Owner of an indexed workflow (null if not indexed)
+    public Long ownerOf(Long workflowId) {
+        IndexedWorkflow indexed = indexedWorkflows.get(workflowId);
+        return indexed == null ? null : indexed.userId();
+    }
+
+    // Connection the indexed workflow's trigger is bound to (null if none or not indexed)
+    public Long connectionOf(Long workflowId) {
+        IndexedWorkflow indexed = indexedWorkflows.get(workflowId);
+        return indexed == null ? null : indexed.connectionId();
+    }
+
+    public int size() {
+        return indexedWorkflows.size();
+    }
+
+    // --- Maintenance ---
+
+    /**
+     * Adds, moves or removes a workflow depending on its current state.
+     * Only enabled workflows with a webhook trigger are indexed.
+     */
+    public synchronized void update(Long workflowId, Long userId, boolean enabled, TriggerSpec trigger) {
+        remove(workflowId);
+        if (enabled && trigger != null && trigger.getType() == TriggerSpec.TriggerType.WEBHOOK) {
+            add(new IndexedWorkflow(workflowId, userId, trigger.getConnectorKey(), trigger.getEvent(), trigger.getConnectionId()));
+        }
+    }
+
+    public synchronized void remove(Long workflowId) {
+        IndexedWorkflow previous = indexedWorkflows.remove(workflowId);
+        if (previous != null) {
+            removeFromKey(previous.globalKey(), workflowId);
+            removeFromKey(previous.userKey(), workflowId);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            // Keep the application up; webhooks will only match workflows saved from now on
+            logger.error("Failed to rebuild trigger index: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Loads all enabled workflows' triggers from the DB in keyset-paged batches (without actionConfig).
+     * Entries written concurrently by WorkflowService take precedence over rows read here.
+     */
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        long afterId = 0L;
+        int scanned = 0;
+        List<WorkflowTriggerView> batch;
+        do {
+            batch = workflowRepository.findEnabledTriggersAfter(afterId, PageRequest.ofSize(rebuildBatchSize));
+            for (WorkflowTriggerView row : batch) {
+                indexIfAbsent(row);
+                afterId = row.getId();
+            }
+            scanned += batch.size();
+        } while (batch.size() == rebuildBatchSize);
+        logger.info("Trigger index rebuilt: {} enabled workflows scanned, {} webhook workflows indexed in {} ms",
+                scanned, indexedWorkflows.size(), System.currentTimeMillis() - start);
+    }
+
+    private synchronized void indexIfAbsent(WorkflowTriggerView row) {
+        if (indexedWorkflows.containsKey(row.getId())) {
+            return;
+        }
+        try {
+            TriggerSpec trigger = planCompiler.compileTrigger(row.getTriggerConfig());
+            if (trigger.getType() == TriggerSpec.TriggerType.WEBHOOK) {
+                add(new IndexedWorkflow(row.getId(), row.getUserId(), trigger.getConnectorKey(), trigger.getEvent(), trigger.getConnectionId()));
+            }
+        } catch (InvalidWorkflowConfigException e) {
+            logger.warn("Not indexing workflow {}: {}", row.getId(), e.getMessage());
+        }
+    }
+
+    private void add(IndexedWorkflow indexed) {
+        indexedWorkflows.put(indexed.workflowId(), indexed);
+        workflowsByKey.computeIfAbsent(indexed.globalKey(), key -> ConcurrentHashMap.newKeySet()).add(indexed.workflowId());
+        workflowsByKey.computeIfAbsent(indexed.userKey(), key -> ConcurrentHashMap.newKeySet()).add(indexed.workflowId());
+    }
+
+    private void removeFromKey(TriggerKey key, Long workflowId) {
+        workflowsByKey.computeIfPresent(key, (k, ids) -> {
+            ids.remove(workflowId);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    private Set<Long> union(TriggerKey exact, TriggerKey wildcard) {
+        Set<Long> exactIds = workflowsByKey.get(exact);
+        Set<Long> wildcardIds = workflowsByKey.get(wildcard);
+        if (wildcardIds == null) {
+            return exactIds == null ? Collections.emptySet() : Collections.unmodifiableSet(exactIds);
+        }
+        if (exactIds == null) {
+            return Collections.unmodifiableSet(wildcardIds);
+        }
+        Set<Long> merged = new HashSet<>(exactIds);
+        merged.addAll(wildcardIds);
+        return merged;
+    }
+
+    private record TriggerKey(String connectorKey, String event, Long userId) {
+    }
+
+    private record IndexedWorkflow(Long workflowId, Long userId, String connectorKey, String event, Long connectionId) {
+        TriggerKey globalKey() {
+            return new TriggerKey(connectorKey, event, null);
+        }
+
+        TriggerKey userKey() {
+            return new TriggerKey(connectorKey, event, userId);
+        }
+    }
+}
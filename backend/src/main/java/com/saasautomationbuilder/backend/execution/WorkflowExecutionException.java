@@ -0,0 +1,12 @@
+package com.saasautomationbuilder.backend.execution;
+
+// Raised when a workflow run cannot be completed (bad config, unknown action, failing action)
+public class WorkflowExecutionException extends RuntimeException {
+    public WorkflowExecutionException(String message) {
+        super(message);
+    }
+
+    public WorkflowExecutionException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
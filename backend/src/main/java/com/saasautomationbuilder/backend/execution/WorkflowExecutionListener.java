@@ -0,0 +1,95 @@
+package com.saasautomationbuilder.backend.execution;
+
+import com.saasautomationbuilder.backend.execution.dedup.EventDeduplicator;
+import com.saasautomationbuilder.backend.execution.polling.PollingEngine;
+import com.saasautomationbuilder.backend.execution.schedule.TimeTriggerScheduler;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpRejectAndDontRequeueException;
+import org.springframework.amqp.ImmediateRequeueAmqpException;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Consumes trigger events from the execution queue and hands them to the {@link FairWorkflowScheduler}.
+ * <p>
+ * The listener returns the run's future, so the container acks each message only once its run has finished
+ * (async return types switch the container to manual acks); a failed run is rejected to the dead-letter queue.
+ * Consumer threads therefore never execute workflows themselves: {@code spring.rabbitmq.listener.simple.prefetch}
+ * times the consumer count is the window of events the scheduler can reorder fairly, and
+ * {@code app.execution.workers} is the number of runs executing at once.
+ * <p>
+ * Each event is claimed by (source, event id) through the {@link EventDeduplicator} before it runs, so a second
+ * publication of the same event (overlapping poll windows, a tick fired by an old and a new leader) is acked and
+ * dropped. Broker redeliveries and deferred events are the same publication and are not claimed again; a failed
+ * run releases its claim, so replaying it from the dead-letter queue runs it.
+ */
+@Component
+@RequiredArgsConstructor
+public class WorkflowExecutionListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(WorkflowExecutionListener.class);
+    // Webhook events are claimed at ingress by the provider's id; their own ids are unique per delivery
+    private static final String WEBHOOK_SOURCE = "webhook";
+    // Published by whichever instance leads, so copies can be consumed anywhere: claimed in the shared table
+    private static final Set<String> SHARED_CLAIM_SOURCES = Set.of(
+            TimeTriggerScheduler.SCHEDULE_SOURCE, TimeTriggerScheduler.INTERVAL_SOURCE, PollingEngine.SOURCE);
+
+    private final FairWorkflowScheduler scheduler;
+    private final WorkflowTriggerPublisher triggerPublisher;
+    private final EventDeduplicator eventDeduplicator;
+
+    @RabbitListener(queues = "${app.execution.queue:workflow.trigger-events}")
+    public CompletableFuture<Void> onTriggerEvent(TriggerEvent event,
+                                                  @Header(name = AmqpHeaders.REDELIVERED, required = false) Boolean redelivered) {
+        if (event.getWorkflowId() == null || event.getUserId() == null) {
+            // Malformed message: send it to the dead-letter queue instead of redelivering it forever
+            return CompletableFuture.failedFuture(
+                    new AmqpRejectAndDontRequeueException("Trigger event " + event.getEventId() + " is missing workflowId or userId"));
+        }
+        boolean claimed = needsClaim(event, Boolean.TRUE.equals(redelivered));
+        if (claimed && !claim(event)) {
+            logger.debug("Dropped duplicate {} event {}", event.getSource(), event.getEventId());
+            return CompletableFuture.completedFuture(null);
+        }
+
+        CompletableFuture<Void> done = scheduler.submit(event);
+        if (done == null) {
+            // The user's queue is full: re-queue at the tail so the window stays open for other tenants
+            try {
+                triggerPublisher.defer(event);
+                return CompletableFuture.completedFuture(null);
+            } catch (Exception e) {
+                // Comes back as a redelivery, which is not claimed again
+                return CompletableFuture.failedFuture(
+                        new ImmediateRequeueAmqpException("Failed to defer trigger event " + event.getEventId(), e));
+            }
+        }
+
+        return done.exceptionally(error -> {
+            logger.error("Workflow {} failed for event {}: {}", event.getWorkflowId(), event.getEventId(), error.getMessage(), error);
+            if (claimed) {
+                eventDeduplicator.release(event.getSource(), event.getEventId());
+            }
+            throw new AmqpRejectAndDontRequeueException(error.getMessage(), error);
+        });
+    }
+
+    private static boolean needsClaim(TriggerEvent event, boolean redelivered) {
+        return !redelivered && event.getDeferrals() == 0 && event.getEventId() != null && event.getSource() != null
+                && !WEBHOOK_SOURCE.equals(event.getSource());
+    }
+
+    private boolean claim(TriggerEvent event) {
+        if (SHARED_CLAIM_SOURCES.contains(event.getSource())) {
+            return eventDeduplicator.claimShared(event.getSource(), event.getEventId());
+        }
+        return eventDeduplicator.claim(event.getSource(), event.getEventId(), event.getOccurredAt());
+    }
+}
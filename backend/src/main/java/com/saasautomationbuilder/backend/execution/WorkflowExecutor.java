@@ -0,0 +1,134 @@
+package com.saasautomationbuilder.backend.execution;
+
+import com.saasautomationbuilder.backend.domain.WorkflowRun;
+import com.saasautomationbuilder.backend.domain.WorkflowRunStep;
+import com.saasautomationbuilder.backend.exception.InvalidWorkflowConfigException;
+import com.saasautomationbuilder.backend.execution.plan.ActionStep;
+import com.saasautomationbuilder.backend.execution.plan.WorkflowPlan;
+import com.saasautomationbuilder.backend.execution.plan.WorkflowPlanCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Runs a single workflow for a trigger event: resolves the workflow's compiled plan, checks it is enabled
+ * and owned by the event's user, then executes its actions in order.
+ * <p>
+ * Plans come from {@link WorkflowPlanCache}, so hot workflows are neither re-read from the DB nor re-parsed;
+ * actions run outside of any transaction so slow third-party calls never hold a DB connection.
+ * Every run that gets past these checks is handed to the {@link WorkflowRunRecorder} with its step outcomes.
+ */
+@Service
+public class WorkflowExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(WorkflowExecutor.class);
+
+    private final WorkflowPlanCache planCache;
+    private final Map<String, ActionHandler> actionHandlers; // keyed by action type
+    private final WorkflowRunRecorder runRecorder;
+
+    public WorkflowExecutor(WorkflowPlanCache planCache, List<ActionHandler> actionHandlers, WorkflowRunRecorder runRecorder) {
+        this.planCache = planCache;
+        this.runRecorder = runRecorder;
+        this.actionHandlers = actionHandlers.stream()
+                .collect(Collectors.toMap(ActionHandler::getType, Function.identity()));
+    }
+
+    /**
+     * Executes the workflow referenced by the event.
+     *
+     * @param event The trigger event.
+     * @return true if the workflow ran, false if it was skipped (missing, disabled or not owned by the event's user).
+     * @throws WorkflowExecutionException if the workflow config is invalid or an action fails.
+     */
+    public boolean execute(TriggerEvent event) {
+        WorkflowPlan plan;
+        try {
+            plan = planCache.getPlan(event.getWorkflowId());
+        } catch (InvalidWorkflowConfigException e) {
+            throw new WorkflowExecutionException("Workflow " + event.getWorkflowId() + " has an invalid config: " + e.getMessage(), e);
+        }
+        if (plan == null || !plan.isEnabled()) {
+            logger.debug("Skipping event {}: workflow {} not found or disabled", event.getEventId(), event.getWorkflowId());
+            return false;
+        }
+        if (!plan.getUserId().equals(event.getUserId())) {
+            logger.warn("Skipping event {}: workflow {} is not owned by user {}", event.getEventId(), plan.getWorkflowId(), event.getUserId());
+            return false;
+        }
+
+        Instant startedAt = Instant.now();
+        long start = System.nanoTime();
+        List<WorkflowRunStep> steps = new ArrayList<>(plan.getActions().size());
+        try {
+            for (ActionStep step : plan.getActions()) {
+                executeStep(event, plan, step, steps);
+            }
+        } catch (WorkflowExecutionException e) {
+            recordRun(event, plan, WorkflowRun.RunStatus.FAILED, e.getMessage(), startedAt, start, steps);
+            throw e;
+        }
+        recordRun(event, plan, WorkflowRun.RunStatus.SUCCEEDED, null, startedAt, start, steps);
+        logger.debug("Workflow {} completed for event {} in {} µs", plan.getWorkflowId(), event.getEventId(), (System.nanoTime() - start) / 1000);
+        return true;
+    }
+
+    private void executeStep(TriggerEvent event, WorkflowPlan plan, ActionStep step, List<WorkflowRunStep> steps) {
+        ActionHandler handler = actionHandlers.get(step.getType());
+        if (handler == null) {
+            throw new WorkflowExecutionException("Unknown action type '" + step.getType() + "' in workflow " + plan.getWorkflowId());
+        }
+        Instant startedAt = Instant.now();
+        long start = System.nanoTime();
+        try {
+            handler.execute(event, step);
+        } catch (Exception e) {
+            WorkflowExecutionException failure = e instanceof WorkflowExecutionException executionException
+                    ? executionException
+                    : new WorkflowExecutionException("Action '" + step.getType() + "' failed in workflow " + plan.getWorkflowId() + ": " + e.getMessage(), e);
+            steps.add(stepRecord(step, WorkflowRun.RunStatus.FAILED, failure.getMessage(), startedAt, start));
+            throw failure;
+        }
+        steps.add(stepRecord(step, WorkflowRun.RunStatus.SUCCEEDED, null, startedAt, start));
+    }
+
+    private void recordRun(TriggerEvent event, WorkflowPlan plan, WorkflowRun.RunStatus status, String error,
+                           Instant startedAt, long startNanos, List<WorkflowRunStep> steps) {
+        WorkflowRun run = new WorkflowRun();
+        run.setWorkflowId(plan.getWorkflowId());
+        run.setUserId(plan.getUserId());
+        run.setEventId(event.getEventId());
+        run.setSource(event.getSource());
+        run.setStatus(status);
+        long elapsedNanos = System.nanoTime() - startNanos;
+        run.setStartedAt(startedAt);
+        run.setFinishedAt(startedAt.plusNanos(elapsedNanos));
+        run.setDurationMicros(elapsedNanos / 1000);
+        run.setError(truncate(error));
+        runRecorder.record(run, steps);
+    }
+
+    private static WorkflowRunStep stepRecord(ActionStep step, WorkflowRun.RunStatus status, String error,
+                                              Instant startedAt, long startNanos) {
+        WorkflowRunStep record = new WorkflowRunStep();
+        record.setStepIndex(step.getIndex());
+        record.setActionType(step.getType());
+        record.setStatus(status);
+        record.setStartedAt(startedAt);
+        record.setDurationMicros((System.nanoTime() - startNanos) / 1000);
+        record.setError(truncate(error));
+        return record;
+    }
+
+    // Fits the error column
+    private static String truncate(String error) {
+        return error == null || error.length() <= 2000 ? error : error.substring(0, 2000);
+    }
+}
@@ -0,0 +1,18 @@
+package com.saasautomationbuilder.backend.execution;
+
+import com.saasautomationbuilder.backend.domain.WorkflowRun;
+import com.saasautomationbuilder.backend.domain.WorkflowRunStep;
+
+import java.util.List;
+
+/**
+ * Receives the history of each completed workflow run. Implementations must not block the executing thread.
+ */
+public interface WorkflowRunRecorder {
+
+    /**
+     * @param run   The run, without id.
+     * @param steps The steps that ran, in order, without ids or runId (set when written).
+     */
+    void record(WorkflowRun run, List<WorkflowRunStep> steps);
+}
@@ -0,0 +1,53 @@
+package com.saasautomationbuilder.backend.execution;
+
+import com.saasautomationbuilder.backend.domain.Workflow;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+
+// Publishes trigger events to the workflow execution queue
+@Component
+public class WorkflowTriggerPublisher {
+
+    private final RabbitTemplate rabbitTemplate;
+    private final String exchange;
+    private final String routingKey;
+
+    public WorkflowTriggerPublisher(RabbitTemplate rabbitTemplate,
+                                    @Value("${app.execution.exchange:workflow.triggers}") String exchange,
+                                    @Value("${app.execution.queue:workflow.trigger-events}") String routingKey) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.exchange = exchange;
+        this.routingKey = routingKey;
+    }
+
+    public TriggerEvent publish(Workflow workflow, String source, Map<String, Object> payload) {
+        TriggerEvent event = new TriggerEvent(
+                UUID.randomUUID().toString(),
+                workflow.getId(),
+                workflow.getUser().getId(),
+                source,
+                payload,
+                Instant.now(),
+                0);
+        publish(event);
+        return event;
+    }
+
+    public void publish(TriggerEvent event) {
+        if (event.getWorkflowId() == null || event.getUserId() == null) {
+            throw new IllegalArgumentException("Trigger event requires workflowId and userId");
+        }
+        rabbitTemplate.convertAndSend(exchange, routingKey, event);
+    }
+
+    // Puts an event back at the tail of the queue when its user already has a full scheduler queue
+    public void defer(TriggerEvent event) {
+        event.setDeferrals(event.getDeferrals() + 1);
+        rabbitTemplate.convertAndSend(exchange, routingKey, event);
+    }
+}
@@ -0,0 +1,184 @@
+package com.saasautomationbuilder.backend.execution.dedup;
+
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+
+/**
+ * Fixed-memory set of 64-bit event fingerprints that forgets entries after a TTL.
+ * <p>
+ * Time is cut into {@code buckets} periods of {@code ttl / buckets}; each period owns an open-addressing table
+ * (linear probing, 8 bytes per slot) and one extra table is kept so the oldest live period is never reused early.
+ * A fingerprint is therefore remembered for between {@code ttl} and {@code ttl + ttl / buckets}. Expiry costs
+ * nothing per entry: the table of a period that fell out of the window is simply wiped when its slot comes round
+ * again. Tables are striped by fingerprint, one lock per stripe, and are either heap arrays or direct
+ * (off-heap) buffers; the footprint is {@code (buckets + 1) * slotsPerBucket * 8} bytes either way.
+ * <p>
+ * A table never grows: once the current period's table is 3/4 full, further adds report {@link Outcome#FULL}
+ * and the caller has to remember the id elsewhere.
+ */
+public final class DedupWindow {
+
+    public enum Outcome { ADDED, DUPLICATE, FULL }
+
+    private static final long EMPTY = 0L;
+    private static final long REMOVED = Long.MIN_VALUE;
+
+    private final Stripe[] stripes;
+    private final long periodMillis;
+    private final long ttlMillis;
+
+    /**
+     * @param ttlMillis      How long an id is remembered at least.
+     * @param buckets        Periods the TTL is cut into; more buckets expire ids closer to the TTL.
+     * @param slotsPerBucket Table slots per period, across all stripes (rounded up to a power of two).
+     * @param stripes        Independently locked partitions (rounded up to a power of two).
+     * @param offHeap        Allocate the tables as direct buffers instead of heap arrays.
+     */
+    public DedupWindow(long ttlMillis, int buckets, int slotsPerBucket, int stripes, boolean offHeap) {
+        if (ttlMillis <= 0 || buckets <= 0 || slotsPerBucket <= 0 || stripes <= 0) {
+            throw new IllegalArgumentException("ttl, buckets, slots and stripes must be positive");
+        }
+        int stripeCount = ceilPowerOfTwo(stripes);
+        int stripeSlots = Math.max(16, ceilPowerOfTwo(slotsPerBucket) / stripeCount);
+        this.ttlMillis = ttlMillis;
+        this.periodMillis = Math.max(1, ttlMillis / buckets);
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            this.stripes[i] = new Stripe(buckets + 1, stripeSlots, offHeap);
+        }
+    }
+
+    public long ttlMillis() {
+        return ttlMillis;
+    }
+
+    // Records the fingerprint unless a live period already holds it
+    public Outcome tryAdd(long fingerprint, long nowMillis) {
+        long key = normalize(fingerprint);
+        return stripe(key).tryAdd(key, nowMillis / periodMillis);
+    }
+
+    public boolean contains(long fingerprint, long nowMillis) {
+        long key = normalize(fingerprint);
+        return stripe(key).contains(key, nowMillis / periodMillis);
+    }
+
+    // Forgets a fingerprint, e.g., when the event it stood for could not be accepted after all
+    public boolean remove(long fingerprint, long nowMillis) {
+        long key = normalize(fingerprint);
+        return stripe(key).remove(key, nowMillis / periodMillis);
+    }
+
+    private Stripe stripe(long key) {
+        // High bits pick the stripe, low bits the slot, so the two stay independent
+        return stripes[(int) (key >>> 40) & (stripes.length - 1)];
+    }
+
+    private static long normalize(long fingerprint) {
+        // The two sentinel values are taken; folding them onto 1 costs a 2^-63 collision chance
+        return fingerprint == EMPTY || fingerprint == REMOVED ? 1L : fingerprint;
+    }
+
+    private static int ceilPowerOfTwo(int value) {
+        int power = Integer.highestOneBit(value);
+        return power == value ? value : power << 1;
+    }
+
+    private static final class Stripe {
+        private final LongBuffer[] tables;
+        private final long[] periods; // Period each table currently holds; -1 when never used
+        private final int[] used; // Occupied slots (removals included) per table
+        private final int mask;
+        private final int maxUsed;
+
+        Stripe(int tableCount, int slots, boolean offHeap) {
+            this.tables = new LongBuffer[tableCount];
+            this.periods = new long[tableCount];
+            this.used = new int[tableCount];
+            for (int i = 0; i < tableCount; i++) {
+                tables[i] = offHeap ? ByteBuffer.allocateDirect(slots * Long.BYTES).asLongBuffer() : LongBuffer.allocate(slots);
+                periods[i] = -1;
+            }
+            this.mask = slots - 1;
+            this.maxUsed = slots - slots / 4;
+        }
+
+        synchronized Outcome tryAdd(long key, long period) {
+            if (find(key, period) >= 0) {
+                return Outcome.DUPLICATE;
+            }
+            int current = (int) (period % tables.length);
+            if (periods[current] != period) {
+                wipe(current, period);
+            }
+            if (used[current] >= maxUsed) {
+                return Outcome.FULL;
+            }
+            LongBuffer table = tables[current];
+            int slot = (int) key & mask;
+            while (table.get(slot) != EMPTY && table.get(slot) != REMOVED) {
+                slot = (slot + 1) & mask;
+            }
+            if (table.get(slot) == EMPTY) {
+                used[current]++;
+            }
+            table.put(slot, key);
+            return Outcome.ADDED;
+        }
+
+        synchronized boolean contains(long key, long period) {
+            return find(key, period) >= 0;
+        }
+
+        synchronized boolean remove(long key, long period) {
+            for (int i = 0; i < tables.length; i++) {
+                if (live(i, period)) {
+                    int slot = probe(tables[i], key);
+                    if (slot >= 0) {
+                        tables[i].put(slot, REMOVED); // Keeps later entries of the probe run reachable
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        // Index of the live table holding the key, or -1
+        private int find(long key, long period) {
+            for (int i = 0; i < tables.length; i++) {
+                if (live(i, period) && probe(tables[i], key) >= 0) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private boolean live(int table, long period) {
+            return periods[table] >= 0 && periods[table] <= period && period - periods[table] < tables.length;
+        }
+
+        private int probe(LongBuffer table, long key) {
+            int slot = (int) key & mask;
+            for (int probes = 0; probes <= mask; probes++) {
+                long value = table.get(slot);
+                if (value == key) {
+                    return slot;
+                }
+                if (value == EMPTY) {
+                    return -1;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return -1;
+        }
+
+        private void wipe(int table, long period) {
+            LongBuffer buffer = tables[table];
+            for (int i = 0; i <= mask; i++) {
+                buffer.put(i, EMPTY);
+            }
+            periods[table] = period;
+            used[table] = 0;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.saasautomationbuilder.backend.execution.dedup;
+
+import com.saasautomationbuilder.backend.repository.ProcessedEventRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+
+/**
+ * Drops inbound events that were already accepted, keyed by (connector key, provider event id) at webhook ingress
+ * and by (trigger source, event id) in front of execution (WorkflowExecutionListener).
+ * <p>
+ * Ids are checked against a fixed-memory {@link DedupWindow} covering the last {@code app.dedup.window}, so the
+ * common case (a provider redelivering within minutes) costs a few hash probes and no DB round trip. The
+ * {@code processed_events} table is only consulted for what the window cannot answer: events that say they occurred
+ * before the window began, and events arriving while the window's current bucket is full.
+ * <p>
+ * The window is per instance: redeliveries are caught as long as they reach the instance that saw the original
+ * (or fall back to the table as described above).
+ */
+@Component
+public class EventDeduplicator {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventDeduplicator.class);
+    private static final int MAX_EVENT_ID_LENGTH = 255;
+
+    private final ProcessedEventRepository processedEventRepository;
+    private final MeterRegistry meterRegistry;
+    private final DedupWindow window;
+    private final Duration durableTtl;
+
+    public EventDeduplicator(ProcessedEventRepository processedEventRepository,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.dedup.window:PT1H}") Duration window,
+                             @Value("${app.dedup.buckets:12}") int buckets,
+                             @Value("${app.dedup.slots-per-bucket:262144}") int slotsPerBucket,
+                             @Value("${app.dedup.stripes:16}") int stripes,
+                             @Value("${app.dedup.off-heap:false}") boolean offHeap,
+                             @Value("${app.dedup.durable-ttl:P3D}") Duration durableTtl) {
+        this.processedEventRepository = processedEventRepository;
+        this.meterRegistry = meterRegistry;
+        this.window = new DedupWindow(window.toMillis(), buckets, slotsPerBucket, stripes, offHeap);
+        this.durableTtl = durableTtl;
+    }
+
+    /**
+     * Claims an event for processing.
+     *
+     * @param connectorKey Connector the event came from.
+     * @param eventId      Provider event id, scoped by the caller where ids are not globally unique.
+     * @param occurredAt   When the provider says the event happened (nullable; unknown means "recent").
+     * @return true the first time an event is claimed, false for a duplicate.
+     */
+    public boolean claim(String connectorKey, String eventId, Instant occurredAt) {
+        return claim(connectorKey, eventId, occurredAt, System.currentTimeMillis());
+    }
+
+    boolean claim(String connectorKey, String eventId, Instant occurredAt, long nowMillis) {
+        if (occurredAt != null && occurredAt.toEpochMilli() < nowMillis - window.ttlMillis()) {
+            // Older than anything the window remembers; only the table can tell
+            return claimDurably(connectorKey, eventId, nowMillis, "expired");
+        }
+        return switch (window.tryAdd(fingerprint(connectorKey, eventId), nowMillis)) {
+            case ADDED -> count("memory", "new", true);
+            case DUPLICATE -> count("memory", "duplicate", false);
+            case FULL -> claimDurably(connectorKey, eventId, nowMillis, "full");
+        };
+    }
+
+    /**
+     * Claims an event in the {@code processed_events} table only. For ids that different instances can produce for
+     * the same event (time triggers and polls around a leader handover): their copies may be consumed on different
+     * instances, where the per-instance window would not see each other.
+     */
+    public boolean claimShared(String key, String eventId) {
+        return claimDurably(key, eventId, System.currentTimeMillis(), "shared");
+    }
+
+    // Undoes a claim whose event could not be accepted, so the provider's retry is not dropped
+    public void release(String connectorKey, String eventId) {
+        release(connectorKey, eventId, System.currentTimeMillis());
+    }
+
+    void release(String connectorKey, String eventId, long nowMillis) {
+        if (!window.remove(fingerprint(connectorKey, eventId), nowMillis)) {
+            processedEventRepository.deleteByKey(connectorKey, durableEventId(eventId));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.dedup.purge-interval:PT10M}", initialDelayString = "${app.dedup.purge-interval:PT10M}")
+    public void purgeExpired() {
+        try {
+            int purged = processedEventRepository.deleteExpired(Instant.now());
+            if (purged > 0) {
+                logger.debug("Purged {} expired processed events", purged);
+            }
+        } catch (Exception e) {
+            logger.warn("Purging expired processed events failed", e);
+        }
+    }
+
+    private boolean claimDurably(String connectorKey, String eventId, long nowMillis, String reason) {
+        boolean claimed = processedEventRepository.insertIfAbsent(connectorKey, durableEventId(eventId),
+                Instant.ofEpochMilli(nowMillis).plus(durableTtl)) == 1;
+        return count("durable_" + reason, claimed ? "new" : "duplicate", claimed);
+    }
+
+    private boolean count(String store, String outcome, boolean claimed) {
+        meterRegistry.counter("dedup.checks", "store", store, "outcome", outcome).increment();
+        return claimed;
+    }
+
+    // 64-bit FNV-1a of "connectorKey NUL eventId", finished with the MurmurHash3 mixer so low bits spread evenly
+    static long fingerprint(String connectorKey, String eventId) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : (connectorKey + '\0' + eventId).getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    private static String durableEventId(String eventId) {
+        if (eventId.length() <= MAX_EVENT_ID_LENGTH) {
+            return eventId;
+        }
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(eventId.getBytes(StandardCharsets.UTF_8));
+            return "sha256:" + HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.saasautomationbuilder.backend.execution.http;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.saasautomationbuilder.backend.support.TokenBucket;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Shared outbound HTTP layer for calls to third-party APIs, keyed by connector key.
+ * <p>
+ * Each connector gets one long-lived {@link HttpClient}, so connections to its provider are pooled and kept alive
+ * across workflow runs, and HTTP/2 is negotiated where the provider supports it (falling back to HTTP/1.1).
+ * Requests are throttled client-side by two token buckets, one per connector and one per UserConnection, so bursts
+ * are spaced out instead of turning into 429s and retry storms. A request that would have to wait longer than
+ * {@code max-wait} fails fast with {@link RateLimitExceededException}; a 429 with {@code Retry-After} pauses the
+ * connector's bucket for that long.
+ * <p>
+ * Limits default to {@code app.connectors.http.*} and can be overridden per connector with
+ * {@code app.connectors.http.clients.<connectorKey>.(rate-per-second|burst|connection-rate-per-second|connection-burst)}.
+ * Metrics: {@code connector.http.requests} (timer, tagged connector and status) and
+ * {@code connector.http.throttled} (requests rejected by a bucket, tagged connector and scope).
+ */
+@Component
+public class ConnectorHttpClients {
+
+    private static final String OVERRIDE_PREFIX = "app.connectors.http.clients.";
+
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
+    private final Duration connectTimeout;
+    private final Duration requestTimeout;
+    private final long maxWaitNanos;
+    private final double defaultRatePerSecond;
+    private final int defaultBurst;
+    private final double defaultConnectionRatePerSecond;
+    private final int defaultConnectionBurst;
+
+    private final ExecutorService executor; // Shared by all clients for response handling
+    private final ConcurrentMap<String, ConnectorClient> clients = new ConcurrentHashMap<>();
+    private final Cache<Long, TokenBucket> connectionBuckets; // by UserConnection id
+
+    public ConnectorHttpClients(Environment environment,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.connectors.http.connect-timeout:PT5S}") Duration connectTimeout,
+                                @Value("${app.connectors.http.request-timeout:PT30S}") Duration requestTimeout,
+                                @Value("${app.connectors.http.max-wait:PT5S}") Duration maxWait,
+                                @Value("${app.connectors.http.rate-per-second:50}") double defaultRatePerSecond,
+                                @Value("${app.connectors.http.burst:100}") int defaultBurst,
+                                @Value("${app.connectors.http.connection-rate-per-second:5}") double defaultConnectionRatePerSecond,
+                                @Value("${app.connectors.http.connection-burst:10}") int defaultConnectionBurst,
+                                @Value("${app.connectors.http.connection-buckets.max-size:100000}") long maxConnectionBuckets) {
+        this.environment = environment;
+        this.meterRegistry = meterRegistry;
+        this.connectTimeout = connectTimeout;
+        this.requestTimeout = requestTimeout;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.defaultRatePerSecond = defaultRatePerSecond;
+        this.defaultBurst = defaultBurst;
+        this.defaultConnectionRatePerSecond = defaultConnectionRatePerSecond;
+        this.defaultConnectionBurst = defaultConnectionBurst;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "connector-http-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        // An idle connection's bucket has refilled completely, so dropping it loses nothing
+        this.connectionBuckets = Caffeine.newBuilder()
+                .maximumSize(maxConnectionBuckets)
+                .expireAfterAccess(Duration.ofMinutes(10))
+                .build();
+    }
+
+    /**
+     * Sends a request to a connector's provider once both rate limits allow it.
+     * Requests without their own timeout get {@code request-timeout}.
+     *
+     * @param connectionId The UserConnection the call is made for, or null for calls not tied to one.
+     * @return The response (any status); completes exceptionally with {@link RateLimitExceededException} if the
+     *         request would have to wait longer than {@code max-wait}, or with the transport error.
+     */
+    public CompletableFuture<HttpResponse<byte[]>> sendAsync(String connectorKey, Long connectionId, HttpRequest request) {
+        ConnectorClient client = clients.computeIfAbsent(connectorKey, this::createClient);
+        long waitNanos;
+        try {
+            waitNanos = reserve(client, connectionId);
+        } catch (RateLimitExceededException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        HttpRequest timed = request.timeout().isPresent()
+                ? request
+                : HttpRequest.newBuilder(request, (name, value) -> true).timeout(requestTimeout).build();
+        Executor start = waitNanos > 0 ? CompletableFuture.delayedExecutor(waitNanos, TimeUnit.NANOSECONDS, executor) : Runnable::run;
+        return CompletableFuture.supplyAsync(System::nanoTime, start)
+                .thenCompose(startNanos -> client.http().sendAsync(timed, HttpResponse.BodyHandlers.ofByteArray())
+                        .whenComplete((response, error) -> recordResponse(client, startNanos, response, error)));
+    }
+
+    // Blocking variant for action handlers
+    public HttpResponse<byte[]> send(String connectorKey, Long connectionId, HttpRequest request) throws IOException, InterruptedException {
+        try {
+            return sendAsync(connectorKey, connectionId, request).get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() instanceof CompletionException && e.getCause().getCause() != null
+                    ? e.getCause().getCause() : e.getCause();
+            if (cause instanceof IOException io) {
+                throw io;
+            }
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    // Connection bucket first, as the tighter one; if the connector bucket then refuses, the connection's token is
+    // simply lost, which only makes that connection slightly more conservative
+    private long reserve(ConnectorClient client, Long connectionId) {
+        long connectionWait = 0;
+        if (connectionId != null) {
+            TokenBucket bucket = connectionBuckets.get(connectionId,
+                    id -> new TokenBucket(client.connectionBurst(), client.connectionRatePerSecond()));
+            connectionWait = bucket.tryReserve(maxWaitNanos);
+            if (connectionWait < 0) {
+                client.throttledByConnection().increment();
+                throw new RateLimitExceededException("Rate limit of connection " + connectionId + " exceeded");
+            }
+        }
+        long connectorWait = client.bucket().tryReserve(maxWaitNanos);
+        if (connectorWait < 0) {
+            client.throttledByConnector().increment();
+            throw new RateLimitExceededException("Rate limit of connector " + client.key() + " exceeded");
+        }
+        return Math.max(connectionWait, connectorWait);
+    }
+
+    private void recordResponse(ConnectorClient client, long startNanos, HttpResponse<byte[]> response, Throwable error) {
+        String status = error != null ? "error" : (response.statusCode() / 100) + "xx";
+        Timer.builder("connector.http.requests")
+                .tag("connector", client.key())
+                .tag("status", status)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        if (response != null && response.statusCode() == 429) {
+            // The provider says we are over quota anyway: hold everyone back instead of retrying into it
+            response.headers().firstValue("Retry-After")
+                    .map(ConnectorHttpClients::parseRetryAfterSeconds)
+                    .filter(seconds -> seconds > 0)
+                    .ifPresent(seconds -> client.bucket().pause(TimeUnit.SECONDS.toNanos(seconds)));
+        }
+    }
+
+    private ConnectorClient createClient(String connectorKey) {
+        String prefix = OVERRIDE_PREFIX + connectorKey + ".";
+        HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(connectTimeout)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .executor(executor)
+                .build();
+        return new ConnectorClient(connectorKey, http,
+                new TokenBucket(environment.getProperty(prefix + "burst", Integer.class, defaultBurst),
+                        environment.getProperty(prefix + "rate-per-second", Double.class, defaultRatePerSecond)),
+                environment.getProperty(prefix + "connection-rate-per-second", Double.class, defaultConnectionRatePerSecond),
+                environment.getProperty(prefix + "connection-burst", Integer.class, defaultConnectionBurst),
+                throttledCounter(connectorKey, "connector"),
+                throttledCounter(connectorKey, "connection"));
+    }
+
+    private Counter throttledCounter(String connectorKey, String scope) {
+        return Counter.builder("connector.http.throttled")
+                .tag("connector", connectorKey)
+                .tag("scope", scope)
+                .register(meterRegistry);
+    }
+
+    // Only the delay-seconds form; an HTTP-date falls back to the bucket's own pacing
+    private static long parseRetryAfterSeconds(String value) {
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private record ConnectorClient(String key, HttpClient http, TokenBucket bucket,
+                                   double connectionRatePerSecond, int connectionBurst,
+                                   Counter throttledByConnector, Counter throttledByConnection) {
+    }
+}
@@ -0,0 +1,10 @@
+package com.saasautomationbuilder.backend.execution.http;
+
+import com.saasautomationbuilder.backend.execution.WorkflowExecutionException;
+
+// Raised when an outbound call would have to wait longer than app.connectors.http.max-wait for its rate limit
+public class RateLimitExceededException extends WorkflowExecutionException {
+    public RateLimitExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,21 @@
+package com.saasautomationbuilder.backend.execution.plan;
+
+import lombok.Value;
+
+import java.util.Map;
+
+// Compiled, immutable form of one entry of Workflow.actionConfig
+@Value
+public class ActionStep {
+
+    int index; // Position within the workflow (0-based)
+    String type; // Selects the ActionHandler, e.g., "log"
+    String connectorKey; // Optional connector the action calls
+    Long connectionId; // Optional UserConnection whose credentials the action uses
+    Map<String, Object> params; // Remaining action fields (read-only)
+
+    public String getString(String name) {
+        Object value = params.get(name);
+        return value == null ? null : value.toString();
+    }
+}
@@ -0,0 +1,24 @@
+package com.saasautomationbuilder.backend.execution.plan;
+
+import lombok.Value;
+import org.springframework.scheduling.support.CronExpression;
+
+import java.time.Duration;
+import java.util.Map;
+
+// Compiled, immutable form of Workflow.triggerConfig
+@Value
+public class TriggerSpec {
+
+    TriggerType type;
+    String connectorKey; // webhook/polling triggers
+    String event; // webhook triggers, e.g., "message.created"
+    Long connectionId; // Optional UserConnection the trigger is bound to
+    CronExpression cron; // schedule triggers
+    Duration interval; // interval/polling triggers
+    Map<String, Object> options; // Any further trigger-specific fields (read-only)
+
+    public enum TriggerType {
+        MANUAL, WEBHOOK, SCHEDULE, INTERVAL, POLLING
+    }
+}
@@ -0,0 +1,21 @@
+package com.saasautomationbuilder.backend.execution.plan;
+
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Immutable execution plan compiled from a workflow's trigger and action JSON.
+ * {@code updatedAt} identifies the workflow version the plan was compiled from.
+ */
+@Value
+public class WorkflowPlan {
+
+    Long workflowId;
+    Long userId;
+    boolean enabled;
+    Instant updatedAt;
+    TriggerSpec trigger;
+    List<ActionStep> actions;
+}
@@ -0,0 +1,94 @@
+package com.saasautomationbuilder.backend.execution.plan;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.saasautomationbuilder.backend.domain.Workflow;
+import com.saasautomationbuilder.backend.repository.WorkflowRepository;
+import com.saasautomationbuilder.backend.support.TransactionCallbacks;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Bounded cache of compiled {@link WorkflowPlan}s.
+ * <p>
+ * Entries are looked up by workflow id and are only valid for the workflow version ({@code updatedAt})
+ * they were compiled from: both lookups recompile when the workflow is newer than the cached plan, so a missed
+ * eviction cannot keep a stale plan running. {@link #getPlan(Long)} reads the current version with a one-column
+ * primary key lookup; the configs are only loaded and compiled on a miss.
+ * Saving or deleting a workflow through WorkflowService evicts its entry once the transaction commits, on this
+ * instance directly and on the others when the workflow's outbox change event reaches their ChangeEventListener.
+ */
+@Component
+public class WorkflowPlanCache {
+
+    private final WorkflowRepository workflowRepository;
+    private final WorkflowPlanCompiler planCompiler;
+    private final Cache<Long, WorkflowPlan> plans;
+
+    public WorkflowPlanCache(WorkflowRepository workflowRepository,
+                             WorkflowPlanCompiler planCompiler,
+                             @Value("${app.execution.plan-cache.max-size:50000}") long maxSize,
+                             @Value("${app.execution.plan-cache.ttl:PT10M}") Duration ttl) {
+        this.workflowRepository = workflowRepository;
+        this.planCompiler = planCompiler;
+        this.plans = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl) // Safety net in case an eviction is missed
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the plan for the current version of a workflow, loading and compiling the workflow on a miss.
+     *
+     * @return The plan, or null if the workflow does not exist.
+     */
+    public WorkflowPlan getPlan(Long workflowId) {
+        Instant updatedAt = workflowRepository.findUpdatedAtById(workflowId).orElse(null);
+        if (updatedAt == null) {
+            plans.invalidate(workflowId);
+            return null;
+        }
+        WorkflowPlan cached = plans.getIfPresent(workflowId);
+        if (isVersion(cached, updatedAt)) {
+            return cached;
+        }
+        // Concurrent misses for the same workflow share one load
+        return plans.asMap().compute(workflowId, (id, current) -> isVersion(current, updatedAt)
+                ? current
+                : workflowRepository.findById(id).map(planCompiler::compile).orElse(null));
+    }
+
+    // Returns the cached plan if it was compiled from this version of the workflow, recompiling otherwise
+    public WorkflowPlan getPlan(Workflow workflow) {
+        WorkflowPlan cached = plans.getIfPresent(workflow.getId());
+        if (isVersion(cached, workflow.getUpdatedAt())) {
+            return cached;
+        }
+        WorkflowPlan plan = planCompiler.compile(workflow);
+        plans.put(workflow.getId(), plan);
+        return plan;
+    }
+
+    public void invalidate(Long workflowId) {
+        plans.invalidate(workflowId);
+    }
+
+    // Evicts after commit so a concurrent reader cannot re-cache the pre-commit version
+    public void invalidateAfterCommit(Long workflowId) {
+        invalidate(workflowId);
+        TransactionCallbacks.afterCommit(() -> invalidate(workflowId));
+    }
+
+    private static boolean isVersion(WorkflowPlan plan, Instant updatedAt) {
+        return plan != null && plan.getUpdatedAt() != null && plan.getUpdatedAt().equals(updatedAt);
+    }
+
+    public CacheStats stats() {
+        return plans.stats();
+    }
+}
@@ -0,0 +1,208 @@
+package com.saasautomationbuilder.backend.execution.plan;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.saasautomationbuilder.backend.domain.Workflow;
+import com.saasautomationbuilder.backend.exception.InvalidWorkflowConfigException;
+import com.saasautomationbuilder.backend.execution.ActionHandler;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Compiles a workflow's {@code triggerConfig}/{@code actionConfig} JSON into an immutable {@link WorkflowPlan}.
+ * <p>
+ * Expected shapes (see WorkflowForm placeholders):
+ * <pre>
+ * triggerConfig: { "type": "schedule", "cron": "0 * * * *" }
+ *                { "type": "webhook", "connectorKey": "slack", "event": "message.created", "connectionId": 42 }
+ *                { "type": "interval" | "polling", "intervalSeconds": 60, ... }
+ *                { "type": "manual" }
+ * actionConfig:  [ { "type": "log", "message": "Workflow triggered!" }, ... ]
+ * </pre>
+ */
+@Component
+public class WorkflowPlanCompiler {
+
+    private static final Set<String> TRIGGER_FIELDS = Set.of("type", "connectorKey", "event", "connectionId", "cron", "intervalSeconds");
+    private static final Set<String> ACTION_FIELDS = Set.of("type", "connectorKey", "connectionId");
+
+    private final ObjectMapper objectMapper;
+    private final Set<String> actionTypes; // Types with a registered ActionHandler
+
+    public WorkflowPlanCompiler(ObjectMapper objectMapper, List<ActionHandler> actionHandlers) {
+        this.objectMapper = objectMapper;
+        this.actionTypes = actionHandlers.stream().map(ActionHandler::getType).collect(Collectors.toUnmodifiableSet());
+    }
+
+    /**
+     * Compiles a persisted workflow.
+     *
+     * @throws InvalidWorkflowConfigException if either config is malformed.
+     */
+    public WorkflowPlan compile(Workflow workflow) {
+        return new WorkflowPlan(
+                workflow.getId(),
+                workflow.getUser().getId(), // Lazy proxy id, no DB access
+                workflow.isEnabled(),
+                workflow.getUpdatedAt(),
+                compileTrigger(workflow.getTriggerConfig()),
+                compileActions(workflow.getActionConfig()));
+    }
+
+    public TriggerSpec compileTrigger(String triggerConfig) {
+        JsonNode node = parse(triggerConfig, "triggerConfig");
+        if (!node.isObject()) {
+            throw new InvalidWorkflowConfigException("triggerConfig must be a JSON object");
+        }
+        String typeName = requiredText(node, "type", "triggerConfig");
+        TriggerSpec.TriggerType type;
+        try {
+            type = TriggerSpec.TriggerType.valueOf(typeName.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidWorkflowConfigException("Unknown trigger type: " + typeName);
+        }
+
+        String connectorKey = optionalText(node, "connectorKey");
+        String event = optionalText(node, "event");
+        Long connectionId = optionalLong(node, "connectionId", "triggerConfig");
+        CronExpression cron = null;
+        Duration interval = null;
+
+        switch (type) {
+            case WEBHOOK -> {
+                connectorKey = requiredText(node, "connectorKey", "triggerConfig");
+                event = requiredText(node, "event", "triggerConfig");
+            }
+            case SCHEDULE -> cron = parseCron(requiredText(node, "cron", "triggerConfig"));
+            case INTERVAL -> interval = requiredInterval(node);
+            case POLLING -> {
+                connectorKey = requiredText(node, "connectorKey", "triggerConfig");
+                interval = requiredInterval(node);
+            }
+            case MANUAL -> { }
+        }
+
+        return new TriggerSpec(type, connectorKey, event, connectionId, cron, interval, remainingFields(node, TRIGGER_FIELDS));
+    }
+
+    public List<ActionStep> compileActions(String actionConfig) {
+        JsonNode node = parse(actionConfig, "actionConfig");
+        if (!node.isArray() || node.isEmpty()) {
+            throw new InvalidWorkflowConfigException("actionConfig must be a non-empty JSON array of actions");
+        }
+        List<ActionStep> steps = new ArrayList<>(node.size());
+        for (int i = 0; i < node.size(); i++) {
+            JsonNode action = node.get(i);
+            String location = "actionConfig[" + i + "]";
+            if (!action.isObject()) {
+                throw new InvalidWorkflowConfigException(location + " must be a JSON object");
+            }
+            String type = requiredText(action, "type", location);
+            if (!actionTypes.contains(type)) {
+                throw new InvalidWorkflowConfigException("Unknown action type '" + type + "' in " + location);
+            }
+            steps.add(new ActionStep(
+                    i,
+                    type,
+                    optionalText(action, "connectorKey"),
+                    optionalLong(action, "connectionId", location),
+                    remainingFields(action, ACTION_FIELDS)));
+        }
+        return Collections.unmodifiableList(steps);
+    }
+
+    // --- Helpers ---
+
+    private JsonNode parse(String json, String field) {
+        if (json == null || json.isBlank()) {
+            throw new InvalidWorkflowConfigException(field + " cannot be blank");
+        }
+        try {
+            return objectMapper.readTree(json);
+        } catch (JsonProcessingException e) {
+            throw new InvalidWorkflowConfigException(field + " is not valid JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private static String requiredText(JsonNode node, String name, String location) {
+        JsonNode value = node.get(name);
+        if (value == null || !value.isTextual() || value.asText().isBlank()) {
+            throw new InvalidWorkflowConfigException(location + "." + name + " is required");
+        }
+        return value.asText();
+    }
+
+    private static String optionalText(JsonNode node, String name) {
+        JsonNode value = node.get(name);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    private static Long optionalLong(JsonNode node, String name, String location) {
+        JsonNode value = node.get(name);
+        if (value == null || value.isNull()) {
+            return null;
+        }
+        if (!value.canConvertToLong() || !value.isIntegralNumber()) {
+            throw new InvalidWorkflowConfigException(location + "." + name + " must be an integer");
+        }
+        return value.asLong();
+    }
+
+    private static Duration requiredInterval(JsonNode node) {
+        JsonNode value = node.get("intervalSeconds");
+        if (value == null || !value.isIntegralNumber() || value.asLong() <= 0) {
+            throw new InvalidWorkflowConfigException("triggerConfig.intervalSeconds must be a positive integer");
+        }
+        return Duration.ofSeconds(value.asLong());
+    }
+
+    // Accepts standard 5-field cron ("0 * * * *") as well as Spring's 6-field form with seconds
+    private static CronExpression parseCron(String cron) {
+        String expression = cron.trim().split("\\s+").length == 5 ? "0 " + cron.trim() : cron.trim();
+        try {
+            return CronExpression.parse(expression);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidWorkflowConfigException("triggerConfig.cron is invalid: " + e.getMessage());
+        }
+    }
+
+    private Map<String, Object> remainingFields(JsonNode node, Set<String> knownFields) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        Iterator<Map.Entry<String, JsonNode>> iterator = node.fields();
+        while (iterator.hasNext()) {
+            Map.Entry<String, JsonNode> entry = iterator.next();
+            if (!knownFields.contains(entry.getKey())) {
+                fields.put(entry.getKey(), freeze(entry.getValue()));
+            }
+        }
+        return Collections.unmodifiableMap(fields);
+    }
+
+    // Converts a JSON value to plain, read-only Java values (Map/List/String/Number/Boolean/null)
+    private Object freeze(JsonNode value) {
+        if (value.isObject()) {
+            return remainingFields(value, Set.of());
+        }
+        if (value.isArray()) {
+            List<Object> items = new ArrayList<>(value.size());
+            value.forEach(item -> items.add(freeze(item)));
+            return Collections.unmodifiableList(items);
+        }
+        if (value.isNull()) {
+            return null;
+        }
+        return objectMapper.convertValue(value, Object.class);
+    }
+}
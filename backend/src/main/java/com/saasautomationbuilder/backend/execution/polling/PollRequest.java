@@ -0,0 +1,17 @@
+package com.saasautomationbuilder.backend.execution.polling;
+
+import lombok.Value;
+
+import java.util.Map;
+
+// One page fetch of a polling trigger, as handed to a PollingSource
+@Value
+public class PollRequest {
+    String connectorKey;
+    Long connectionId; // UserConnection the trigger is bound to (nullable)
+    String event; // What to poll for, e.g., "contact.created" (nullable)
+    Map<String, Object> options; // Remaining trigger fields (read-only)
+    Map<String, String> credentials; // Decrypted credentials of the connection (empty if none)
+    String cursor; // Where the previous poll stopped; null on the first poll
+    String etag; // Validator of the previous response, for a conditional request (nullable)
+}
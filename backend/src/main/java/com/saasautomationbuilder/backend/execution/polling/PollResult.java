@@ -0,0 +1,25 @@
+package com.saasautomationbuilder.backend.execution.polling;
+
+import lombok.Value;
+
+import java.util.List;
+import java.util.Map;
+
+// Page returned by a PollingSource
+@Value
+public class PollResult {
+    List<Item> items;
+    String cursor; // Cursor to resume from (null keeps the previous one)
+    String etag; // Validator to send with the next poll (null keeps the previous one)
+    boolean hasMore; // More changes are waiting beyond this page
+
+    public static PollResult notModified() {
+        return new PollResult(List.of(), null, null, false);
+    }
+
+    @Value
+    public static class Item {
+        String id; // Stable id of the item at the provider, used to drop items seen before
+        Map<String, Object> data; // Becomes the trigger event's payload
+    }
+}
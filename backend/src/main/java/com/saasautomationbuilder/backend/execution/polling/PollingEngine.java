@@ -0,0 +1,511 @@
+package com.saasautomationbuilder.backend.execution.polling;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.saasautomationbuilder.backend.domain.PollingCursor;
+import com.saasautomationbuilder.backend.exception.InvalidWorkflowConfigException;
+import com.saasautomationbuilder.backend.execution.BatchingTriggerPublisher;
+import com.saasautomationbuilder.backend.execution.TriggerEvent;
+import com.saasautomationbuilder.backend.execution.WorkflowExecutionException;
+import com.saasautomationbuilder.backend.execution.plan.TriggerSpec;
+import com.saasautomationbuilder.backend.execution.plan.WorkflowPlanCompiler;
+import com.saasautomationbuilder.backend.execution.schedule.SchedulerLeadership;
+import com.saasautomationbuilder.backend.execution.schedule.TimingWheel;
+import com.saasautomationbuilder.backend.execution.schedule.WorkflowTriggerSync;
+import com.saasautomationbuilder.backend.repository.PollingCursorRepository;
+import com.saasautomationbuilder.backend.repository.UserConnectionRepository;
+import com.saasautomationbuilder.backend.repository.WorkflowRepository;
+import com.saasautomationbuilder.backend.security.CredentialVault;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Runs polling triggers for APIs without webhooks.
+ * <p>
+ * Workflows of one user polling the same thing (connector, connection, event and options) share one subscription and
+ * therefore one upstream poll per interval (the shortest of their intervals, at least {@code min-interval}); each new
+ * item fires every one of them. Subscriptions never span users: a poll uses its owner's credentials and fires only
+ * the owner's workflows, which may only reference the owner's connections (see ConnectionOwnershipChecker). Where each poll left off is kept durably in a {@link PollingCursor}: the source's cursor
+ * and ETag, so sources only fetch changes, plus a bounded {@link SeenItems} set that drops items returned again.
+ * The first poll of a subscription only records the baseline and fires nothing.
+ * <p>
+ * Polls are timed on a {@link TimingWheel}: a new subscription starts at a random point of its interval and every
+ * later poll is jittered by {@code jitter}, so polls spread evenly instead of bunching up; failures back off
+ * exponentially up to {@code max-backoff}. Subscriptions are kept in sync by a {@link WorkflowTriggerSync}, like the
+ * time triggers but on their own {@code app.polling.*} schedule, and
+ * only the {@link SchedulerLeadership} leader polls. Events are published, and confirmed by the broker, before the
+ * cursor moves on; their ids ({@code poll:<workflowId>:<item fingerprint>}) are stable across retries.
+ */
+@Component
+public class PollingEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(PollingEngine.class);
+    public static final String SOURCE = "polling";
+    private static final int MAX_BACKOFF_DOUBLINGS = 16;
+
+    private final WorkflowPlanCompiler planCompiler;
+    private final PollingCursorRepository cursorRepository;
+    private final UserConnectionRepository connectionRepository;
+    private final CredentialVault credentialVault;
+    private final Map<String, PollingSource> sources;
+    private final BatchingTriggerPublisher triggerPublisher;
+    private final SchedulerLeadership leadership;
+    private final ObjectMapper keyMapper;
+    private final MeterRegistry meterRegistry;
+    private final long minIntervalMillis;
+    private final double jitter;
+    private final long maxBackoffMillis;
+    private final int maxPages;
+    private final int seenCapacity;
+    private final Duration confirmTimeout;
+    private final WorkflowTriggerSync sync;
+
+    private final TimingWheel<Subscription> wheel;
+    private final Map<String, Subscription> subscriptions = new HashMap<>(); // by poll key
+    private final Map<Long, String> pollKeys = new HashMap<>(); // workflow id -> poll key
+    private final ExecutorService pollers;
+    private volatile boolean running;
+    private Thread ticker;
+
+    public PollingEngine(WorkflowRepository workflowRepository,
+                         WorkflowPlanCompiler planCompiler,
+                         PollingCursorRepository cursorRepository,
+                         UserConnectionRepository connectionRepository,
+                         CredentialVault credentialVault,
+                         List<PollingSource> sources,
+                         BatchingTriggerPublisher triggerPublisher,
+                         SchedulerLeadership leadership,
+                         ObjectMapper objectMapper,
+                         MeterRegistry meterRegistry,
+                         @Value("${app.polling.tick:PT1S}") Duration tick,
+                         @Value("${app.polling.workers:8}") int workers,
+                         @Value("${app.polling.min-interval:PT1M}") Duration minInterval,
+                         @Value("${app.polling.jitter:0.1}") double jitter,
+                         @Value("${app.polling.max-backoff:PT1H}") Duration maxBackoff,
+                         @Value("${app.polling.max-pages:10}") int maxPages,
+                         @Value("${app.polling.seen-capacity:500}") int seenCapacity,
+                         @Value("${app.polling.confirm-timeout:PT10S}") Duration confirmTimeout,
+                         @Value("${app.polling.batch-size:5000}") int batchSize,
+                         @Value("${app.polling.resync-overlap:PT1M}") Duration resyncOverlap) {
+        this.planCompiler = planCompiler;
+        this.cursorRepository = cursorRepository;
+        this.connectionRepository = connectionRepository;
+        this.credentialVault = credentialVault;
+        this.sources = sources.stream().collect(Collectors.toUnmodifiableMap(PollingSource::getConnectorKey, Function.identity()));
+        this.triggerPublisher = triggerPublisher;
+        this.leadership = leadership;
+        this.keyMapper = objectMapper.copy().enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+        this.meterRegistry = meterRegistry;
+        this.minIntervalMillis = minInterval.toMillis();
+        this.jitter = jitter;
+        this.maxBackoffMillis = maxBackoff.toMillis();
+        this.maxPages = maxPages;
+        this.seenCapacity = seenCapacity;
+        this.confirmTimeout = confirmTimeout;
+        this.sync = new WorkflowTriggerSync("Polling triggers", workflowRepository, leadership, batchSize, resyncOverlap,
+                this::apply, this::sweep);
+        this.wheel = new TimingWheel<>(tick.toMillis(), System.currentTimeMillis());
+        AtomicInteger threadCount = new AtomicInteger();
+        this.pollers = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "polling-worker-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        meterRegistry.gauge("polling.subscriptions", this, PollingEngine::subscriptionCount);
+    }
+
+    // --- Maintenance ---
+
+    /**
+     * Adds, moves or removes a workflow depending on its current state.
+     * Only enabled workflows with a polling trigger are subscribed.
+     */
+    public synchronized void update(Long workflowId, Long userId, boolean enabled, TriggerSpec trigger) {
+        if (!enabled || trigger == null || trigger.getType() != TriggerSpec.TriggerType.POLLING) {
+            remove(workflowId);
+            return;
+        }
+        String pollKey = pollKey(userId, trigger);
+        if (!pollKey.equals(pollKeys.get(workflowId))) {
+            remove(workflowId);
+        }
+        Subscription subscription = subscriptions.get(pollKey);
+        if (subscription == null) {
+            subscription = new Subscription(pollKey, userId, trigger);
+            subscriptions.put(pollKey, subscription);
+            // Start at a random point of the interval, so subscriptions loaded together do not poll together
+            long interval = Math.max(minIntervalMillis, trigger.getInterval().toMillis());
+            arm(subscription, System.currentTimeMillis() + (long) (ThreadLocalRandom.current().nextDouble() * interval));
+        }
+        subscription.members.put(workflowId, new Member(userId, trigger.getInterval().toMillis(), sync.generation()));
+        pollKeys.put(workflowId, pollKey);
+    }
+
+    public synchronized void remove(Long workflowId) {
+        String pollKey = pollKeys.remove(workflowId);
+        if (pollKey == null) {
+            return;
+        }
+        Subscription subscription = subscriptions.get(pollKey);
+        subscription.members.remove(workflowId);
+        if (subscription.members.isEmpty()) {
+            drop(subscription);
+        }
+    }
+
+    public synchronized int subscriptionCount() {
+        return subscriptions.size();
+    }
+
+    public synchronized int workflowCount() {
+        return pollKeys.size();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startOnReady() {
+        try {
+            sync.resyncAll();
+        } catch (Exception e) {
+            // Keep the application up; only workflows saved from now on are polled until the next resync
+            logger.error("Failed to load polling triggers: {}", e.getMessage(), e);
+        }
+        start();
+    }
+
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        sync.startTerm();
+        ticker = new Thread(this::tickLoop, "polling-ticker");
+        ticker.setDaemon(true);
+        ticker.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        Thread thread;
+        synchronized (this) {
+            running = false;
+            thread = ticker;
+        }
+        if (thread != null) {
+            thread.interrupt();
+            thread.join(5_000);
+        }
+        pollers.shutdownNow();
+        pollers.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    // Reloads all enabled polling workflows and drops the ones gone or disabled elsewhere
+    public void resyncAll() {
+        sync.resyncAll();
+    }
+
+    // Applies workflows updated since the last scan (on any instance); re-scans an overlap for late commits
+    @Scheduled(fixedDelayString = "${app.polling.resync-interval:PT30S}")
+    public void resyncChanges() {
+        sync.resyncChanges();
+    }
+
+    @Scheduled(fixedDelayString = "${app.polling.full-resync-interval:PT1H}",
+               initialDelayString = "${app.polling.full-resync-interval:PT1H}")
+    public void resyncAllPeriodically() {
+        sync.resyncAllQuietly();
+    }
+
+    // --- Polling ---
+
+    /**
+     * Hands every subscription due by {@code nowMillis} to the poller pool if this instance is leader.
+     * A subscription is out of the wheel while its poll runs, so polls of one subscription never overlap.
+     */
+    public void advanceTo(long nowMillis) {
+        List<Subscription> due = new ArrayList<>();
+        synchronized (this) {
+            boolean leading = leadership.isLeader();
+            wheel.advance(nowMillis, subscription -> {
+                subscription.timeout = null;
+                if (leading) {
+                    due.add(subscription);
+                } else {
+                    arm(subscription, nowMillis + subscription.intervalMillis(minIntervalMillis));
+                }
+            });
+        }
+        for (Subscription subscription : due) {
+            pollers.execute(() -> runPoll(subscription));
+        }
+    }
+
+    /**
+     * Polls a workflow's subscription right away, on the calling thread (for manual runs; not coordinated with
+     * the scheduled polls).
+     *
+     * @return The number of new items found (each fired to every workflow of the subscription).
+     */
+    public int pollNow(Long workflowId) throws Exception {
+        Subscription subscription;
+        synchronized (this) {
+            String pollKey = pollKeys.get(workflowId);
+            subscription = pollKey == null ? null : subscriptions.get(pollKey);
+        }
+        if (subscription == null) {
+            throw new WorkflowExecutionException("Workflow " + workflowId + " has no polling subscription");
+        }
+        return poll(subscription);
+    }
+
+    private void runPoll(Subscription subscription) {
+        Exception failure = null;
+        try {
+            poll(subscription);
+        } catch (Exception e) {
+            failure = e;
+        }
+        synchronized (this) {
+            if (subscriptions.get(subscription.pollKey) != subscription || subscription.timeout != null) {
+                return; // Removed (or replaced) while polling: nothing to re-arm
+            }
+            long interval = subscription.intervalMillis(minIntervalMillis);
+            long delay;
+            if (failure == null) {
+                subscription.failures = 0;
+                delay = (long) (interval * (1 + jitter * (2 * ThreadLocalRandom.current().nextDouble() - 1)));
+            } else {
+                int failures = ++subscription.failures;
+                delay = Math.min(maxBackoffMillis, interval << Math.min(failures, MAX_BACKOFF_DOUBLINGS));
+                logger.warn("Poll of {} (connection {}) failed {} time(s), next try in {} s: {}", subscription.connectorKey,
+                        subscription.connectionId, failures, delay / 1000, failure.getMessage());
+            }
+            arm(subscription, System.currentTimeMillis() + delay);
+        }
+    }
+
+    private int poll(Subscription subscription) throws Exception {
+        String connectorKey = subscription.connectorKey;
+        PollingSource source = sources.get(connectorKey);
+        if (source == null) {
+            throw new WorkflowExecutionException("No polling source for connector '" + connectorKey + "'");
+        }
+        Map<Long, Long> members;
+        synchronized (this) {
+            members = subscription.memberUsers();
+        }
+        if (members.isEmpty()) {
+            return 0;
+        }
+        PollingCursor cursor = cursorRepository.findByPollKey(subscription.pollKey).orElseGet(() -> {
+            PollingCursor created = new PollingCursor();
+            created.setPollKey(subscription.pollKey);
+            created.setConnectorKey(connectorKey);
+            created.setConnectionId(subscription.connectionId);
+            return created;
+        });
+        boolean baseline = cursor.getId() == null;
+        SeenItems seen = SeenItems.fromBytes(cursor.getSeenItems(), seenCapacity);
+        Map<String, String> credentials = credentials(subscription);
+
+        List<PollResult.Item> fresh = new ArrayList<>();
+        String position = cursor.getCursor();
+        String etag = cursor.getEtag();
+        for (int page = 0; page < maxPages; page++) {
+            PollResult result = source.poll(new PollRequest(connectorKey, subscription.connectionId, subscription.event,
+                    subscription.options, credentials, position, etag));
+            for (PollResult.Item item : result.getItems()) {
+                if (seen.addIfAbsent(item.getId())) {
+                    fresh.add(item);
+                }
+            }
+            position = result.getCursor() != null ? result.getCursor() : position;
+            etag = result.getEtag() != null ? result.getEtag() : etag;
+            if (!result.isHasMore()) {
+                break;
+            }
+        }
+
+        if (!baseline && !fresh.isEmpty()) {
+            publish(members, fresh);
+        }
+        cursor.setCursor(position);
+        cursor.setEtag(etag);
+        cursor.setSeenItems(seen.toBytes());
+        cursor.setLastPolledAt(Instant.now());
+        cursorRepository.save(cursor);
+
+        meterRegistry.counter("polling.polls", "connector", connectorKey,
+                "outcome", baseline ? "baseline" : fresh.isEmpty() ? "unchanged" : "new_items").increment();
+        meterRegistry.counter("polling.items", "connector", connectorKey).increment(baseline ? 0 : fresh.size());
+        return baseline ? 0 : fresh.size();
+    }
+
+    // Waits for the broker, so the cursor only moves past items whose events are safely queued
+    private void publish(Map<Long, Long> members, List<PollResult.Item> items) throws Exception {
+        Instant now = Instant.now();
+        List<TriggerEvent> events = new ArrayList<>(members.size() * items.size());
+        for (PollResult.Item item : items) {
+            String fingerprint = Long.toHexString(SeenItems.fingerprint(item.getId()));
+            members.forEach((workflowId, userId) -> events.add(new TriggerEvent(
+                    "poll:" + workflowId + ":" + fingerprint, workflowId, userId, SOURCE, item.getData(), now, 0)));
+        }
+        CompletableFuture<Void> confirmed = triggerPublisher.trySubmit(events);
+        if (confirmed == null) {
+            throw new WorkflowExecutionException("Trigger publisher has no room for " + events.size() + " polled events");
+        }
+        confirmed.get(confirmTimeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private Map<String, String> credentials(Subscription subscription) {
+        Long connectionId = subscription.connectionId;
+        Long userId = subscription.userId;
+        if (connectionId == null) {
+            return Map.of();
+        }
+        String sealed = connectionRepository.findActiveCredentials(connectionId, userId)
+                .orElseThrow(() -> new WorkflowExecutionException("Connection " + connectionId + " is not active"));
+        return credentialVault.open(connectionId, userId, sealed);
+    }
+
+    private void tickLoop() {
+        long tickMillis = wheel.tickMillis();
+        while (running) {
+            try {
+                long now = System.currentTimeMillis();
+                Thread.sleep(tickMillis - now % tickMillis);
+                sync.resyncIfNewLeaderTerm();
+                advanceTo(System.currentTimeMillis());
+            } catch (InterruptedException e) {
+                return;
+            } catch (Exception e) {
+                logger.error("Polling tick failed: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    private void apply(Long workflowId, Long userId, boolean enabled, String triggerConfig) {
+        try {
+            update(workflowId, userId, enabled, planCompiler.compileTrigger(triggerConfig));
+        } catch (InvalidWorkflowConfigException e) {
+            logger.warn("Not polling for workflow {}: {}", workflowId, e.getMessage());
+            remove(workflowId);
+        }
+    }
+
+    // Drops members the full resync that stamped sweepGeneration did not see, and subscriptions left empty
+    private synchronized int sweep(long sweepGeneration) {
+        int swept = 0;
+        for (Iterator<Subscription> it = subscriptions.values().iterator(); it.hasNext(); ) {
+            Subscription subscription = it.next();
+            for (Iterator<Map.Entry<Long, Member>> members = subscription.members.entrySet().iterator(); members.hasNext(); ) {
+                Map.Entry<Long, Member> member = members.next();
+                if (member.getValue().generation() < sweepGeneration) {
+                    pollKeys.remove(member.getKey());
+                    members.remove();
+                    swept++;
+                }
+            }
+            if (subscription.members.isEmpty()) {
+                cancel(subscription);
+                it.remove();
+            }
+        }
+        return swept;
+    }
+
+    private void arm(Subscription subscription, long atMillis) {
+        subscription.timeout = wheel.schedule(subscription, atMillis);
+    }
+
+    private void cancel(Subscription subscription) {
+        if (subscription.timeout != null) {
+            wheel.cancel(subscription.timeout);
+            subscription.timeout = null;
+        }
+    }
+
+    private void drop(Subscription subscription) {
+        cancel(subscription);
+        subscriptions.remove(subscription.pollKey);
+    }
+
+    // Identifies what is polled and for whom, independent of the workflows and their intervals
+    private String pollKey(Long userId, TriggerSpec trigger) {
+        try {
+            byte[] definition = keyMapper.writeValueAsBytes(Arrays.asList(userId,
+                    trigger.getConnectorKey(), trigger.getConnectionId(), trigger.getEvent(), trigger.getOptions()));
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(definition));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Cannot derive poll key", e);
+        }
+    }
+
+    private static final class Subscription {
+        final String pollKey;
+        final Long userId; // Owner of every member workflow
+        final String connectorKey;
+        final Long connectionId;
+        final String event;
+        final Map<String, Object> options;
+        // Guarded by the engine, like the fields below
+        final Map<Long, Member> members = new LinkedHashMap<>(); // by workflow id
+        TimingWheel.Timeout<Subscription> timeout; // null while its poll runs
+        int failures;
+
+        Subscription(String pollKey, Long userId, TriggerSpec trigger) {
+            this.pollKey = pollKey;
+            this.userId = userId;
+            this.connectorKey = trigger.getConnectorKey();
+            this.connectionId = trigger.getConnectionId();
+            this.event = trigger.getEvent();
+            this.options = trigger.getOptions();
+        }
+
+        // Shortest interval asked for by any of its workflows
+        long intervalMillis(long minIntervalMillis) {
+            long interval = Long.MAX_VALUE;
+            for (Member member : members.values()) {
+                interval = Math.min(interval, member.intervalMillis());
+            }
+            return Math.max(minIntervalMillis, interval == Long.MAX_VALUE ? minIntervalMillis : interval);
+        }
+
+        Map<Long, Long> memberUsers() {
+            Map<Long, Long> users = new LinkedHashMap<>();
+            members.forEach((workflowId, member) -> users.put(workflowId, member.userId()));
+            return users;
+        }
+    }
+
+    private record Member(Long userId, long intervalMillis, long generation) {
+    }
+}
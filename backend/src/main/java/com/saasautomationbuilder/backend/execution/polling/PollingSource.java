@@ -0,0 +1,24 @@
+package com.saasautomationbuilder.backend.execution.polling;
+
+/**
+ * Fetches new items for polling triggers of one connector (selected by the trigger's {@code "connectorKey"}).
+ * Implementations are Spring beans and are picked up automatically by {@link PollingEngine}.
+ * <p>
+ * A source should ask its API only for what changed since {@link PollRequest#getCursor()} (a since-timestamp,
+ * a sync/page token, ...) and send {@link PollRequest#getEtag()} as a conditional request where supported,
+ * so each poll costs in proportion to the new data rather than to everything the user has.
+ */
+public interface PollingSource {
+
+    // Connector this source polls, e.g., "http"
+    String getConnectorKey();
+
+    /**
+     * Fetches one page of items changed since the request's cursor.
+     *
+     * @return The items (possibly including some already seen; the engine drops those) and the cursor to resume
+     *         from. {@link PollResult#isHasMore()} asks the engine to fetch the next page right away.
+     * @throws Exception if the poll fails; the cursor is left unchanged and the poll is retried with backoff.
+     */
+    PollResult poll(PollRequest request) throws Exception;
+}
@@ -0,0 +1,91 @@
+package com.saasautomationbuilder.backend.execution.polling;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Bounded set of the most recently seen item ids of a poll, kept as 64-bit fingerprints in a ring buffer
+ * (8 bytes per id, oldest evicted first). Stored with the poll's cursor, so it must stay small: it only has to
+ * cover the overlap between consecutive polls, e.g., items re-returned by an inclusive "since" filter.
+ * <p>
+ * Membership is a linear scan, which for a few hundred entries beats hashing the fingerprints into a set.
+ */
+public final class SeenItems {
+
+    private final long[] ring;
+    private int size;
+    private int next; // Slot the next fingerprint goes into
+
+    public SeenItems(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.ring = new long[capacity];
+    }
+
+    // Restores a set written by toBytes; fingerprints beyond the capacity (oldest first) are dropped
+    public static SeenItems fromBytes(byte[] bytes, int capacity) {
+        SeenItems seen = new SeenItems(capacity);
+        if (bytes != null) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            while (buffer.remaining() >= Long.BYTES) {
+                seen.add(buffer.getLong());
+            }
+        }
+        return seen;
+    }
+
+    // True if the id was not seen before (and is now)
+    public boolean addIfAbsent(String itemId) {
+        long fingerprint = fingerprint(itemId);
+        for (int i = 0; i < size; i++) {
+            if (ring[i] == fingerprint) {
+                return false;
+            }
+        }
+        add(fingerprint);
+        return true;
+    }
+
+    public boolean contains(String itemId) {
+        long fingerprint = fingerprint(itemId);
+        for (int i = 0; i < size; i++) {
+            if (ring[i] == fingerprint) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Oldest first, so fromBytes restores the same eviction order
+    public byte[] toBytes() {
+        ByteBuffer buffer = ByteBuffer.allocate(size * Long.BYTES);
+        int oldest = size < ring.length ? 0 : next;
+        for (int i = 0; i < size; i++) {
+            buffer.putLong(ring[(oldest + i) % ring.length]);
+        }
+        return buffer.array();
+    }
+
+    // 64-bit FNV-1a of the UTF-8 id; collisions are negligible at this set size
+    public static long fingerprint(String itemId) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : itemId.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private void add(long fingerprint) {
+        ring[next] = fingerprint;
+        next = (next + 1) % ring.length;
+        if (size < ring.length) {
+            size++;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.saasautomationbuilder.backend.execution.schedule;
+
+import com.saasautomationbuilder.backend.support.DatabasePlatform;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Elects one backend instance to fire time triggers, using a PostgreSQL session-level advisory lock.
+ * <p>
+ * Every instance tries {@code pg_try_advisory_lock(lock-key)} on a connection it keeps open; whoever gets it stays
+ * leader for as long as that session lives, which takes one connection out of the pool. If the leader dies or its
+ * connection breaks, the server releases the lock and another instance takes over on its next check.
+ * On other databases (H2 in dev and tests) there is only ever one instance, which is always leader.
+ */
+@Component
+public class SchedulerLeadership {
+
+    private static final Logger logger = LoggerFactory.getLogger(SchedulerLeadership.class);
+
+    private final DataSource dataSource;
+    private final long lockKey;
+
+    private Connection lockConnection; // Holds the lock while leader; only touched by the check job
+    private Boolean postgres;
+    private volatile boolean leader;
+    private volatile long term; // Incremented on each acquisition
+
+    public SchedulerLeadership(DataSource dataSource,
+                               @Value("${app.execution.time-triggers.leader-lock-key:7301946521}") long lockKey) {
+        this.dataSource = dataSource;
+        this.lockKey = lockKey;
+    }
+
+    public boolean isLeader() {
+        return leader;
+    }
+
+    // Changes every time this instance becomes leader, so callers can tell a new term from a continued one
+    public long term() {
+        return term;
+    }
+
+    @Scheduled(fixedDelayString = "${app.execution.time-triggers.leader-check-interval:PT5S}")
+    public synchronized void checkLeadership() {
+        try {
+            if (postgres == null) {
+                postgres = DatabasePlatform.isPostgres(dataSource);
+            }
+            if (!postgres) {
+                becomeLeader();
+                return;
+            }
+            if (leader) {
+                if (!lockConnection.isValid(2)) {
+                    logger.warn("Lost the time trigger leader lock: connection is no longer valid");
+                    release();
+                }
+                return;
+            }
+            if (lockConnection == null) {
+                lockConnection = dataSource.getConnection();
+                lockConnection.setAutoCommit(true);
+            }
+            try (PreparedStatement statement = lockConnection.prepareStatement("SELECT pg_try_advisory_lock(?)")) {
+                statement.setLong(1, lockKey);
+                try (ResultSet result = statement.executeQuery()) {
+                    if (result.next() && result.getBoolean(1)) {
+                        becomeLeader();
+                        logger.info("Acquired the time trigger leader lock");
+                    }
+                }
+            }
+        } catch (SQLException | DataAccessException e) {
+            logger.warn("Time trigger leadership check failed: {}", e.getMessage());
+            release();
+        }
+    }
+
+    // The connection goes back to the pool, so the lock is released explicitly rather than with the session
+    @PreDestroy
+    public synchronized void release() {
+        boolean wasLeader = leader;
+        leader = false;
+        if (lockConnection != null) {
+            try (Connection connection = lockConnection) {
+                if (wasLeader && Boolean.TRUE.equals(postgres) && connection.isValid(2)) {
+                    try (PreparedStatement statement = connection.prepareStatement("SELECT pg_advisory_unlock(?)")) {
+                        statement.setLong(1, lockKey);
+                        statement.execute();
+                    }
+                }
+            } catch (SQLException e) {
+                logger.debug("Failed to close the leader lock connection: {}", e.getMessage());
+            }
+            lockConnection = null;
+        }
+    }
+
+    private void becomeLeader() {
+        if (!leader) {
+            term++;
+            leader = true;
+        }
+    }
+}
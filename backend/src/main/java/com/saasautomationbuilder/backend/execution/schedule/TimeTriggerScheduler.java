@@ -0,0 +1,353 @@
+package com.saasautomationbuilder.backend.execution.schedule;
+
+import com.saasautomationbuilder.backend.exception.InvalidWorkflowConfigException;
+import com.saasautomationbuilder.backend.execution.BatchingTriggerPublisher;
+import com.saasautomationbuilder.backend.execution.TriggerEvent;
+import com.saasautomationbuilder.backend.execution.plan.TriggerSpec;
+import com.saasautomationbuilder.backend.execution.plan.WorkflowPlanCompiler;
+import com.saasautomationbuilder.backend.repository.WorkflowRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Fires schedule (cron, evaluated in UTC) and interval triggers of enabled workflows.
+ * <p>
+ * Every instance keeps all schedules in a {@link TimingWheel}, loaded from the DB at startup and kept in sync by
+ * WorkflowService and the import (after commit). Changes made on other instances are picked up by a periodic scan of
+ * recently updated workflows, and a full resync every {@code full-resync-interval} drops workflows deleted elsewhere
+ * (see {@link WorkflowTriggerSync}).
+ * Only the instance holding {@link SchedulerLeadership} publishes the events; the others advance their wheels
+ * without firing, so a new leader can take over without reloading.
+ * <p>
+ * Fire times do not depend on when an instance loaded a schedule: cron is evaluated on the wall clock and interval
+ * triggers fire on an epoch-aligned grid whose phase is derived from the workflow id (which also spreads workflows
+ * with the same interval over it). Event ids are derived from the workflow and the scheduled time
+ * ({@code schedule:<workflowId>:<epochMillis>}), so a fire published by both the old and the new leader around a
+ * handover carries the same id and WorkflowExecutionListener's shared claim runs it once.
+ * Missed fires (after a pause or outage) are coalesced into one.
+ */
+@Component
+public class TimeTriggerScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(TimeTriggerScheduler.class);
+    public static final String SCHEDULE_SOURCE = "schedule";
+    public static final String INTERVAL_SOURCE = "interval";
+
+    private final WorkflowPlanCompiler planCompiler;
+    private final BatchingTriggerPublisher triggerPublisher;
+    private final SchedulerLeadership leadership;
+    private final WorkflowTriggerSync sync;
+    private final int maxUnpublished;
+    private final Counter fired;
+    private final Counter dropped;
+
+    private final TimingWheel<Schedule> wheel;
+    private final Map<Long, Schedule> schedules = new HashMap<>(); // by workflow id
+    private final ArrayDeque<TriggerEvent> unpublished = new ArrayDeque<>(); // fires the publisher had no room for
+    private volatile boolean running;
+    private Thread ticker;
+
+    public TimeTriggerScheduler(WorkflowRepository workflowRepository,
+                                WorkflowPlanCompiler planCompiler,
+                                BatchingTriggerPublisher triggerPublisher,
+                                SchedulerLeadership leadership,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.execution.time-triggers.tick:PT1S}") Duration tick,
+                                @Value("${app.execution.time-triggers.batch-size:5000}") int batchSize,
+                                @Value("${app.execution.time-triggers.max-unpublished:100000}") int maxUnpublished,
+                                @Value("${app.execution.time-triggers.resync-overlap:PT1M}") Duration resyncOverlap) {
+        this.planCompiler = planCompiler;
+        this.triggerPublisher = triggerPublisher;
+        this.leadership = leadership;
+        this.sync = new WorkflowTriggerSync("Time triggers", workflowRepository, leadership, batchSize, resyncOverlap,
+                this::apply, this::sweep);
+        this.maxUnpublished = maxUnpublished;
+        this.wheel = new TimingWheel<>(tick.toMillis(), System.currentTimeMillis());
+        this.fired = meterRegistry.counter("execution.time.triggers.fired");
+        this.dropped = meterRegistry.counter("execution.time.triggers.dropped");
+        meterRegistry.gauge("execution.time.triggers.scheduled", this, TimeTriggerScheduler::size);
+    }
+
+    // --- Maintenance ---
+
+    /**
+     * Adds, reschedules or removes a workflow's schedule depending on its current state.
+     * An unchanged schedule keeps its next fire time, so repeated updates do not postpone interval triggers.
+     */
+    public synchronized void update(Long workflowId, Long userId, boolean enabled, TriggerSpec trigger) {
+        Schedule existing = schedules.get(workflowId);
+        if (!enabled || !isTimeTrigger(trigger)) {
+            remove(workflowId);
+            return;
+        }
+        if (existing != null && existing.userId.equals(userId) && sameTiming(existing.trigger, trigger)) {
+            existing.generation = sync.generation();
+            return;
+        }
+        remove(workflowId);
+        Schedule schedule = new Schedule(workflowId, userId, trigger);
+        schedule.generation = sync.generation();
+        schedules.put(workflowId, schedule);
+        long now = System.currentTimeMillis();
+        arm(schedule, nextFireAfter(trigger, workflowId, now, now));
+    }
+
+    public synchronized void remove(Long workflowId) {
+        Schedule previous = schedules.remove(workflowId);
+        if (previous != null && previous.timeout != null) {
+            wheel.cancel(previous.timeout);
+        }
+    }
+
+    public synchronized int size() {
+        return schedules.size();
+    }
+
+    // Next fire time of a workflow's schedule, or null if it has none
+    public synchronized Instant nextFireTime(Long workflowId) {
+        Schedule schedule = schedules.get(workflowId);
+        return schedule == null ? null : Instant.ofEpochMilli(schedule.nextFireMillis);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startOnReady() {
+        try {
+            sync.resyncAll();
+        } catch (Exception e) {
+            // Keep the application up; only workflows saved from now on are scheduled until the next resync
+            logger.error("Failed to load time triggers: {}", e.getMessage(), e);
+        }
+        start();
+    }
+
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        sync.startTerm();
+        ticker = new Thread(this::tickLoop, "time-trigger-ticker");
+        ticker.setDaemon(true);
+        ticker.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        Thread thread;
+        synchronized (this) {
+            running = false;
+            thread = ticker;
+        }
+        if (thread != null) {
+            thread.interrupt();
+            thread.join(5_000);
+        }
+    }
+
+    /**
+     * Reloads all enabled workflows' triggers in keyset-paged batches and drops schedules of workflows
+     * that are gone or disabled. Schedules that did not change keep their next fire time.
+     */
+    public void resyncAll() {
+        sync.resyncAll();
+    }
+
+    // Applies workflows updated since the last scan (on any instance); re-scans an overlap for late commits
+    @Scheduled(fixedDelayString = "${app.execution.time-triggers.resync-interval:PT30S}")
+    public void resyncChanges() {
+        sync.resyncChanges();
+    }
+
+    @Scheduled(fixedDelayString = "${app.execution.time-triggers.full-resync-interval:PT1H}",
+               initialDelayString = "${app.execution.time-triggers.full-resync-interval:PT1H}")
+    public void resyncAllPeriodically() {
+        sync.resyncAllQuietly();
+    }
+
+    // --- Firing ---
+
+    /**
+     * Fires everything due up to {@code nowMillis}: publishes the events if this instance is leader and arms each
+     * schedule's next occurrence either way. Called by the ticker thread every tick.
+     */
+    public void advanceTo(long nowMillis) {
+        List<TriggerEvent> due = new ArrayList<>();
+        synchronized (this) {
+            boolean leading = leadership.isLeader();
+            wheel.advance(nowMillis, schedule -> {
+                long fireAt = schedule.nextFireMillis;
+                schedule.timeout = null;
+                if (leading) {
+                    due.add(event(schedule, fireAt));
+                }
+                arm(schedule, nextFireAfter(schedule.trigger, schedule.workflowId, fireAt, nowMillis));
+            });
+            if (!leading) {
+                return;
+            }
+            unpublished.addAll(due);
+            due.clear();
+            due.addAll(unpublished);
+            unpublished.clear();
+        }
+        publish(due);
+    }
+
+    private void tickLoop() {
+        long tickMillis = wheel.tickMillis();
+        while (running) {
+            try {
+                long now = System.currentTimeMillis();
+                Thread.sleep(tickMillis - now % tickMillis);
+                sync.resyncIfNewLeaderTerm();
+                advanceTo(System.currentTimeMillis());
+            } catch (InterruptedException e) {
+                return;
+            } catch (Exception e) {
+                logger.error("Time trigger tick failed: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    private void publish(List<TriggerEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        CompletableFuture<Void> confirmed = triggerPublisher.trySubmit(events);
+        if (confirmed == null) {
+            requeue(events);
+            return;
+        }
+        // Unconfirmed events are published again; their ids stay the same
+        confirmed.whenComplete((result, error) -> {
+            if (error == null) {
+                fired.increment(events.size());
+            } else {
+                requeue(events);
+            }
+        });
+    }
+
+    private synchronized void requeue(List<TriggerEvent> events) {
+        unpublished.addAll(events);
+        int overflow = unpublished.size() - maxUnpublished;
+        for (int i = 0; i < overflow; i++) {
+            unpublished.pollFirst();
+        }
+        if (overflow > 0) {
+            dropped.increment(overflow);
+            logger.warn("Dropped {} time trigger events the broker could not take", overflow);
+        }
+    }
+
+    private void apply(Long workflowId, Long userId, boolean enabled, String triggerConfig) {
+        try {
+            update(workflowId, userId, enabled, planCompiler.compileTrigger(triggerConfig));
+        } catch (InvalidWorkflowConfigException e) {
+            logger.warn("Not scheduling workflow {}: {}", workflowId, e.getMessage());
+            remove(workflowId);
+        }
+    }
+
+    // Drops schedules the full resync that stamped sweepGeneration did not see
+    private synchronized int sweep(long sweepGeneration) {
+        int swept = 0;
+        for (Iterator<Schedule> it = schedules.values().iterator(); it.hasNext(); ) {
+            Schedule schedule = it.next();
+            if (schedule.generation < sweepGeneration) {
+                if (schedule.timeout != null) {
+                    wheel.cancel(schedule.timeout);
+                }
+                it.remove();
+                swept++;
+            }
+        }
+        return swept;
+    }
+
+    private void arm(Schedule schedule, long fireAtMillis) {
+        schedule.nextFireMillis = fireAtMillis;
+        schedule.timeout = fireAtMillis == Long.MAX_VALUE ? null : wheel.schedule(schedule, fireAtMillis);
+    }
+
+    private static TriggerEvent event(Schedule schedule, long fireAtMillis) {
+        Instant scheduledAt = Instant.ofEpochMilli(fireAtMillis);
+        String source = schedule.trigger.getType() == TriggerSpec.TriggerType.SCHEDULE ? SCHEDULE_SOURCE : INTERVAL_SOURCE;
+        return new TriggerEvent(SCHEDULE_SOURCE + ":" + schedule.workflowId + ":" + fireAtMillis,
+                schedule.workflowId, schedule.userId, source,
+                Map.of("scheduledAt", scheduledAt.toString()), scheduledAt, 0);
+    }
+
+    // Next occurrence after the one at fromMillis; occurrences already in the past are skipped
+    static long nextFireAfter(TriggerSpec trigger, long workflowId, long fromMillis, long nowMillis) {
+        if (trigger.getType() == TriggerSpec.TriggerType.INTERVAL) {
+            long interval = trigger.getInterval().toMillis();
+            long phase = intervalPhase(workflowId, interval);
+            return alignedAfter(Math.max(fromMillis, nowMillis), interval, phase);
+        }
+        ZonedDateTime next = trigger.getCron().next(ZonedDateTime.ofInstant(
+                Instant.ofEpochMilli(Math.max(fromMillis, nowMillis)), ZoneOffset.UTC));
+        return next == null ? Long.MAX_VALUE : next.toInstant().toEpochMilli();
+    }
+
+    // Offset of a workflow's interval grid from the epoch, in whole seconds so fires land on tick boundaries
+    static long intervalPhase(long workflowId, long intervalMillis) {
+        long hash = workflowId * 0x9E3779B97F4A7C15L;
+        hash ^= hash >>> 32;
+        long phase = Math.floorMod(hash, intervalMillis);
+        return phase - phase % 1_000;
+    }
+
+    // First instant strictly after afterMillis that lies on the grid phase + k * interval
+    private static long alignedAfter(long afterMillis, long intervalMillis, long phase) {
+        return afterMillis - Math.floorMod(afterMillis - phase, intervalMillis) + intervalMillis;
+    }
+
+    private static boolean isTimeTrigger(TriggerSpec trigger) {
+        return trigger != null && (trigger.getType() == TriggerSpec.TriggerType.SCHEDULE
+                || trigger.getType() == TriggerSpec.TriggerType.INTERVAL);
+    }
+
+    private static boolean sameTiming(TriggerSpec a, TriggerSpec b) {
+        return a.getType() == b.getType()
+                && Objects.equals(a.getInterval(), b.getInterval())
+                && Objects.equals(a.getCron() == null ? null : a.getCron().toString(),
+                                  b.getCron() == null ? null : b.getCron().toString());
+    }
+
+    private static final class Schedule {
+        final Long workflowId;
+        final Long userId;
+        final TriggerSpec trigger;
+        long nextFireMillis;
+        TimingWheel.Timeout<Schedule> timeout; // null while firing or if it never fires again
+        long generation;
+
+        Schedule(Long workflowId, Long userId, TriggerSpec trigger) {
+            this.workflowId = workflowId;
+            this.userId = userId;
+            this.trigger = trigger;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.saasautomationbuilder.backend.execution.schedule;
+
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel (Varghese &amp; Lauck): four levels of 64 slots, each slot of a level spanning a whole
+ * revolution of the level below. With a 1 s tick it covers ~194 days directly; later deadlines sit in the top level
+ * and are simply re-placed each time their slot comes round.
+ * <p>
+ * {@link #schedule} and {@link #cancel} are O(1): a timeout is a node of its slot's doubly linked list.
+ * {@link #advance} does O(1) work per tick plus the expired timeouts, and moves timeouts of a higher level down one
+ * level when the level below wraps, so each timeout is touched at most once per level.
+ * <p>
+ * Not thread-safe; callers serialize access.
+ */
+public final class TimingWheel<T> {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+
+    private final long tickMillis;
+    private final Timeout<T>[][] levels; // Sentinel head of each slot's list
+    private long currentTick; // Last tick processed
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long tickMillis, long startMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("tickMillis must be positive");
+        }
+        this.tickMillis = tickMillis;
+        this.currentTick = startMillis / tickMillis;
+        this.levels = new Timeout[LEVELS][SLOTS];
+        for (Timeout<T>[] level : levels) {
+            for (int slot = 0; slot < SLOTS; slot++) {
+                Timeout<T> head = new Timeout<>(null, 0);
+                head.prev = head;
+                head.next = head;
+                level[slot] = head;
+            }
+        }
+    }
+
+    /**
+     * Adds a timeout firing at the first tick at or after {@code deadlineMillis};
+     * deadlines already passed fire on the next tick.
+     */
+    public Timeout<T> schedule(T value, long deadlineMillis) {
+        long deadlineTick = Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis);
+        Timeout<T> timeout = new Timeout<>(value, Math.max(deadlineTick, currentTick + 1));
+        place(timeout);
+        size++;
+        return timeout;
+    }
+
+    // False if the timeout has already fired or been cancelled
+    public boolean cancel(Timeout<T> timeout) {
+        if (timeout.prev == null) {
+            return false;
+        }
+        unlink(timeout);
+        size--;
+        return true;
+    }
+
+    /**
+     * Processes every tick up to {@code nowMillis}, handing each expired timeout's value to {@code expired}
+     * in deadline order. The callback may schedule and cancel timeouts.
+     */
+    public void advance(long nowMillis, Consumer<T> expired) {
+        long targetTick = nowMillis / tickMillis;
+        while (currentTick < targetTick) {
+            currentTick++;
+            cascade();
+            Timeout<T> head = levels[0][(int) (currentTick & SLOT_MASK)];
+            while (head.next != head) {
+                Timeout<T> timeout = head.next;
+                unlink(timeout);
+                size--;
+                expired.accept(timeout.value);
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long tickMillis() {
+        return tickMillis;
+    }
+
+    // When a level wraps, the next slot of the level above is redistributed over the levels below
+    private void cascade() {
+        for (int level = 1; level < LEVELS; level++) {
+            if ((currentTick & ((1L << (SLOT_BITS * level)) - 1)) != 0) {
+                return;
+            }
+            Timeout<T> head = levels[level][(int) ((currentTick >>> (SLOT_BITS * level)) & SLOT_MASK)];
+            Timeout<T> first = head.next;
+            // Detach the whole list first: a far-off timeout may be placed straight back into this slot
+            head.prev.next = null;
+            head.next = head;
+            head.prev = head;
+            for (Timeout<T> timeout = first; timeout != null && timeout != head; ) {
+                Timeout<T> next = timeout.next;
+                place(timeout);
+                timeout = next;
+            }
+        }
+    }
+
+    private void place(Timeout<T> timeout) {
+        long delta = timeout.deadlineTick - currentTick;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+        Timeout<T> head = levels[level][(int) ((timeout.deadlineTick >>> (SLOT_BITS * level)) & SLOT_MASK)];
+        timeout.prev = head.prev;
+        timeout.next = head;
+        head.prev.next = timeout;
+        head.prev = timeout;
+    }
+
+    private static <T> void unlink(Timeout<T> timeout) {
+        timeout.prev.next = timeout.next;
+        timeout.next.prev = timeout.prev;
+        timeout.prev = null;
+        timeout.next = null;
+    }
+
+    public static final class Timeout<T> {
+        private final T value;
+        private final long deadlineTick;
+        private Timeout<T> prev;
+        private Timeout<T> next;
+
+        private Timeout(T value, long deadlineTick) {
+            this.value = value;
+            this.deadlineTick = deadlineTick;
+        }
+
+        public T value() {
+            return value;
+        }
+
+        public boolean isPending() {
+            return prev != null;
+        }
+    }
+}
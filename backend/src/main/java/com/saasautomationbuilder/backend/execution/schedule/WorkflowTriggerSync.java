@@ -0,0 +1,144 @@
+package com.saasautomationbuilder.backend.execution.schedule;
+
+import com.saasautomationbuilder.backend.repository.WorkflowRepository;
+import com.saasautomationbuilder.backend.repository.WorkflowTriggerChangeView;
+import com.saasautomationbuilder.backend.repository.WorkflowTriggerView;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongToIntFunction;
+
+/**
+ * Keeps a per-instance view of workflow triggers (the time trigger schedules, the polling subscriptions) in sync
+ * with the workflows table:
+ * <ul>
+ *   <li>{@link #resyncAll()} reloads all enabled workflows in keyset-paged batches, then sweeps every entry the reload
+ *       did not see (entries are stamped with {@link #generation()} when applied);</li>
+ *   <li>{@link #resyncChanges()} applies the workflows updated since the previous scan, on any instance, re-reading
+ *       {@code resyncOverlap} for commits that landed late;</li>
+ *   <li>{@link #resyncIfNewLeaderTerm()} reloads once per leader term, since a new leader may have missed deletions
+ *       made elsewhere since its last full reload.</li>
+ * </ul>
+ * The owner schedules these calls (with its own property keys) and keeps its entries under its own lock.
+ */
+public class WorkflowTriggerSync {
+
+    private static final Logger logger = LoggerFactory.getLogger(WorkflowTriggerSync.class);
+
+    // Applies one workflow row; enabled = false (or a trigger of another type) removes the workflow
+    @FunctionalInterface
+    public interface Applier {
+        void apply(Long workflowId, Long userId, boolean enabled, String triggerConfig);
+    }
+
+    private final String name;
+    private final WorkflowRepository workflowRepository;
+    private final SchedulerLeadership leadership;
+    private final int batchSize;
+    private final Duration resyncOverlap;
+    private final Applier applier;
+    private final LongToIntFunction sweeper; // drops entries stamped before the given generation; returns how many
+
+    private final AtomicLong generation = new AtomicLong(); // bumped by each full resync
+    private Instant changesScannedAt; // start of the last scan for changed workflows; null until the first full resync
+    private long leaderTerm;
+
+    public WorkflowTriggerSync(String name,
+                               WorkflowRepository workflowRepository,
+                               SchedulerLeadership leadership,
+                               int batchSize,
+                               Duration resyncOverlap,
+                               Applier applier,
+                               LongToIntFunction sweeper) {
+        this.name = name;
+        this.workflowRepository = workflowRepository;
+        this.leadership = leadership;
+        this.batchSize = batchSize;
+        this.resyncOverlap = resyncOverlap;
+        this.applier = applier;
+        this.sweeper = sweeper;
+    }
+
+    // Stamp for entries applied now; a full resync sweeps entries with an older one
+    public long generation() {
+        return generation.get();
+    }
+
+    public void resyncAll() {
+        long start = System.currentTimeMillis();
+        long sweepGeneration = generation.incrementAndGet();
+        synchronized (this) {
+            if (changesScannedAt == null) {
+                changesScannedAt = Instant.ofEpochMilli(start);
+            }
+        }
+        long afterId = 0L;
+        int scanned = 0;
+        List<WorkflowTriggerView> batch;
+        do {
+            batch = workflowRepository.findEnabledTriggersAfter(afterId, PageRequest.ofSize(batchSize));
+            for (WorkflowTriggerView row : batch) {
+                applier.apply(row.getId(), row.getUserId(), true, row.getTriggerConfig());
+                afterId = row.getId();
+            }
+            scanned += batch.size();
+        } while (batch.size() == batchSize);
+
+        // Anything updated during the scan was stamped with the current generation too
+        int swept = sweeper.applyAsInt(sweepGeneration);
+        logger.info("{} resynced: {} enabled workflows scanned, {} dropped in {} ms",
+                name, scanned, swept, System.currentTimeMillis() - start);
+    }
+
+    public void resyncChanges() {
+        Instant since;
+        synchronized (this) {
+            if (changesScannedAt == null) {
+                return; // Not loaded yet
+            }
+            since = changesScannedAt.minus(resyncOverlap);
+            changesScannedAt = Instant.now();
+        }
+        Instant afterUpdatedAt = since;
+        long afterId = 0L;
+        List<WorkflowTriggerChangeView> batch;
+        do {
+            batch = workflowRepository.findTriggersChangedAfter(afterUpdatedAt, afterId, PageRequest.ofSize(batchSize));
+            for (WorkflowTriggerChangeView row : batch) {
+                applier.apply(row.getId(), row.getUserId(), row.isEnabled(), row.getTriggerConfig());
+                afterUpdatedAt = row.getUpdatedAt();
+                afterId = row.getId();
+            }
+        } while (batch.size() == batchSize);
+    }
+
+    public void resyncAllQuietly() {
+        try {
+            resyncAll();
+        } catch (Exception e) {
+            logger.error("Failed to resync {}: {}", name.toLowerCase(Locale.ROOT), e.getMessage(), e);
+        }
+    }
+
+    // Called once the entries are loaded: only a later term needs a resync
+    public synchronized void startTerm() {
+        leaderTerm = leadership.term();
+    }
+
+    public void resyncIfNewLeaderTerm() {
+        synchronized (this) {
+            long term = leadership.term();
+            if (term == leaderTerm || !leadership.isLeader()) {
+                return;
+            }
+            leaderTerm = term;
+        }
+        resyncAll();
+    }
+}
@@ -0,0 +1,33 @@
+package com.saasautomationbuilder.backend.outbox;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+// Message published for outbox rows of one kind, routed as "<aggregateType>.<eventType>" (e.g., "workflow.saved").
+// The relay coalesces the rows of a batch that share type, event, user and origin into one message
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeEvent {
+
+    public static final String WORKFLOW = "workflow";
+    public static final String CONNECTION = "connection";
+    public static final String SAVED = "saved"; // Created or changed; consumers reload the current state
+    public static final String DELETED = "deleted";
+
+    private Long id; // First outbox row id; a redelivered event carries the same id
+    private String aggregateType;
+    private List<Long> aggregateIds;
+    private String eventType;
+    private Long userId;
+    private String origin;
+    private Instant occurredAt;
+
+    public String routingKey() {
+        return aggregateType + "." + eventType;
+    }
+}
@@ -0,0 +1,90 @@
+package com.saasautomationbuilder.backend.outbox;
+
+import com.saasautomationbuilder.backend.exception.InvalidWorkflowConfigException;
+import com.saasautomationbuilder.backend.execution.TriggerIndex;
+import com.saasautomationbuilder.backend.execution.plan.TriggerSpec;
+import com.saasautomationbuilder.backend.execution.plan.WorkflowPlanCache;
+import com.saasautomationbuilder.backend.execution.plan.WorkflowPlanCompiler;
+import com.saasautomationbuilder.backend.execution.polling.PollingEngine;
+import com.saasautomationbuilder.backend.execution.schedule.TimeTriggerScheduler;
+import com.saasautomationbuilder.backend.repository.WorkflowRepository;
+import com.saasautomationbuilder.backend.repository.WorkflowTriggerChangeView;
+import com.saasautomationbuilder.backend.support.InstanceId;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Applies workflow changes committed on other instances to everything this instance derives from a workflow row:
+ * the compiled plan cache and the trigger consumers (trigger index, time and polling triggers). These at-least-once
+ * events are the only cross-instance path for workflow state; the CacheInvalidationBus carries the other caches
+ * (users, connection credentials, connector catalog).
+ * <p>
+ * Events only say what changed; the current rows are re-read (one query per event, which may list a whole relay
+ * batch of workflows), so repeated or reordered events converge on what is in the DB. Changes made by this instance were already applied after their commit and are skipped.
+ */
+@Component
+@RequiredArgsConstructor
+public class ChangeEventListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChangeEventListener.class);
+
+    private final WorkflowRepository workflowRepository;
+    private final WorkflowPlanCompiler planCompiler;
+    private final WorkflowPlanCache planCache;
+    private final TriggerIndex triggerIndex;
+    private final TimeTriggerScheduler timeTriggerScheduler;
+    private final PollingEngine pollingEngine;
+
+    @RabbitListener(queues = "#{changeEventQueue.name}")
+    public void onChangeEvent(ChangeEvent event) {
+        List<Long> ids = event.getAggregateIds();
+        if (InstanceId.get().equals(event.getOrigin()) || ids == null || ids.isEmpty()) {
+            return;
+        }
+        if (ChangeEvent.WORKFLOW.equals(event.getAggregateType())) {
+            applyWorkflowChanges(ids);
+        }
+    }
+
+    private void applyWorkflowChanges(List<Long> workflowIds) {
+        for (Long workflowId : workflowIds) {
+            planCache.invalidate(workflowId);
+        }
+        Set<Long> missing = new HashSet<>(workflowIds);
+        for (WorkflowTriggerChangeView workflow : workflowRepository.findTriggersByIdIn(workflowIds)) {
+            missing.remove(workflow.getId());
+            applyWorkflowChange(workflow);
+        }
+        for (Long workflowId : missing) {
+            removeWorkflow(workflowId);
+        }
+    }
+
+    private void applyWorkflowChange(WorkflowTriggerChangeView workflow) {
+        Long workflowId = workflow.getId();
+        TriggerSpec trigger;
+        try {
+            trigger = planCompiler.compileTrigger(workflow.getTriggerConfig());
+        } catch (InvalidWorkflowConfigException e) {
+            logger.warn("Not indexing workflow {}: {}", workflowId, e.getMessage());
+            removeWorkflow(workflowId);
+            return;
+        }
+        triggerIndex.update(workflowId, workflow.getUserId(), workflow.isEnabled(), trigger);
+        timeTriggerScheduler.update(workflowId, workflow.getUserId(), workflow.isEnabled(), trigger);
+        pollingEngine.update(workflowId, workflow.getUserId(), workflow.isEnabled(), trigger);
+    }
+
+    private void removeWorkflow(Long workflowId) {
+        triggerIndex.remove(workflowId);
+        timeTriggerScheduler.remove(workflowId);
+        pollingEngine.remove(workflowId);
+    }
+}
@@ -0,0 +1,111 @@
+package com.saasautomationbuilder.backend.outbox;
+
+import com.saasautomationbuilder.backend.domain.OutboxEvent;
+import com.saasautomationbuilder.backend.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Drains the outbox table to the change exchange, on every instance.
+ * <p>
+ * Each batch is one transaction: lock the oldest {@code batch-size} rows with {@code FOR UPDATE SKIP LOCKED},
+ * publish them on one channel, wait for the broker's confirms, then delete them. Rows of a batch that share
+ * aggregate type, event type, user and origin go out as one ChangeEvent listing their ids, so a bulk import is a
+ * handful of messages rather than one per workflow. Instances relaying at the same
+ * time take disjoint batches. If publishing fails, or the instance dies before the delete commits, the rows stay
+ * and are published again later: delivery is at-least-once, so consumers must tolerate repeats (ChangeEvent.id
+ * identifies one) and, across instances, some reordering.
+ */
+@Component
+public class OutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final RabbitTemplate rabbitTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final String exchange;
+    private final int batchSize;
+    private final long confirmTimeoutMillis;
+    private final Counter published;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       RabbitTemplate rabbitTemplate,
+                       PlatformTransactionManager transactionManager,
+                       MeterRegistry meterRegistry,
+                       @Value("${app.outbox.exchange:app.changes}") String exchange,
+                       @Value("${app.outbox.batch-size:500}") int batchSize,
+                       @Value("${app.outbox.confirm-timeout:PT5S}") Duration confirmTimeout) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.rabbitTemplate = rabbitTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.exchange = exchange;
+        this.batchSize = batchSize;
+        this.confirmTimeoutMillis = confirmTimeout.toMillis();
+        this.published = meterRegistry.counter("outbox.published");
+    }
+
+    // Keeps going while batches come back full, so a backlog is drained without waiting for the next run
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval:PT0.25S}")
+    public void drain() {
+        try {
+            while (relayBatch() == batchSize) {
+                // Next batch
+            }
+        } catch (Exception e) {
+            logger.warn("Relaying outbox events failed, retrying on the next run: {}", e.getMessage());
+        }
+    }
+
+    // Publishes and deletes one batch; returns its size
+    public int relayBatch() {
+        Integer relayed = transactionTemplate.execute(status -> {
+            List<OutboxEvent> batch = outboxEventRepository.lockNextBatch(batchSize);
+            if (batch.isEmpty()) {
+                return 0;
+            }
+            List<ChangeEvent> events = coalesce(batch);
+            rabbitTemplate.invoke(operations -> {
+                for (ChangeEvent event : events) {
+                    operations.convertAndSend(exchange, event.routingKey(), event);
+                }
+                operations.waitForConfirmsOrDie(confirmTimeoutMillis);
+                return null;
+            });
+            outboxEventRepository.deleteAllInBatch(batch);
+            return batch.size();
+        });
+        published.increment(relayed);
+        return relayed;
+    }
+
+    // One event per (aggregate type, event type, user, origin), in the order each first appears in the batch
+    static List<ChangeEvent> coalesce(List<OutboxEvent> batch) {
+        Map<List<Object>, ChangeEvent> events = new LinkedHashMap<>();
+        for (OutboxEvent row : batch) {
+            List<Object> key = new ArrayList<>(4);
+            key.add(row.getAggregateType());
+            key.add(row.getEventType());
+            key.add(row.getUserId());
+            key.add(row.getOrigin());
+            events.computeIfAbsent(key, k -> new ChangeEvent(row.getId(), row.getAggregateType(), new ArrayList<>(),
+                    row.getEventType(), row.getUserId(), row.getOrigin(), row.getCreatedAt()))
+                    .getAggregateIds().add(row.getAggregateId());
+        }
+        return new ArrayList<>(events.values());
+    }
+}
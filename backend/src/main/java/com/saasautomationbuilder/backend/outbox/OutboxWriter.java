@@ -0,0 +1,51 @@
+package com.saasautomationbuilder.backend.outbox;
+
+import com.saasautomationbuilder.backend.domain.OutboxEvent;
+import com.saasautomationbuilder.backend.repository.OutboxEventRepository;
+import com.saasautomationbuilder.backend.support.InstanceId;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Records change events in the outbox table, as part of the caller's transaction: the event exists if and
+ * only if the change commits. Publishing is left to OutboxRelay, so writes never wait for the broker.
+ */
+@Component
+public class OutboxWriter {
+
+    private static final String INSERT_SQL = "INSERT INTO outbox_events " +
+            "(aggregate_type, aggregate_id, event_type, user_id, origin, created_at) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    public OutboxWriter(OutboxEventRepository outboxEventRepository, JdbcTemplate jdbcTemplate) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(String aggregateType, Long aggregateId, String eventType, Long userId) {
+        outboxEventRepository.save(new OutboxEvent(null, aggregateType, aggregateId, eventType, userId, InstanceId.get(), null));
+    }
+
+    // One JDBC batch for many aggregates of the same kind, e.g., a page of imported workflows
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAll(String aggregateType, Collection<Long> aggregateIds, String eventType, Long userId) {
+        if (aggregateIds.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.from(Instant.now());
+        List<Object[]> rows = aggregateIds.stream()
+                .map(id -> new Object[]{aggregateType, id, eventType, userId, InstanceId.get(), now})
+                .toList();
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+    }
+}
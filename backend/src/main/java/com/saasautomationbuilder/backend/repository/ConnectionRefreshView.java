@@ -0,0 +1,14 @@
+package com.saasautomationbuilder.backend.repository;
+
+import java.time.Instant;
+
+// Projection used by the OAuth token refresher: the connection, its sealed credentials and its connector's token endpoint
+public interface ConnectionRefreshView {
+    Long getId();
+    Long getUserId();
+    String getConnectorKey();
+    String getTokenUrl();
+    String getClientId();
+    String getEncryptedCredentials();
+    Instant getExpiresAt();
+}
@@ -0,0 +1,9 @@
+package com.saasautomationbuilder.backend.repository;
+
+import java.time.Instant;
+
+// Cheap fingerprint of the connector_definitions table, used to detect catalog changes
+public interface ConnectorCatalogVersion {
+    long getCount();
+    Instant getLastUpdatedAt();
+}
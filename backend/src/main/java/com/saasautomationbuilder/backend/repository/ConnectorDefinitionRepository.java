@@ -2,6 +2,7 @@ package com.saasautomationbuilder.backend.repository;
 
 import com.saasautomationbuilder.backend.domain.ConnectorDefinition;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -9,4 +10,7 @@ import java.util.Optional;
 @Repository
 public interface ConnectorDefinitionRepository extends JpaRepository<ConnectorDefinition, Long> {
     Optional<ConnectorDefinition> findByKey(String key);
+
+    @Query("select count(d) as count, max(d.updatedAt) as lastUpdatedAt from ConnectorDefinition d")
+    ConnectorCatalogVersion findCatalogVersion();
 } 
\ No newline at end of file
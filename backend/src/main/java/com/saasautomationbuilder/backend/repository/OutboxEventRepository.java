@@ -0,0 +1,19 @@
+package com.saasautomationbuilder.backend.repository;
+
+import com.saasautomationbuilder.backend.domain.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // Oldest unpublished events, locked FOR UPDATE SKIP LOCKED: relays on several instances each take a different
+    // batch instead of waiting for each other. Native, since Hibernate only renders SKIP LOCKED for some dialects
+    // (same syntax on PostgreSQL and H2). Must run in a transaction
+    @Query(value = "SELECT * FROM outbox_events ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<OutboxEvent> lockNextBatch(@Param("limit") int limit);
+}
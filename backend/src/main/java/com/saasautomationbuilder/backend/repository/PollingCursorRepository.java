@@ -0,0 +1,13 @@
+package com.saasautomationbuilder.backend.repository;
+
+import com.saasautomationbuilder.backend.domain.PollingCursor;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface PollingCursorRepository extends JpaRepository<PollingCursor, Long> {
+
+    Optional<PollingCursor> findByPollKey(String pollKey);
+}
@@ -0,0 +1,34 @@
+package com.saasautomationbuilder.backend.repository;
+
+import com.saasautomationbuilder.backend.domain.ProcessedEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+@Repository
+public interface ProcessedEventRepository extends JpaRepository<ProcessedEvent, Long> {
+
+    // 1 if the event was recorded now, 0 if it already was; one round trip, safe across instances
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO processed_events (connector_key, event_id, expires_at) VALUES (:connectorKey, :eventId, :expiresAt) " +
+                   "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("connectorKey") String connectorKey,
+                       @Param("eventId") String eventId,
+                       @Param("expiresAt") Instant expiresAt);
+
+    @Transactional
+    @Modifying
+    @Query("delete from ProcessedEvent e where e.connectorKey = :connectorKey and e.eventId = :eventId")
+    int deleteByKey(@Param("connectorKey") String connectorKey, @Param("eventId") String eventId);
+
+    @Transactional
+    @Modifying
+    @Query("delete from ProcessedEvent e where e.expiresAt < :now")
+    int deleteExpired(@Param("now") Instant now);
+}
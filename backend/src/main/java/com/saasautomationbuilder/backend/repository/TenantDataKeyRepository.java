@@ -0,0 +1,13 @@
+package com.saasautomationbuilder.backend.repository;
+
+import com.saasautomationbuilder.backend.domain.TenantDataKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface TenantDataKeyRepository extends JpaRepository<TenantDataKey, Long> {
+
+    Optional<TenantDataKey> findByUserId(Long userId);
+}
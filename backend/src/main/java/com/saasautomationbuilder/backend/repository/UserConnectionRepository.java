@@ -1,10 +1,23 @@
 package com.saasautomationbuilder.backend.repository;
 
 import com.saasautomationbuilder.backend.domain.UserConnection;
+import com.saasautomationbuilder.backend.dto.UserConnectionDto;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserConnectionRepository extends JpaRepository<UserConnection, Long> {
@@ -12,6 +25,66 @@ public interface UserConnectionRepository extends JpaRepository<UserConnection,
     // Find connections for a specific user
     List<UserConnection> findByUserId(Long userId);
 
+    // Single-query listing: joins the definition for key/name/logo, never reads credentials or schema LOBs
+    @Query("select new com.saasautomationbuilder.backend.dto.UserConnectionDto(" +
+           "c.id, c.user.id, d.key, d.name, d.logoUrl, c.connectionName, c.expiresAt, c.active, c.createdAt, c.updatedAt) " +
+           "from UserConnection c join c.connectorDefinition d where c.user.id = :userId order by c.id")
+    List<UserConnectionDto> findDtosByUserId(@Param("userId") Long userId);
+
+    // Same projection as a forward-only cursor, for export
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select new com.saasautomationbuilder.backend.dto.UserConnectionDto(" +
+           "c.id, c.user.id, d.key, d.name, d.logoUrl, c.connectionName, c.expiresAt, c.active, c.createdAt, c.updatedAt) " +
+           "from UserConnection c join c.connectorDefinition d where c.user.id = :userId order by c.id")
+    Stream<UserConnectionDto> streamDtosByUserId(@Param("userId") Long userId);
+
+    // Active OAuth2 connections expiring before the horizon, keyset-paged by (expiresAt, id) over idx_user_connections_expires_at.
+    // The first page passes the oldest expiry still worth refreshing and afterId = 0. Rows updated since scanStartedAt
+    // (e.g. refreshed by this scan with an expiry still before the horizon) are left to the next scan
+    @Query("select c.id as id, c.user.id as userId, d.key as connectorKey, d.oauth2TokenUrl as tokenUrl, " +
+           "d.oauth2ClientId as clientId, c.encryptedCredentials as encryptedCredentials, c.expiresAt as expiresAt " +
+           "from UserConnection c join c.connectorDefinition d " +
+           "where c.active = true and d.authType = com.saasautomationbuilder.backend.domain.ConnectorDefinition.AuthenticationType.OAUTH2 " +
+           "and d.oauth2TokenUrl is not null and c.expiresAt < :horizon " +
+           "and (c.expiresAt > :afterExpiresAt or (c.expiresAt = :afterExpiresAt and c.id > :afterId)) " +
+           "and c.updatedAt < :scanStartedAt " +
+           "order by c.expiresAt, c.id")
+    List<ConnectionRefreshView> findRefreshCandidates(@Param("horizon") Instant horizon,
+                                                      @Param("scanStartedAt") Instant scanStartedAt,
+                                                      @Param("afterExpiresAt") Instant afterExpiresAt,
+                                                      @Param("afterId") Long afterId,
+                                                      Pageable pageable);
+
+    @Query("select c.id as id, c.user.id as userId, d.key as connectorKey, d.oauth2TokenUrl as tokenUrl, " +
+           "d.oauth2ClientId as clientId, c.encryptedCredentials as encryptedCredentials, c.expiresAt as expiresAt " +
+           "from UserConnection c join c.connectorDefinition d where c.id = :id")
+    Optional<ConnectionRefreshView> findRefreshViewById(@Param("id") Long id);
+
+    // Compare-and-set on expiresAt, so a refresh never overwrites credentials that changed since they were read
+    @Modifying
+    @Query("update UserConnection c set c.encryptedCredentials = :credentials, c.expiresAt = :expiresAt, c.updatedAt = :now " +
+           "where c.id = :id and c.expiresAt = :previousExpiresAt")
+    int updateRefreshedCredentials(@Param("id") Long id,
+                                   @Param("previousExpiresAt") Instant previousExpiresAt,
+                                   @Param("credentials") String credentials,
+                                   @Param("expiresAt") Instant expiresAt,
+                                   @Param("now") Instant now);
+
+    @Modifying
+    @Query("update UserConnection c set c.active = false, c.updatedAt = :now where c.id = :id and c.expiresAt = :previousExpiresAt")
+    int deactivate(@Param("id") Long id, @Param("previousExpiresAt") Instant previousExpiresAt, @Param("now") Instant now);
+
+    // Sealed credentials of an active connection, only if it belongs to the given user (polling triggers)
+    @Query("select c.encryptedCredentials from UserConnection c where c.id = :id and c.user.id = :userId and c.active = true")
+    Optional<String> findActiveCredentials(@Param("id") Long id, @Param("userId") Long userId);
+
+    // Which of the given connections belong to the user (workflow configs may only reference the owner's connections)
+    @Query("select c.id from UserConnection c where c.user.id = :userId and c.id in :ids")
+    List<Long> findIdsOwnedBy(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
+
+    @Query("select c.id from UserConnection c where c.user.id = :userId")
+    Set<Long> findIdsByUserId(@Param("userId") Long userId);
+
     // Optional: Find connections for a specific user and connector type
     // List<UserConnection> findByUserIdAndConnectorDefinitionKey(Long userId, String connectorKey);
 } 
\ No newline at end of file
@@ -2,6 +2,8 @@ package com.saasautomationbuilder.backend.repository;
 
 import com.saasautomationbuilder.backend.domain.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -15,4 +17,8 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     boolean existsByFirebaseUid(String firebaseUid);
     boolean existsByEmail(String email);
+
+    // Plan tier only, for the execution scheduler's tenant weights (empty if the user is missing or has none)
+    @Query("select u.planTier from User u where u.id = :id")
+    Optional<User.PlanTier> findPlanTierById(@Param("id") Long id);
 } 
\ No newline at end of file
@@ -0,0 +1,13 @@
+package com.saasautomationbuilder.backend.repository;
+
+import java.util.List;
+
+// Searches inside workflow configs (custom WorkflowRepository fragment, see WorkflowConfigQueriesImpl)
+public interface WorkflowConfigQueries {
+
+    // Ids of workflows whose trigger or any action is bound to the connection, in id order
+    List<Long> findIdsUsingConnection(Long connectionId, boolean enabledOnly);
+
+    // Ids of workflows whose trigger or any action uses the connector, in id order
+    List<Long> findIdsUsingConnector(String connectorKey, boolean enabledOnly);
+}
@@ -0,0 +1,130 @@
+package com.saasautomationbuilder.backend.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.saasautomationbuilder.backend.support.DatabasePlatform;
+import jakarta.persistence.EntityManager;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * On PostgreSQL the filters run in the DB against the jsonb configs: the trigger side through the expression
+ * indexes on {@code trigger_config ->> 'connectorKey' / 'connectionId'}, the action side through the GIN
+ * ({@code jsonb_path_ops}) index on {@code action_config} with a containment query ({@code @>}).
+ * The indexes are created by WorkflowConfigSchemaManager.
+ * <p>
+ * Other databases (H2 in tests) have no jsonb operators; there the configs are loaded and matched in memory.
+ */
+public class WorkflowConfigQueriesImpl implements WorkflowConfigQueries {
+
+    // Package-private so the PostgreSQL plan test can EXPLAIN exactly these statements
+    static final String IDS_USING_CONNECTION_SQL = "SELECT id FROM workflows " +
+            "WHERE ((trigger_config ->> 'connectionId') = :connectionId OR action_config @> CAST(:actions AS jsonb)) " +
+            "AND (enabled OR NOT :enabledOnly) ORDER BY id";
+    static final String IDS_USING_CONNECTOR_SQL = "SELECT id FROM workflows " +
+            "WHERE ((trigger_config ->> 'connectorKey') = :connectorKey OR action_config @> CAST(:actions AS jsonb)) " +
+            "AND (enabled OR NOT :enabledOnly) ORDER BY id";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final EntityManager entityManager;
+    private final DataSource dataSource;
+    private volatile Boolean postgres;
+
+    public WorkflowConfigQueriesImpl(EntityManager entityManager, DataSource dataSource) {
+        this.entityManager = entityManager;
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public List<Long> findIdsUsingConnection(Long connectionId, boolean enabledOnly) {
+        if (isPostgres()) {
+            return ids(IDS_USING_CONNECTION_SQL, "connectionId", connectionId.toString(), actionFilter("connectionId", connectionId), enabledOnly);
+        }
+        String text = connectionId.toString();
+        return scan(enabledOnly, trigger -> text.equals(fieldText(trigger, "connectionId")),
+                action -> action.path("connectionId").isIntegralNumber() && action.get("connectionId").asLong() == connectionId);
+    }
+
+    @Override
+    public List<Long> findIdsUsingConnector(String connectorKey, boolean enabledOnly) {
+        if (isPostgres()) {
+            return ids(IDS_USING_CONNECTOR_SQL, "connectorKey", connectorKey, actionFilter("connectorKey", connectorKey), enabledOnly);
+        }
+        return scan(enabledOnly, trigger -> connectorKey.equals(fieldText(trigger, "connectorKey")),
+                action -> connectorKey.equals(action.path("connectorKey").textValue()));
+    }
+
+    // [{"<field>": <value>}]: matches an action array with at least one element carrying that field value
+    static String actionFilter(String field, Object value) {
+        ArrayNode filter = MAPPER.createArrayNode();
+        ObjectNode element = filter.addObject();
+        if (value instanceof Long number) {
+            element.put(field, number);
+        } else {
+            element.put(field, value.toString());
+        }
+        return filter.toString();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Long> ids(String sql, String triggerParam, String triggerValue, String actions, boolean enabledOnly) {
+        List<Number> rows = entityManager.createNativeQuery(sql)
+                .setParameter(triggerParam, triggerValue)
+                .setParameter("actions", actions)
+                .setParameter("enabledOnly", enabledOnly)
+                .getResultList();
+        return rows.stream().map(Number::longValue).toList();
+    }
+
+    // Mirrors the PostgreSQL statements: text comparison (->>) on the trigger, typed containment (@>) on the actions
+    private List<Long> scan(boolean enabledOnly, Predicate<JsonNode> triggerUsesIt, Predicate<JsonNode> actionUsesIt) {
+        List<Object[]> rows = entityManager.createQuery(
+                "select w.id, w.triggerConfig, w.actionConfig from Workflow w " +
+                "where w.enabled = true or :enabledOnly = false order by w.id", Object[].class)
+                .setParameter("enabledOnly", enabledOnly)
+                .getResultList();
+        List<Long> ids = new ArrayList<>();
+        for (Object[] row : rows) {
+            JsonNode trigger = parse((String) row[1]);
+            JsonNode actions = parse((String) row[2]);
+            boolean matches = triggerUsesIt.test(trigger);
+            for (int i = 0; !matches && i < actions.size(); i++) {
+                matches = actionUsesIt.test(actions.get(i));
+            }
+            if (matches) {
+                ids.add((Long) row[0]);
+            }
+        }
+        return ids;
+    }
+
+    // What ->> returns: scalars as text (42 and "42" both give 42), nothing for JSON null, objects and arrays
+    private static String fieldText(JsonNode config, String field) {
+        JsonNode value = config.path(field);
+        return value.isValueNode() && !value.isNull() ? value.asText() : null;
+    }
+
+    private static JsonNode parse(String json) {
+        try {
+            return MAPPER.readTree(json);
+        } catch (JsonProcessingException e) {
+            return MAPPER.missingNode();
+        }
+    }
+
+    private boolean isPostgres() {
+        Boolean result = postgres;
+        if (result == null) {
+            result = DatabasePlatform.isPostgres(dataSource);
+            postgres = result;
+        }
+        return result;
+    }
+}
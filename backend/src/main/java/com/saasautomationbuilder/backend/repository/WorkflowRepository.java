@@ -1,17 +1,88 @@
 package com.saasautomationbuilder.backend.repository;
 
 import com.saasautomationbuilder.backend.domain.Workflow;
+import com.saasautomationbuilder.backend.dto.WorkflowSummaryDto;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface WorkflowRepository extends JpaRepository<Workflow, Long> {
+public interface WorkflowRepository extends JpaRepository<Workflow, Long>, WorkflowConfigQueries {
 
     // Find workflows by user ID
     List<Workflow> findByUserId(Long userId);
 
+    // Workflow summaries (no config LOBs), newest first, keyset-paged on (updatedAt, id)
+    @Query("select new com.saasautomationbuilder.backend.dto.WorkflowSummaryDto(" +
+           "w.id, w.name, w.description, w.enabled, w.user.id, w.createdAt, w.updatedAt) " +
+           "from Workflow w where w.user.id = :userId " +
+           "order by w.updatedAt desc, w.id desc")
+    List<WorkflowSummaryDto> findSummariesByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("select new com.saasautomationbuilder.backend.dto.WorkflowSummaryDto(" +
+           "w.id, w.name, w.description, w.enabled, w.user.id, w.createdAt, w.updatedAt) " +
+           "from Workflow w where w.user.id = :userId " +
+           "and (w.updatedAt < :updatedAt or (w.updatedAt = :updatedAt and w.id < :id)) " +
+           "order by w.updatedAt desc, w.id desc")
+    List<WorkflowSummaryDto> findSummariesByUserIdBefore(@Param("userId") Long userId,
+                                                         @Param("updatedAt") Instant updatedAt,
+                                                         @Param("id") Long id,
+                                                         Pageable pageable);
+
+    // Keyset-paged scan of enabled workflows' triggers (id > afterId), used to rebuild the trigger index
+    @Query("select w.id as id, w.user.id as userId, w.triggerConfig as triggerConfig " +
+           "from Workflow w where w.enabled = true and w.id > :afterId order by w.id")
+    List<WorkflowTriggerView> findEnabledTriggersAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Keyset-paged scan of workflows changed after (updatedAt, afterId), enabled or not, used to resync time triggers
+    @Query("select w.id as id, w.user.id as userId, w.triggerConfig as triggerConfig, w.enabled as enabled, " +
+           "w.updatedAt as updatedAt from Workflow w " +
+           "where w.updatedAt > :updatedAt or (w.updatedAt = :updatedAt and w.id > :afterId) " +
+           "order by w.updatedAt, w.id")
+    List<WorkflowTriggerChangeView> findTriggersChangedAfter(@Param("updatedAt") Instant updatedAt,
+                                                             @Param("afterId") Long afterId,
+                                                             Pageable pageable);
+
+    // The listed workflows' triggers, enabled or not, used to apply change events from other instances
+    @Query("select w.id as id, w.user.id as userId, w.triggerConfig as triggerConfig, w.enabled as enabled, " +
+           "w.updatedAt as updatedAt from Workflow w where w.id in :ids")
+    List<WorkflowTriggerChangeView> findTriggersByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Forward-only cursor over all of a user's workflows for export; must be consumed inside a transaction.
+    // 200 rows per round trip, since each row carries two config LOBs
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "200"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select w from Workflow w where w.user.id = :userId order by w.id")
+    Stream<Workflow> streamByUserId(@Param("userId") Long userId);
+
+    // Disables workflows in bulk (bumping the version, so concurrent editors get a conflict instead of re-enabling)
+    @Modifying
+    @Query("update Workflow w set w.enabled = false, w.updatedAt = :now, w.version = w.version + 1 " +
+           "where w.id in :ids and w.enabled = true")
+    int disableAll(@Param("ids") Collection<Long> ids, @Param("now") Instant now);
+
+    // Current version of a workflow, to validate a cached plan without loading the configs
+    @Query("select w.updatedAt from Workflow w where w.id = :id")
+    Optional<Instant> findUpdatedAtById(@Param("id") Long id);
+
+    // Owner check without loading the config LOBs
+    @Query("select w.user.id from Workflow w where w.id = :id")
+    Optional<Long> findOwnerIdById(@Param("id") Long id);
+
     // Find workflows by user's Firebase UID (might require a join or separate query)
     // List<Workflow> findByUserFirebaseUid(String firebaseUid);
 } 
\ No newline at end of file
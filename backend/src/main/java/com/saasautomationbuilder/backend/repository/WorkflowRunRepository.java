@@ -0,0 +1,27 @@
+package com.saasautomationbuilder.backend.repository;
+
+import com.saasautomationbuilder.backend.domain.WorkflowRun;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface WorkflowRunRepository extends JpaRepository<WorkflowRun, Long> {
+
+    // A workflow's runs, newest first, keyset-paged on (startedAt, id)
+    @Query("select r from WorkflowRun r where r.workflowId = :workflowId order by r.startedAt desc, r.id desc")
+    List<WorkflowRun> findByWorkflowId(@Param("workflowId") Long workflowId, Pageable pageable);
+
+    @Query("select r from WorkflowRun r where r.workflowId = :workflowId " +
+           "and (r.startedAt < :startedAt or (r.startedAt = :startedAt and r.id < :id)) " +
+           "order by r.startedAt desc, r.id desc")
+    List<WorkflowRun> findByWorkflowIdBefore(@Param("workflowId") Long workflowId,
+                                             @Param("startedAt") Instant startedAt,
+                                             @Param("id") Long id,
+                                             Pageable pageable);
+}
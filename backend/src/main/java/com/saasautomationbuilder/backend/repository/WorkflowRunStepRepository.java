@@ -0,0 +1,15 @@
+package com.saasautomationbuilder.backend.repository;
+
+import com.saasautomationbuilder.backend.domain.WorkflowRunStep;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface WorkflowRunStepRepository extends JpaRepository<WorkflowRunStep, Long> {
+
+    // Steps never start before their run, so the startedAt bound lets Postgres skip older partitions
+    List<WorkflowRunStep> findByRunIdAndStartedAtGreaterThanEqualOrderByStepIndex(Long runId, Instant runStartedAt);
+}
@@ -0,0 +1,9 @@
+package com.saasautomationbuilder.backend.repository;
+
+import java.time.Instant;
+
+// Trigger of a workflow changed since some point in time, enabled or not; used to resync the time trigger scheduler
+public interface WorkflowTriggerChangeView extends WorkflowTriggerView {
+    boolean isEnabled();
+    Instant getUpdatedAt();
+}
@@ -0,0 +1,8 @@
+package com.saasautomationbuilder.backend.repository;
+
+// Projection used to (re)build the trigger index without loading actionConfig
+public interface WorkflowTriggerView {
+    Long getId();
+    Long getUserId();
+    String getTriggerConfig();
+}
@@ -0,0 +1,66 @@
+package com.saasautomationbuilder.backend.security;
+
+import com.saasautomationbuilder.backend.exception.EncryptionException;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+
+// AES-256-GCM with a random 96-bit IV; output is iv || ciphertext || 128-bit tag
+final class AesGcm {
+
+    static final int KEY_BYTES = 32;
+    private static final int IV_BYTES = 12;
+    private static final int TAG_BITS = 128;
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private AesGcm() {
+    }
+
+    static byte[] newKey() {
+        byte[] key = new byte[KEY_BYTES];
+        RANDOM.nextBytes(key);
+        return key;
+    }
+
+    static byte[] encrypt(byte[] key, byte[] plaintext, byte[] aad) {
+        return encrypt(new SecretKeySpec(key, "AES"), plaintext, aad);
+    }
+
+    static byte[] encrypt(SecretKeySpec key, byte[] plaintext, byte[] aad) {
+        try {
+            byte[] iv = new byte[IV_BYTES];
+            RANDOM.nextBytes(iv);
+            Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+            cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, iv));
+            cipher.updateAAD(aad);
+            byte[] output = new byte[IV_BYTES + cipher.getOutputSize(plaintext.length)];
+            System.arraycopy(iv, 0, output, 0, IV_BYTES);
+            cipher.doFinal(plaintext, 0, plaintext.length, output, IV_BYTES);
+            return output;
+        } catch (GeneralSecurityException e) {
+            throw new EncryptionException("AES-GCM encryption failed", e);
+        }
+    }
+
+    static byte[] decrypt(byte[] key, byte[] input, byte[] aad) {
+        return decrypt(new SecretKeySpec(key, "AES"), input, aad);
+    }
+
+    static byte[] decrypt(SecretKeySpec key, byte[] input, byte[] aad) {
+        if (input.length < IV_BYTES + TAG_BITS / 8) {
+            throw new EncryptionException("Ciphertext is too short");
+        }
+        try {
+            Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+            cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, input, 0, IV_BYTES));
+            cipher.updateAAD(aad);
+            return cipher.doFinal(input, IV_BYTES, input.length - IV_BYTES);
+        } catch (GeneralSecurityException e) {
+            // Wrong key, wrong context or tampered data all surface as a failed tag check
+            throw new EncryptionException("AES-GCM decryption failed", e);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.saasautomationbuilder.backend.security;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.saasautomationbuilder.backend.cache.InvalidatableCache;
+import com.saasautomationbuilder.backend.exception.EncryptionException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Seals and opens UserConnection credentials (a string map, stored as encrypted JSON).
+ * <p>
+ * Opened credentials are kept for a short {@code credential-cache.ttl} as plaintext JSON bytes, keyed by
+ * connection id and tied to the exact ciphertext they came from, so hot connections skip decryption on every
+ * action call. The cached bytes are zeroed when evicted; callers get their own copy of the map.
+ */
+@Component
+public class CredentialVault implements InvalidatableCache {
+
+    public static final String CACHE_NAME = "connection-credentials";
+
+    private static final TypeReference<Map<String, String>> CREDENTIALS_TYPE = new TypeReference<>() { };
+
+    private final EncryptionService encryptionService;
+    private final ObjectMapper objectMapper;
+    private final Cache<Long, OpenedCredentials> opened; // by connection id
+
+    public CredentialVault(EncryptionService encryptionService,
+                           ObjectMapper objectMapper,
+                           @Value("${app.security.encryption.credential-cache.max-size:10000}") long maxSize,
+                           @Value("${app.security.encryption.credential-cache.ttl:PT1M}") Duration ttl) {
+        this.encryptionService = encryptionService;
+        this.objectMapper = objectMapper;
+        this.opened = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .removalListener((Long connectionId, OpenedCredentials credentials, RemovalCause cause) -> {
+                    if (credentials != null) {
+                        credentials.destroy();
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    public String seal(Long userId, Map<String, String> credentials) {
+        byte[] json = null;
+        try {
+            json = objectMapper.writeValueAsBytes(credentials);
+            return encryptionService.encrypt(userId, json);
+        } catch (IOException e) {
+            throw new EncryptionException("Failed to serialize credentials", e);
+        } finally {
+            if (json != null) {
+                Arrays.fill(json, (byte) 0);
+            }
+        }
+    }
+
+    /**
+     * @param envelope The connection's encryptedCredentials.
+     * @throws EncryptionException if the credentials cannot be decrypted for this user.
+     */
+    public Map<String, String> open(Long connectionId, Long userId, String envelope) {
+        OpenedCredentials cached = opened.getIfPresent(connectionId);
+        byte[] json = cached != null ? cached.copyIfMatches(userId, envelope) : null;
+        if (json == null) {
+            json = encryptionService.decrypt(userId, envelope);
+            opened.put(connectionId, new OpenedCredentials(userId, envelope, json.clone()));
+        }
+        try {
+            return objectMapper.readValue(json, CREDENTIALS_TYPE);
+        } catch (IOException e) {
+            throw new EncryptionException("Decrypted credentials are not a JSON object", e);
+        } finally {
+            Arrays.fill(json, (byte) 0);
+        }
+    }
+
+    // Call when a connection's credentials change or it is deleted
+    public void evict(Long connectionId) {
+        opened.invalidate(connectionId);
+    }
+
+    @Override
+    public String cacheName() {
+        return CACHE_NAME;
+    }
+
+    @Override
+    public void invalidateKey(String key) {
+        evict(Long.valueOf(key));
+    }
+
+    @Override
+    public void invalidateAll() {
+        opened.invalidateAll();
+    }
+
+    public CacheStats stats() {
+        return opened.stats();
+    }
+
+    private static final class OpenedCredentials {
+        private final Long userId;
+        private final String envelope;
+        private final byte[] json;
+        private boolean destroyed;
+
+        OpenedCredentials(Long userId, String envelope, byte[] json) {
+            this.userId = userId;
+            this.envelope = envelope;
+            this.json = json;
+        }
+
+        synchronized byte[] copyIfMatches(Long userId, String envelope) {
+            return !destroyed && this.userId.equals(userId) && this.envelope.equals(envelope) ? json.clone() : null;
+        }
+
+        synchronized void destroy() {
+            destroyed = true;
+            Arrays.fill(json, (byte) 0);
+        }
+    }
+}
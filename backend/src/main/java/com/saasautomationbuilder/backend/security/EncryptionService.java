@@ -0,0 +1,178 @@
+package com.saasautomationbuilder.backend.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.saasautomationbuilder.backend.domain.TenantDataKey;
+import com.saasautomationbuilder.backend.exception.EncryptionException;
+import com.saasautomationbuilder.backend.repository.TenantDataKeyRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Envelope encryption of tenant secrets.
+ * <p>
+ * Each tenant (user) has one AES-256 data key, stored wrapped by the {@link MasterKeyProvider}. Secrets are
+ * encrypted with AES-GCM under the tenant's data key, with the tenant id as additional authenticated data, so
+ * ciphertext copied to another tenant's row does not decrypt. The envelope format is
+ * {@code v1.<dataKeyId>.<base64(iv || ciphertext || tag)>}.
+ * <p>
+ * Unwrapped data keys are cached for {@code data-key-cache.ttl} after last use, so only the first operation for
+ * a tenant pays the unwrap (a KMS round trip in production); their bytes are zeroed when evicted.
+ */
+@Service
+public class EncryptionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EncryptionService.class);
+    private static final String VERSION = "v1";
+    private static final Base64.Encoder ENCODER = Base64.getEncoder();
+    private static final Base64.Decoder DECODER = Base64.getDecoder();
+
+    private final TenantDataKeyRepository dataKeyRepository;
+    private final MasterKeyProvider masterKeyProvider;
+    private final TransactionTemplate newTransaction;
+    private final Cache<Long, DataKey> dataKeys; // Unwrapped keys by user id
+
+    public EncryptionService(TenantDataKeyRepository dataKeyRepository,
+                             MasterKeyProvider masterKeyProvider,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${app.security.encryption.data-key-cache.max-size:10000}") long maxKeys,
+                             @Value("${app.security.encryption.data-key-cache.ttl:PT5M}") Duration keyTtl) {
+        this.dataKeyRepository = dataKeyRepository;
+        this.masterKeyProvider = masterKeyProvider;
+        // A new tenant key must survive a rollback of the caller's transaction once anything was encrypted with it
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.dataKeys = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(keyTtl)
+                .removalListener((Long userId, DataKey key, RemovalCause cause) -> {
+                    if (key != null) {
+                        key.destroy();
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    public String encrypt(Long userId, byte[] plaintext) {
+        while (true) {
+            DataKey key = dataKeys.get(userId, this::loadDataKey);
+            SecretKeySpec spec = key.spec();
+            if (spec != null) {
+                byte[] ciphertext = AesGcm.encrypt(spec, plaintext, context(userId));
+                return VERSION + "." + key.id() + "." + ENCODER.encodeToString(ciphertext);
+            }
+            // Evicted and zeroed between lookup and use; load it again
+        }
+    }
+
+    /**
+     * @return The plaintext, in a new array the caller should zero when done.
+     * @throws EncryptionException if the envelope is malformed, belongs to another tenant or was tampered with.
+     */
+    public byte[] decrypt(Long userId, String envelope) {
+        String[] parts = envelope.split("\\.", 3);
+        if (parts.length != 3 || !VERSION.equals(parts[0])) {
+            throw new EncryptionException("Unsupported encrypted value format");
+        }
+        long keyId;
+        byte[] ciphertext;
+        try {
+            keyId = Long.parseLong(parts[1]);
+            ciphertext = DECODER.decode(parts[2]);
+        } catch (IllegalArgumentException e) {
+            throw new EncryptionException("Malformed encrypted value", e);
+        }
+        while (true) {
+            DataKey key = dataKeys.get(userId, this::loadDataKey);
+            if (key.id() != keyId) {
+                throw new EncryptionException("Value was encrypted with data key " + keyId + ", not the tenant's key " + key.id());
+            }
+            SecretKeySpec spec = key.spec();
+            if (spec != null) {
+                return AesGcm.decrypt(spec, ciphertext, context(userId));
+            }
+        }
+    }
+
+    public void evictDataKey(Long userId) {
+        dataKeys.invalidate(userId);
+    }
+
+    public CacheStats dataKeyCacheStats() {
+        return dataKeys.stats();
+    }
+
+    private DataKey loadDataKey(Long userId) {
+        TenantDataKey row = dataKeyRepository.findByUserId(userId).orElseGet(() -> createDataKey(userId));
+        byte[] material = masterKeyProvider.unwrapKey(row.getMasterKeyId(), DECODER.decode(row.getWrappedKey()), keyContext(userId));
+        return new DataKey(row.getId(), material);
+    }
+
+    private TenantDataKey createDataKey(Long userId) {
+        byte[] material = AesGcm.newKey();
+        try {
+            TenantDataKey row = new TenantDataKey();
+            row.setUserId(userId);
+            row.setMasterKeyId(masterKeyProvider.getCurrentKeyId());
+            row.setWrappedKey(ENCODER.encodeToString(masterKeyProvider.wrapKey(material, keyContext(userId))));
+            TenantDataKey saved = newTransaction.execute(status -> dataKeyRepository.save(row));
+            logger.info("Created data key {} for user {}", saved.getId(), userId);
+            return saved;
+        } catch (DataIntegrityViolationException e) {
+            // Another instance created the tenant's key first; use that one
+            return dataKeyRepository.findByUserId(userId)
+                    .orElseThrow(() -> new EncryptionException("Failed to create data key for user " + userId, e));
+        } finally {
+            Arrays.fill(material, (byte) 0);
+        }
+    }
+
+    private static byte[] context(Long userId) {
+        return ("credentials:" + userId).getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static byte[] keyContext(Long userId) {
+        return ("tenant-data-key:" + userId).getBytes(StandardCharsets.US_ASCII);
+    }
+
+    // Unwrapped key material; the only long-lived copy, zeroed on eviction
+    private static final class DataKey {
+        private final long id;
+        private final byte[] material;
+        private boolean destroyed;
+
+        DataKey(long id, byte[] material) {
+            this.id = id;
+            this.material = material;
+        }
+
+        long id() {
+            return id;
+        }
+
+        // Short-lived per-operation key object, or null once destroyed
+        synchronized SecretKeySpec spec() {
+            return destroyed ? null : new SecretKeySpec(material, "AES");
+        }
+
+        synchronized void destroy() {
+            destroyed = true;
+            Arrays.fill(material, (byte) 0);
+        }
+    }
+}
@@ -1,15 +1,14 @@
 package com.saasautomationbuilder.backend.security;
 
-import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseAuthException;
 import com.google.firebase.auth.FirebaseToken;
-import com.saasautomationbuilder.backend.domain.User; // Import User entity
 import com.saasautomationbuilder.backend.service.UserService; // Import UserService
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -20,14 +19,27 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
 
 @Component
-@RequiredArgsConstructor
 public class FirebaseTokenFilter extends OncePerRequestFilter {
 
     private static final Logger logger = LoggerFactory.getLogger(FirebaseTokenFilter.class);
     private final SecurityUtils securityUtils;
+    private final VerifiedTokenCache verifiedTokenCache; // Skips re-verification of already seen tokens
     private final UserService userService; // Inject UserService
+    // Token verification latency (cache hits included), by outcome
+    private final Timer verifyValidTimer;
+    private final Timer verifyInvalidTimer;
+
+    public FirebaseTokenFilter(SecurityUtils securityUtils, VerifiedTokenCache verifiedTokenCache,
+                               UserService userService, MeterRegistry meterRegistry) {
+        this.securityUtils = securityUtils;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.userService = userService;
+        this.verifyValidTimer = verifyTimer(meterRegistry, "valid");
+        this.verifyInvalidTimer = verifyTimer(meterRegistry, "invalid");
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
@@ -38,16 +50,16 @@ public class FirebaseTokenFilter extends OncePerRequestFilter {
         if (idToken != null) {
             FirebaseToken decodedToken = null;
             try {
-                decodedToken = FirebaseAuth.getInstance().verifyIdToken(idToken);
+                decodedToken = verifyToken(idToken);
                 String uid = decodedToken.getUid();
 
                 // Find or create the user in the local database
-                User user = userService.findOrCreateUser(uid);
+                UserPrincipal user = userService.findOrCreateUser(uid);
                 logger.debug("Firebase token verified successfully for UID: {}, mapped to local User ID: {}", uid, user.getId());
 
-                // Principal can be UID or the local User object depending on needs
+                // The principal is the cached, immutable UserPrincipal shared by the user's concurrent requests
                 UsernamePasswordAuthenticationToken authentication =
-                    new UsernamePasswordAuthenticationToken(user, null, new ArrayList<>()); // Use local User as principal
+                    new UsernamePasswordAuthenticationToken(user, null, new ArrayList<>());
 
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
@@ -67,4 +79,24 @@ public class FirebaseTokenFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
+
+    private FirebaseToken verifyToken(String idToken) throws FirebaseAuthException {
+        long start = System.nanoTime();
+        try {
+            FirebaseToken decodedToken = verifiedTokenCache.verify(idToken);
+            verifyValidTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return decodedToken;
+        } catch (FirebaseAuthException | RuntimeException e) {
+            verifyInvalidTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
+    private static Timer verifyTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("auth.token.verify")
+                .description("Firebase ID token verification, including verified-token cache hits")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,91 @@
+package com.saasautomationbuilder.backend.security;
+
+import com.saasautomationbuilder.backend.exception.EncryptionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HexFormat;
+
+/**
+ * Master key read from a local file holding a base64 AES-256 key: a stand-in for a KMS in development.
+ * With {@code generate-if-missing} the file is created (owner read/write only) on first start.
+ */
+@Component
+public class LocalFileMasterKeyProvider implements MasterKeyProvider {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocalFileMasterKeyProvider.class);
+
+    private final byte[] masterKey;
+    private final String keyId;
+
+    public LocalFileMasterKeyProvider(@Value("${app.security.encryption.master-key-file}") Path keyFile,
+                                      @Value("${app.security.encryption.generate-if-missing:false}") boolean generateIfMissing) {
+        this.masterKey = loadOrGenerate(keyFile, generateIfMissing);
+        this.keyId = "local:" + fingerprint(masterKey);
+    }
+
+    @Override
+    public String getCurrentKeyId() {
+        return keyId;
+    }
+
+    @Override
+    public byte[] wrapKey(byte[] dataKey, byte[] context) {
+        return AesGcm.encrypt(masterKey, dataKey, context);
+    }
+
+    @Override
+    public byte[] unwrapKey(String keyId, byte[] wrappedKey, byte[] context) {
+        if (!this.keyId.equals(keyId)) {
+            throw new EncryptionException("Unknown master key: " + keyId);
+        }
+        return AesGcm.decrypt(masterKey, wrappedKey, context);
+    }
+
+    private static byte[] loadOrGenerate(Path keyFile, boolean generateIfMissing) {
+        try {
+            if (Files.exists(keyFile)) {
+                byte[] key = Base64.getDecoder().decode(Files.readString(keyFile, StandardCharsets.US_ASCII).trim());
+                if (key.length != AesGcm.KEY_BYTES) {
+                    throw new IllegalStateException("Master key in " + keyFile + " must be " + AesGcm.KEY_BYTES + " bytes");
+                }
+                return key;
+            }
+            if (!generateIfMissing) {
+                throw new IllegalStateException("Master key file " + keyFile + " does not exist");
+            }
+            byte[] key = AesGcm.newKey();
+            if (keyFile.getParent() != null) {
+                Files.createDirectories(keyFile.getParent());
+            }
+            Files.writeString(keyFile, Base64.getEncoder().encodeToString(key), StandardCharsets.US_ASCII);
+            if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+                Files.setPosixFilePermissions(keyFile, PosixFilePermissions.fromString("rw-------"));
+            }
+            logger.warn("Generated a new local master key at {}; back it up, credentials cannot be decrypted without it", keyFile);
+            return key;
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read master key file " + keyFile, e);
+        }
+    }
+
+    private static String fingerprint(byte[] key) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(key);
+            return HexFormat.of().formatHex(hash, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.saasautomationbuilder.backend.security;
+
+/**
+ * Wraps and unwraps tenant data keys with a master key that never leaves the provider
+ * (a KMS/HSM in production; {@link LocalFileMasterKeyProvider} as a local stand-in).
+ */
+public interface MasterKeyProvider {
+
+    // Id of the master key new data keys are wrapped with
+    String getCurrentKeyId();
+
+    /**
+     * @param dataKey The plaintext data key (not modified).
+     * @param context Additional authenticated data binding the wrapped key to its owner.
+     */
+    byte[] wrapKey(byte[] dataKey, byte[] context);
+
+    /**
+     * @throws com.saasautomationbuilder.backend.exception.EncryptionException if the key id is unknown,
+     *         or the wrapped key or context does not authenticate.
+     */
+    byte[] unwrapKey(String keyId, byte[] wrappedKey, byte[] context);
+}
@@ -0,0 +1,20 @@
+package com.saasautomationbuilder.backend.security;
+
+import com.saasautomationbuilder.backend.domain.User;
+import lombok.Value;
+
+/**
+ * The authenticated user, as cached by UserService and shared by all of that user's concurrent requests.
+ * Immutable on purpose: code that needs the entity (e.g., to set an owner) takes a reference by id inside its
+ * own transaction instead of modifying or merging a shared object.
+ */
+@Value
+public class UserPrincipal {
+    Long id;
+    String firebaseUid;
+    User.PlanTier planTier;
+
+    public static UserPrincipal of(User user) {
+        return new UserPrincipal(user.getId(), user.getFirebaseUid(), user.getPlanTier());
+    }
+}
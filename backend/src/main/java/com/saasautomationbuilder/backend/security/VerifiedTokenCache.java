@@ -0,0 +1,135 @@
+package com.saasautomationbuilder.backend.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.auth.FirebaseAuthException;
+import com.google.firebase.auth.FirebaseToken;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Caches Firebase ID tokens that have already been verified, so repeated requests
+ * carrying the same bearer token skip signature verification.
+ * <p>
+ * Entries are keyed by a SHA-256 hash of the raw token (the token itself is never kept as a key),
+ * live until the token's {@code exp} claim (capped by {@code max-ttl}), and are held through soft
+ * references so the GC can reclaim them under memory pressure.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private final Cache<String, FirebaseToken> cache;
+    private final Duration maxTtl;
+
+    @Autowired
+    public VerifiedTokenCache(
+            @Value("${app.security.token-cache.max-size:10000}") long maxSize,
+            @Value("${app.security.token-cache.max-ttl:PT1H}") Duration maxTtl) {
+        this(maxSize, maxTtl, ForkJoinPool.commonPool());
+    }
+
+    // Tests pass a same-thread executor so size evictions are applied before put() returns
+    VerifiedTokenCache(long maxSize, Duration maxTtl, Executor maintenanceExecutor) {
+        this.maxTtl = maxTtl;
+        this.cache = Caffeine.newBuilder()
+                .executor(maintenanceExecutor)
+                .maximumSize(maxSize)
+                .softValues()
+                .expireAfter(new TokenExpiry())
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the decoded token, verifying it with Firebase only if it is not already cached.
+     *
+     * @param idToken The raw bearer token from the request.
+     * @return The verified, decoded token.
+     * @throws FirebaseAuthException if the token is invalid.
+     */
+    public FirebaseToken verify(String idToken) throws FirebaseAuthException {
+        String key = hash(idToken);
+        FirebaseToken cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        FirebaseToken decodedToken = verifyWithFirebase(idToken);
+        if (remainingLifetimeNanos(decodedToken) > 0) {
+            cache.put(key, decodedToken);
+        }
+        return decodedToken;
+    }
+
+    public void invalidate(String idToken) {
+        cache.invalidate(hash(idToken));
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    // Hit/miss/eviction counters
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public long estimatedSize() {
+        return cache.estimatedSize();
+    }
+
+    // Overridable so benchmarks and tests can stub out the Firebase round trip
+    protected FirebaseToken verifyWithFirebase(String idToken) throws FirebaseAuthException {
+        return FirebaseAuth.getInstance().verifyIdToken(idToken);
+    }
+
+    private long remainingLifetimeNanos(FirebaseToken token) {
+        Object exp = token.getClaims().get("exp");
+        long maxNanos = maxTtl.toNanos();
+        if (!(exp instanceof Number)) {
+            return maxNanos;
+        }
+        long remainingMillis = ((Number) exp).longValue() * 1000L - System.currentTimeMillis();
+        return Math.min(Duration.ofMillis(remainingMillis).toNanos(), maxNanos);
+    }
+
+    private static String hash(String idToken) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hashed = digest.digest(idToken.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hashed);
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-256 is mandatory on every JVM
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private class TokenExpiry implements Expiry<String, FirebaseToken> {
+
+        @Override
+        public long expireAfterCreate(String key, FirebaseToken token, long currentTime) {
+            return Math.max(0, remainingLifetimeNanos(token));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, FirebaseToken token, long currentTime, long currentDuration) {
+            return Math.max(0, remainingLifetimeNanos(token));
+        }
+
+        @Override
+        public long expireAfterRead(String key, FirebaseToken token, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
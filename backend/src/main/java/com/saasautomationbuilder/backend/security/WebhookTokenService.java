@@ -0,0 +1,84 @@
+package com.saasautomationbuilder.backend.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Issues and verifies the opaque tokens embedded in inbound webhook URLs
+ * ({@code /api/v1/hooks/{connectorKey}/{token}}).
+ * <p>
+ * A token is {@code base64url(userId) + "." + base64url(HMAC-SHA256(userId:connectorKey))}, so it can be
+ * verified on the request thread without a DB lookup and cannot be reused for another connector.
+ */
+@Component
+public class WebhookTokenService {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final int SIGNATURE_BYTES = 16; // Truncated HMAC keeps URLs short
+    private static final int MIN_SECRET_BYTES = 32; // HMAC-SHA256 key strength
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecretKeySpec signingKey;
+    private final ThreadLocal<Mac> macs;
+
+    public WebhookTokenService(@Value("${app.webhooks.signing-secret:}") String signingSecret) {
+        // Anyone knowing the secret can mint tokens for any user, so there is no built-in default
+        if (signingSecret == null || signingSecret.isBlank() || signingSecret.getBytes(StandardCharsets.UTF_8).length < MIN_SECRET_BYTES) {
+            throw new IllegalStateException("app.webhooks.signing-secret (WEBHOOK_SIGNING_SECRET) must be set to at least "
+                    + MIN_SECRET_BYTES + " bytes");
+        }
+        this.signingKey = new SecretKeySpec(signingSecret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM);
+        this.macs = ThreadLocal.withInitial(this::newMac);
+    }
+
+    public String issue(Long userId, String connectorKey) {
+        String userPart = ENCODER.encodeToString(userId.toString().getBytes(StandardCharsets.US_ASCII));
+        return userPart + "." + ENCODER.encodeToString(sign(userId, connectorKey));
+    }
+
+    /**
+     * @return The user id the token was issued to, or empty if the token is malformed or not valid for this connector.
+     */
+    public Optional<Long> verify(String token, String connectorKey) {
+        int dot = token.indexOf('.');
+        if (dot <= 0 || dot == token.length() - 1) {
+            return Optional.empty();
+        }
+        try {
+            Long userId = Long.valueOf(new String(DECODER.decode(token.substring(0, dot)), StandardCharsets.US_ASCII));
+            byte[] signature = DECODER.decode(token.substring(dot + 1));
+            if (MessageDigest.isEqual(signature, sign(userId, connectorKey))) {
+                return Optional.of(userId);
+            }
+        } catch (IllegalArgumentException e) {
+            // Bad base64 or non-numeric user id: treated as invalid
+        }
+        return Optional.empty();
+    }
+
+    private byte[] sign(Long userId, String connectorKey) {
+        Mac mac = macs.get();
+        byte[] full = mac.doFinal((userId + ":" + connectorKey).getBytes(StandardCharsets.UTF_8));
+        return Arrays.copyOf(full, SIGNATURE_BYTES);
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(signingKey);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to initialise webhook token MAC", e);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.saasautomationbuilder.backend.service;
+
+import com.saasautomationbuilder.backend.exception.InvalidWorkflowConfigException;
+import com.saasautomationbuilder.backend.execution.plan.ActionStep;
+import com.saasautomationbuilder.backend.execution.plan.TriggerSpec;
+import com.saasautomationbuilder.backend.repository.UserConnectionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Rejects workflow configs that reference connections their owner does not own. Connection ids come from the
+ * client; without this check a workflow could be routed another user's webhooks, share their polling subscription
+ * or act with their credentials.
+ */
+@Component
+@RequiredArgsConstructor
+public class ConnectionOwnershipChecker {
+
+    private final UserConnectionRepository connectionRepository;
+
+    /**
+     * @throws InvalidWorkflowConfigException if the trigger or an action uses a connection the user does not own.
+     */
+    public void check(Long userId, TriggerSpec trigger, List<ActionStep> actions) {
+        Set<Long> referenced = referencedConnections(trigger, actions);
+        if (!referenced.isEmpty()) {
+            rejectUnowned(referenced, Set.copyOf(connectionRepository.findIdsOwnedBy(userId, referenced)));
+        }
+    }
+
+    // Bulk paths load the user's connection ids once (findOwnedIds) instead of querying per workflow
+    public void check(Set<Long> ownedConnectionIds, TriggerSpec trigger, List<ActionStep> actions) {
+        rejectUnowned(referencedConnections(trigger, actions), ownedConnectionIds);
+    }
+
+    public Set<Long> findOwnedIds(Long userId) {
+        return connectionRepository.findIdsByUserId(userId);
+    }
+
+    private static Set<Long> referencedConnections(TriggerSpec trigger, List<ActionStep> actions) {
+        Set<Long> ids = new TreeSet<>();
+        if (trigger.getConnectionId() != null) {
+            ids.add(trigger.getConnectionId());
+        }
+        for (ActionStep action : actions) {
+            if (action.getConnectionId() != null) {
+                ids.add(action.getConnectionId());
+            }
+        }
+        return ids;
+    }
+
+    private static void rejectUnowned(Set<Long> referenced, Set<Long> owned) {
+        for (Long connectionId : referenced) {
+            if (!owned.contains(connectionId)) {
+                // Same message whether the connection is missing or someone else's, so ids cannot be probed
+                throw new InvalidWorkflowConfigException("Connection " + connectionId + " does not exist");
+            }
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.saasautomationbuilder.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.saasautomationbuilder.backend.cache.InvalidatableCache;
+import com.saasautomationbuilder.backend.domain.ConnectorDefinition;
+import com.saasautomationbuilder.backend.dto.ConnectorDefinitionDto;
+import com.saasautomationbuilder.backend.repository.ConnectorCatalogVersion;
+import com.saasautomationbuilder.backend.repository.ConnectorDefinitionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Immutable in-memory snapshot of the connector definition catalog.
+ * <p>
+ * The snapshot holds the DTO list, a by-key map and the pre-serialized JSON for the list and each definition,
+ * each with a strong ETag derived from a SHA-256 of its bytes. It is rebuilt only when the table's
+ * fingerprint (row count, latest updatedAt) changes or {@link #refresh()} is called.
+ */
+@Component
+public class ConnectorCatalog implements InvalidatableCache {
+
+    public static final String CACHE_NAME = "connector-catalog";
+
+    private static final Logger logger = LoggerFactory.getLogger(ConnectorCatalog.class);
+
+    private final ConnectorDefinitionRepository connectorDefinitionRepository;
+    private final ObjectMapper objectMapper;
+    private volatile Snapshot snapshot;
+    private volatile ConnectorCatalogVersion loadedVersion;
+
+    public ConnectorCatalog(ConnectorDefinitionRepository connectorDefinitionRepository, ObjectMapper objectMapper) {
+        this.connectorDefinitionRepository = connectorDefinitionRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    public Snapshot current() {
+        Snapshot current = snapshot;
+        return current != null ? current : refresh();
+    }
+
+    // Rebuilds the snapshot from the DB (call after changing a definition)
+    public synchronized Snapshot refresh() {
+        ConnectorCatalogVersion version = connectorDefinitionRepository.findCatalogVersion();
+        List<ConnectorDefinitionDto> definitions = connectorDefinitionRepository.findAll(Sort.by("id")).stream()
+                .map(ConnectorCatalog::toDto)
+                .toList();
+        Map<String, ConnectorDefinitionDto> definitionsByKey = new LinkedHashMap<>();
+        Map<String, Entry> byKey = new LinkedHashMap<>();
+        for (ConnectorDefinitionDto definition : definitions) {
+            definitionsByKey.put(definition.getKey(), definition);
+            byKey.put(definition.getKey(), entry(definition));
+        }
+        Snapshot rebuilt = new Snapshot(definitions, Collections.unmodifiableMap(definitionsByKey),
+                entry(definitions), Collections.unmodifiableMap(byKey));
+        this.snapshot = rebuilt;
+        this.loadedVersion = version;
+        logger.info("Connector catalog loaded: {} definitions, ETag {}", definitions.size(), rebuilt.catalog().etag());
+        return rebuilt;
+    }
+
+    // Cheap fingerprint query; the full catalog is only reloaded when it changed
+    @Scheduled(fixedDelayString = "${app.connectors.catalog-check-interval:PT30S}")
+    public void refreshIfChanged() {
+        try {
+            ConnectorCatalogVersion version = connectorDefinitionRepository.findCatalogVersion();
+            ConnectorCatalogVersion loaded = loadedVersion;
+            if (snapshot == null || loaded == null
+                    || version.getCount() != loaded.getCount()
+                    || !Objects.equals(version.getLastUpdatedAt(), loaded.getLastUpdatedAt())) {
+                refresh();
+            }
+        } catch (Exception e) {
+            logger.warn("Connector catalog change check failed: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public String cacheName() {
+        return CACHE_NAME;
+    }
+
+    // The snapshot is all-or-nothing: any changed definition means a reload on the next read
+    @Override
+    public void invalidateKey(String key) {
+        invalidateAll();
+    }
+
+    @Override
+    public void invalidateAll() {
+        snapshot = null;
+    }
+
+    static ConnectorDefinitionDto toDto(ConnectorDefinition definition) {
+        boolean oauth2 = definition.getAuthType() == ConnectorDefinition.AuthenticationType.OAUTH2;
+        return new ConnectorDefinitionDto(
+                definition.getId(),
+                definition.getKey(),
+                definition.getName(),
+                definition.getDescription(),
+                definition.getLogoUrl(),
+                definition.getAuthType(),
+                definition.getCredentialFieldsSchema(),
+                // Include OAuth fields only if relevant
+                oauth2 ? definition.getOauth2ClientId() : null,
+                oauth2 ? definition.getOauth2Scopes() : null,
+                oauth2 ? definition.getOauth2AuthorizationUrl() : null,
+                oauth2 ? definition.getOauth2TokenUrl() : null,
+                definition.getCreatedAt(),
+                definition.getUpdatedAt()
+        );
+    }
+
+    private Entry entry(Object value) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(value);
+            return new Entry(json, etag(json));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize connector catalog", e);
+        }
+    }
+
+    private static String etag(byte[] json) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(json);
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(hash) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * One version of the catalog.
+     *
+     * @param definitions      All definitions (read-only list).
+     * @param definitionsByKey The same definitions keyed by connector key.
+     * @param catalog          Serialized list with its ETag.
+     * @param byKey            Serialized single definitions with their ETags, keyed by connector key.
+     */
+    public record Snapshot(List<ConnectorDefinitionDto> definitions, Map<String, ConnectorDefinitionDto> definitionsByKey,
+                           Entry catalog, Map<String, Entry> byKey) {
+    }
+
+    // Pre-serialized JSON body (do not modify the array) and its strong ETag
+    public record Entry(byte[] json, String etag) {
+    }
+}
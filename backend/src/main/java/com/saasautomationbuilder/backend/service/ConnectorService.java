@@ -1,49 +1,81 @@
 package com.saasautomationbuilder.backend.service;
 
+import com.saasautomationbuilder.backend.cache.CacheInvalidationBus;
 import com.saasautomationbuilder.backend.domain.ConnectorDefinition;
-import com.saasautomationbuilder.backend.domain.User;
 import com.saasautomationbuilder.backend.domain.UserConnection;
 import com.saasautomationbuilder.backend.dto.ConnectorDefinitionDto;
 import com.saasautomationbuilder.backend.dto.CreateUserConnectionRequestDto;
 import com.saasautomationbuilder.backend.dto.UserConnectionDto;
+import com.saasautomationbuilder.backend.dto.WebhookTokenDto;
 import com.saasautomationbuilder.backend.exception.ResourceNotFoundException;
+import com.saasautomationbuilder.backend.outbox.ChangeEvent;
+import com.saasautomationbuilder.backend.outbox.OutboxWriter;
 import com.saasautomationbuilder.backend.repository.ConnectorDefinitionRepository;
 import com.saasautomationbuilder.backend.repository.UserConnectionRepository;
+import com.saasautomationbuilder.backend.repository.UserRepository;
+import com.saasautomationbuilder.backend.security.CredentialVault;
+import com.saasautomationbuilder.backend.security.UserPrincipal;
+import com.saasautomationbuilder.backend.security.WebhookTokenService;
+import com.saasautomationbuilder.backend.support.TransactionCallbacks;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-// TODO: Import encryption service later
-// import com.saasautomationbuilder.backend.security.EncryptionService;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Timed(value = "app.service", histogram = true) // Every public method, tagged with class and method
 public class ConnectorService {
 
     private final ConnectorDefinitionRepository connectorDefinitionRepository;
     private final UserConnectionRepository userConnectionRepository;
-    // TODO: Inject EncryptionService later
-    // private final EncryptionService encryptionService;
+    private final UserRepository userRepository;
+    private final WebhookTokenService webhookTokenService;
+    private final ConnectorCatalog connectorCatalog; // Immutable snapshot of connector definitions
+    private final CredentialVault credentialVault; // Envelope-encrypts connection credentials
+    private final WorkflowService workflowService;
+    private final OutboxWriter outboxWriter;
+    private final CacheInvalidationBus invalidationBus;
 
     // --- Connector Definitions ---
 
-    @Transactional(readOnly = true)
+    // Served from the in-memory catalog snapshot, no DB access
     public List<ConnectorDefinitionDto> getAvailableConnectors() {
-        return connectorDefinitionRepository.findAll().stream()
-                .map(this::mapToDto)
-                .collect(Collectors.toList());
+        return connectorCatalog.current().definitions();
     }
 
-    @Transactional(readOnly = true)
     public ConnectorDefinitionDto getConnectorDefinitionByKey(String key) {
-        return connectorDefinitionRepository.findByKey(key)
-                .map(this::mapToDto)
-                .orElseThrow(() -> new ResourceNotFoundException("Connector definition not found with key: " + key));
+        ConnectorDefinitionDto definition = connectorCatalog.current().definitionsByKey().get(key);
+        if (definition == null) {
+            throw new ResourceNotFoundException("Connector definition not found with key: " + key);
+        }
+        return definition;
     }
-    
+
+    // Pre-serialized catalog JSON and ETag for the HTTP layer
+    public ConnectorCatalog.Entry getAvailableConnectorsJson() {
+        return connectorCatalog.current().catalog();
+    }
+
+    public ConnectorCatalog.Entry getConnectorDefinitionJson(String key) {
+        ConnectorCatalog.Entry entry = connectorCatalog.current().byKey().get(key);
+        if (entry == null) {
+            throw new ResourceNotFoundException("Connector definition not found with key: " + key);
+        }
+        return entry;
+    }
+
+    // Webhook URL the current user configures at the provider for this connector
+    public WebhookTokenDto getWebhookToken(String key, UserPrincipal currentUser) {
+        getConnectorDefinitionByKey(key); // 404 for unknown connectors
+        String token = webhookTokenService.issue(currentUser.getId(), key);
+        return new WebhookTokenDto(key, token, "/api/v1/hooks/" + key + "/" + token);
+    }
+
     // Admin method (potentially) to add new connector definitions
     // @Transactional
     // public ConnectorDefinitionDto createConnectorDefinition(...) { ... }
@@ -51,31 +83,27 @@ public class ConnectorService {
     // --- User Connections ---
 
     @Transactional(readOnly = true)
-    public List<UserConnectionDto> getUserConnections(User currentUser) {
-        return userConnectionRepository.findByUserId(currentUser.getId()).stream()
-                .map(this::mapToDto)
-                .collect(Collectors.toList());
+    public List<UserConnectionDto> getUserConnections(UserPrincipal currentUser) {
+        return userConnectionRepository.findDtosByUserId(currentUser.getId());
     }
 
     @Transactional
-    public UserConnectionDto createUserConnection(CreateUserConnectionRequestDto requestDto, User currentUser) {
+    public UserConnectionDto createUserConnection(CreateUserConnectionRequestDto requestDto, UserPrincipal currentUser) {
         ConnectorDefinition definition = connectorDefinitionRepository.findByKey(requestDto.getConnectorKey())
                 .orElseThrow(() -> new ResourceNotFoundException("Connector definition not found with key: " + requestDto.getConnectorKey()));
 
-        // --- IMPORTANT: Credential Handling Placeholder ---
-        // 1. Validate incoming credentials against definition.credentialFieldsSchema
-        // 2. Encrypt the credentials using a strong encryption service
-        // String encryptedCredentials = encryptionService.encrypt(mapToJson(requestDto.getCredentials()));
-        String encryptedCredentials = "PLACEHOLDER_ENCRYPTED_DATA_FOR_" + requestDto.getConnectorKey(); // Replace this!
-        // -----------------------------------------------
+        // TODO: Validate incoming credentials against definition.credentialFieldsSchema
+        String encryptedCredentials = credentialVault.seal(currentUser.getId(), requestDto.getCredentials());
 
         UserConnection newConnection = new UserConnection();
-        newConnection.setUser(currentUser);
+        newConnection.setUser(userRepository.getReferenceById(currentUser.getId()));
         newConnection.setConnectorDefinition(definition);
         newConnection.setConnectionName(requestDto.getConnectionName());
         newConnection.setEncryptedCredentials(encryptedCredentials);
-        // Set expiresAt if applicable (e.g., for OAuth)
-        // newConnection.setExpiresAt(...);
+        if (definition.getAuthType() == ConnectorDefinition.AuthenticationType.OAUTH2) {
+            // OAuthTokenRefresher renews the token shortly before this
+            newConnection.setExpiresAt(OAuthTokenRefresher.expiresAt(requestDto.getCredentials(), Instant.now()));
+        }
         newConnection.setActive(true);
 
         UserConnection savedConnection = userConnectionRepository.save(newConnection);
@@ -83,7 +111,7 @@ public class ConnectorService {
     }
     
      @Transactional
-    public void deleteUserConnection(Long connectionId, User currentUser) {
+    public void deleteUserConnection(Long connectionId, UserPrincipal currentUser) {
         UserConnection connection = userConnectionRepository.findById(connectionId)
             .orElseThrow(() -> new ResourceNotFoundException("User connection not found with id: " + connectionId));
         
@@ -92,33 +120,32 @@ public class ConnectorService {
             throw new com.saasautomationbuilder.backend.exception.UnauthorizedAccessException("User does not have permission to delete this connection.");
         }
         
+        // Workflows bound to the connection could only fail from now on
+        workflowService.disableWorkflowsUsingConnection(connectionId);
         userConnectionRepository.delete(connection);
+        outboxWriter.record(ChangeEvent.CONNECTION, connectionId, ChangeEvent.DELETED, currentUser.getId());
+        TransactionCallbacks.afterCommit(() -> credentialVault.evict(connectionId));
+        invalidationBus.broadcast(CredentialVault.CACHE_NAME, connectionId);
+    }
+
+    /**
+     * Decrypted credentials of one of the user's connections, for executing actions.
+     * Served from the vault's short-lived cache when the connection was used recently.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, String> getConnectionCredentials(Long connectionId, Long userId) {
+        UserConnection connection = userConnectionRepository.findById(connectionId)
+                .filter(found -> found.getUser().getId().equals(userId))
+                .orElseThrow(() -> new ResourceNotFoundException("User connection not found with id: " + connectionId));
+        return credentialVault.open(connectionId, userId, connection.getEncryptedCredentials());
     }
 
-    // TODO: Add methods for updating connections, refreshing OAuth tokens etc.
+    // TODO: Add methods for updating connections etc. (OAuth tokens are refreshed by OAuthTokenRefresher)
 
     // --- Helper DTO Mappers ---
 
-    private ConnectorDefinitionDto mapToDto(ConnectorDefinition definition) {
-        return new ConnectorDefinitionDto(
-                definition.getId(),
-                definition.getKey(),
-                definition.getName(),
-                definition.getDescription(),
-                definition.getLogoUrl(),
-                definition.getAuthType(),
-                definition.getCredentialFieldsSchema(),
-                // Include OAuth fields only if relevant
-                definition.getAuthType() == ConnectorDefinition.AuthenticationType.OAUTH2 ? definition.getOauth2ClientId() : null,
-                definition.getAuthType() == ConnectorDefinition.AuthenticationType.OAUTH2 ? definition.getOauth2Scopes() : null,
-                definition.getAuthType() == ConnectorDefinition.AuthenticationType.OAUTH2 ? definition.getOauth2AuthorizationUrl() : null,
-                definition.getAuthType() == ConnectorDefinition.AuthenticationType.OAUTH2 ? definition.getOauth2TokenUrl() : null,
-                definition.getCreatedAt(),
-                definition.getUpdatedAt()
-        );
-    }
-
-    private UserConnectionDto mapToDto(UserConnection connection) {
+    // Package-private so the JMH benchmarks can call it directly
+    static UserConnectionDto mapToDto(UserConnection connection) {
         // IMPORTANT: NEVER return raw or encrypted credentials in the DTO
         return new UserConnectionDto(
                 connection.getId(),
@@ -133,7 +160,4 @@ public class ConnectorService {
                 connection.getUpdatedAt()
         );
     }
-    
-    // Helper to convert map to JSON string (replace with proper JSON library later)
-    // private String mapToJson(Map<String, String> map) { ... }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,78 @@
+package com.saasautomationbuilder.backend.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.saasautomationbuilder.backend.domain.Workflow;
+import com.saasautomationbuilder.backend.dto.ExportRecordDto;
+import com.saasautomationbuilder.backend.dto.UserConnectionDto;
+import com.saasautomationbuilder.backend.repository.UserConnectionRepository;
+import com.saasautomationbuilder.backend.repository.WorkflowRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes everything a user owns as NDJSON, one {@link ExportRecordDto} per line.
+ * <p>
+ * Rows are read through forward-only DB cursors and each entity is detached once written, so heap use
+ * does not depend on how many workflows the user has. Connection credentials are never exported.
+ */
+@Service
+@RequiredArgsConstructor
+public class ExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportService.class);
+
+    private final WorkflowRepository workflowRepository;
+    private final UserConnectionRepository userConnectionRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Writes the export to the stream (which is flushed but not closed).
+     *
+     * @return The number of records written.
+     */
+    // The cursors need an open transaction (PostgreSQL only streams with autocommit off)
+    @Transactional(readOnly = true)
+    public long exportUserData(Long userId, OutputStream out) throws IOException {
+        long records = 0;
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+            try (Stream<Workflow> workflows = workflowRepository.streamByUserId(userId)) {
+                Iterator<Workflow> iterator = workflows.iterator();
+                while (iterator.hasNext()) {
+                    Workflow workflow = iterator.next();
+                    writeRecord(generator, "workflow", WorkflowService.mapToDto(workflow));
+                    entityManager.detach(workflow); // Keep the persistence context from growing with the export
+                    records++;
+                }
+            }
+
+            try (Stream<UserConnectionDto> connections = userConnectionRepository.streamDtosByUserId(userId)) {
+                Iterator<UserConnectionDto> iterator = connections.iterator();
+                while (iterator.hasNext()) {
+                    writeRecord(generator, "connection", iterator.next());
+                    records++;
+                }
+            }
+            generator.flush();
+        }
+        logger.info("Exported {} records for user {}", records, userId);
+        return records;
+    }
+
+    private void writeRecord(JsonGenerator generator, String type, Object data) throws IOException {
+        objectMapper.writeValue(generator, new ExportRecordDto(type, data));
+        generator.writeRaw('\n');
+    }
+}
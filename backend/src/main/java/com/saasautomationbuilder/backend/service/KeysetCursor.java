@@ -0,0 +1,31 @@
+package com.saasautomationbuilder.backend.service;
+
+import com.saasautomationbuilder.backend.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+// Keyset position (timestamp, id) of the last row on a page (workflows by updatedAt, runs by startedAt),
+// encoded as an opaque URL-safe string
+record KeysetCursor(Instant timestamp, Long id) {
+
+    String encode() {
+        String raw = timestamp + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static KeysetCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            if (separator < 0) {
+                throw new BadRequestException("Invalid cursor.");
+            }
+            return new KeysetCursor(Instant.parse(raw.substring(0, separator)), Long.valueOf(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BadRequestException("Invalid cursor.");
+        }
+    }
+}
@@ -0,0 +1,332 @@
+package com.saasautomationbuilder.backend.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.saasautomationbuilder.backend.cache.CacheInvalidationBus;
+import com.saasautomationbuilder.backend.execution.schedule.SchedulerLeadership;
+import com.saasautomationbuilder.backend.repository.ConnectionRefreshView;
+import com.saasautomationbuilder.backend.repository.UserConnectionRepository;
+import com.saasautomationbuilder.backend.security.CredentialVault;
+import com.saasautomationbuilder.backend.support.TokenBucket;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Renews OAuth2 access tokens in the background shortly before their connection's {@code expiresAt}, so workflow
+ * runs never wait for a token endpoint.
+ * <p>
+ * Every {@code interval} the scheduler leader scans the connections expiring within {@code lead-time} in keyset-paged
+ * batches over the expiry index; each connection is refreshed at most once per scan, even if the provider hands out
+ * tokens that expire within the lead time again. Refresh requests are spaced out by a token bucket per token-endpoint host, and at most one
+ * refresh per connection is in flight: concurrent callers share the same future. The new credentials are written
+ * with a compare-and-set on the expiry that was read, so a refresh never overwrites credentials changed meanwhile.
+ * A refresh token rejected with {@code invalid_grant} deactivates the connection.
+ * <p>
+ * Client secrets are not stored with the connector definition; they are read from
+ * {@code app.connectors.oauth2.clients.<connectorKey>.client-secret}.
+ */
+@Component
+public class OAuthTokenRefresher {
+
+    private static final Logger logger = LoggerFactory.getLogger(OAuthTokenRefresher.class);
+
+    // Credential map keys (standard OAuth2 token response field names)
+    public static final String ACCESS_TOKEN = "access_token";
+    public static final String REFRESH_TOKEN = "refresh_token";
+    public static final String EXPIRES_IN = "expires_in";
+
+    public enum Outcome {
+        REFRESHED, // New token stored
+        REVOKED,   // Refresh token rejected; connection deactivated
+        SKIPPED,   // Nothing to do (no refresh token, connection gone or changed meanwhile)
+        FAILED     // Transient error; retried on the next scan
+    }
+
+    private final UserConnectionRepository userConnectionRepository;
+    private final CredentialVault credentialVault;
+    private final CacheInvalidationBus invalidationBus;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Environment environment;
+    private final SchedulerLeadership leadership;
+    private final MeterRegistry meterRegistry;
+    private final Duration leadTime;
+    private final Duration giveUpAfter;
+    private final int batchSize;
+    private final double hostRatePerSecond;
+    private final int hostBurst;
+    private final Duration requestTimeout;
+
+    private final HttpClient httpClient;
+    private final ScheduledExecutorService workers;
+    private final ConcurrentMap<Long, CompletableFuture<Outcome>> inFlight = new ConcurrentHashMap<>(); // by connection id
+    private final ConcurrentMap<String, TokenBucket> hostBuckets = new ConcurrentHashMap<>();
+
+    public OAuthTokenRefresher(UserConnectionRepository userConnectionRepository,
+                               CredentialVault credentialVault,
+                               CacheInvalidationBus invalidationBus,
+                               ObjectMapper objectMapper,
+                               PlatformTransactionManager transactionManager,
+                               Environment environment,
+                               SchedulerLeadership leadership,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.connectors.oauth2.refresh.lead-time:PT5M}") Duration leadTime,
+                               @Value("${app.connectors.oauth2.refresh.give-up-after:P1D}") Duration giveUpAfter,
+                               @Value("${app.connectors.oauth2.refresh.batch-size:200}") int batchSize,
+                               @Value("${app.connectors.oauth2.refresh.host-rate-per-second:5}") double hostRatePerSecond,
+                               @Value("${app.connectors.oauth2.refresh.host-burst:10}") int hostBurst,
+                               @Value("${app.connectors.oauth2.refresh.workers:4}") int workerThreads,
+                               @Value("${app.connectors.oauth2.refresh.request-timeout:PT10S}") Duration requestTimeout) {
+        this.userConnectionRepository = userConnectionRepository;
+        this.credentialVault = credentialVault;
+        this.invalidationBus = invalidationBus;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.environment = environment;
+        this.leadership = leadership;
+        this.meterRegistry = meterRegistry;
+        this.leadTime = leadTime;
+        this.giveUpAfter = giveUpAfter;
+        this.batchSize = batchSize;
+        this.hostRatePerSecond = hostRatePerSecond;
+        this.hostBurst = hostBurst;
+        this.requestTimeout = requestTimeout;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.workers = Executors.newScheduledThreadPool(workerThreads, runnable -> {
+            Thread thread = new Thread(runnable, "oauth-refresh-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(requestTimeout)
+                .build();
+    }
+
+    // One instance scans; refresh(connectionId) still runs wherever a provider rejected a token
+    @Scheduled(fixedDelayString = "${app.connectors.oauth2.refresh.interval:PT30S}")
+    public void refreshExpiringConnections() {
+        if (!leadership.isLeader()) {
+            return;
+        }
+        try {
+            int refreshed = refreshExpiring();
+            if (refreshed > 0) {
+                logger.info("Refreshed OAuth tokens of {} connections", refreshed);
+            }
+        } catch (Exception e) {
+            logger.warn("OAuth token refresh scan failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Refreshes every connection expiring within the lead time (skipping ones expired longer than
+     * {@code give-up-after} ago), one batch at a time.
+     *
+     * @return The number of connections whose token was refreshed.
+     */
+    public int refreshExpiring() {
+        Instant now = Instant.now();
+        Instant horizon = now.plus(leadTime);
+        Instant afterExpiresAt = now.minus(giveUpAfter);
+        long afterId = 0L;
+        int refreshed = 0;
+        List<ConnectionRefreshView> batch;
+        do {
+            batch = userConnectionRepository.findRefreshCandidates(horizon, now, afterExpiresAt, afterId, PageRequest.ofSize(batchSize));
+            List<CompletableFuture<Outcome>> outcomes = new ArrayList<>(batch.size());
+            for (ConnectionRefreshView connection : batch) {
+                outcomes.add(refresh(connection));
+                afterExpiresAt = connection.getExpiresAt();
+                afterId = connection.getId();
+            }
+            // Finish the batch before reading the next one, so at most batch-size refreshes are queued
+            for (CompletableFuture<Outcome> outcome : outcomes) {
+                if (outcome.join() == Outcome.REFRESHED) {
+                    refreshed++;
+                }
+            }
+        } while (batch.size() == batchSize);
+        return refreshed;
+    }
+
+    // Refreshes one connection now (e.g. after a provider rejected its access token); joins a refresh already in flight
+    public CompletableFuture<Outcome> refresh(Long connectionId) {
+        return userConnectionRepository.findRefreshViewById(connectionId)
+                .filter(connection -> connection.getTokenUrl() != null && connection.getExpiresAt() != null)
+                .map(this::refresh)
+                .orElseGet(() -> CompletableFuture.completedFuture(Outcome.SKIPPED));
+    }
+
+    // Never completes exceptionally
+    CompletableFuture<Outcome> refresh(ConnectionRefreshView connection) {
+        CompletableFuture<Outcome> started = new CompletableFuture<>();
+        CompletableFuture<Outcome> existing = inFlight.putIfAbsent(connection.getId(), started);
+        if (existing != null) {
+            return existing;
+        }
+        started.whenComplete((outcome, error) -> inFlight.remove(connection.getId(), started));
+        try {
+            TokenBucket bucket = hostBuckets.computeIfAbsent(host(connection.getTokenUrl()),
+                    host -> new TokenBucket(hostBurst, hostRatePerSecond));
+            workers.schedule(() -> send(connection, started), bucket.reserve(), TimeUnit.NANOSECONDS);
+        } catch (Exception e) {
+            complete(connection, started, Outcome.FAILED, e);
+        }
+        return started;
+    }
+
+    @PreDestroy
+    public void stop() {
+        workers.shutdownNow();
+        inFlight.values().forEach(pending -> pending.complete(Outcome.FAILED));
+    }
+
+    // Lifetime handed over with freshly obtained OAuth2 credentials, or null if they carry none
+    public static Instant expiresAt(Map<String, String> credentials, Instant now) {
+        String expiresIn = credentials == null ? null : credentials.get(EXPIRES_IN);
+        if (expiresIn == null || expiresIn.isBlank()) {
+            return null;
+        }
+        try {
+            long seconds = Long.parseLong(expiresIn.trim());
+            return seconds > 0 ? now.plusSeconds(seconds) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private void send(ConnectionRefreshView connection, CompletableFuture<Outcome> result) {
+        try {
+            Map<String, String> credentials = credentialVault.open(connection.getId(), connection.getUserId(),
+                    connection.getEncryptedCredentials());
+            String refreshToken = credentials.get(REFRESH_TOKEN);
+            if (refreshToken == null || refreshToken.isBlank()) {
+                complete(connection, result, Outcome.SKIPPED, null);
+                return;
+            }
+            HttpRequest request = HttpRequest.newBuilder(URI.create(connection.getTokenUrl()))
+                    .timeout(requestTimeout)
+                    .header("Content-Type", "application/x-www-form-urlencoded")
+                    .header("Accept", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(refreshForm(connection, refreshToken)))
+                    .build();
+            httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                    .thenApplyAsync(response -> handleResponse(connection, credentials, response), workers)
+                    .whenComplete((outcome, error) ->
+                            complete(connection, result, error == null ? outcome : Outcome.FAILED, error));
+        } catch (Exception e) {
+            complete(connection, result, Outcome.FAILED, e);
+        }
+    }
+
+    private String refreshForm(ConnectionRefreshView connection, String refreshToken) {
+        StringBuilder form = new StringBuilder("grant_type=refresh_token&refresh_token=").append(urlEncode(refreshToken));
+        if (connection.getClientId() != null) {
+            form.append("&client_id=").append(urlEncode(connection.getClientId()));
+        }
+        String clientSecret = environment.getProperty("app.connectors.oauth2.clients." + connection.getConnectorKey() + ".client-secret");
+        if (clientSecret != null && !clientSecret.isBlank()) {
+            form.append("&client_secret=").append(urlEncode(clientSecret));
+        }
+        return form.toString();
+    }
+
+    private Outcome handleResponse(ConnectionRefreshView connection, Map<String, String> credentials, HttpResponse<byte[]> response) {
+        JsonNode body = readBody(response.body());
+        Instant now = Instant.now();
+        if (response.statusCode() / 100 != 2) {
+            String error = body.path("error").asText("");
+            if ((response.statusCode() == 400 || response.statusCode() == 401) && "invalid_grant".equals(error)) {
+                // The user revoked access (or the refresh token expired): stop using the connection until reauthorized
+                Integer deactivated = transactionTemplate.execute(status ->
+                        userConnectionRepository.deactivate(connection.getId(), connection.getExpiresAt(), now));
+                evictCredentials(connection.getId());
+                return deactivated != null && deactivated == 1 ? Outcome.REVOKED : Outcome.SKIPPED;
+            }
+            throw new IllegalStateException("Token endpoint returned HTTP " + response.statusCode()
+                    + (error.isEmpty() ? "" : " (" + error + ")"));
+        }
+
+        String accessToken = body.path(ACCESS_TOKEN).asText(null);
+        if (accessToken == null || accessToken.isBlank()) {
+            throw new IllegalStateException("Token endpoint response has no access_token");
+        }
+        Map<String, String> refreshed = new HashMap<>(credentials);
+        refreshed.put(ACCESS_TOKEN, accessToken);
+        String rotatedRefreshToken = body.path(REFRESH_TOKEN).asText(null);
+        if (rotatedRefreshToken != null && !rotatedRefreshToken.isBlank()) {
+            refreshed.put(REFRESH_TOKEN, rotatedRefreshToken);
+        }
+        long expiresIn = body.path(EXPIRES_IN).asLong(0);
+        refreshed.put(EXPIRES_IN, Long.toString(expiresIn));
+        Instant expiresAt = expiresIn > 0 ? now.plusSeconds(expiresIn) : null; // No lifetime: never scanned again
+
+        String sealed = credentialVault.seal(connection.getUserId(), refreshed);
+        Integer updated = transactionTemplate.execute(status -> userConnectionRepository.updateRefreshedCredentials(
+                connection.getId(), connection.getExpiresAt(), sealed, expiresAt, now));
+        evictCredentials(connection.getId());
+        return updated != null && updated == 1 ? Outcome.REFRESHED : Outcome.SKIPPED;
+    }
+
+    // The old credentials may be cached on any instance
+    private void evictCredentials(Long connectionId) {
+        credentialVault.evict(connectionId);
+        invalidationBus.broadcast(CredentialVault.CACHE_NAME, connectionId);
+    }
+
+    private JsonNode readBody(byte[] body) {
+        try {
+            return body == null || body.length == 0 ? objectMapper.missingNode() : objectMapper.readTree(body);
+        } catch (IOException e) {
+            return objectMapper.missingNode();
+        }
+    }
+
+    private void complete(ConnectionRefreshView connection, CompletableFuture<Outcome> result, Outcome outcome, Throwable error) {
+        if (error != null) {
+            logger.warn("OAuth token refresh failed for connection {}: {}", connection.getId(), error.getMessage());
+        }
+        meterRegistry.counter("oauth.token.refresh", "outcome", outcome.name().toLowerCase(Locale.ROOT)).increment();
+        result.complete(outcome);
+    }
+
+    private static String host(String url) {
+        String host = URI.create(url).getHost();
+        return host == null ? url : host.toLowerCase(Locale.ROOT);
+    }
+
+    private static String urlEncode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
@@ -1,68 +1,172 @@
 package com.saasautomationbuilder.backend.service;
 
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseAuthException;
 // import com.google.firebase.auth.FirebaseToken; // Not directly used here
 import com.google.firebase.auth.UserRecord;
+import com.saasautomationbuilder.backend.cache.CacheInvalidationBus;
+import com.saasautomationbuilder.backend.cache.InvalidatableCache;
 import com.saasautomationbuilder.backend.domain.User;
 import com.saasautomationbuilder.backend.repository.UserRepository;
-import lombok.RequiredArgsConstructor;
+import com.saasautomationbuilder.backend.security.UserPrincipal;
+import io.micrometer.core.annotation.Timed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentMap;
 
 @Service
-@RequiredArgsConstructor
-public class UserService {
+public class UserService implements InvalidatableCache {
+
+    public static final String CACHE_NAME = "users";
 
     private static final Logger logger = LoggerFactory.getLogger(UserService.class);
     private final UserRepository userRepository;
+    private final CacheInvalidationBus invalidationBus;
+    // In-flight and completed lookups by Firebase UID; concurrent misses share one future.
+    // Holds immutable principals, never entities: every request of the user shares the cached value
+    private final AsyncCache<String, UserPrincipal> userCache;
+
+    public UserService(UserRepository userRepository,
+                       CacheInvalidationBus invalidationBus,
+                       @Value("${app.security.user-cache.max-size:10000}") long maxSize,
+                       @Value("${app.security.user-cache.ttl:PT5M}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.invalidationBus = invalidationBus;
+        this.userCache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+    }
 
     /**
      * Finds a user by Firebase UID, creating or updating them in the local DB if necessary.
      * This should be called after the Firebase token is validated.
+     * <p>
+     * Results are cached per UID. Concurrent misses for the same UID collapse into a single
+     * DB lookup (and, for new users, a single Firebase call and insert) on the first caller's thread.
      *
      * @param firebaseUid The validated Firebase UID.
-     * @return The corresponding User entity from the local database.
+     * @return The user's principal (id, UID and plan tier of the local record).
      * @throws RuntimeException if user details cannot be fetched from Firebase or DB save fails.
      */
-    @Transactional
-    public User findOrCreateUser(String firebaseUid) {
-        Optional<User> existingUser = userRepository.findByFirebaseUid(firebaseUid);
+    @Timed(value = "auth.user.resolve", histogram = true)
+    public UserPrincipal findOrCreateUser(String firebaseUid) {
+        ConcurrentMap<String, CompletableFuture<UserPrincipal>> inFlight = userCache.asMap();
+        CompletableFuture<UserPrincipal> existing = inFlight.get(firebaseUid);
+        if (existing == null) {
+            CompletableFuture<UserPrincipal> loading = new CompletableFuture<>();
+            existing = inFlight.putIfAbsent(firebaseUid, loading);
+            if (existing == null) {
+                // We won the race: load on this thread and publish the result to any waiters
+                try {
+                    UserPrincipal user = UserPrincipal.of(loadOrCreateUser(firebaseUid));
+                    loading.complete(user);
+                    return user;
+                } catch (RuntimeException e) {
+                    inFlight.remove(firebaseUid, loading);
+                    loading.completeExceptionally(e);
+                    throw e;
+                }
+            }
+        }
+        try {
+            return existing.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    // Optional: Method to get user by UID without creation
+    @Transactional(readOnly = true)
+    public Optional<UserPrincipal> findByFirebaseUid(String firebaseUid) {
+        CompletableFuture<UserPrincipal> cached = userCache.getIfPresent(firebaseUid);
+        if (cached != null && cached.isDone() && !cached.isCompletedExceptionally()) {
+            return Optional.of(cached.join());
+        }
+        return userRepository.findByFirebaseUid(firebaseUid).map(UserPrincipal::of);
+    }
+
+    // Drop a cached principal, e.g. after the user record was changed or deleted (on every instance)
+    public void evictUser(String firebaseUid) {
+        invalidateKey(firebaseUid);
+        invalidationBus.broadcast(CACHE_NAME, firebaseUid);
+    }
+
+    public void evictAll() {
+        invalidateAll();
+        invalidationBus.broadcastAll(CACHE_NAME);
+    }
 
+    @Override
+    public String cacheName() {
+        return CACHE_NAME;
+    }
+
+    @Override
+    public void invalidateKey(String firebaseUid) {
+        userCache.synchronous().invalidate(firebaseUid);
+    }
+
+    @Override
+    public void invalidateAll() {
+        userCache.synchronous().invalidateAll();
+    }
+
+    public CacheStats cacheStats() {
+        return userCache.synchronous().stats();
+    }
+
+    private User loadOrCreateUser(String firebaseUid) {
+        // Repository methods run in their own short transactions
+        Optional<User> existingUser = userRepository.findByFirebaseUid(firebaseUid);
         if (existingUser.isPresent()) {
             // Optional: Update local user details if needed (e.g., display name)
             // Consider adding logic here if you want to sync updates from Firebase
             return existingUser.get();
-        } else {
-            logger.info("User with Firebase UID {} not found locally, creating new user...", firebaseUid);
-            try {
-                // Fetch user details from Firebase Auth to populate local record
-                UserRecord firebaseUser = FirebaseAuth.getInstance().getUser(firebaseUid);
-
-                User newUser = new User();
-                newUser.setFirebaseUid(firebaseUid);
-                newUser.setEmail(firebaseUser.getEmail()); // Ensure email is available
-                newUser.setDisplayName(firebaseUser.getDisplayName()); // Optional
-                // Timestamps createdAt/updatedAt are set automatically by annotations
-
-                return userRepository.save(newUser);
-            } catch (FirebaseAuthException e) {
-                logger.error("Failed to fetch user details from Firebase for UID: {}", firebaseUid, e);
-                throw new RuntimeException("Failed to retrieve Firebase user details", e);
-            } catch (Exception e) {
-                logger.error("Failed to save new user with Firebase UID: {}", firebaseUid, e);
-                throw new RuntimeException("Failed to save new user", e);
-            }
         }
-    }
 
-    // Optional: Method to get user by UID without creation
-    @Transactional(readOnly = true)
-    public Optional<User> findByFirebaseUid(String firebaseUid) {
-        return userRepository.findByFirebaseUid(firebaseUid);
+        logger.info("User with Firebase UID {} not found locally, creating new user...", firebaseUid);
+        UserRecord firebaseUser;
+        try {
+            // Fetch user details from Firebase Auth to populate local record
+            firebaseUser = FirebaseAuth.getInstance().getUser(firebaseUid);
+        } catch (FirebaseAuthException e) {
+            logger.error("Failed to fetch user details from Firebase for UID: {}", firebaseUid, e);
+            throw new RuntimeException("Failed to retrieve Firebase user details", e);
+        }
+
+        User newUser = new User();
+        newUser.setFirebaseUid(firebaseUid);
+        newUser.setEmail(firebaseUser.getEmail()); // Ensure email is available
+        newUser.setDisplayName(firebaseUser.getDisplayName()); // Optional
+        // Timestamps createdAt/updatedAt are set automatically by annotations
+
+        try {
+            return userRepository.save(newUser);
+        } catch (DataIntegrityViolationException e) {
+            // Another instance inserted the same UID first; use its row
+            logger.info("User with Firebase UID {} was created concurrently, re-reading", firebaseUid);
+            return userRepository.findByFirebaseUid(firebaseUid)
+                    .orElseThrow(() -> new RuntimeException("Failed to save new user", e));
+        } catch (Exception e) {
+            logger.error("Failed to save new user with Firebase UID: {}", firebaseUid, e);
+            throw new RuntimeException("Failed to save new user", e);
+        }
     }
-} 
\ No newline at end of file
+}
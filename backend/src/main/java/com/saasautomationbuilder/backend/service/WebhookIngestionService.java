@@ -0,0 +1,134 @@
+package com.saasautomationbuilder.backend.service;
+
+import com.saasautomationbuilder.backend.exception.BadRequestException;
+import com.saasautomationbuilder.backend.exception.TooManyRequestsException;
+import com.saasautomationbuilder.backend.exception.UnauthorizedAccessException;
+import com.saasautomationbuilder.backend.execution.BatchingTriggerPublisher;
+import com.saasautomationbuilder.backend.execution.TriggerEvent;
+import com.saasautomationbuilder.backend.execution.TriggerIndex;
+import com.saasautomationbuilder.backend.execution.dedup.EventDeduplicator;
+import com.saasautomationbuilder.backend.security.WebhookTokenService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Turns an inbound provider webhook into trigger events for the matching workflows.
+ * Everything here is in-memory (token HMAC check, trigger index lookup, duplicate check); the DB is only touched
+ * when the de-duplication window cannot vouch for an event (see EventDeduplicator).
+ */
+@Service
+@RequiredArgsConstructor
+public class WebhookIngestionService {
+
+    private final WebhookTokenService webhookTokenService;
+    private final TriggerIndex triggerIndex;
+    private final BatchingTriggerPublisher batchingTriggerPublisher;
+    private final EventDeduplicator eventDeduplicator;
+
+    /**
+     * Accepts a webhook.
+     *
+     * @param connectorKey Connector the webhook URL was issued for.
+     * @param token        Token from the webhook URL.
+     * @param eventType    Event type from the request (query/header); falls back to the payload's "type"/"event" field.
+     * @param eventId      Provider event id from the request header (nullable); falls back to the payload's "event_id" field.
+     *                     Deliveries of an id already accepted for this user and connector are acknowledged and dropped.
+     * @param occurredAt   Provider event timestamp from the request header, ISO-8601 or epoch seconds (nullable).
+     * @param payload      Parsed request body (nullable).
+     * @return A future completed once the broker has confirmed the resulting trigger events.
+     * @throws UnauthorizedAccessException if the token is not valid for this connector.
+     * @throws TooManyRequestsException    if the outbound buffer is full.
+     */
+    public CompletableFuture<Void> ingest(String connectorKey, String token, String eventType, String eventId,
+                                          String occurredAt, Map<String, Object> payload) {
+        Long userId = webhookTokenService.verify(token, connectorKey)
+                .orElseThrow(() -> new UnauthorizedAccessException("Invalid webhook token."));
+        String event = resolveEventType(eventType, payload);
+
+        Set<Long> workflowIds = triggerIndex.match(connectorKey, event, userId);
+        if (workflowIds.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        // Provider ids are only unique per account, so the key is scoped to the user the webhook URL belongs to
+        String providerEventId = resolveEventId(eventId, payload);
+        String dedupKey = providerEventId == null ? null : userId + ":" + providerEventId;
+        if (dedupKey != null && !eventDeduplicator.claim(connectorKey, dedupKey, parseTimestamp(occurredAt))) {
+            return CompletableFuture.completedFuture(null); // Redelivery of an accepted event
+        }
+
+        String ingestId = UUID.randomUUID().toString();
+        Instant receivedAt = Instant.now();
+        List<TriggerEvent> events = new ArrayList<>(workflowIds.size());
+        for (Long workflowId : workflowIds) {
+            events.add(new TriggerEvent(ingestId + ":" + workflowId, workflowId, userId, "webhook", payload, receivedAt, 0));
+        }
+
+        CompletableFuture<Void> confirmed = batchingTriggerPublisher.trySubmit(events);
+        if (confirmed == null) {
+            release(connectorKey, dedupKey);
+            throw new TooManyRequestsException("Webhook intake is saturated, please retry later.");
+        }
+        if (dedupKey == null) {
+            return confirmed;
+        }
+        // The provider retries when publishing fails, and that retry must not be taken for a duplicate
+        return confirmed.whenComplete((ignored, failure) -> {
+            if (failure != null) {
+                release(connectorKey, dedupKey);
+            }
+        });
+    }
+
+    private void release(String connectorKey, String dedupKey) {
+        if (dedupKey != null) {
+            eventDeduplicator.release(connectorKey, dedupKey);
+        }
+    }
+
+    private static String resolveEventId(String eventId, Map<String, Object> payload) {
+        if (StringUtils.hasText(eventId)) {
+            return eventId;
+        }
+        if (payload != null && payload.get("event_id") instanceof String value && StringUtils.hasText(value)) {
+            return value;
+        }
+        return null;
+    }
+
+    // Unparseable timestamps are ignored: the event is then treated as recent
+    private static Instant parseTimestamp(String value) {
+        if (!StringUtils.hasText(value)) {
+            return null;
+        }
+        try {
+            return value.chars().allMatch(Character::isDigit) ? Instant.ofEpochSecond(Long.parseLong(value)) : Instant.parse(value);
+        } catch (DateTimeParseException | NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static String resolveEventType(String eventType, Map<String, Object> payload) {
+        if (StringUtils.hasText(eventType)) {
+            return eventType;
+        }
+        if (payload != null) {
+            for (String field : new String[]{"type", "event"}) {
+                if (payload.get(field) instanceof String value && StringUtils.hasText(value)) {
+                    return value;
+                }
+            }
+        }
+        throw new BadRequestException("Webhook event type is missing (use ?event=, X-Event-Type or a \"type\" field).");
+    }
+}
@@ -0,0 +1,55 @@
+package com.saasautomationbuilder.backend.service;
+
+import com.saasautomationbuilder.backend.support.DatabasePlatform;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Owns the jsonb side of the workflows table on PostgreSQL: converts config columns created as TEXT by earlier
+ * versions (Hibernate's schema update never changes a column type) and creates the indexes Hibernate cannot
+ * express, which back the searches in WorkflowConfigQueriesImpl. On other databases this does nothing.
+ */
+@Component
+@DependsOn("entityManagerFactory") // The workflows table must exist
+public class WorkflowConfigSchemaManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(WorkflowConfigSchemaManager.class);
+    private static final List<String> CONFIG_COLUMNS = List.of("trigger_config", "action_config");
+
+    static final List<String> INDEX_DDL = List.of(
+            // Trigger configs are one small object: plain expression indexes on the fields that get searched
+            "CREATE INDEX IF NOT EXISTS idx_workflows_trigger_connector ON workflows ((trigger_config ->> 'connectorKey'))",
+            "CREATE INDEX IF NOT EXISTS idx_workflows_trigger_connection ON workflows ((trigger_config ->> 'connectionId'))",
+            // Action configs are arrays: GIN for containment (@>) queries; jsonb_path_ops is smaller and faster than the default opclass
+            "CREATE INDEX IF NOT EXISTS idx_workflows_action_config ON workflows USING gin (action_config jsonb_path_ops)"
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public WorkflowConfigSchemaManager(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void initialize() {
+        if (!DatabasePlatform.isPostgres(jdbcTemplate.getDataSource())) {
+            return;
+        }
+        for (String column : CONFIG_COLUMNS) {
+            String type = jdbcTemplate.queryForObject("SELECT data_type FROM information_schema.columns " +
+                    "WHERE table_schema = current_schema() AND table_name = 'workflows' AND column_name = ?", String.class, column);
+            if (!"jsonb".equals(type)) {
+                // Rewrites the table once; fails (and stops startup) if a stored config is not valid JSON
+                logger.info("Converting workflows.{} from {} to jsonb", column, type);
+                jdbcTemplate.execute("ALTER TABLE workflows ALTER COLUMN " + column + " TYPE jsonb USING " + column + "::jsonb");
+            }
+        }
+        INDEX_DDL.forEach(jdbcTemplate::execute);
+    }
+}
@@ -0,0 +1,266 @@
+package com.saasautomationbuilder.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.saasautomationbuilder.backend.dto.CreateWorkflowRequestDto;
+import com.saasautomationbuilder.backend.dto.WorkflowImportItemResultDto;
+import com.saasautomationbuilder.backend.dto.WorkflowImportResultDto;
+import com.saasautomationbuilder.backend.exception.BadRequestException;
+import com.saasautomationbuilder.backend.exception.InvalidWorkflowConfigException;
+import com.saasautomationbuilder.backend.execution.TriggerIndex;
+import com.saasautomationbuilder.backend.execution.plan.TriggerSpec;
+import com.saasautomationbuilder.backend.execution.plan.WorkflowPlanCompiler;
+import com.saasautomationbuilder.backend.execution.polling.PollingEngine;
+import com.saasautomationbuilder.backend.execution.schedule.TimeTriggerScheduler;
+import com.saasautomationbuilder.backend.outbox.ChangeEvent;
+import com.saasautomationbuilder.backend.outbox.OutboxWriter;
+import com.saasautomationbuilder.backend.security.UserPrincipal;
+import com.saasautomationbuilder.backend.support.DatabasePlatform;
+import com.saasautomationbuilder.backend.support.TransactionCallbacks;
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bulk workflow import.
+ * <p>
+ * The body (a JSON array or NDJSON) is read as a stream. Each item gets the same bean validation and config
+ * compilation as {@code POST /api/v1/workflows}, and valid items are inserted with plain JDBC batches in one
+ * transaction per {@code batch-size} items. Workflow ids are IDENTITY, so going through JPA would cost a
+ * round trip per row. A failed batch only fails its own items; earlier batches stay committed.
+ */
+@Service
+@Timed(value = "app.service", histogram = true)
+public class WorkflowImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(WorkflowImportService.class);
+
+    // %s is how the database takes a JSON text parameter into a json(b) column (see insertSql)
+    private static final String INSERT_SQL = "INSERT INTO workflows " +
+            "(name, description, enabled, trigger_config, action_config, user_id, created_at, updated_at, version) " +
+            "VALUES (?, ?, ?, %1$s, %1$s, ?, ?, ?, 0)";
+
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final WorkflowPlanCompiler planCompiler;
+    private final ConnectionOwnershipChecker connectionOwnership;
+    private final TriggerIndex triggerIndex;
+    private final TimeTriggerScheduler timeTriggerScheduler;
+    private final PollingEngine pollingEngine;
+    private final OutboxWriter outboxWriter;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxItems;
+    private volatile String insertSql;
+
+    public WorkflowImportService(ObjectMapper objectMapper,
+                                 Validator validator,
+                                 WorkflowPlanCompiler planCompiler,
+                                 ConnectionOwnershipChecker connectionOwnership,
+                                 TriggerIndex triggerIndex,
+                                 TimeTriggerScheduler timeTriggerScheduler,
+                                 PollingEngine pollingEngine,
+                                 OutboxWriter outboxWriter,
+                                 JdbcTemplate jdbcTemplate,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${app.workflows.import.batch-size:500}") int batchSize,
+                                 @Value("${app.workflows.import.max-items:10000}") int maxItems) {
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.planCompiler = planCompiler;
+        this.connectionOwnership = connectionOwnership;
+        this.triggerIndex = triggerIndex;
+        this.timeTriggerScheduler = timeTriggerScheduler;
+        this.pollingEngine = pollingEngine;
+        this.outboxWriter = outboxWriter;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxItems = maxItems;
+    }
+
+    /**
+     * Imports workflows for the user.
+     *
+     * @param body A JSON array of CreateWorkflowRequestDto objects, or one such object per line (NDJSON).
+     * @return Per-item results, in body order. Reading stops after {@code max-items} items or at malformed JSON;
+     *         the result's error then says why, and the items before that point are imported.
+     * @throws BadRequestException if the body does not start as JSON.
+     */
+    public WorkflowImportResultDto importWorkflows(InputStream body, UserPrincipal user) throws IOException {
+        List<WorkflowImportItemResultDto> results = new ArrayList<>();
+        List<ValidItem> pending = new ArrayList<>(batchSize);
+        String error = null;
+        int index = 0;
+        Set<Long> ownedConnections = connectionOwnership.findOwnedIds(user.getId());
+
+        // readValues() unwraps a top-level array and otherwise reads root-level values one after another
+        try (MappingIterator<CreateWorkflowRequestDto> items = objectMapper.readerFor(CreateWorkflowRequestDto.class).readValues(body)) {
+            while (items.hasNextValue()) {
+                if (index >= maxItems) {
+                    // Earlier batches are committed already; report them instead of failing the whole request
+                    error = "Import stopped at item " + index + ": an import may contain at most " + maxItems + " workflows";
+                    break;
+                }
+                CreateWorkflowRequestDto item;
+                try {
+                    item = items.nextValue();
+                } catch (JsonProcessingException e) {
+                    // The stream cannot be resynchronized after malformed JSON; keep what was imported so far
+                    error = "Malformed JSON at item " + index + ": " + e.getOriginalMessage();
+                    break;
+                }
+                ValidItem valid = validate(index, item, ownedConnections, results);
+                if (valid != null) {
+                    pending.add(valid);
+                    if (pending.size() == batchSize) {
+                        insertBatch(pending, user, results);
+                        pending.clear();
+                    }
+                }
+                index++;
+            }
+        } catch (JsonProcessingException e) {
+            if (index == 0 && results.isEmpty()) {
+                throw new BadRequestException("Request body must be a JSON array or NDJSON of workflows.");
+            }
+            error = "Malformed JSON at item " + index + ": " + e.getOriginalMessage();
+        }
+        insertBatch(pending, user, results);
+
+        results.sort(Comparator.comparingInt(WorkflowImportItemResultDto::getIndex));
+        int created = (int) results.stream().filter(r -> r.getStatus() == WorkflowImportItemResultDto.Status.CREATED).count();
+        logger.info("Imported {} of {} workflows for user {}", created, results.size(), user.getId());
+        return new WorkflowImportResultDto(results.size(), created, results.size() - created, error, results);
+    }
+
+    // Returns null (and records the INVALID result) if the item fails validation
+    private ValidItem validate(int index, CreateWorkflowRequestDto item, Set<Long> ownedConnections,
+                               List<WorkflowImportItemResultDto> results) {
+        List<String> errors = new ArrayList<>();
+        if (item == null) {
+            errors.add("Item must be a JSON object");
+        } else {
+            for (ConstraintViolation<CreateWorkflowRequestDto> violation : validator.validate(item)) {
+                errors.add(violation.getPropertyPath() + ": " + violation.getMessage());
+            }
+        }
+        TriggerSpec trigger = null;
+        if (errors.isEmpty()) {
+            try {
+                trigger = planCompiler.compileTrigger(item.getTriggerConfig());
+                connectionOwnership.check(ownedConnections, trigger, planCompiler.compileActions(item.getActionConfig()));
+            } catch (InvalidWorkflowConfigException e) {
+                errors.add(e.getMessage());
+            }
+        }
+        if (!errors.isEmpty()) {
+            errors.sort(null);
+            results.add(new WorkflowImportItemResultDto(index, WorkflowImportItemResultDto.Status.INVALID, null, errors));
+            return null;
+        }
+        return new ValidItem(index, item, trigger);
+    }
+
+    private void insertBatch(List<ValidItem> batch, UserPrincipal user, List<WorkflowImportItemResultDto> results) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.from(Instant.now());
+        try {
+            List<Long> ids = transactionTemplate.execute(status -> {
+                KeyHolder keys = new GeneratedKeyHolder();
+                jdbcTemplate.batchUpdate(
+                        connection -> connection.prepareStatement(insertSql(), new String[]{"id"}),
+                        new BatchPreparedStatementSetter() {
+                            @Override
+                            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                                CreateWorkflowRequestDto item = batch.get(i).request();
+                                ps.setString(1, item.getName());
+                                ps.setString(2, item.getDescription());
+                                ps.setBoolean(3, item.getEnabled());
+                                ps.setString(4, item.getTriggerConfig());
+                                ps.setString(5, item.getActionConfig());
+                                ps.setLong(6, user.getId());
+                                ps.setTimestamp(7, now);
+                                ps.setTimestamp(8, now);
+                            }
+
+                            @Override
+                            public int getBatchSize() {
+                                return batch.size();
+                            }
+                        },
+                        keys);
+                List<Long> generated = keys.getKeyList().stream()
+                        .map(row -> ((Number) firstValue(row)).longValue())
+                        .toList();
+                outboxWriter.recordAll(ChangeEvent.WORKFLOW, generated, ChangeEvent.SAVED, user.getId());
+                registerTriggers(List.copyOf(batch), generated, user.getId());
+                return generated;
+            });
+            for (int i = 0; i < batch.size(); i++) {
+                results.add(new WorkflowImportItemResultDto(batch.get(i).index(), WorkflowImportItemResultDto.Status.CREATED, ids.get(i), null));
+            }
+        } catch (RuntimeException e) {
+            logger.error("Failed to import a batch of {} workflows for user {}: {}", batch.size(), user.getId(), e.getMessage());
+            for (ValidItem item : batch) {
+                results.add(new WorkflowImportItemResultDto(item.index(), WorkflowImportItemResultDto.Status.FAILED, null,
+                        List.of("Could not be saved")));
+            }
+        }
+    }
+
+    // A plain string parameter would be stored as a JSON string literal (H2) or rejected (jsonb on PostgreSQL)
+    private String insertSql() {
+        String sql = insertSql;
+        if (sql == null) {
+            sql = String.format(INSERT_SQL, DatabasePlatform.isPostgres(jdbcTemplate.getDataSource()) ? "CAST(? AS jsonb)" : "? FORMAT JSON");
+            insertSql = sql;
+        }
+        return sql;
+    }
+
+    // New workflows have no cached plans; only the trigger index and the time/polling triggers need to learn about them
+    private void registerTriggers(List<ValidItem> batch, List<Long> ids, Long userId) {
+        TransactionCallbacks.afterCommit(() -> {
+            for (int i = 0; i < batch.size(); i++) {
+                ValidItem item = batch.get(i);
+                triggerIndex.update(ids.get(i), userId, item.request().getEnabled(), item.trigger());
+                timeTriggerScheduler.update(ids.get(i), userId, item.request().getEnabled(), item.trigger());
+                pollingEngine.update(ids.get(i), userId, item.request().getEnabled(), item.trigger());
+            }
+        });
+    }
+
+    private static Object firstValue(Map<String, Object> row) {
+        return row.size() == 1 ? row.values().iterator().next() : row.get("id");
+    }
+
+    private record ValidItem(int index, CreateWorkflowRequestDto request, TriggerSpec trigger) {
+    }
+}
@@ -0,0 +1,134 @@
+package com.saasautomationbuilder.backend.service;
+
+import com.saasautomationbuilder.backend.execution.schedule.SchedulerLeadership;
+import com.saasautomationbuilder.backend.support.DatabasePlatform;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Owns the DDL of the run history tables on PostgreSQL: monthly range partitions on started_at, created
+ * {@code partitions-ahead} months in advance, with partitions older than {@code retention-months} dropped
+ * (a metadata-only operation, unlike a DELETE). On other databases Hibernate's DDL is used and this does nothing.
+ * <p>
+ * The scheduled run happens only on the scheduler leader. Every instance still runs it once at startup, since it
+ * cannot insert runs before the current partition exists; each run holds a transaction-scoped advisory lock, so a
+ * starting instance waits for one already in progress and then finds the tables in place.
+ */
+@Component
+public class WorkflowRunPartitionManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(WorkflowRunPartitionManager.class);
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final Pattern PARTITION_NAME = Pattern.compile("^(workflow_runs|workflow_run_steps)_p(\\d{6})$");
+
+    private static final List<String> PARENT_DDL = List.of(
+            "CREATE SEQUENCE IF NOT EXISTS workflow_runs_seq START WITH 1 INCREMENT BY 50",
+            "CREATE SEQUENCE IF NOT EXISTS workflow_run_steps_seq START WITH 1 INCREMENT BY 50",
+            "CREATE TABLE IF NOT EXISTS workflow_runs (" +
+                    "id bigint NOT NULL, workflow_id bigint NOT NULL, user_id bigint NOT NULL, " +
+                    "event_id varchar(255), source varchar(50), status varchar(20) NOT NULL, " +
+                    "started_at timestamp(6) with time zone NOT NULL, finished_at timestamp(6) with time zone NOT NULL, " +
+                    "duration_micros bigint NOT NULL, error varchar(2000), " +
+                    "PRIMARY KEY (id, started_at)) PARTITION BY RANGE (started_at)",
+            "CREATE INDEX IF NOT EXISTS idx_workflow_runs_workflow_started ON workflow_runs (workflow_id, started_at DESC, id DESC)",
+            "CREATE TABLE IF NOT EXISTS workflow_run_steps (" +
+                    "id bigint NOT NULL, run_id bigint NOT NULL, step_index integer NOT NULL, action_type varchar(100) NOT NULL, " +
+                    "status varchar(20) NOT NULL, started_at timestamp(6) with time zone NOT NULL, " +
+                    "duration_micros bigint NOT NULL, error varchar(2000), " +
+                    "PRIMARY KEY (id, started_at)) PARTITION BY RANGE (started_at)",
+            "CREATE INDEX IF NOT EXISTS idx_workflow_run_steps_run ON workflow_run_steps (run_id, step_index)"
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final SchedulerLeadership leadership;
+    private final long lockKey;
+    private final int partitionsAhead;
+    private final int retentionMonths;
+
+    public WorkflowRunPartitionManager(JdbcTemplate jdbcTemplate,
+                                       PlatformTransactionManager transactionManager,
+                                       SchedulerLeadership leadership,
+                                       @Value("${app.run-history.partition-lock-key:7301946522}") long lockKey,
+                                       @Value("${app.run-history.partitions-ahead:2}") int partitionsAhead,
+                                       @Value("${app.run-history.retention-months:6}") int retentionMonths) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.leadership = leadership;
+        this.lockKey = lockKey;
+        this.partitionsAhead = partitionsAhead;
+        this.retentionMonths = retentionMonths;
+    }
+
+    // Runs before the run writer and message listeners start, so the current partition exists before the first insert
+    @PostConstruct
+    public void initialize() {
+        maintainPartitions();
+    }
+
+    // Other instances only need the partitions the leader creates ahead of time
+    @Scheduled(cron = "${app.run-history.partition-maintenance-cron:0 15 3 * * *}")
+    public void scheduledMaintenance() {
+        if (leadership.isLeader()) {
+            maintainPartitions();
+        }
+    }
+
+    public void maintainPartitions() {
+        try {
+            if (!DatabasePlatform.isPostgres(jdbcTemplate.getDataSource())) {
+                return;
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                // Released on commit; serializes concurrent startups with the leader's scheduled run
+                jdbcTemplate.queryForList("SELECT pg_advisory_xact_lock(?)", lockKey);
+                PARENT_DDL.forEach(jdbcTemplate::execute);
+                YearMonth current = YearMonth.now(ZoneOffset.UTC);
+                for (int i = 0; i <= partitionsAhead; i++) {
+                    createPartition("workflow_runs", current.plusMonths(i));
+                    createPartition("workflow_run_steps", current.plusMonths(i));
+                }
+                dropPartitionsBefore(current.minusMonths(retentionMonths));
+            });
+        } catch (Exception e) {
+            // Retried on the next schedule; inserts fail (and are counted as dropped) until a partition exists
+            logger.error("Run history partition maintenance failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private void createPartition(String table, YearMonth month) {
+        LocalDate from = month.atDay(1);
+        LocalDate to = month.plusMonths(1).atDay(1);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + table + "_p" + month.format(SUFFIX) +
+                " PARTITION OF " + table + " FOR VALUES FROM ('" + from + " 00:00:00+00') TO ('" + to + " 00:00:00+00')");
+    }
+
+    private void dropPartitionsBefore(YearMonth cutoff) {
+        List<String> partitions = jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i " +
+                "JOIN pg_class c ON c.oid = i.inhrelid JOIN pg_class p ON p.oid = i.inhparent " +
+                "WHERE p.relname IN ('workflow_runs', 'workflow_run_steps')", String.class);
+        for (String partition : partitions) {
+            Matcher matcher = PARTITION_NAME.matcher(partition);
+            if (matcher.matches() && YearMonth.parse(matcher.group(2), SUFFIX).isBefore(cutoff)) {
+                jdbcTemplate.execute("DROP TABLE IF EXISTS " + partition);
+                logger.info("Dropped run history partition {}", partition);
+            }
+        }
+    }
+}
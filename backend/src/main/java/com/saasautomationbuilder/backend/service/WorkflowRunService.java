@@ -0,0 +1,112 @@
+package com.saasautomationbuilder.backend.service;
+
+import com.saasautomationbuilder.backend.domain.WorkflowRun;
+import com.saasautomationbuilder.backend.domain.WorkflowRunStep;
+import com.saasautomationbuilder.backend.dto.WorkflowRunDto;
+import com.saasautomationbuilder.backend.dto.WorkflowRunPageDto;
+import com.saasautomationbuilder.backend.dto.WorkflowRunStepDto;
+import com.saasautomationbuilder.backend.exception.ResourceNotFoundException;
+import com.saasautomationbuilder.backend.exception.UnauthorizedAccessException;
+import com.saasautomationbuilder.backend.repository.WorkflowRepository;
+import com.saasautomationbuilder.backend.repository.WorkflowRunRepository;
+import com.saasautomationbuilder.backend.repository.WorkflowRunStepRepository;
+import com.saasautomationbuilder.backend.security.UserPrincipal;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+// Read side of the run history (written by BatchingWorkflowRunWriter)
+@Service
+@RequiredArgsConstructor
+@Timed(value = "app.service", histogram = true)
+public class WorkflowRunService {
+
+    private final WorkflowRepository workflowRepository;
+    private final WorkflowRunRepository runRepository;
+    private final WorkflowRunStepRepository stepRepository;
+
+    @Value("${app.workflows.default-page-size:50}")
+    private int defaultPageSize;
+
+    @Value("${app.workflows.max-page-size:200}")
+    private int maxPageSize;
+
+    /**
+     * Returns one page of the workflow's runs, newest first.
+     *
+     * @param cursor Opaque cursor from the previous page's nextCursor, or null for the first page.
+     * @param limit  Requested page size; clamped to [1, app.workflows.max-page-size].
+     */
+    @Transactional(readOnly = true)
+    public WorkflowRunPageDto getRuns(Long workflowId, UserPrincipal currentUser, String cursor, Integer limit) {
+        checkOwnership(workflowId, currentUser);
+        int pageSize = limit == null ? defaultPageSize : Math.max(1, Math.min(limit, maxPageSize));
+        // Fetch one extra row to know whether there is a next page
+        Pageable pageable = PageRequest.ofSize(pageSize + 1);
+        List<WorkflowRun> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = runRepository.findByWorkflowId(workflowId, pageable);
+        } else {
+            KeysetCursor position = KeysetCursor.decode(cursor);
+            rows = runRepository.findByWorkflowIdBefore(workflowId, position.timestamp(), position.id(), pageable);
+        }
+
+        if (rows.size() <= pageSize) {
+            return new WorkflowRunPageDto(rows.stream().map(WorkflowRunService::mapToDto).toList(), null);
+        }
+        List<WorkflowRun> page = rows.subList(0, pageSize);
+        WorkflowRun last = page.get(pageSize - 1);
+        return new WorkflowRunPageDto(page.stream().map(WorkflowRunService::mapToDto).toList(),
+                new KeysetCursor(last.getStartedAt(), last.getId()).encode());
+    }
+
+    @Transactional(readOnly = true)
+    public List<WorkflowRunStepDto> getRunSteps(Long workflowId, Long runId, UserPrincipal currentUser) {
+        checkOwnership(workflowId, currentUser);
+        WorkflowRun run = runRepository.findById(runId)
+                .filter(found -> found.getWorkflowId().equals(workflowId))
+                .orElseThrow(() -> new ResourceNotFoundException("Run not found with id: " + runId));
+        return stepRepository.findByRunIdAndStartedAtGreaterThanEqualOrderByStepIndex(runId, run.getStartedAt()).stream()
+                .map(WorkflowRunService::mapToDto)
+                .toList();
+    }
+
+    private void checkOwnership(Long workflowId, UserPrincipal user) {
+        Long ownerId = workflowRepository.findOwnerIdById(workflowId)
+                .orElseThrow(() -> new ResourceNotFoundException("Workflow not found with id: " + workflowId));
+        if (!ownerId.equals(user.getId())) {
+            throw new UnauthorizedAccessException("User does not have permission to access this workflow.");
+        }
+    }
+
+    private static WorkflowRunDto mapToDto(WorkflowRun run) {
+        return new WorkflowRunDto(
+                run.getId(),
+                run.getWorkflowId(),
+                run.getEventId(),
+                run.getSource(),
+                run.getStatus(),
+                run.getStartedAt(),
+                run.getFinishedAt(),
+                run.getDurationMicros(),
+                run.getError()
+        );
+    }
+
+    private static WorkflowRunStepDto mapToDto(WorkflowRunStep step) {
+        return new WorkflowRunStepDto(
+                step.getStepIndex(),
+                step.getActionType(),
+                step.getStatus(),
+                step.getStartedAt(),
+                step.getDurationMicros(),
+                step.getError()
+        );
+    }
+}
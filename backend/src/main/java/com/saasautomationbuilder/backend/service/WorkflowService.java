@@ -1,74 +1,202 @@
 package com.saasautomationbuilder.backend.service;
 
-import com.saasautomationbuilder.backend.domain.User;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.saasautomationbuilder.backend.domain.Workflow;
 import com.saasautomationbuilder.backend.dto.CreateWorkflowRequestDto;
 import com.saasautomationbuilder.backend.dto.UpdateWorkflowRequestDto;
 import com.saasautomationbuilder.backend.dto.WorkflowDto;
+import com.saasautomationbuilder.backend.dto.WorkflowSummaryDto;
+import com.saasautomationbuilder.backend.dto.WorkflowSummaryPageDto;
+import com.saasautomationbuilder.backend.exception.BadRequestException;
+import com.saasautomationbuilder.backend.exception.ConflictException;
+import com.saasautomationbuilder.backend.exception.PreconditionFailedException;
 import com.saasautomationbuilder.backend.exception.ResourceNotFoundException;
 import com.saasautomationbuilder.backend.exception.UnauthorizedAccessException;
+import com.saasautomationbuilder.backend.execution.TriggerIndex;
+import com.saasautomationbuilder.backend.execution.plan.ActionStep;
+import com.saasautomationbuilder.backend.execution.plan.TriggerSpec;
+import com.saasautomationbuilder.backend.execution.plan.WorkflowPlanCache;
+import com.saasautomationbuilder.backend.execution.plan.WorkflowPlanCompiler;
+import com.saasautomationbuilder.backend.execution.polling.PollingEngine;
+import com.saasautomationbuilder.backend.execution.schedule.TimeTriggerScheduler;
+import com.saasautomationbuilder.backend.outbox.ChangeEvent;
+import com.saasautomationbuilder.backend.outbox.OutboxWriter;
 import com.saasautomationbuilder.backend.repository.UserRepository;
 import com.saasautomationbuilder.backend.repository.WorkflowRepository;
-import jakarta.persistence.EntityNotFoundException;
+import com.saasautomationbuilder.backend.security.UserPrincipal;
+import com.saasautomationbuilder.backend.support.JsonMergePatch;
+import com.saasautomationbuilder.backend.support.TransactionCallbacks;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Iterator;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
 
 @Service
 @RequiredArgsConstructor
+@Timed(value = "app.service", histogram = true) // Every public method, tagged with class and method
 public class WorkflowService {
 
+    // Members a merge patch may touch; everything else in the representation is read-only
+    private static final Set<String> PATCHABLE_FIELDS = Set.of("name", "description", "enabled", "triggerConfig", "actionConfig");
+
     private final WorkflowRepository workflowRepository;
-    private final UserRepository userRepository; // Needed to associate workflow with user
+    private final UserRepository userRepository;
+    private final WorkflowPlanCompiler planCompiler; // Validates trigger/action configs on save
+    private final ConnectionOwnershipChecker connectionOwnership;
+    private final WorkflowPlanCache planCache;
+    private final TriggerIndex triggerIndex;
+    private final TimeTriggerScheduler timeTriggerScheduler;
+    private final PollingEngine pollingEngine;
+    private final ObjectMapper objectMapper;
+    private final OutboxWriter outboxWriter; // Tells the other instances, in the same transaction
+
+    @Value("${app.workflows.default-page-size:50}")
+    private int defaultPageSize;
+
+    @Value("${app.workflows.max-page-size:200}")
+    private int maxPageSize;
 
-    // Temporary: Get workflows for a specific user ID (replace with authenticated user later)
+    /**
+     * Returns one page of the user's workflow summaries (without trigger/action configs), newest first.
+     *
+     * @param userId The owner.
+     * @param cursor Opaque cursor from the previous page's nextCursor, or null for the first page.
+     * @param limit  Requested page size; clamped to [1, app.workflows.max-page-size].
+     */
     @Transactional(readOnly = true)
-    public List<WorkflowDto> getWorkflowsByUserId(Long userId) {
-        if (!userRepository.existsById(userId)) {
-            throw new EntityNotFoundException("User not found with ID: " + userId);
+    public WorkflowSummaryPageDto getWorkflowSummaries(Long userId, String cursor, Integer limit) {
+        int pageSize = limit == null ? defaultPageSize : Math.max(1, Math.min(limit, maxPageSize));
+        // Fetch one extra row to know whether there is a next page
+        Pageable pageable = PageRequest.ofSize(pageSize + 1);
+        List<WorkflowSummaryDto> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = workflowRepository.findSummariesByUserId(userId, pageable);
+        } else {
+            KeysetCursor position = KeysetCursor.decode(cursor);
+            rows = workflowRepository.findSummariesByUserIdBefore(userId, position.timestamp(), position.id(), pageable);
         }
-        return workflowRepository.findByUserId(userId).stream()
-                .map(this::mapToDto)
-                .collect(Collectors.toList());
+
+        if (rows.size() <= pageSize) {
+            return new WorkflowSummaryPageDto(rows, null);
+        }
+        List<WorkflowSummaryDto> items = rows.subList(0, pageSize);
+        WorkflowSummaryDto last = items.get(pageSize - 1);
+        return new WorkflowSummaryPageDto(items, new KeysetCursor(last.getUpdatedAt(), last.getId()).encode());
     }
 
     @Transactional(readOnly = true)
-    public WorkflowDto getWorkflowById(Long workflowId, User currentUser) {
+    public WorkflowDto getWorkflowById(Long workflowId, UserPrincipal currentUser) {
         Workflow workflow = findWorkflowByIdOrThrow(workflowId);
         checkOwnership(workflow, currentUser);
         return mapToDto(workflow);
     }
 
-    // Updated: Create workflow for the provided User object
+    // Updated: Create workflow for the authenticated user
     @Transactional
-    public WorkflowDto createWorkflow(CreateWorkflowRequestDto requestDto, User user) {
+    public WorkflowDto createWorkflow(CreateWorkflowRequestDto requestDto, UserPrincipal user) {
         Workflow workflow = new Workflow();
-        workflow.setUser(user); // Assign owner first
+        workflow.setUser(userRepository.getReferenceById(user.getId())); // Assign owner first (a reference, no SELECT)
         updateWorkflowEntityFromDto(workflow, requestDto); // Use helper for mapping
+        TriggerSpec trigger = validateConfig(workflow);
 
         Workflow savedWorkflow = workflowRepository.save(workflow);
+        onWorkflowSaved(savedWorkflow, trigger);
         return mapToDto(savedWorkflow);
     }
 
     @Transactional
-    public WorkflowDto updateWorkflow(Long workflowId, UpdateWorkflowRequestDto requestDto, User currentUser) {
+    public WorkflowDto updateWorkflow(Long workflowId, UpdateWorkflowRequestDto requestDto, UserPrincipal currentUser) {
         Workflow workflow = findWorkflowByIdOrThrow(workflowId);
         checkOwnership(workflow, currentUser);
+        checkVersion(workflow, requestDto.getVersion());
         
         updateWorkflowEntityFromDto(workflow, requestDto); // Use helper for mapping
+        TriggerSpec trigger = validateConfig(workflow);
 
-        Workflow updatedWorkflow = workflowRepository.save(workflow);
+        Workflow updatedWorkflow = saveChecked(workflow, false);
+        onWorkflowSaved(updatedWorkflow, trigger);
         return mapToDto(updatedWorkflow);
     }
 
+    /**
+     * Applies a JSON Merge Patch (RFC 7386) to a workflow. Only the columns whose values actually change are written;
+     * a patch that changes nothing issues no UPDATE at all.
+     * <p>
+     * A string {@code triggerConfig}/{@code actionConfig} replaces the config; an object is merged into the stored
+     * config document (so {@code {"triggerConfig": {"intervalSeconds": 60}}} changes just that field).
+     *
+     * @param patch           The merge patch document.
+     * @param expectedVersion Version the client last saw (from If-Match), or null to skip the check.
+     * @throws BadRequestException if the patch is not an object, or sets a read-only or invalid field.
+     * @throws PreconditionFailedException if the workflow was changed since {@code expectedVersion}, or concurrently
+     *                                     while an {@code expectedVersion} was given.
+     * @throws ConflictException           if the workflow was changed concurrently and no {@code expectedVersion} was given.
+     */
     @Transactional
-    public void deleteWorkflow(Long workflowId, User currentUser) {
+    public WorkflowDto patchWorkflow(Long workflowId, JsonNode patch, Long expectedVersion, UserPrincipal currentUser) {
+        if (patch == null || !patch.isObject()) {
+            throw new BadRequestException("A merge patch must be a JSON object.");
+        }
+        Workflow workflow = findWorkflowByIdOrThrow(workflowId);
+        checkOwnership(workflow, currentUser);
+        if (expectedVersion != null && expectedVersion != workflow.getVersion()) {
+            throw new PreconditionFailedException("Workflow " + workflow.getId() + " was modified (now at version "
+                    + workflow.getVersion() + ", If-Match expected " + expectedVersion + ").");
+        }
+
+        boolean changed = false;
+        Iterator<Map.Entry<String, JsonNode>> members = patch.fields();
+        while (members.hasNext()) {
+            Map.Entry<String, JsonNode> member = members.next();
+            changed |= applyPatchMember(workflow, member.getKey(), member.getValue());
+        }
+        if (!changed) {
+            return mapToDto(workflow);
+        }
+        TriggerSpec trigger = validateConfig(workflow);
+
+        Workflow patchedWorkflow = saveChecked(workflow, expectedVersion != null);
+        onWorkflowSaved(patchedWorkflow, trigger);
+        return mapToDto(patchedWorkflow);
+    }
+
+    @Transactional
+    public void deleteWorkflow(Long workflowId, UserPrincipal currentUser) {
         Workflow workflow = findWorkflowByIdOrThrow(workflowId);
         checkOwnership(workflow, currentUser);
         workflowRepository.delete(workflow);
+        onWorkflowDeleted(workflow);
+    }
+
+    /**
+     * Disables the enabled workflows whose trigger or actions use the connection, e.g., because it is being deleted.
+     * The lookup runs in the DB against the indexed configs; only the matching ids come back.
+     *
+     * @return The ids of the workflows that were disabled.
+     */
+    @Transactional
+    public List<Long> disableWorkflowsUsingConnection(Long connectionId) {
+        List<Long> workflowIds = workflowRepository.findIdsUsingConnection(connectionId, true);
+        if (!workflowIds.isEmpty()) {
+            workflowRepository.disableAll(workflowIds, Instant.now());
+            workflowIds.forEach(this::applyDeletedAfterCommit); // Disabled workflows leave the trigger consumers like deleted ones
+            outboxWriter.recordAll(ChangeEvent.WORKFLOW, workflowIds, ChangeEvent.SAVED, null);
+        }
+        return workflowIds;
     }
 
     // --- Helper Methods ---
@@ -78,7 +206,117 @@ public class WorkflowService {
                 .orElseThrow(() -> new ResourceNotFoundException("Workflow not found with id: " + workflowId));
     }
 
-    private void checkOwnership(Workflow workflow, User user) {
+    private static void checkVersion(Workflow workflow, Long expectedVersion) {
+        if (expectedVersion != null && expectedVersion != workflow.getVersion()) {
+            throw new ConflictException("Workflow " + workflow.getId() + " was modified (now at version "
+                    + workflow.getVersion() + ", expected " + expectedVersion + ").");
+        }
+    }
+
+    // Flushes inside the method, so a concurrent commit surfaces as a 409 (412 for an If-Match request) rather than
+    // failing the commit with a 500
+    private Workflow saveChecked(Workflow workflow, boolean ifMatch) {
+        try {
+            return workflowRepository.saveAndFlush(workflow);
+        } catch (OptimisticLockingFailureException e) {
+            String message = "Workflow " + workflow.getId() + " was modified concurrently, reload and retry.";
+            throw ifMatch ? new PreconditionFailedException(message) : new ConflictException(message);
+        }
+    }
+
+    // Sets one patched member; returns whether its value changed (setting an equal value leaves the column clean)
+    private boolean applyPatchMember(Workflow workflow, String field, JsonNode value) {
+        if (!PATCHABLE_FIELDS.contains(field)) {
+            throw new BadRequestException("Field '" + field + "' cannot be patched.");
+        }
+        switch (field) {
+            case "name" -> {
+                if (!value.isTextual() || value.asText().isBlank() || value.asText().length() > 255) {
+                    throw new BadRequestException("Workflow name must be a non-blank string of at most 255 characters.");
+                }
+                return set(workflow.getName(), value.asText(), workflow::setName);
+            }
+            case "description" -> {
+                if (!value.isNull() && (!value.isTextual() || value.asText().length() > 1024)) {
+                    throw new BadRequestException("Description must be null or a string of at most 1024 characters.");
+                }
+                return set(workflow.getDescription(), value.isNull() ? null : value.asText(), workflow::setDescription);
+            }
+            case "enabled" -> {
+                if (!value.isBoolean()) {
+                    throw new BadRequestException("Enabled must be true or false.");
+                }
+                return set(workflow.isEnabled(), value.asBoolean(), workflow::setEnabled);
+            }
+            case "triggerConfig" -> {
+                return set(workflow.getTriggerConfig(), patchConfig(field, workflow.getTriggerConfig(), value), workflow::setTriggerConfig);
+            }
+            default -> {
+                return set(workflow.getActionConfig(), patchConfig(field, workflow.getActionConfig(), value), workflow::setActionConfig);
+            }
+        }
+    }
+
+    private String patchConfig(String field, String current, JsonNode value) {
+        if (value.isTextual()) {
+            return value.asText();
+        }
+        if (!value.isContainerNode()) {
+            throw new BadRequestException("Field '" + field + "' must be a JSON string, object or array.");
+        }
+        try {
+            return objectMapper.writeValueAsString(JsonMergePatch.apply(objectMapper.readTree(current), value));
+        } catch (JsonProcessingException e) {
+            throw new BadRequestException("Stored " + field + " is not valid JSON and can only be replaced as a string.");
+        }
+    }
+
+    private static <T> boolean set(T current, T value, Consumer<T> setter) {
+        if (Objects.equals(current, value)) {
+            return false;
+        }
+        setter.accept(value);
+        return true;
+    }
+
+    // Compiles both configs and checks their connections belong to the owner (rejecting either with 400);
+    // returns the trigger for indexing
+    private TriggerSpec validateConfig(Workflow workflow) {
+        TriggerSpec trigger = planCompiler.compileTrigger(workflow.getTriggerConfig());
+        List<ActionStep> actions = planCompiler.compileActions(workflow.getActionConfig());
+        connectionOwnership.check(workflow.getUser().getId(), trigger, actions);
+        return trigger;
+    }
+
+    // Keep in-memory execution state in sync once the change is committed, here and (via the outbox) elsewhere
+    private void onWorkflowSaved(Workflow workflow, TriggerSpec trigger) {
+        Long workflowId = workflow.getId();
+        Long userId = workflow.getUser().getId();
+        boolean enabled = workflow.isEnabled();
+        outboxWriter.record(ChangeEvent.WORKFLOW, workflowId, ChangeEvent.SAVED, userId);
+        planCache.invalidateAfterCommit(workflowId);
+        TransactionCallbacks.afterCommit(() -> {
+            triggerIndex.update(workflowId, userId, enabled, trigger);
+            timeTriggerScheduler.update(workflowId, userId, enabled, trigger);
+            pollingEngine.update(workflowId, userId, enabled, trigger);
+        });
+    }
+
+    private void onWorkflowDeleted(Workflow workflow) {
+        outboxWriter.record(ChangeEvent.WORKFLOW, workflow.getId(), ChangeEvent.DELETED, workflow.getUser().getId());
+        applyDeletedAfterCommit(workflow.getId());
+    }
+
+    private void applyDeletedAfterCommit(Long workflowId) {
+        planCache.invalidateAfterCommit(workflowId);
+        TransactionCallbacks.afterCommit(() -> {
+            triggerIndex.remove(workflowId);
+            timeTriggerScheduler.remove(workflowId);
+            pollingEngine.remove(workflowId);
+        });
+    }
+
+    private void checkOwnership(Workflow workflow, UserPrincipal user) {
         if (!workflow.getUser().getId().equals(user.getId())) {
             throw new UnauthorizedAccessException("User does not have permission to access this workflow.");
         }
@@ -104,7 +342,8 @@ public class WorkflowService {
         if (dto.getActionConfig() != null) workflow.setActionConfig(dto.getActionConfig());
     }
 
-    private WorkflowDto mapToDto(Workflow workflow) {
+    // Package-private so the JMH benchmarks can call it directly
+    static WorkflowDto mapToDto(Workflow workflow) {
         return new WorkflowDto(
                 workflow.getId(),
                 workflow.getName(),
@@ -114,7 +353,8 @@ public class WorkflowService {
                 workflow.getActionConfig(),
                 workflow.getUser().getId(),
                 workflow.getCreatedAt(),
-                workflow.getUpdatedAt()
+                workflow.getUpdatedAt(),
+                workflow.getVersion()
         );
     }
 } 
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.saasautomationbuilder.backend.support;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+
+// The one place that decides whether the PostgreSQL-only SQL (jsonb, partitions, advisory locks) can be used
+public final class DatabasePlatform {
+
+    private DatabasePlatform() {
+    }
+
+    // Goes through JdbcTemplate so a transaction-bound connection is reused rather than a second one borrowed
+    public static boolean isPostgres(DataSource dataSource) {
+        String product = new JdbcTemplate(dataSource).execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        return "PostgreSQL".equalsIgnoreCase(product);
+    }
+}
@@ -0,0 +1,16 @@
+package com.saasautomationbuilder.backend.support;
+
+import java.util.UUID;
+
+// Random id of this backend instance (JVM), so instances can recognize the messages they sent themselves
+public final class InstanceId {
+
+    private static final String VALUE = UUID.randomUUID().toString();
+
+    private InstanceId() {
+    }
+
+    public static String get() {
+        return VALUE;
+    }
+}
@@ -0,0 +1,41 @@
+package com.saasautomationbuilder.backend.support;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.Iterator;
+import java.util.Map;
+
+// JSON Merge Patch (RFC 7386): objects are merged member by member, null removes a member, anything else replaces
+public final class JsonMergePatch {
+
+    private JsonMergePatch() {
+    }
+
+    /**
+     * Applies a merge patch. The target is not modified; untouched subtrees of it are shared with the result.
+     *
+     * @param target Document to patch (null or a non-object counts as an empty object when the patch is an object).
+     * @param patch  The merge patch.
+     * @return The patched document.
+     */
+    public static JsonNode apply(JsonNode target, JsonNode patch) {
+        if (!patch.isObject()) {
+            return patch;
+        }
+        ObjectNode result = ((ObjectNode) patch).objectNode();
+        if (target != null && target.isObject()) {
+            result.setAll((ObjectNode) target);
+        }
+        Iterator<Map.Entry<String, JsonNode>> members = patch.fields();
+        while (members.hasNext()) {
+            Map.Entry<String, JsonNode> member = members.next();
+            if (member.getValue().isNull()) {
+                result.remove(member.getKey());
+            } else {
+                result.set(member.getKey(), apply(result.get(member.getKey()), member.getValue()));
+            }
+        }
+        return result;
+    }
+}
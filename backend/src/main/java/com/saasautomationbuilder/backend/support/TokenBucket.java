@@ -0,0 +1,62 @@
+package com.saasautomationbuilder.backend.support;
+
+/**
+ * Classic token bucket: holds up to {@code capacity} tokens and refills continuously at {@code tokensPerSecond}.
+ * Never blocks: {@link #tryAcquire()} fails fast, {@link #reserve()} takes a token in advance and tells the caller
+ * how long to wait before using it, so queued callers are spaced out exactly instead of retrying in a herd.
+ */
+public final class TokenBucket {
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private double tokens;
+    private long lastRefillNanos;
+
+    public TokenBucket(double capacity, double tokensPerSecond) {
+        if (capacity < 1 || tokensPerSecond <= 0) {
+            throw new IllegalArgumentException("Token bucket needs capacity >= 1 and a positive refill rate");
+        }
+        this.capacity = capacity;
+        this.tokensPerNano = tokensPerSecond / 1_000_000_000d;
+        this.tokens = capacity;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    public synchronized boolean tryAcquire() {
+        refill();
+        if (tokens >= 1) {
+            tokens -= 1;
+            return true;
+        }
+        return false;
+    }
+
+    // Takes a token (possibly going into debt); returns the nanos to wait before acting on it, 0 if none
+    public synchronized long reserve() {
+        return tryReserve(Long.MAX_VALUE);
+    }
+
+    // Like reserve(), but takes nothing and returns -1 if the wait would exceed maxWaitNanos
+    public synchronized long tryReserve(long maxWaitNanos) {
+        refill();
+        double remaining = tokens - 1;
+        long waitNanos = remaining >= 0 ? 0 : (long) Math.ceil(-remaining / tokensPerNano);
+        if (waitNanos > maxWaitNanos) {
+            return -1;
+        }
+        tokens = remaining;
+        return waitNanos;
+    }
+
+    // Empties the bucket so the next token is only available after the pause (e.g. an upstream Retry-After)
+    public synchronized void pause(long nanos) {
+        refill();
+        tokens = Math.min(tokens, 1 - nanos * tokensPerNano);
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * tokensPerNano);
+        lastRefillNanos = now;
+    }
+}
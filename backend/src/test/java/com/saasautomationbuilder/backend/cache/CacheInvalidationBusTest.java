@@ -0,0 +1,113 @@
+package com.saasautomationbuilder.backend.cache;
+
+import com.saasautomationbuilder.backend.support.InstanceId;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class CacheInvalidationBusTest {
+
+    private final RabbitTemplate rabbitTemplate = mock(RabbitTemplate.class);
+    private final RecordingCache plans = new RecordingCache("plans");
+    private final RecordingCache users = new RecordingCache("users");
+
+    @Test
+    void burstOfWritesIsOneMessageAndOversizedCachesAreClearedWhole() {
+        CacheInvalidationBus bus = bus();
+        for (long id = 0; id < 100_000; id++) {
+            bus.broadcast("plans", id); // e.g., a bulk disable
+        }
+        bus.broadcast("users", "uid-1");
+        bus.broadcast("users", "uid-1");
+        bus.broadcast("users", "uid-2");
+        bus.flush();
+        bus.flush(); // Nothing pending: nothing sent
+
+        ArgumentCaptor<CacheInvalidation> sent = ArgumentCaptor.forClass(CacheInvalidation.class);
+        verify(rabbitTemplate, times(1)).convertAndSend(eq("invalidations"), eq(""), sent.capture());
+        CacheInvalidation message = sent.getValue();
+        assertThat(message.getOrigin()).isEqualTo(InstanceId.get());
+        assertThat(message.getAll()).containsExactly("plans");
+        assertThat(message.getKeys()).containsExactly(Map.entry("users", List.of("uid-1", "uid-2")));
+    }
+
+    @Test
+    void failedFlushIsRetriedWithLaterKeys() {
+        CacheInvalidationBus bus = bus();
+        doThrow(new AmqpException("broker down")).doNothing()
+                .when(rabbitTemplate).convertAndSend(eq("invalidations"), eq(""), any(Object.class));
+        bus.broadcast("plans", 7L);
+        bus.flush();
+        bus.broadcast("plans", 8L);
+        bus.flush();
+
+        ArgumentCaptor<CacheInvalidation> sent = ArgumentCaptor.forClass(CacheInvalidation.class);
+        verify(rabbitTemplate, times(2)).convertAndSend(eq("invalidations"), eq(""), sent.capture());
+        assertThat(sent.getAllValues().get(1).getKeys()).containsExactly(Map.entry("plans", List.of("7", "8")));
+    }
+
+    @Test
+    void receiversEvictOnlyTheListedKeysOfRegisteredCaches() {
+        CacheInvalidationBus bus = bus();
+
+        bus.onInvalidation(new CacheInvalidation("other-instance",
+                Map.of("plans", List.of("1", "2"), "unknown", List.of("x")), List.of("users")));
+        assertThat(plans.evicted).containsExactly("1", "2");
+        assertThat(plans.cleared).isFalse();
+        assertThat(users.cleared).isTrue();
+
+        // Our own broadcasts come back through the fanout; they were applied locally already
+        bus.onInvalidation(new CacheInvalidation(InstanceId.get(), Map.of("plans", List.of("3")), List.of()));
+        assertThat(plans.evicted).containsExactly("1", "2");
+        verifyNoInteractions(rabbitTemplate);
+    }
+
+    private CacheInvalidationBus bus() {
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        beans.addBean("plans", plans);
+        beans.addBean("users", users);
+        return new CacheInvalidationBus(rabbitTemplate, beans.getBeanProvider(InvalidatableCache.class),
+                new SimpleMeterRegistry(), "invalidations", 1000);
+    }
+
+    private static final class RecordingCache implements InvalidatableCache {
+        private final String name;
+        private final List<String> evicted = new ArrayList<>();
+        private boolean cleared;
+
+        RecordingCache(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String cacheName() {
+            return name;
+        }
+
+        @Override
+        public void invalidateKey(String key) {
+            evicted.add(key);
+        }
+
+        @Override
+        public void invalidateAll() {
+            cleared = true;
+        }
+    }
+}
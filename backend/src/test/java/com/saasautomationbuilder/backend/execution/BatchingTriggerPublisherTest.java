@@ -0,0 +1,60 @@
+package com.saasautomationbuilder.backend.execution;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BatchingTriggerPublisherTest {
+
+    @Test
+    void confirmsBatchesAndShedsLoadWhenFull() throws Exception {
+        RabbitTemplate rabbitTemplate = mock(RabbitTemplate.class);
+        RabbitOperations operations = mock(RabbitOperations.class);
+        CountDownLatch brokerAvailable = new CountDownLatch(1);
+        AtomicInteger batches = new AtomicInteger();
+        when(rabbitTemplate.invoke(any())).thenAnswer(invocation -> {
+            brokerAvailable.await();
+            batches.incrementAndGet();
+            RabbitOperations.OperationsCallback<?> callback = invocation.getArgument(0);
+            return callback.doInRabbit(operations);
+        });
+
+        BatchingTriggerPublisher publisher = new BatchingTriggerPublisher(rabbitTemplate, "ex", "rk", 10, 50, 5, 1000);
+        publisher.start();
+        try {
+            CompletableFuture<Void> first = publisher.trySubmit(List.of(event(1), event(2), event(3), event(4)));
+            CompletableFuture<Void> second = publisher.trySubmit(List.of(event(5), event(6), event(7), event(8), event(9), event(10)));
+            assertThat(first).isNotNull();
+            assertThat(second).isNotNull();
+
+            // Buffer holds 10 events: the next submission is rejected instead of queued
+            assertThat(publisher.trySubmit(List.of(event(11)))).isNull();
+
+            brokerAvailable.countDown();
+            first.get(5, TimeUnit.SECONDS);
+            second.get(5, TimeUnit.SECONDS);
+            assertThat(batches.get()).isLessThanOrEqualTo(3);
+
+            // Capacity is returned once confirmed
+            assertThat(publisher.trySubmit(List.of(event(12)))).isNotNull();
+        } finally {
+            publisher.stop();
+        }
+    }
+
+    private static TriggerEvent event(long id) {
+        return new TriggerEvent("evt-" + id, id, 1L, "webhook", null, Instant.now(), 0);
+    }
+}
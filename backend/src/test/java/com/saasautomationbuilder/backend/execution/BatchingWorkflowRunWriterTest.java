@@ -0,0 +1,181 @@
+package com.saasautomationbuilder.backend.execution;
+
+import com.saasautomationbuilder.backend.domain.User;
+import com.saasautomationbuilder.backend.domain.Workflow;
+import com.saasautomationbuilder.backend.domain.WorkflowRun;
+import com.saasautomationbuilder.backend.domain.WorkflowRunStep;
+import com.saasautomationbuilder.backend.dto.WorkflowRunDto;
+import com.saasautomationbuilder.backend.dto.WorkflowRunPageDto;
+import com.saasautomationbuilder.backend.dto.WorkflowRunStepDto;
+import com.saasautomationbuilder.backend.repository.UserRepository;
+import com.saasautomationbuilder.backend.repository.WorkflowRepository;
+import com.saasautomationbuilder.backend.repository.WorkflowRunRepository;
+import com.saasautomationbuilder.backend.repository.WorkflowRunStepRepository;
+import com.saasautomationbuilder.backend.security.UserPrincipal;
+import com.saasautomationbuilder.backend.service.WorkflowRunService;
+import com.saasautomationbuilder.backend.support.SqlStatementCounter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The writer persists from its own thread, so this test runs outside the usual rollback-only test transaction.
+ */
+@DataJpaTest
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(WorkflowRunService.class)
+class BatchingWorkflowRunWriterTest {
+
+    private static final int RUNS = 120;
+    private static final int STEPS_PER_RUN = 3;
+
+    @Autowired
+    private WorkflowRunRepository runRepository;
+
+    @Autowired
+    private WorkflowRunStepRepository stepRepository;
+
+    @Autowired
+    private WorkflowRepository workflowRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private WorkflowRunService workflowRunService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private BatchingWorkflowRunWriter writer;
+    private User user;
+    private Workflow workflow;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setFirebaseUid("uid-runs");
+        user.setEmail("runs@example.com");
+        user = userRepository.save(user);
+
+        workflow = new Workflow();
+        workflow.setUser(user);
+        workflow.setName("Runs");
+        workflow.setTriggerConfig("{\"type\":\"manual\"}");
+        workflow.setActionConfig("[{\"type\":\"log\"}]");
+        workflow = workflowRepository.save(workflow);
+
+        meterRegistry = new SimpleMeterRegistry();
+        writer = new BatchingWorkflowRunWriter(runRepository, stepRepository, transactionManager,
+                meterRegistry, 10_000, 500, 50);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        writer.stop();
+        stepRepository.deleteAllInBatch();
+        runRepository.deleteAllInBatch();
+        workflowRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void writesRunsAndStepsInJdbcBatches() throws InterruptedException {
+        SqlStatementCounter statements = new SqlStatementCounter(entityManagerFactory);
+        Instant base = Instant.parse("2026-01-01T00:00:00Z");
+        statements.reset();
+        writer.start();
+        for (int i = 0; i < RUNS; i++) {
+            writer.record(run(base.plusSeconds(i)), steps(base.plusSeconds(i)));
+        }
+        awaitWrittenRuns(RUNS);
+
+        // 480 rows with IDENTITY would be 480 inserts; pooled sequences + JDBC batching make it a handful
+        // of sequence calls and batched inserts
+        long written = statements.count();
+        assertThat(written).isLessThan(20);
+        assertThat(runRepository.count()).isEqualTo(RUNS);
+        assertThat(stepRepository.count()).isEqualTo((long) RUNS * STEPS_PER_RUN);
+    }
+
+    @Test
+    void runHistoryIsKeysetPagedNewestFirst() throws InterruptedException {
+        Instant base = Instant.parse("2026-01-01T00:00:00Z");
+        writer.start();
+        for (int i = 0; i < 5; i++) {
+            writer.record(run(base.plusSeconds(i)), steps(base.plusSeconds(i)));
+        }
+        awaitWrittenRuns(5);
+
+        WorkflowRunPageDto first = workflowRunService.getRuns(workflow.getId(), UserPrincipal.of(user), null, 3);
+        assertThat(first.getItems()).extracting(WorkflowRunDto::getStartedAt)
+                .containsExactly(base.plusSeconds(4), base.plusSeconds(3), base.plusSeconds(2));
+        assertThat(first.getNextCursor()).isNotNull();
+
+        WorkflowRunPageDto second = workflowRunService.getRuns(workflow.getId(), UserPrincipal.of(user), first.getNextCursor(), 3);
+        assertThat(second.getItems()).extracting(WorkflowRunDto::getStartedAt)
+                .containsExactly(base.plusSeconds(1), base);
+        assertThat(second.getNextCursor()).isNull();
+
+        List<WorkflowRunStepDto> steps = workflowRunService.getRunSteps(workflow.getId(), second.getItems().get(0).getId(), UserPrincipal.of(user));
+        assertThat(steps).extracting(WorkflowRunStepDto::getStepIndex).containsExactly(0, 1, 2);
+    }
+
+    // Polls the writer's counter rather than the table, so the statement count only covers the writes
+    private void awaitWrittenRuns(int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (meterRegistry.counter("workflow.runs.written").count() < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(meterRegistry.counter("workflow.runs.written").count()).isEqualTo(expected);
+    }
+
+    private WorkflowRun run(Instant startedAt) {
+        WorkflowRun run = new WorkflowRun();
+        run.setWorkflowId(workflow.getId());
+        run.setUserId(user.getId());
+        run.setEventId("evt-" + startedAt.getEpochSecond());
+        run.setSource("test");
+        run.setStatus(WorkflowRun.RunStatus.SUCCEEDED);
+        run.setStartedAt(startedAt);
+        run.setFinishedAt(startedAt.plusMillis(5));
+        run.setDurationMicros(5_000);
+        return run;
+    }
+
+    private List<WorkflowRunStep> steps(Instant startedAt) {
+        List<WorkflowRunStep> steps = new ArrayList<>();
+        for (int i = 0; i < STEPS_PER_RUN; i++) {
+            WorkflowRunStep step = new WorkflowRunStep();
+            step.setStepIndex(i);
+            step.setActionType("log");
+            step.setStatus(WorkflowRun.RunStatus.SUCCEEDED);
+            step.setStartedAt(startedAt.plusMillis(i));
+            step.setDurationMicros(1_000);
+            steps.add(step);
+        }
+        return steps;
+    }
+}
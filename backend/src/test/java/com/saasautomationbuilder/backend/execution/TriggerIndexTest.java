@@ -0,0 +1,43 @@
+package com.saasautomationbuilder.backend.execution;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.saasautomationbuilder.backend.execution.plan.TriggerSpec;
+import com.saasautomationbuilder.backend.execution.plan.WorkflowPlanCompiler;
+import com.saasautomationbuilder.backend.repository.WorkflowRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class TriggerIndexTest {
+
+    private final WorkflowPlanCompiler compiler = new WorkflowPlanCompiler(new ObjectMapper(), List.of(new LogActionHandler()));
+    private final TriggerIndex index = new TriggerIndex(mock(WorkflowRepository.class), compiler, 100);
+
+    @Test
+    void matchesByEventAndUserAndFollowsUpdates() {
+        TriggerSpec slackMessage = compiler.compileTrigger("{\"type\":\"webhook\",\"connectorKey\":\"slack\",\"event\":\"message.created\"}");
+        TriggerSpec slackAny = compiler.compileTrigger("{\"type\":\"webhook\",\"connectorKey\":\"slack\",\"event\":\"*\"}");
+        TriggerSpec schedule = compiler.compileTrigger("{\"type\":\"schedule\",\"cron\":\"0 * * * *\"}");
+
+        index.update(1L, 10L, true, slackMessage);
+        index.update(2L, 20L, true, slackMessage);
+        index.update(3L, 10L, true, slackAny);
+        index.update(4L, 10L, true, schedule);
+        index.update(5L, 10L, false, slackMessage);
+
+        assertThat(index.match("slack", "message.created")).containsExactlyInAnyOrder(1L, 2L, 3L);
+        assertThat(index.match("slack", "message.created", 10L)).containsExactlyInAnyOrder(1L, 3L);
+        assertThat(index.match("slack", "channel.created")).containsExactly(3L);
+        assertThat(index.ownerOf(2L)).isEqualTo(20L);
+
+        // Disabling and deleting remove the workflow from every key
+        index.update(1L, 10L, false, slackMessage);
+        index.remove(3L);
+        assertThat(index.match("slack", "message.created", 10L)).isEmpty();
+        assertThat(index.match("slack", "message.created")).containsExactly(2L);
+        assertThat(index.size()).isEqualTo(1);
+    }
+}
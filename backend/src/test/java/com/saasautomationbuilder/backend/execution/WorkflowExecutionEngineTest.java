@@ -0,0 +1,154 @@
+package com.saasautomationbuilder.backend.execution;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.saasautomationbuilder.backend.domain.User;
+import com.saasautomationbuilder.backend.domain.Workflow;
+import com.saasautomationbuilder.backend.execution.dedup.EventDeduplicator;
+import com.saasautomationbuilder.backend.execution.plan.ActionStep;
+import com.saasautomationbuilder.backend.execution.plan.WorkflowPlanCache;
+import com.saasautomationbuilder.backend.execution.plan.WorkflowPlanCompiler;
+import com.saasautomationbuilder.backend.repository.ProcessedEventRepository;
+import com.saasautomationbuilder.backend.repository.UserRepository;
+import com.saasautomationbuilder.backend.repository.WorkflowRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Drives the listener through an in-memory queue standing in for the broker:
+ * a pool of consumer threads takes events off the queue, hands them to the fair scheduler's workers,
+ * and deferred events go back to its tail.
+ */
+class WorkflowExecutionEngineTest {
+
+    private static final int USERS = 10;
+    private static final int EVENTS = 2_000;
+    private static final int CONSUMERS = 4;
+    private static final int WORKERS = 16;
+    private static final int PER_USER_LIMIT = 2;
+
+    @Test
+    void runsAllEventsWithinPerUserConcurrencyLimitAndLatencyBudget() throws Exception {
+        WorkflowRepository workflowRepository = mock(WorkflowRepository.class);
+        when(workflowRepository.findById(anyLong())).thenAnswer(invocation -> Optional.of(workflow(invocation.getArgument(0))));
+        when(workflowRepository.findUpdatedAtById(anyLong())).thenReturn(Optional.of(Instant.EPOCH));
+
+        ConcurrentHashMap<Long, AtomicInteger> running = new ConcurrentHashMap<>();
+        AtomicInteger maxObserved = new AtomicInteger();
+        ConcurrentLinkedQueue<Long> latenciesMicros = new ConcurrentLinkedQueue<>();
+        CountDownLatch done = new CountDownLatch(EVENTS);
+        ActionHandler workHandler = new ActionHandler() {
+            @Override
+            public String getType() {
+                return "work";
+            }
+
+            @Override
+            public void execute(TriggerEvent event, ActionStep step) throws Exception {
+                AtomicInteger counter = running.computeIfAbsent(event.getUserId(), id -> new AtomicInteger());
+                maxObserved.accumulateAndGet(counter.incrementAndGet(), Math::max);
+                Thread.sleep(1);
+                counter.decrementAndGet();
+                latenciesMicros.add(Duration.between(event.getOccurredAt(), Instant.now()).toNanos() / 1_000);
+                done.countDown();
+            }
+        };
+
+        WorkflowPlanCompiler planCompiler = new WorkflowPlanCompiler(new ObjectMapper(), List.of(workHandler));
+        WorkflowPlanCache planCache = new WorkflowPlanCache(workflowRepository, planCompiler, 1_000, Duration.ofMinutes(10));
+
+        BlockingQueue<TriggerEvent> broker = new LinkedBlockingQueue<>();
+        WorkflowTriggerPublisher publisher = mock(WorkflowTriggerPublisher.class);
+        doAnswer(invocation -> {
+            TriggerEvent event = invocation.getArgument(0);
+            event.setDeferrals(event.getDeferrals() + 1);
+            broker.add(event);
+            return null;
+        }).when(publisher).defer(any());
+
+        FairWorkflowScheduler scheduler = new FairWorkflowScheduler(
+                new WorkflowExecutor(planCache, List.of(workHandler), (run, steps) -> { }),
+                new TenantWeights(mock(UserRepository.class), new MockEnvironment(), 1_000, Duration.ofMinutes(5)),
+                new SimpleMeterRegistry(), WORKERS, PER_USER_LIMIT, 50, Duration.ofMillis(10));
+        scheduler.start();
+        WorkflowExecutionListener listener = new WorkflowExecutionListener(scheduler, publisher, deduplicator());
+
+        long start = System.nanoTime();
+        for (int i = 0; i < EVENTS; i++) {
+            long workflowId = i % (USERS * 5);
+            broker.add(new TriggerEvent("evt-" + i, workflowId, workflowId % USERS, "test", null, Instant.now(), 0));
+        }
+
+        ExecutorService consumers = Executors.newFixedThreadPool(CONSUMERS);
+        for (int i = 0; i < CONSUMERS; i++) {
+            consumers.submit(() -> {
+                while (!Thread.currentThread().isInterrupted()) {
+                    TriggerEvent event = broker.poll(100, TimeUnit.MILLISECONDS);
+                    if (event != null) {
+                        listener.onTriggerEvent(event, false);
+                    }
+                }
+                return null;
+            });
+        }
+
+        assertThat(done.await(60, TimeUnit.SECONDS)).isTrue();
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+        consumers.shutdownNow();
+        scheduler.stop();
+
+        assertThat(maxObserved.get()).isLessThanOrEqualTo(PER_USER_LIMIT);
+        long[] sorted = latenciesMicros.stream().mapToLong(Long::longValue).sorted().toArray();
+        long p99Millis = percentile(sorted, 0.99) / 1000;
+
+        // The whole backlog is queued up front, so an event's latency includes the wait behind the events before it;
+        // the bounds are loose enough for a single-core CI runner (~1 s and ~2,000 events/s there) but catch
+        // deferrals spinning, consumers stalling or the fair scheduler serialising users
+        assertThat(p99Millis).isLessThan(3_000);
+        assertThat(EVENTS / elapsedSeconds).isGreaterThan(500);
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)];
+    }
+
+    // In-memory window only: the events' ids are unique and recent
+    private static EventDeduplicator deduplicator() {
+        return new EventDeduplicator(mock(ProcessedEventRepository.class), new SimpleMeterRegistry(), Duration.ofHours(1), 12,
+                4_096, 4, false, Duration.ofDays(3));
+    }
+
+    private static Workflow workflow(long id) {
+        User user = new User();
+        user.setId(id % USERS);
+        Workflow workflow = new Workflow();
+        workflow.setId(id);
+        workflow.setUser(user);
+        workflow.setEnabled(true);
+        workflow.setUpdatedAt(Instant.EPOCH);
+        workflow.setActionConfig("[{\"type\":\"work\"}]");
+        workflow.setTriggerConfig("{\"type\":\"manual\"}");
+        return workflow;
+    }
+}
@@ -0,0 +1,66 @@
+package com.saasautomationbuilder.backend.execution;
+
+import com.saasautomationbuilder.backend.execution.dedup.EventDeduplicator;
+import com.saasautomationbuilder.backend.execution.polling.PollingEngine;
+import com.saasautomationbuilder.backend.execution.schedule.TimeTriggerScheduler;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class WorkflowExecutionListenerTest {
+
+    private final FairWorkflowScheduler scheduler = mock(FairWorkflowScheduler.class);
+    private final EventDeduplicator deduplicator = mock(EventDeduplicator.class);
+    private final WorkflowExecutionListener listener =
+            new WorkflowExecutionListener(scheduler, mock(WorkflowTriggerPublisher.class), deduplicator);
+
+    @Test
+    void secondPublicationOfATimeTriggerFireIsDropped() {
+        TriggerEvent fire = event("schedule:5:1767225600000", TimeTriggerScheduler.SCHEDULE_SOURCE, 0);
+        when(deduplicator.claimShared(TimeTriggerScheduler.SCHEDULE_SOURCE, fire.getEventId())).thenReturn(true, false);
+        when(scheduler.submit(any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        assertThat(listener.onTriggerEvent(fire, false)).isCompleted();
+        assertThat(listener.onTriggerEvent(fire, false)).isCompleted();
+
+        verify(scheduler, times(1)).submit(fire);
+    }
+
+    @Test
+    void redeliveriesAndDeferredEventsAreNotClaimedAgain() {
+        when(scheduler.submit(any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        listener.onTriggerEvent(event("poll:5:ab", PollingEngine.SOURCE, 0), true);
+        listener.onTriggerEvent(event("poll:5:cd", PollingEngine.SOURCE, 1), false);
+        listener.onTriggerEvent(event("ingest-1:5", "webhook", 0), false);
+
+        verifyNoInteractions(deduplicator);
+        verify(scheduler, times(3)).submit(any());
+    }
+
+    @Test
+    void failedRunReleasesItsClaim() {
+        TriggerEvent manual = event("run-1", "manual", 0);
+        when(deduplicator.claim("manual", "run-1", manual.getOccurredAt())).thenReturn(true);
+        when(scheduler.submit(any())).thenReturn(CompletableFuture.failedFuture(new IllegalStateException("boom")));
+
+        assertThat(listener.onTriggerEvent(manual, false)).isCompletedExceptionally();
+
+        verify(deduplicator).release("manual", "run-1");
+        verify(deduplicator, never()).claimShared(any(), any());
+    }
+
+    private static TriggerEvent event(String eventId, String source, int deferrals) {
+        return new TriggerEvent(eventId, 5L, 7L, source, null, Instant.now(), deferrals);
+    }
+}
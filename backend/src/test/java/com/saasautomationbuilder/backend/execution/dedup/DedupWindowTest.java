@@ -0,0 +1,66 @@
+package com.saasautomationbuilder.backend.execution.dedup;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DedupWindowTest {
+
+    @Test
+    void remembersIdsForTheTtlAndForgetsThemAfterwards() {
+        // 60s TTL in 6 buckets of 10s
+        DedupWindow window = new DedupWindow(60_000, 6, 1024, 4, false);
+        assertThat(window.tryAdd(1L, 5_000)).isEqualTo(DedupWindow.Outcome.ADDED);
+        assertThat(window.tryAdd(2L, 9_999)).isEqualTo(DedupWindow.Outcome.ADDED);
+        assertThat(window.tryAdd(1L, 30_000)).isEqualTo(DedupWindow.Outcome.DUPLICATE);
+
+        // Kept for at least the TTL (up to one bucket longer), then dropped without any per-id work
+        assertThat(window.contains(2L, 69_999)).isTrue();
+        assertThat(window.contains(1L, 69_999)).isTrue();
+        assertThat(window.contains(1L, 70_000)).isFalse();
+        assertThat(window.tryAdd(1L, 70_000)).isEqualTo(DedupWindow.Outcome.ADDED);
+
+        assertThat(window.remove(1L, 70_001)).isTrue();
+        assertThat(window.contains(1L, 70_001)).isFalse();
+        assertThat(window.remove(1L, 70_001)).isFalse();
+    }
+
+    @Test
+    void reportsFullInsteadOfGrowingAndRecoversInTheNextBucket() {
+        // One stripe of 16 slots: 12 ids fit per bucket
+        DedupWindow window = new DedupWindow(1_000, 1, 16, 1, true);
+        for (long id = 1; id <= 12; id++) {
+            assertThat(window.tryAdd(id, 0)).isEqualTo(DedupWindow.Outcome.ADDED);
+        }
+        assertThat(window.tryAdd(13L, 0)).isEqualTo(DedupWindow.Outcome.FULL);
+        // Ids already held are still recognized, and removals leave the others reachable
+        window.remove(3L, 0);
+        assertThat(window.tryAdd(12L, 500)).isEqualTo(DedupWindow.Outcome.DUPLICATE);
+        assertThat(window.tryAdd(13L, 1_000)).isEqualTo(DedupWindow.Outcome.ADDED);
+        assertThat(window.tryAdd(5L, 1_999)).isEqualTo(DedupWindow.Outcome.DUPLICATE);
+    }
+
+    @Test
+    void checksMillionsOfIdsWithoutFalseDuplicates() {
+        DedupWindow window = new DedupWindow(60_000, 6, 1 << 20, 16, false);
+        Random random = new Random(7);
+        long[] ids = new long[2_000_000];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = random.nextLong();
+        }
+        long started = System.nanoTime();
+        int added = 0;
+        for (int i = 0; i < ids.length; i++) {
+            // 1M distinct ids spread over one minute, each seen twice
+            long now = (i % 1_000_000) * 60L / 1_000;
+            if (window.tryAdd(ids[i % 1_000_000], now) == DedupWindow.Outcome.ADDED) {
+                added++;
+            }
+        }
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+        assertThat(added).isEqualTo(1_000_000);
+        assertThat(elapsedMillis).as("2M checks took %d ms", elapsedMillis).isLessThan(10_000);
+    }
+}
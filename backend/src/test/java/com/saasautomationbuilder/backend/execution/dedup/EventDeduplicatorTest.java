@@ -0,0 +1,85 @@
+package com.saasautomationbuilder.backend.execution.dedup;
+
+import com.saasautomationbuilder.backend.repository.ProcessedEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class EventDeduplicatorTest {
+
+    @Autowired
+    private ProcessedEventRepository processedEventRepository;
+
+    @AfterEach
+    void tearDown() {
+        processedEventRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void recentRedeliveriesAreCaughtInMemoryAndOldOnesInTheTable() {
+        EventDeduplicator deduplicator = deduplicator(1_024);
+        long now = Instant.parse("2026-01-01T12:00:00Z").toEpochMilli();
+
+        assertThat(deduplicator.claim("stripe", "7:evt_1", null, now)).isTrue();
+        assertThat(deduplicator.claim("stripe", "7:evt_1", null, now + 1_000)).isFalse();
+        assertThat(deduplicator.claim("github", "7:evt_1", null, now + 1_000)).isTrue();
+        assertThat(processedEventRepository.count()).isZero();
+
+        // Occurred before the window began: the table decides, across instances too
+        Instant old = Instant.ofEpochMilli(now).minus(Duration.ofHours(2));
+        assertThat(deduplicator.claim("stripe", "7:evt_0", old, now)).isTrue();
+        assertThat(deduplicator(1_024).claim("stripe", "7:evt_0", old, now + 5_000)).isFalse();
+        assertThat(processedEventRepository.count()).isEqualTo(1);
+
+        // A released claim can be taken again
+        deduplicator.release("stripe", "7:evt_1", now + 2_000);
+        deduplicator.release("stripe", "7:evt_0", now + 2_000);
+        assertThat(deduplicator.claim("stripe", "7:evt_1", null, now + 3_000)).isTrue();
+        assertThat(deduplicator.claim("stripe", "7:evt_0", old, now + 3_000)).isTrue();
+    }
+
+    @Test
+    void overflowingTheWindowFallsBackToTheTable() {
+        // 16 slots per bucket: the 13th id of a bucket no longer fits in memory
+        EventDeduplicator deduplicator = deduplicator(16);
+        long now = 1_000_000;
+        for (int i = 0; i < 12; i++) {
+            assertThat(deduplicator.claim("http", "evt_" + i, null, now)).isTrue();
+        }
+        assertThat(deduplicator.claim("http", "evt_overflow", null, now)).isTrue();
+        assertThat(deduplicator.claim("http", "evt_overflow", null, now + 1)).isFalse();
+        assertThat(deduplicator.claim("http", "x".repeat(300), null, now)).isTrue();
+        assertThat(deduplicator.claim("http", "x".repeat(300), null, now)).isFalse();
+        assertThat(processedEventRepository.findAll()).extracting(event -> event.getEventId().length())
+                .containsExactlyInAnyOrder(12, 71);
+
+        assertThat(processedEventRepository.deleteExpired(Instant.ofEpochMilli(now).plus(Duration.ofDays(4)))).isEqualTo(2);
+    }
+
+    @Test
+    void sharedClaimsAreSeenByEveryInstance() {
+        assertThat(deduplicator(1_024).claimShared("schedule", "schedule:5:1767225600000")).isTrue();
+        assertThat(deduplicator(1_024).claimShared("schedule", "schedule:5:1767225600000")).isFalse();
+        assertThat(processedEventRepository.count()).isEqualTo(1);
+    }
+
+    private EventDeduplicator deduplicator(int slotsPerBucket) {
+        return new EventDeduplicator(processedEventRepository, new SimpleMeterRegistry(), Duration.ofHours(1), 12,
+                slotsPerBucket, 1, false, Duration.ofDays(3));
+    }
+}
@@ -0,0 +1,138 @@
+package com.saasautomationbuilder.backend.execution.http;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// A local HttpServer stands in for the providers
+class ConnectorHttpClientsTest {
+
+    private HttpServer provider;
+    private final AtomicInteger requests = new AtomicInteger();
+    private SimpleMeterRegistry meterRegistry;
+    private ConnectorHttpClients clients;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        provider = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        provider.createContext("/ok", exchange -> respond(exchange, 200, null));
+        provider.createContext("/fail", exchange -> respond(exchange, 503, null));
+        provider.createContext("/quota", exchange -> respond(exchange, 429, "1"));
+        provider.setExecutor(Executors.newCachedThreadPool());
+        provider.start();
+
+        meterRegistry = new SimpleMeterRegistry();
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("app.connectors.http.clients.slow.connection-rate-per-second", "10")
+                .withProperty("app.connectors.http.clients.slow.connection-burst", "2")
+                .withProperty("app.connectors.http.clients.strict.rate-per-second", "1")
+                .withProperty("app.connectors.http.clients.strict.burst", "1");
+        // Defaults: 100/s per connector and per connection, wait at most 500 ms
+        clients = new ConnectorHttpClients(environment, meterRegistry, Duration.ofSeconds(2), Duration.ofSeconds(5),
+                Duration.ofMillis(500), 100, 100, 100, 100, 1000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        clients.stop();
+        provider.stop(0);
+    }
+
+    @Test
+    void sendsThroughPooledClientAndRecordsPerConnectorMetrics() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            assertThat(clients.send("crm", 1L, get("/ok")).statusCode()).isEqualTo(200);
+        }
+        assertThat(clients.send("crm", 1L, get("/fail")).statusCode()).isEqualTo(503);
+        assertThat(clients.send("mail", null, get("/ok")).statusCode()).isEqualTo(200);
+
+        assertThat(timer("crm", "2xx").count()).isEqualTo(3);
+        assertThat(timer("crm", "5xx").count()).isEqualTo(1);
+        assertThat(timer("mail", "2xx").count()).isEqualTo(1);
+        assertThat(requests).hasValue(5);
+    }
+
+    @Test
+    void spacesOutBurstsOfOneConnectionWithoutSlowingOthers() {
+        long started = System.nanoTime();
+        List<CompletableFuture<HttpResponse<byte[]>>> responses = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            responses.add(clients.sendAsync("slow", 1L, get("/ok")));
+        }
+        // Another connection of the same connector has its own bucket
+        assertThat(clients.sendAsync("slow", 2L, get("/ok")).join().statusCode()).isEqualTo(200);
+        long otherMillis = (System.nanoTime() - started) / 1_000_000;
+
+        responses.forEach(response -> assertThat(response.join().statusCode()).isEqualTo(200));
+        long burstMillis = (System.nanoTime() - started) / 1_000_000;
+
+        // Burst of 2, then 10/s: the sixth request cannot start before ~400 ms
+        assertThat(burstMillis).isGreaterThanOrEqualTo(390);
+        assertThat(otherMillis).isLessThan(burstMillis);
+        assertThat(requests).hasValue(7);
+    }
+
+    @Test
+    void failsFastWhenRateLimitWaitWouldExceedMaxWait() throws Exception {
+        assertThat(clients.send("strict", 1L, get("/ok")).statusCode()).isEqualTo(200);
+
+        // 1/s with a burst of 1: the next token is ~1 s away, more than the 500 ms max wait
+        assertThatThrownBy(() -> clients.send("strict", 2L, get("/ok")))
+                .isInstanceOf(RateLimitExceededException.class);
+        assertThat(meterRegistry.counter("connector.http.throttled", "connector", "strict", "scope", "connector").count())
+                .isEqualTo(1);
+        assertThat(requests).hasValue(1);
+    }
+
+    @Test
+    void retryAfterOn429PausesTheConnector() throws Exception {
+        assertThat(clients.send("crm", 1L, get("/quota")).statusCode()).isEqualTo(429);
+
+        // Retry-After: 1 holds the connector back longer than the 500 ms max wait
+        assertThatThrownBy(() -> clients.send("crm", 2L, get("/ok")))
+                .isInstanceOf(RateLimitExceededException.class);
+        assertThat(requests).hasValue(1);
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + provider.getAddress().getPort() + path)).GET().build();
+    }
+
+    private Timer timer(String connector, String status) {
+        return meterRegistry.get("connector.http.requests").tag("connector", connector).tag("status", status).timer();
+    }
+
+    private void respond(HttpExchange exchange, int status, String retryAfter) throws IOException {
+        requests.incrementAndGet();
+        byte[] body = "{}".getBytes(StandardCharsets.UTF_8);
+        if (retryAfter != null) {
+            exchange.getResponseHeaders().add("Retry-After", retryAfter);
+        }
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
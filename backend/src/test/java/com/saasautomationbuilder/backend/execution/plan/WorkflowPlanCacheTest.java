@@ -0,0 +1,67 @@
+package com.saasautomationbuilder.backend.execution.plan;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.saasautomationbuilder.backend.domain.User;
+import com.saasautomationbuilder.backend.domain.Workflow;
+import com.saasautomationbuilder.backend.execution.LogActionHandler;
+import com.saasautomationbuilder.backend.repository.WorkflowRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class WorkflowPlanCacheTest {
+
+    private final WorkflowRepository workflowRepository = mock(WorkflowRepository.class);
+    private final WorkflowPlanCache planCache = new WorkflowPlanCache(workflowRepository,
+            new WorkflowPlanCompiler(new ObjectMapper(), List.of(new LogActionHandler())), 100, Duration.ofMinutes(10));
+
+    @Test
+    void newerWorkflowVersionIsRecompiledEvenWithoutEviction() {
+        Instant v1 = Instant.parse("2026-01-01T00:00:00Z");
+        Instant v2 = v1.plusSeconds(1);
+        when(workflowRepository.findUpdatedAtById(1L)).thenReturn(Optional.of(v1));
+        when(workflowRepository.findById(1L)).thenReturn(Optional.of(workflow(v1, true)));
+
+        WorkflowPlan first = planCache.getPlan(1L);
+        assertThat(planCache.getPlan(1L)).isSameAs(first);
+        verify(workflowRepository, times(1)).findById(1L);
+
+        // Changed on another instance, and the eviction never arrived
+        when(workflowRepository.findUpdatedAtById(1L)).thenReturn(Optional.of(v2));
+        when(workflowRepository.findById(1L)).thenReturn(Optional.of(workflow(v2, false)));
+
+        WorkflowPlan second = planCache.getPlan(1L);
+        assertThat(second.getUpdatedAt()).isEqualTo(v2);
+        assertThat(second.isEnabled()).isFalse();
+        verify(workflowRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    void deletedWorkflowHasNoPlan() {
+        when(workflowRepository.findUpdatedAtById(2L)).thenReturn(Optional.empty());
+
+        assertThat(planCache.getPlan(2L)).isNull();
+    }
+
+    private static Workflow workflow(Instant updatedAt, boolean enabled) {
+        User user = new User();
+        user.setId(10L);
+        Workflow workflow = new Workflow();
+        workflow.setId(1L);
+        workflow.setUser(user);
+        workflow.setEnabled(enabled);
+        workflow.setUpdatedAt(updatedAt);
+        workflow.setTriggerConfig("{\"type\":\"manual\"}");
+        workflow.setActionConfig("[{\"type\":\"log\"}]");
+        return workflow;
+    }
+}
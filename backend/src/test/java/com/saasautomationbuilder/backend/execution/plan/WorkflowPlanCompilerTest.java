@@ -0,0 +1,50 @@
+package com.saasautomationbuilder.backend.execution.plan;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.saasautomationbuilder.backend.exception.InvalidWorkflowConfigException;
+import com.saasautomationbuilder.backend.execution.LogActionHandler;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WorkflowPlanCompilerTest {
+
+    private final WorkflowPlanCompiler compiler = new WorkflowPlanCompiler(new ObjectMapper(), List.of(new LogActionHandler()));
+
+    @Test
+    void compilesTriggerAndActions() {
+        TriggerSpec schedule = compiler.compileTrigger("{\"type\":\"schedule\",\"cron\":\"0 * * * *\"}");
+        assertThat(schedule.getType()).isEqualTo(TriggerSpec.TriggerType.SCHEDULE);
+        assertThat(schedule.getCron()).isNotNull();
+
+        TriggerSpec webhook = compiler.compileTrigger("{\"type\":\"webhook\",\"connectorKey\":\"slack\",\"event\":\"message.created\",\"channel\":\"C1\"}");
+        assertThat(webhook.getConnectorKey()).isEqualTo("slack");
+        assertThat(webhook.getOptions()).containsEntry("channel", "C1");
+
+        TriggerSpec interval = compiler.compileTrigger("{\"type\":\"interval\",\"intervalSeconds\":30}");
+        assertThat(interval.getInterval()).isEqualTo(Duration.ofSeconds(30));
+
+        List<ActionStep> steps = compiler.compileActions("[{\"type\":\"log\",\"message\":\"hi\",\"tags\":[\"a\"]}]");
+        assertThat(steps).hasSize(1);
+        assertThat(steps.get(0).getString("message")).isEqualTo("hi");
+        assertThatThrownBy(() -> steps.get(0).getParams().put("x", 1)).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    void rejectsInvalidConfigs() {
+        assertThatThrownBy(() -> compiler.compileTrigger("not json"))
+                .isInstanceOf(InvalidWorkflowConfigException.class);
+        assertThatThrownBy(() -> compiler.compileTrigger("{\"type\":\"schedule\",\"cron\":\"61 * * * *\"}"))
+                .isInstanceOf(InvalidWorkflowConfigException.class);
+        assertThatThrownBy(() -> compiler.compileTrigger("{\"type\":\"webhook\",\"connectorKey\":\"slack\"}"))
+                .hasMessageContaining("event");
+        assertThatThrownBy(() -> compiler.compileActions("[{\"type\":\"unknown\"}]"))
+                .hasMessageContaining("Unknown action type");
+        assertThatThrownBy(() -> compiler.compileActions("[]"))
+                .isInstanceOf(InvalidWorkflowConfigException.class);
+    }
+}
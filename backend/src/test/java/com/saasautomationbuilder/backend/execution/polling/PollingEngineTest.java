@@ -0,0 +1,192 @@
+package com.saasautomationbuilder.backend.execution.polling;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.saasautomationbuilder.backend.domain.PollingCursor;
+import com.saasautomationbuilder.backend.execution.BatchingTriggerPublisher;
+import com.saasautomationbuilder.backend.execution.LogActionHandler;
+import com.saasautomationbuilder.backend.execution.TriggerEvent;
+import com.saasautomationbuilder.backend.execution.http.ConnectorHttpClients;
+import com.saasautomationbuilder.backend.execution.plan.TriggerSpec;
+import com.saasautomationbuilder.backend.execution.plan.WorkflowPlanCompiler;
+import com.saasautomationbuilder.backend.execution.schedule.SchedulerLeadership;
+import com.saasautomationbuilder.backend.repository.PollingCursorRepository;
+import com.saasautomationbuilder.backend.repository.UserConnectionRepository;
+import com.saasautomationbuilder.backend.repository.WorkflowRepository;
+import com.saasautomationbuilder.backend.security.CredentialVault;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Polls a local stand-in list API through the built-in "http" source. Cursors are written outside of
+ * any test transaction, as in production.
+ */
+@DataJpaTest
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PollingEngineTest {
+
+    @Autowired
+    private WorkflowRepository workflowRepository;
+
+    @Autowired
+    private PollingCursorRepository cursorRepository;
+
+    @Autowired
+    private UserConnectionRepository connectionRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final WorkflowPlanCompiler compiler = new WorkflowPlanCompiler(objectMapper, List.of(new LogActionHandler()));
+    private final List<Map<String, String>> contacts = new CopyOnWriteArrayList<>();
+    private final List<String> requestedQueries = new CopyOnWriteArrayList<>();
+    private final List<Integer> statuses = new CopyOnWriteArrayList<>();
+    private final List<TriggerEvent> published = new CopyOnWriteArrayList<>();
+    private HttpServer api;
+    private ConnectorHttpClients httpClients;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        api = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        api.createContext("/contacts", this::listContacts);
+        api.setExecutor(Executors.newCachedThreadPool());
+        api.start();
+        httpClients = new ConnectorHttpClients(new MockEnvironment(), new SimpleMeterRegistry(), Duration.ofSeconds(2),
+                Duration.ofSeconds(5), Duration.ofSeconds(1), 100, 100, 100, 100, 1000);
+        contacts.add(contact("c1", "2026-01-01T00:00:01Z"));
+        contacts.add(contact("c2", "2026-01-01T00:00:02Z"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        httpClients.stop();
+        api.stop(0);
+        cursorRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void workflowsPollingTheSameListShareOnePollAndOnlyNewItemsFire() throws Exception {
+        PollingEngine engine = engine();
+        engine.update(1L, 10L, true, trigger(60, "/contacts"));
+        engine.update(2L, 10L, true, trigger(300, "/contacts"));
+        engine.update(3L, 10L, true, trigger(60, "/contacts?list=vip"));
+        // Another user's workflow on the same list never joins user 10's subscription
+        engine.update(4L, 20L, true, trigger(60, "/contacts"));
+        assertThat(engine.subscriptionCount()).isEqualTo(3);
+
+        // First poll only records where the list stands
+        assertThat(engine.pollNow(1L)).isZero();
+        // The "since" filter is inclusive, so c2 comes back and is dropped; then the unchanged page is a 304
+        assertThat(engine.pollNow(2L)).isZero();
+        assertThat(engine.pollNow(1L)).isZero();
+        assertThat(statuses).containsExactly(200, 200, 304);
+        assertThat(published).isEmpty();
+
+        contacts.add(contact("c3", "2026-01-01T00:00:03Z"));
+        assertThat(engine.pollNow(1L)).isEqualTo(1);
+
+        assertThat(published).extracting(TriggerEvent::getWorkflowId).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(published).allSatisfy(event -> {
+            assertThat(event.getSource()).isEqualTo(PollingEngine.SOURCE);
+            assertThat(event.getPayload()).containsEntry("id", "c3");
+            assertThat(event.getEventId()).startsWith("poll:" + event.getWorkflowId() + ":");
+        });
+        assertThat(requestedQueries).containsExactly(null, "updated_since=2026-01-01T00:00:02Z",
+                "updated_since=2026-01-01T00:00:02Z", "updated_since=2026-01-01T00:00:02Z");
+
+        engine.remove(3L);
+        engine.remove(4L);
+        assertThat(engine.subscriptionCount()).isEqualTo(1);
+        engine.stop();
+    }
+
+    @Test
+    void restartResumesFromTheDurableCursor() throws Exception {
+        PollingEngine first = engine();
+        first.update(1L, 10L, true, trigger(60, "/contacts"));
+        first.pollNow(1L);
+        first.stop();
+        contacts.add(contact("c3", "2026-01-01T00:00:03Z"));
+
+        PollingEngine second = engine();
+        second.update(1L, 10L, true, trigger(60, "/contacts"));
+        assertThat(second.pollNow(1L)).isEqualTo(1);
+        assertThat(second.pollNow(1L)).isZero();
+        second.stop();
+
+        assertThat(published).extracting(event -> event.getPayload().get("id")).containsExactly("c3");
+        PollingCursor cursor = cursorRepository.findAll().get(0);
+        assertThat(cursor.getCursor()).isEqualTo("2026-01-01T00:00:03Z");
+        assertThat(SeenItems.fromBytes(cursor.getSeenItems(), 10).size()).isEqualTo(3);
+    }
+
+    private PollingEngine engine() {
+        BatchingTriggerPublisher publisher = mock(BatchingTriggerPublisher.class);
+        when(publisher.trySubmit(anyList())).thenAnswer(invocation -> {
+            published.addAll(invocation.getArgument(0));
+            return CompletableFuture.completedFuture(null);
+        });
+        SchedulerLeadership leadership = mock(SchedulerLeadership.class);
+        when(leadership.isLeader()).thenReturn(true);
+        return new PollingEngine(workflowRepository, compiler, cursorRepository, connectionRepository,
+                mock(CredentialVault.class), List.of(new HttpJsonPollingSource(httpClients, objectMapper)), publisher,
+                leadership, objectMapper, new SimpleMeterRegistry(), Duration.ofSeconds(1), 2, Duration.ofMinutes(1),
+                0.1, Duration.ofHours(1), 10, 100, Duration.ofSeconds(5), 100, Duration.ofMinutes(1));
+    }
+
+    private TriggerSpec trigger(int intervalSeconds, String path) {
+        return compiler.compileTrigger("{\"type\":\"polling\",\"connectorKey\":\"http\",\"intervalSeconds\":" + intervalSeconds
+                + ",\"url\":\"http://localhost:" + api.getAddress().getPort() + path + "\""
+                + ",\"sinceField\":\"updated_at\",\"sinceParam\":\"updated_since\"}");
+    }
+
+    private static Map<String, String> contact(String id, String updatedAt) {
+        return Map.of("id", id, "updated_at", updatedAt);
+    }
+
+    // Stand-in list API: items updated at or after ?updated_since, with an ETag over the returned page
+    private void listContacts(HttpExchange exchange) throws IOException {
+        String query = exchange.getRequestURI().getRawQuery();
+        requestedQueries.add(query == null ? null : URLDecoder.decode(query, StandardCharsets.UTF_8));
+        String since = query == null ? "" : URLDecoder.decode(query.substring(query.indexOf('=') + 1), StandardCharsets.UTF_8);
+        List<Map<String, String>> page = contacts.stream().filter(contact -> contact.get("updated_at").compareTo(since) >= 0).toList();
+        byte[] body = objectMapper.writeValueAsBytes(Map.of("items", page));
+        String etag = "\"" + Integer.toHexString(new String(body, StandardCharsets.UTF_8).hashCode()) + "\"";
+        int status = etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match")) ? 304 : 200;
+        statuses.add(status);
+        exchange.getResponseHeaders().add("ETag", etag);
+        exchange.sendResponseHeaders(status, status == 304 ? -1 : body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            if (status == 200) {
+                out.write(body);
+            }
+        }
+    }
+}
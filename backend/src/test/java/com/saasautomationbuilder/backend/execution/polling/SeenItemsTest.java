@@ -0,0 +1,33 @@
+package com.saasautomationbuilder.backend.execution.polling;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SeenItemsTest {
+
+    @Test
+    void keepsOnlyTheMostRecentIdsAcrossSerialization() {
+        SeenItems seen = new SeenItems(3);
+        assertThat(seen.addIfAbsent("a")).isTrue();
+        assertThat(seen.addIfAbsent("b")).isTrue();
+        assertThat(seen.addIfAbsent("a")).isFalse();
+        assertThat(seen.addIfAbsent("c")).isTrue();
+        assertThat(seen.addIfAbsent("d")).isTrue(); // evicts "a"
+
+        SeenItems restored = SeenItems.fromBytes(seen.toBytes(), 3);
+        assertThat(restored.toBytes()).hasSize(3 * Long.BYTES);
+        assertThat(restored.contains("a")).isFalse();
+        assertThat(restored.contains("b")).isTrue();
+        // Eviction order survives the round trip: "b" is still the oldest
+        assertThat(restored.addIfAbsent("e")).isTrue();
+        assertThat(restored.contains("b")).isFalse();
+        assertThat(restored.contains("c")).isTrue();
+
+        // A smaller capacity keeps the newest entries
+        SeenItems shrunk = SeenItems.fromBytes(restored.toBytes(), 2);
+        assertThat(shrunk.contains("d")).isTrue();
+        assertThat(shrunk.contains("e")).isTrue();
+        assertThat(shrunk.contains("c")).isFalse();
+    }
+}
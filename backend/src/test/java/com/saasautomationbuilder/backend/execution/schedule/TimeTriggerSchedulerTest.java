@@ -0,0 +1,166 @@
+package com.saasautomationbuilder.backend.execution.schedule;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.saasautomationbuilder.backend.execution.BatchingTriggerPublisher;
+import com.saasautomationbuilder.backend.execution.LogActionHandler;
+import com.saasautomationbuilder.backend.execution.TriggerEvent;
+import com.saasautomationbuilder.backend.execution.plan.TriggerSpec;
+import com.saasautomationbuilder.backend.execution.plan.WorkflowPlanCompiler;
+import com.saasautomationbuilder.backend.repository.WorkflowRepository;
+import com.saasautomationbuilder.backend.repository.WorkflowTriggerView;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Drives the scheduler's clock directly through advanceTo instead of running its ticker thread
+class TimeTriggerSchedulerTest {
+
+    private final WorkflowPlanCompiler compiler = new WorkflowPlanCompiler(new ObjectMapper(), List.of(new LogActionHandler()));
+    private final WorkflowRepository workflowRepository = mock(WorkflowRepository.class);
+    private final BatchingTriggerPublisher publisher = mock(BatchingTriggerPublisher.class);
+    private final SchedulerLeadership leadership = mock(SchedulerLeadership.class);
+    private final List<TriggerEvent> published = new CopyOnWriteArrayList<>();
+    private TimeTriggerScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        when(publisher.trySubmit(anyList())).thenAnswer(invocation -> {
+            published.addAll(invocation.getArgument(0));
+            return CompletableFuture.completedFuture(null);
+        });
+        when(leadership.isLeader()).thenReturn(true);
+        scheduler = new TimeTriggerScheduler(workflowRepository, compiler, publisher, leadership, new SimpleMeterRegistry(),
+                Duration.ofSeconds(1), 2, 1_000, Duration.ofMinutes(1));
+    }
+
+    @Test
+    void firesCronAndIntervalTriggersOnlyWhileLeader() {
+        scheduler.update(1L, 10L, true, compiler.compileTrigger("{\"type\":\"schedule\",\"cron\":\"* * * * *\"}"));
+        scheduler.update(2L, 20L, true, compiler.compileTrigger("{\"type\":\"interval\",\"intervalSeconds\":30}"));
+        scheduler.update(3L, 10L, false, compiler.compileTrigger("{\"type\":\"interval\",\"intervalSeconds\":30}"));
+        scheduler.update(4L, 10L, true, compiler.compileTrigger("{\"type\":\"manual\"}"));
+        assertThat(scheduler.size()).isEqualTo(2);
+
+        long start = (System.currentTimeMillis() / 1_000 + 1) * 1_000; // First whole second after the updates
+        advanceSecondBySecond(start, Duration.ofMinutes(10));
+        assertThat(published).filteredOn(event -> event.getWorkflowId() == 1L).hasSize(10)
+                .allSatisfy(event -> {
+                    assertThat(event.getSource()).isEqualTo(TimeTriggerScheduler.SCHEDULE_SOURCE);
+                    assertThat(event.getOccurredAt().getEpochSecond() % 60).isZero();
+                    assertThat(event.getEventId()).isEqualTo("schedule:1:" + event.getOccurredAt().toEpochMilli());
+                });
+        long phase = TimeTriggerScheduler.intervalPhase(2L, 30_000);
+        assertThat(published).filteredOn(event -> event.getWorkflowId() == 2L).hasSizeBetween(20, 21)
+                .allSatisfy(event -> {
+                    assertThat(event.getSource()).isEqualTo(TimeTriggerScheduler.INTERVAL_SOURCE);
+                    assertThat(Math.floorMod(event.getOccurredAt().toEpochMilli() - phase, 30_000L)).isZero();
+                });
+
+        // A follower keeps its schedules moving without publishing, and does not catch up on becoming leader
+        published.clear();
+        when(leadership.isLeader()).thenReturn(false);
+        advanceSecondBySecond(start + Duration.ofMinutes(10).toMillis(), Duration.ofMinutes(5));
+        assertThat(published).isEmpty();
+        when(leadership.isLeader()).thenReturn(true);
+        advanceSecondBySecond(start + Duration.ofMinutes(15).toMillis(), Duration.ofMinutes(1));
+        assertThat(published).extracting(TriggerEvent::getWorkflowId).containsOnly(1L, 2L);
+        assertThat(published).filteredOn(event -> event.getWorkflowId() == 1L).hasSizeBetween(1, 2);
+        assertThat(published).filteredOn(event -> event.getWorkflowId() == 2L).hasSizeBetween(2, 3);
+    }
+
+    @Test
+    void unchangedUpdatesKeepTheNextFireTimeAndRemovalsCancel() {
+        TriggerSpec every30s = compiler.compileTrigger("{\"type\":\"interval\",\"intervalSeconds\":30}");
+        scheduler.update(1L, 10L, true, every30s);
+        Instant next = scheduler.nextFireTime(1L);
+
+        scheduler.update(1L, 10L, true, compiler.compileTrigger("{\"type\":\"interval\",\"intervalSeconds\":30}"));
+        assertThat(scheduler.nextFireTime(1L)).isEqualTo(next);
+        scheduler.update(1L, 10L, true, compiler.compileTrigger("{\"type\":\"interval\",\"intervalSeconds\":3600}"));
+        long hourlyPhase = TimeTriggerScheduler.intervalPhase(1L, 3_600_000);
+        assertThat(Math.floorMod(scheduler.nextFireTime(1L).toEpochMilli() - hourlyPhase, 3_600_000L)).isZero();
+
+        scheduler.remove(1L);
+        advanceSecondBySecond(System.currentTimeMillis(), Duration.ofHours(2));
+        assertThat(published).isEmpty();
+        assertThat(scheduler.size()).isZero();
+    }
+
+    @Test
+    void intervalFireTimesDoNotDependOnWhenTheScheduleWasLoaded() {
+        TriggerSpec hourly = compiler.compileTrigger("{\"type\":\"interval\",\"intervalSeconds\":3600}");
+        long phase = TimeTriggerScheduler.intervalPhase(7L, 3_600_000);
+        long gridPoint = 1_700_000_000_000L / 3_600_000 * 3_600_000 + phase;
+
+        // Two instances loading the workflow at different moments of the same period agree on the next fire
+        long early = TimeTriggerScheduler.nextFireAfter(hourly, 7L, gridPoint + 1_000, gridPoint + 1_000);
+        long late = TimeTriggerScheduler.nextFireAfter(hourly, 7L, gridPoint + 1_800_000, gridPoint + 1_800_000);
+        assertThat(early).isEqualTo(late).isEqualTo(gridPoint + 3_600_000);
+        // Firing on time moves one period on; a late tick coalesces the missed fires onto the same grid
+        assertThat(TimeTriggerScheduler.nextFireAfter(hourly, 7L, early, early + 500)).isEqualTo(early + 3_600_000);
+        assertThat(TimeTriggerScheduler.nextFireAfter(hourly, 7L, early, early + 3 * 3_600_000 + 5)).isEqualTo(early + 4 * 3_600_000);
+
+        // Workflows with the same interval are spread over it rather than firing together
+        assertThat(LongStream.rangeClosed(1, 100).map(id -> TimeTriggerScheduler.intervalPhase(id, 3_600_000)).distinct().count())
+                .isGreaterThan(90);
+    }
+
+    @Test
+    void fullResyncLoadsEnabledWorkflowsAndDropsVanishedOnes() {
+        scheduler.update(99L, 10L, true, compiler.compileTrigger("{\"type\":\"interval\",\"intervalSeconds\":60}"));
+        when(workflowRepository.findEnabledTriggersAfter(anyLong(), any())).thenAnswer(invocation -> {
+            long afterId = invocation.getArgument(0);
+            List<WorkflowTriggerView> rows = List.of(
+                    row(1L, "{\"type\":\"schedule\",\"cron\":\"0 * * * *\"}"),
+                    row(2L, "{\"type\":\"webhook\",\"connectorKey\":\"slack\",\"event\":\"*\"}"),
+                    row(3L, "{\"type\":\"interval\",\"intervalSeconds\":60}"));
+            return rows.stream().filter(row -> row.getId() > afterId).limit(2).toList();
+        });
+
+        scheduler.resyncAll();
+
+        assertThat(scheduler.size()).isEqualTo(2);
+        assertThat(scheduler.nextFireTime(1L)).isNotNull();
+        assertThat(scheduler.nextFireTime(3L)).isNotNull();
+        assertThat(scheduler.nextFireTime(99L)).isNull();
+    }
+
+    private void advanceSecondBySecond(long from, Duration duration) {
+        for (long now = from; now <= from + duration.toMillis(); now += 1_000) {
+            scheduler.advanceTo(now);
+        }
+    }
+
+    private static WorkflowTriggerView row(Long id, String triggerConfig) {
+        return new WorkflowTriggerView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getUserId() {
+                return 10L;
+            }
+
+            @Override
+            public String getTriggerConfig() {
+                return triggerConfig;
+            }
+        };
+    }
+}
@@ -0,0 +1,84 @@
+package com.saasautomationbuilder.backend.execution.schedule;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimingWheelTest {
+
+    @Test
+    void firesEveryTimeoutAtItsDeadlineOnAllLevels() {
+        TimingWheel<Long> wheel = new TimingWheel<>(1, 0);
+        Random random = new Random(42);
+        Map<Long, Long> firedAt = new HashMap<>();
+        List<TimingWheel.Timeout<Long>> cancelled = new ArrayList<>();
+        // Up to 20M ticks: past the 64^4 ticks the four levels cover, so far deadlines go round the top level
+        for (long id = 0; id < 50_000; id++) {
+            long deadline = 1 + (long) (random.nextDouble() * random.nextDouble() * 20_000_000);
+            TimingWheel.Timeout<Long> timeout = wheel.schedule(id, deadline);
+            if (id % 10 == 0) {
+                cancelled.add(timeout);
+            }
+        }
+        cancelled.forEach(wheel::cancel);
+        assertThat(wheel.size()).isEqualTo(45_000);
+
+        long[] now = new long[1];
+        for (now[0] = 1; now[0] <= 20_000_000; now[0]++) {
+            wheel.advance(now[0], id -> firedAt.put(id, now[0]));
+        }
+
+        assertThat(firedAt).hasSize(45_000);
+        assertThat(wheel.size()).isZero();
+        random = new Random(42);
+        for (long id = 0; id < 50_000; id++) {
+            long deadline = 1 + (long) (random.nextDouble() * random.nextDouble() * 20_000_000);
+            if (id % 10 != 0) {
+                assertThat(firedAt.get(id)).as("timeout %d", id).isEqualTo(deadline);
+            }
+        }
+        assertThat(cancelled).noneMatch(TimingWheel.Timeout::isPending);
+    }
+
+    @Test
+    void pastDeadlinesFireOnNextTickAndCallbacksMayReschedule() {
+        TimingWheel<String> wheel = new TimingWheel<>(1_000, 10_000);
+        List<String> fired = new ArrayList<>();
+        wheel.schedule("late", 5_000);
+        wheel.schedule("every-2s", 12_000);
+
+        for (long now = 11_000; now <= 20_000; now += 1_000) {
+            long tick = now;
+            wheel.advance(now, value -> {
+                fired.add(value + "@" + tick / 1_000);
+                if (value.equals("every-2s")) {
+                    wheel.schedule(value, tick + 2_000);
+                }
+            });
+        }
+
+        assertThat(fired).containsExactly("late@11", "every-2s@12", "every-2s@14", "every-2s@16", "every-2s@18", "every-2s@20");
+    }
+
+    @Test
+    void holdsAMillionTimeoutsAndCancelsEachOne() {
+        TimingWheel<Integer> wheel = new TimingWheel<>(1_000, 0);
+        List<TimingWheel.Timeout<Integer>> timeouts = new ArrayList<>(1_000_000);
+        for (int i = 0; i < 1_000_000; i++) {
+            timeouts.add(wheel.schedule(i, (i % 86_400) * 1_000L + 1_000));
+        }
+        assertThat(wheel.size()).isEqualTo(1_000_000);
+        timeouts.forEach(wheel::cancel);
+
+        assertThat(wheel.size()).isZero();
+        List<Integer> fired = new ArrayList<>();
+        wheel.advance(86_401_000, fired::add);
+        assertThat(fired).isEmpty();
+    }
+}
@@ -0,0 +1,81 @@
+package com.saasautomationbuilder.backend.execution.schedule;
+
+import com.saasautomationbuilder.backend.repository.WorkflowRepository;
+import com.saasautomationbuilder.backend.repository.WorkflowTriggerChangeView;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class WorkflowTriggerSyncTest {
+
+    private final WorkflowRepository workflowRepository = mock(WorkflowRepository.class);
+    private final SchedulerLeadership leadership = mock(SchedulerLeadership.class);
+    private final List<Long> applied = new ArrayList<>();
+    private final List<Long> sweeps = new ArrayList<>();
+    private final WorkflowTriggerSync sync = new WorkflowTriggerSync("Test triggers", workflowRepository, leadership, 2,
+            Duration.ofMinutes(1), (workflowId, userId, enabled, triggerConfig) -> applied.add(workflowId),
+            generation -> {
+                sweeps.add(generation);
+                return 0;
+            });
+
+    @Test
+    void changeScansStartAfterTheFirstFullResyncAndPageThroughChangedRows() {
+        sync.resyncChanges();
+        verify(workflowRepository, never()).findTriggersChangedAfter(any(), anyLong(), any());
+
+        when(workflowRepository.findEnabledTriggersAfter(anyLong(), any())).thenReturn(List.of());
+        sync.resyncAll();
+        assertThat(sweeps).containsExactly(1L);
+        assertThat(sync.generation()).isEqualTo(1L);
+
+        Instant updatedAt = Instant.now();
+        when(workflowRepository.findTriggersChangedAfter(any(), anyLong(), any())).thenAnswer(invocation -> {
+            long afterId = invocation.getArgument(1);
+            return afterId == 0L ? List.of(row(1L, updatedAt), row(2L, updatedAt)) : List.of(row(3L, updatedAt));
+        });
+        sync.resyncChanges();
+
+        assertThat(applied).containsExactly(1L, 2L, 3L);
+        verify(workflowRepository).findTriggersChangedAfter(updatedAt, 2L, PageRequest.ofSize(2));
+    }
+
+    @Test
+    void resyncsOncePerNewLeaderTerm() {
+        when(workflowRepository.findEnabledTriggersAfter(anyLong(), any())).thenReturn(List.of());
+        when(leadership.term()).thenReturn(1L);
+        sync.startTerm();
+
+        when(leadership.isLeader()).thenReturn(true);
+        sync.resyncIfNewLeaderTerm();
+        assertThat(sweeps).isEmpty();
+
+        when(leadership.term()).thenReturn(2L);
+        sync.resyncIfNewLeaderTerm();
+        sync.resyncIfNewLeaderTerm();
+        assertThat(sweeps).hasSize(1);
+        verify(workflowRepository, times(1)).findEnabledTriggersAfter(anyLong(), any());
+    }
+
+    private static WorkflowTriggerChangeView row(Long id, Instant updatedAt) {
+        WorkflowTriggerChangeView row = mock(WorkflowTriggerChangeView.class);
+        when(row.getId()).thenReturn(id);
+        when(row.getUserId()).thenReturn(10L);
+        when(row.isEnabled()).thenReturn(true);
+        when(row.getUpdatedAt()).thenReturn(updatedAt);
+        return row;
+    }
+}
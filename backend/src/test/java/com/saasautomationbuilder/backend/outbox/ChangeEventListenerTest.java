@@ -0,0 +1,88 @@
+package com.saasautomationbuilder.backend.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.saasautomationbuilder.backend.execution.LogActionHandler;
+import com.saasautomationbuilder.backend.execution.TriggerIndex;
+import com.saasautomationbuilder.backend.execution.plan.TriggerSpec;
+import com.saasautomationbuilder.backend.execution.plan.WorkflowPlanCache;
+import com.saasautomationbuilder.backend.execution.plan.WorkflowPlanCompiler;
+import com.saasautomationbuilder.backend.execution.polling.PollingEngine;
+import com.saasautomationbuilder.backend.execution.schedule.TimeTriggerScheduler;
+import com.saasautomationbuilder.backend.repository.WorkflowRepository;
+import com.saasautomationbuilder.backend.repository.WorkflowTriggerChangeView;
+import com.saasautomationbuilder.backend.support.InstanceId;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class ChangeEventListenerTest {
+
+    private final WorkflowRepository workflowRepository = mock(WorkflowRepository.class);
+    private final WorkflowPlanCache planCache = mock(WorkflowPlanCache.class);
+    private final TriggerIndex triggerIndex = mock(TriggerIndex.class);
+    private final TimeTriggerScheduler timeTriggerScheduler = mock(TimeTriggerScheduler.class);
+    private final PollingEngine pollingEngine = mock(PollingEngine.class);
+    private final ChangeEventListener listener = new ChangeEventListener(workflowRepository,
+            new WorkflowPlanCompiler(new ObjectMapper(), List.of(new LogActionHandler())),
+            planCache, triggerIndex, timeTriggerScheduler, pollingEngine);
+
+    @Test
+    void workflowChangeFromAnotherInstanceEvictsThePlanAndTriggers() {
+        when(workflowRepository.findTriggersByIdIn(List.of(5L))).thenReturn(List.of());
+
+        listener.onChangeEvent(event(List.of(5L), "other-instance"));
+
+        verify(planCache).invalidate(5L);
+        verify(triggerIndex).remove(5L);
+        verify(timeTriggerScheduler).remove(5L);
+        verify(pollingEngine).remove(5L);
+    }
+
+    @Test
+    void coalescedEventIsAppliedWithOneRead() {
+        List<Long> ids = List.of(5L, 6L, 7L);
+        List<WorkflowTriggerChangeView> rows = List.of(
+                row(5L, "{\"type\":\"manual\"}"), row(6L, "{\"type\":\"interval\",\"intervalSeconds\":60}"));
+        when(workflowRepository.findTriggersByIdIn(ids)).thenReturn(rows); // 7 is gone
+
+        listener.onChangeEvent(event(ids, "other-instance"));
+
+        verify(workflowRepository, times(1)).findTriggersByIdIn(ids);
+        ids.forEach(id -> verify(planCache).invalidate(id));
+        verify(triggerIndex).update(eq(5L), eq(10L), eq(true), any(TriggerSpec.class));
+        verify(timeTriggerScheduler).update(eq(6L), eq(10L), eq(true), any(TriggerSpec.class));
+        verify(pollingEngine).update(eq(6L), eq(10L), eq(true), any(TriggerSpec.class));
+        verify(triggerIndex).remove(7L);
+        verify(timeTriggerScheduler).remove(7L);
+        verify(pollingEngine).remove(7L);
+    }
+
+    @Test
+    void ownChangesAreSkipped() {
+        listener.onChangeEvent(event(List.of(5L), InstanceId.get()));
+
+        verifyNoInteractions(workflowRepository, planCache, triggerIndex, timeTriggerScheduler, pollingEngine);
+    }
+
+    private static ChangeEvent event(List<Long> workflowIds, String origin) {
+        return new ChangeEvent(1L, ChangeEvent.WORKFLOW, workflowIds, ChangeEvent.SAVED, 10L, origin, Instant.now());
+    }
+
+    private static WorkflowTriggerChangeView row(Long id, String triggerConfig) {
+        WorkflowTriggerChangeView row = mock(WorkflowTriggerChangeView.class);
+        when(row.getId()).thenReturn(id);
+        when(row.getUserId()).thenReturn(10L);
+        when(row.isEnabled()).thenReturn(true);
+        when(row.getTriggerConfig()).thenReturn(triggerConfig);
+        return row;
+    }
+}
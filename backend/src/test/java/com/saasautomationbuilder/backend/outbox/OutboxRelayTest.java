@@ -0,0 +1,163 @@
+package com.saasautomationbuilder.backend.outbox;
+
+import com.saasautomationbuilder.backend.domain.OutboxEvent;
+import com.saasautomationbuilder.backend.repository.OutboxEventRepository;
+import com.saasautomationbuilder.backend.support.InstanceId;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// The relay locks and deletes rows in its own transactions, so no test transaction here
+@DataJpaTest
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(OutboxWriter.class)
+class OutboxRelayTest {
+
+    @Autowired
+    private OutboxWriter outboxWriter;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final RabbitOperations operations = mock(RabbitOperations.class);
+
+    @AfterEach
+    void tearDown() {
+        outboxEventRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void publishesBatchesInOrderAndDeletesConfirmedRows() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> outboxWriter.record(ChangeEvent.WORKFLOW, 1L, ChangeEvent.SAVED, 10L));
+        transaction.executeWithoutResult(status -> outboxWriter.recordAll(ChangeEvent.WORKFLOW, List.of(2L, 3L, 4L), ChangeEvent.SAVED, 10L));
+        transaction.executeWithoutResult(status -> outboxWriter.record(ChangeEvent.CONNECTION, 5L, ChangeEvent.DELETED, 10L));
+
+        OutboxRelay relay = relay(2);
+        relay.drain();
+
+        // Batches of two: [1, 2], [3, 4], [5]; rows of the same kind within a batch share one message
+        ArgumentCaptor<ChangeEvent> events = ArgumentCaptor.forClass(ChangeEvent.class);
+        verify(operations, times(2)).convertAndSend(eq("changes"), eq("workflow.saved"), events.capture());
+        assertThat(events.getAllValues()).extracting(ChangeEvent::getAggregateIds)
+                .containsExactly(List.of(1L, 2L), List.of(3L, 4L));
+        verify(operations).convertAndSend(eq("changes"), eq("connection.deleted"), any(ChangeEvent.class));
+        verify(operations, times(3)).waitForConfirmsOrDie(anyLong());
+        assertThat(outboxEventRepository.count()).isZero();
+    }
+
+    @Test
+    void coalescesRowsByKindUserAndOriginInFirstSeenOrder() {
+        List<OutboxEvent> batch = List.of(
+                row(1L, ChangeEvent.WORKFLOW, 11L, ChangeEvent.SAVED, 10L, "a"),
+                row(2L, ChangeEvent.WORKFLOW, 12L, ChangeEvent.DELETED, 10L, "a"),
+                row(3L, ChangeEvent.WORKFLOW, 13L, ChangeEvent.SAVED, 10L, "a"),
+                row(4L, ChangeEvent.WORKFLOW, 14L, ChangeEvent.SAVED, 20L, "a"),
+                row(5L, ChangeEvent.WORKFLOW, 15L, ChangeEvent.SAVED, 10L, "b"));
+
+        List<ChangeEvent> events = OutboxRelay.coalesce(batch);
+
+        assertThat(events).extracting(ChangeEvent::getId, ChangeEvent::getAggregateIds).containsExactly(
+                tuple(1L, List.of(11L, 13L)), tuple(2L, List.of(12L)), tuple(4L, List.of(14L)), tuple(5L, List.of(15L)));
+    }
+
+    @Test
+    void unconfirmedBatchStaysForTheNextRun() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                outboxWriter.recordAll(ChangeEvent.WORKFLOW, List.of(1L, 2L), ChangeEvent.DELETED, 10L));
+        doThrow(new AmqpException("nack")).when(operations).waitForConfirmsOrDie(anyLong());
+
+        OutboxRelay relay = relay(10);
+        assertThatThrownBy(relay::relayBatch).isInstanceOf(AmqpException.class);
+
+        assertThat(outboxEventRepository.findAll()).hasSize(2)
+                .allSatisfy(row -> assertThat(row.getOrigin()).isEqualTo(InstanceId.get()));
+    }
+
+    @Test
+    void concurrentRelaysSkipRowsLockedByEachOther() throws Exception {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                outboxWriter.recordAll(ChangeEvent.WORKFLOW, List.of(1L, 2L, 3L), ChangeEvent.SAVED, 10L));
+
+        // Another relay holds the first two rows
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> other = CompletableFuture.runAsync(() -> new TransactionTemplate(transactionManager)
+                .executeWithoutResult(status -> {
+                    List<OutboxEvent> held = outboxEventRepository.lockNextBatch(2);
+                    assertThat(held).hasSize(2);
+                    locked.countDown();
+                    try {
+                        release.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }));
+        assertThat(locked.await(10, TimeUnit.SECONDS)).isTrue();
+
+        try {
+            assertThat(relay(10).relayBatch()).isEqualTo(1);
+        } finally {
+            release.countDown();
+            other.get(10, TimeUnit.SECONDS);
+        }
+        assertThat(outboxEventRepository.findAll()).extracting(OutboxEvent::getAggregateId).containsExactly(1L, 2L);
+    }
+
+    private static OutboxEvent row(Long id, String aggregateType, Long aggregateId, String eventType, Long userId, String origin) {
+        OutboxEvent row = new OutboxEvent();
+        row.setId(id);
+        row.setAggregateType(aggregateType);
+        row.setAggregateId(aggregateId);
+        row.setEventType(eventType);
+        row.setUserId(userId);
+        row.setOrigin(origin);
+        return row;
+    }
+
+    private OutboxRelay relay(int batchSize) {
+        RabbitTemplate rabbitTemplate = mock(RabbitTemplate.class);
+        when(rabbitTemplate.invoke(any())).thenAnswer(invocation -> {
+            RabbitOperations.OperationsCallback<?> callback = invocation.getArgument(0);
+            return callback.doInRabbit(operations);
+        });
+        return new OutboxRelay(outboxEventRepository, rabbitTemplate, transactionManager, new SimpleMeterRegistry(),
+                "changes", batchSize, Duration.ofSeconds(1));
+    }
+}
@@ -0,0 +1,119 @@
+package com.saasautomationbuilder.backend.repository;
+
+import com.saasautomationbuilder.backend.domain.User;
+import com.saasautomationbuilder.backend.domain.Workflow;
+import com.saasautomationbuilder.backend.service.WorkflowConfigSchemaManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the config searches against a local PostgreSQL and checks that their plans use the jsonb indexes.
+ * Needs an empty scratch database, e.g. {@code TEST_POSTGRES_URL=jdbc:postgresql://localhost:5432/saas_automation_test}
+ * (credentials from TEST_POSTGRES_USER/TEST_POSTGRES_PASSWORD, default postgres/postgres); skipped otherwise.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration(JdbcTemplateAutoConfiguration.class)
+@Import(WorkflowConfigSchemaManager.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@EnabledIfEnvironmentVariable(named = "TEST_POSTGRES_URL", matches = ".+")
+class WorkflowConfigQueriesPostgresTest {
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> System.getenv("TEST_POSTGRES_URL"));
+        registry.add("spring.datasource.username", () -> System.getenv().getOrDefault("TEST_POSTGRES_USER", "postgres"));
+        registry.add("spring.datasource.password", () -> System.getenv().getOrDefault("TEST_POSTGRES_PASSWORD", "postgres"));
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "create-drop");
+    }
+
+    @Autowired
+    private WorkflowRepository workflowRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<Long> boundIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setFirebaseUid("uid-jsonb");
+        user.setEmail("jsonb@example.com");
+        user = userRepository.save(user);
+
+        List<Workflow> workflows = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            Workflow workflow = new Workflow();
+            workflow.setUser(user);
+            workflow.setName("Workflow " + i);
+            workflow.setEnabled(i % 2 == 0);
+            workflow.setTriggerConfig(i % 1_000 == 0
+                    ? "{\"type\":\"polling\",\"connectorKey\":\"google_sheets\",\"connectionId\":42,\"intervalSeconds\":60}"
+                    : "{\"type\":\"webhook\",\"connectorKey\":\"github\",\"event\":\"push\",\"connectionId\":" + (1_000 + i) + "}");
+            workflow.setActionConfig(i % 1_000 == 500
+                    ? "[{\"type\":\"log\"},{\"type\":\"log\",\"connectorKey\":\"google_sheets\",\"connectionId\":42}]"
+                    : "[{\"type\":\"log\",\"connectorKey\":\"slack\",\"connectionId\":" + (10_000 + i) + "}]");
+            workflows.add(workflow);
+        }
+        workflowRepository.saveAll(workflows).stream()
+                .filter(workflow -> workflow.getTriggerConfig().contains("google_sheets") || workflow.getActionConfig().contains("google_sheets"))
+                .forEach(workflow -> boundIds.add(workflow.getId()));
+        jdbcTemplate.execute("ANALYZE workflows");
+    }
+
+    @AfterEach
+    void tearDown() {
+        workflowRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void findsWorkflowsByConnectionAndConnectorInTheDatabase() {
+        assertThat(workflowRepository.findIdsUsingConnection(42L, false)).containsExactlyElementsOf(boundIds);
+        assertThat(workflowRepository.findIdsUsingConnector("google_sheets", false)).containsExactlyElementsOf(boundIds);
+        // Half of the matches are enabled (even positions)
+        assertThat(workflowRepository.findIdsUsingConnection(42L, true)).hasSize(boundIds.size() / 2);
+        assertThat(workflowRepository.findIdsUsingConnection(7L, false)).isEmpty();
+    }
+
+    @Test
+    void searchesAreServedByTheJsonbIndexes() {
+        String connectionPlan = explain(WorkflowConfigQueriesImpl.IDS_USING_CONNECTION_SQL
+                .replace(":connectionId", "'42'")
+                .replace(":actions", "'" + WorkflowConfigQueriesImpl.actionFilter("connectionId", 42L) + "'")
+                .replace(":enabledOnly", "true"));
+        assertThat(connectionPlan).contains("idx_workflows_trigger_connection", "idx_workflows_action_config").doesNotContain("Seq Scan");
+
+        String connectorPlan = explain(WorkflowConfigQueriesImpl.IDS_USING_CONNECTOR_SQL
+                .replace(":connectorKey", "'google_sheets'")
+                .replace(":actions", "'" + WorkflowConfigQueriesImpl.actionFilter("connectorKey", "google_sheets") + "'")
+                .replace(":enabledOnly", "false"));
+        assertThat(connectorPlan).contains("idx_workflows_trigger_connector", "idx_workflows_action_config").doesNotContain("Seq Scan");
+    }
+
+    private String explain(String sql) {
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class));
+    }
+}
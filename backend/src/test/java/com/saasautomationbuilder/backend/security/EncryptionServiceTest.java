@@ -0,0 +1,110 @@
+package com.saasautomationbuilder.backend.security;
+
+import com.saasautomationbuilder.backend.domain.TenantDataKey;
+import com.saasautomationbuilder.backend.exception.EncryptionException;
+import com.saasautomationbuilder.backend.repository.TenantDataKeyRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Data keys are created in their own transactions, so there is no surrounding test transaction
+@DataJpaTest
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({EncryptionService.class, CredentialVault.class, LocalFileMasterKeyProvider.class})
+class EncryptionServiceTest {
+
+    @Autowired
+    private EncryptionService encryptionService;
+
+    @Autowired
+    private CredentialVault credentialVault;
+
+    @Autowired
+    private TenantDataKeyRepository dataKeyRepository;
+
+    @AfterEach
+    void tearDown() {
+        dataKeyRepository.deleteAllInBatch();
+        encryptionService.evictDataKey(1L);
+        encryptionService.evictDataKey(2L);
+    }
+
+    @Test
+    void roundTripsWithOneWrappedDataKeyPerTenant() {
+        byte[] secret = "api-key-123".getBytes(StandardCharsets.UTF_8);
+
+        String first = encryptionService.encrypt(1L, secret);
+        String second = encryptionService.encrypt(1L, secret);
+
+        assertThat(first).startsWith("v1.").isNotEqualTo(second); // Fresh IV each time
+        assertThat(encryptionService.decrypt(1L, first)).isEqualTo(secret);
+        assertThat(encryptionService.decrypt(1L, second)).isEqualTo(secret);
+
+        TenantDataKey dataKey = dataKeyRepository.findByUserId(1L).orElseThrow();
+        assertThat(dataKey.getMasterKeyId()).startsWith("local:");
+        assertThat(Base64.getDecoder().decode(dataKey.getWrappedKey())).hasSizeGreaterThan(32); // iv + key + tag
+        assertThat(dataKeyRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void unwrapsOnlyOnceWhileTheKeyIsCached() {
+        String envelope = encryptionService.encrypt(1L, new byte[]{1, 2, 3});
+        long missesBefore = encryptionService.dataKeyCacheStats().missCount();
+
+        for (int i = 0; i < 100; i++) {
+            encryptionService.decrypt(1L, envelope);
+        }
+
+        assertThat(encryptionService.dataKeyCacheStats().missCount()).isEqualTo(missesBefore);
+    }
+
+    @Test
+    void rejectsCiphertextOfAnotherTenantOrTamperedData() {
+        String envelope = encryptionService.encrypt(1L, "secret".getBytes(StandardCharsets.UTF_8));
+        encryptionService.encrypt(2L, "other".getBytes(StandardCharsets.UTF_8));
+
+        assertThatThrownBy(() -> encryptionService.decrypt(2L, envelope)).isInstanceOf(EncryptionException.class);
+
+        byte[] payload = Base64.getDecoder().decode(envelope.substring(envelope.lastIndexOf('.') + 1));
+        payload[payload.length - 1] ^= 1;
+        String tampered = envelope.substring(0, envelope.lastIndexOf('.') + 1) + Base64.getEncoder().encodeToString(payload);
+        assertThatThrownBy(() -> encryptionService.decrypt(1L, tampered)).isInstanceOf(EncryptionException.class);
+
+        assertThatThrownBy(() -> encryptionService.decrypt(1L, "PLACEHOLDER_ENCRYPTED_DATA_FOR_slack"))
+                .isInstanceOf(EncryptionException.class);
+    }
+
+    @Test
+    void vaultSealsAndOpensCredentialMaps() {
+        Map<String, String> credentials = Map.of("apiKey", "abc", "region", "eu");
+
+        String sealed = credentialVault.seal(1L, credentials);
+
+        assertThat(sealed).doesNotContain("abc");
+        assertThat(credentialVault.open(10L, 1L, sealed)).isEqualTo(credentials);
+        assertThat(credentialVault.open(10L, 1L, sealed)).isEqualTo(credentials);
+        assertThat(credentialVault.stats().hitCount()).isEqualTo(1);
+
+        // New ciphertext for the same connection is never answered from the cache
+        String rotated = credentialVault.seal(1L, Map.of("apiKey", "def"));
+        assertThat(credentialVault.open(10L, 1L, rotated)).containsEntry("apiKey", "def");
+    }
+}
@@ -0,0 +1,114 @@
+package com.saasautomationbuilder.backend.security;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.google.firebase.auth.FirebaseToken;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Constructor;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VerifiedTokenCacheTest {
+
+    @Test
+    void cachedTokenSkipsFirebaseVerification() throws Exception {
+        CountingTokenCache tokenCache = new CountingTokenCache(100, Duration.ofHours(1), expiresIn(3600));
+
+        FirebaseToken first = tokenCache.verify("token-a");
+        FirebaseToken second = tokenCache.verify("token-a");
+
+        assertThat(second).isSameAs(first);
+        assertThat(tokenCache.verified).containsExactly("token-a");
+    }
+
+    @Test
+    void differentTokenMissesAndInvalidateUsesTheSameKey() throws Exception {
+        CountingTokenCache tokenCache = new CountingTokenCache(100, Duration.ofHours(1), expiresIn(3600));
+
+        tokenCache.verify("token-a");
+        // Same claims, different raw token: the key is the token's hash, not its decoded contents
+        tokenCache.verify("token-b");
+        tokenCache.verify("token-a");
+        tokenCache.invalidate("token-a");
+        tokenCache.verify("token-a");
+        tokenCache.verify("token-b");
+
+        assertThat(tokenCache.verified).containsExactly("token-a", "token-b", "token-a");
+    }
+
+    @Test
+    void entryExpiresAtExpClaim() throws Exception {
+        long exp = System.currentTimeMillis() / 1000 + 2;
+        CountingTokenCache tokenCache = new CountingTokenCache(100, Duration.ofHours(1), Map.of("sub", "uid-1", "exp", exp));
+
+        tokenCache.verify("token-a");
+        tokenCache.verify("token-a");
+        assertThat(tokenCache.verified).hasSize(1);
+
+        Thread.sleep(Math.max(0, exp * 1000 - System.currentTimeMillis()) + 50);
+        tokenCache.verify("token-a");
+        assertThat(tokenCache.verified).hasSize(2);
+    }
+
+    @Test
+    void alreadyExpiredTokenIsNotCached() throws Exception {
+        CountingTokenCache tokenCache = new CountingTokenCache(100, Duration.ofHours(1), expiresIn(-60));
+
+        tokenCache.verify("token-a");
+        tokenCache.verify("token-a");
+
+        assertThat(tokenCache.verified).hasSize(2);
+        assertThat(tokenCache.estimatedSize()).isZero();
+    }
+
+    @Test
+    void statsCountHitsMissesAndEvictions() throws Exception {
+        CountingTokenCache tokenCache = new CountingTokenCache(1, Duration.ofHours(1), expiresIn(3600));
+
+        tokenCache.verify("token-a");
+        tokenCache.verify("token-a");
+        tokenCache.verify("token-b");
+
+        CacheStats stats = tokenCache.stats();
+        assertThat(stats.hitCount()).isEqualTo(1);
+        assertThat(stats.missCount()).isEqualTo(2);
+        assertThat(stats.evictionCount()).isEqualTo(1);
+        assertThat(tokenCache.estimatedSize()).isEqualTo(1);
+    }
+
+    private static Map<String, Object> expiresIn(long seconds) {
+        return Map.of("sub", "uid-1", "exp", System.currentTimeMillis() / 1000 + seconds);
+    }
+
+    // FirebaseToken has no public constructor
+    private static FirebaseToken firebaseToken(Map<String, Object> claims) throws Exception {
+        Constructor<FirebaseToken> constructor = FirebaseToken.class.getDeclaredConstructor(Map.class);
+        constructor.setAccessible(true);
+        return constructor.newInstance(claims);
+    }
+
+    private static class CountingTokenCache extends VerifiedTokenCache {
+
+        private final Map<String, Object> claims;
+        private final List<String> verified = new ArrayList<>();
+
+        CountingTokenCache(long maxSize, Duration maxTtl, Map<String, Object> claims) {
+            super(maxSize, maxTtl, Runnable::run);
+            this.claims = claims;
+        }
+
+        @Override
+        protected FirebaseToken verifyWithFirebase(String idToken) {
+            verified.add(idToken);
+            try {
+                return firebaseToken(claims);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.saasautomationbuilder.backend.security;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WebhookTokenServiceTest {
+
+    @Test
+    void refusesToStartWithoutAStrongSecret() {
+        assertThatThrownBy(() -> new WebhookTokenService("")).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> new WebhookTokenService("change-me")).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void tokensAreBoundToUserConnectorAndSecret() {
+        WebhookTokenService tokens = new WebhookTokenService("a".repeat(32));
+        String token = tokens.issue(42L, "github");
+
+        assertThat(tokens.verify(token, "github")).contains(42L);
+        assertThat(tokens.verify(token, "slack")).isEmpty();
+        assertThat(new WebhookTokenService("b".repeat(32)).verify(token, "github")).isEmpty();
+    }
+}
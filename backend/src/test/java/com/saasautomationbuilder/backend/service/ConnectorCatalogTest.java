@@ -0,0 +1,68 @@
+package com.saasautomationbuilder.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.saasautomationbuilder.backend.domain.ConnectorDefinition;
+import com.saasautomationbuilder.backend.repository.ConnectorCatalogVersion;
+import com.saasautomationbuilder.backend.repository.ConnectorDefinitionRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ConnectorCatalogTest {
+
+    @Test
+    void reloadsOnlyWhenFingerprintChanges() {
+        ConnectorDefinitionRepository repository = mock(ConnectorDefinitionRepository.class);
+        when(repository.findAll(any(Sort.class))).thenReturn(List.of(definition(1L, "slack", "Slack")));
+        when(repository.findCatalogVersion()).thenReturn(version(1, Instant.EPOCH));
+        ConnectorCatalog catalog = new ConnectorCatalog(repository, new ObjectMapper().registerModule(new JavaTimeModule()));
+
+        ConnectorCatalog.Snapshot first = catalog.current();
+        assertThat(first.definitionsByKey()).containsKey("slack");
+        assertThat(first.catalog().etag()).startsWith("\"").endsWith("\"");
+
+        catalog.refreshIfChanged();
+        assertThat(catalog.current()).isSameAs(first);
+        verify(repository, times(1)).findAll(any(Sort.class));
+
+        when(repository.findAll(any(Sort.class))).thenReturn(List.of(definition(1L, "slack", "Slack v2")));
+        when(repository.findCatalogVersion()).thenReturn(version(1, Instant.EPOCH.plusSeconds(1)));
+        catalog.refreshIfChanged();
+        assertThat(catalog.current().catalog().etag()).isNotEqualTo(first.catalog().etag());
+    }
+
+    private static ConnectorDefinition definition(Long id, String key, String name) {
+        ConnectorDefinition definition = new ConnectorDefinition();
+        definition.setId(id);
+        definition.setKey(key);
+        definition.setName(name);
+        definition.setAuthType(ConnectorDefinition.AuthenticationType.API_KEY);
+        definition.setCreatedAt(Instant.EPOCH);
+        definition.setUpdatedAt(Instant.EPOCH);
+        return definition;
+    }
+
+    private static ConnectorCatalogVersion version(long count, Instant lastUpdatedAt) {
+        return new ConnectorCatalogVersion() {
+            @Override
+            public long getCount() {
+                return count;
+            }
+
+            @Override
+            public Instant getLastUpdatedAt() {
+                return lastUpdatedAt;
+            }
+        };
+    }
+}
@@ -0,0 +1,102 @@
+package com.saasautomationbuilder.backend.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.saasautomationbuilder.backend.domain.ConnectorDefinition;
+import com.saasautomationbuilder.backend.domain.User;
+import com.saasautomationbuilder.backend.domain.UserConnection;
+import com.saasautomationbuilder.backend.domain.Workflow;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import(ExportService.class)
+class ExportServiceTest {
+
+    private static final int WORKFLOWS = 450;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setFirebaseUid("uid-export");
+        user.setEmail("export@example.com");
+        entityManager.persist(user);
+
+        ConnectorDefinition definition = new ConnectorDefinition();
+        definition.setKey("github");
+        definition.setName("GitHub");
+        definition.setAuthType(ConnectorDefinition.AuthenticationType.API_KEY);
+        definition.setCredentialFieldsSchema("{\"type\":\"object\"}");
+        entityManager.persist(definition);
+
+        UserConnection connection = new UserConnection();
+        connection.setUser(user);
+        connection.setConnectorDefinition(definition);
+        connection.setConnectionName("Work account");
+        connection.setEncryptedCredentials("secret-credentials");
+        entityManager.persist(connection);
+
+        for (int i = 0; i < WORKFLOWS; i++) {
+            Workflow workflow = new Workflow();
+            workflow.setUser(user);
+            workflow.setName("Workflow " + i);
+            workflow.setTriggerConfig("{\"type\":\"manual\"}");
+            workflow.setActionConfig("[{\"type\":\"log\",\"message\":\"" + "x".repeat(1_000) + "\"}]");
+            entityManager.persist(workflow);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void writesOneNdjsonLinePerRecordWithoutKeepingEntitiesManaged() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long records = exportService.exportUserData(user.getId(), out);
+
+        String body = out.toString(StandardCharsets.UTF_8);
+        assertThat(body).doesNotContain("secret-credentials");
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            lines.add(objectMapper.readTree(line));
+        }
+        assertThat(records).isEqualTo(WORKFLOWS + 1);
+        assertThat(lines).hasSize(WORKFLOWS + 1);
+        assertThat(lines.get(0).get("type").asText()).isEqualTo("workflow");
+        assertThat(lines.get(0).get("data").get("name").asText()).isEqualTo("Workflow 0");
+        assertThat(lines.get(WORKFLOWS).get("type").asText()).isEqualTo("connection");
+        assertThat(lines.get(WORKFLOWS).get("data").get("connectorKey").asText()).isEqualTo("github");
+        // Written workflows were detached as they streamed by
+        assertThat(entityManager.unwrap(Session.class).getStatistics().getEntityCount()).isLessThanOrEqualTo(1);
+    }
+}
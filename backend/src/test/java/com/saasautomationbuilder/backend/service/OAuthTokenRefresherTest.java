@@ -0,0 +1,285 @@
+package com.saasautomationbuilder.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.saasautomationbuilder.backend.cache.CacheInvalidationBus;
+import com.saasautomationbuilder.backend.domain.ConnectorDefinition;
+import com.saasautomationbuilder.backend.domain.User;
+import com.saasautomationbuilder.backend.domain.UserConnection;
+import com.saasautomationbuilder.backend.execution.schedule.SchedulerLeadership;
+import com.saasautomationbuilder.backend.repository.ConnectorDefinitionRepository;
+import com.saasautomationbuilder.backend.repository.TenantDataKeyRepository;
+import com.saasautomationbuilder.backend.repository.UserConnectionRepository;
+import com.saasautomationbuilder.backend.repository.UserRepository;
+import com.saasautomationbuilder.backend.security.CredentialVault;
+import com.saasautomationbuilder.backend.security.EncryptionService;
+import com.saasautomationbuilder.backend.security.LocalFileMasterKeyProvider;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the refresher against a local stand-in token endpoint. Refreshes write from worker threads,
+ * so there is no surrounding test transaction.
+ */
+@DataJpaTest
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({EncryptionService.class, CredentialVault.class, LocalFileMasterKeyProvider.class})
+class OAuthTokenRefresherTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ConnectorDefinitionRepository definitionRepository;
+
+    @Autowired
+    private UserConnectionRepository connectionRepository;
+
+    @Autowired
+    private TenantDataKeyRepository dataKeyRepository;
+
+    @Autowired
+    private EncryptionService encryptionService;
+
+    @Autowired
+    private CredentialVault credentialVault;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private HttpServer tokenServer;
+    private final List<TokenRequest> tokenRequests = new CopyOnWriteArrayList<>();
+    private final CountDownLatch slowResponse = new CountDownLatch(1);
+    private final SchedulerLeadership leadership = mock(SchedulerLeadership.class);
+    private OAuthTokenRefresher refresher;
+    private User user;
+    private ConnectorDefinition definition;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        tokenServer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        tokenServer.createContext("/token", this::handleTokenRequest);
+        tokenServer.setExecutor(Executors.newCachedThreadPool());
+        tokenServer.start();
+
+        user = new User();
+        user.setFirebaseUid("uid-oauth");
+        user.setEmail("oauth@example.com");
+        user = userRepository.save(user);
+
+        definition = new ConnectorDefinition();
+        definition.setKey("crm");
+        definition.setName("CRM");
+        definition.setAuthType(ConnectorDefinition.AuthenticationType.OAUTH2);
+        definition.setCredentialFieldsSchema("{}");
+        definition.setOauth2ClientId("client-1");
+        definition.setOauth2TokenUrl("http://localhost:" + tokenServer.getAddress().getPort() + "/token");
+        definition = definitionRepository.save(definition);
+
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("app.connectors.oauth2.clients.crm.client-secret", "secret-1");
+        // Burst of 2, then one refresh per 100 ms for the token host
+        refresher = new OAuthTokenRefresher(connectionRepository, credentialVault, mock(CacheInvalidationBus.class), objectMapper, transactionManager,
+                environment, leadership, new SimpleMeterRegistry(), Duration.ofMinutes(5), Duration.ofDays(1),
+                3, 10, 2, 4, Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        slowResponse.countDown();
+        refresher.stop();
+        tokenServer.stop(0);
+        connectionRepository.deleteAllInBatch();
+        definitionRepository.deleteAllInBatch();
+        dataKeyRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+        encryptionService.evictDataKey(user.getId());
+    }
+
+    @Test
+    void refreshesConnectionsExpiringWithinLeadTimeInRateLimitedBatches() {
+        Instant now = Instant.now();
+        List<UserConnection> expiring = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            expiring.add(connection("rt-" + i, now.plusSeconds(60 + i)));
+        }
+        connection("rt-later", now.plus(Duration.ofHours(1)));
+        connection("rt-old", now.minus(Duration.ofDays(2)));
+
+        long started = System.nanoTime();
+        assertThat(refresher.refreshExpiring()).isEqualTo(6);
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+
+        assertThat(tokenRequests).hasSize(6);
+        assertThat(tokenRequests).allSatisfy(request -> {
+            assertThat(request.form()).containsEntry("grant_type", "refresh_token")
+                    .containsEntry("client_id", "client-1")
+                    .containsEntry("client_secret", "secret-1");
+        });
+        for (int i = 0; i < 6; i++) {
+            UserConnection refreshed = connectionRepository.findById(expiring.get(i).getId()).orElseThrow();
+            assertThat(refreshed.getExpiresAt()).isAfter(now.plus(Duration.ofMinutes(50)));
+            Map<String, String> credentials = credentialVault.open(refreshed.getId(), user.getId(), refreshed.getEncryptedCredentials());
+            assertThat(credentials).containsEntry(OAuthTokenRefresher.ACCESS_TOKEN, "at-new-rt-" + i)
+                    .containsEntry(OAuthTokenRefresher.REFRESH_TOKEN, "rotated-rt-" + i);
+        }
+        assertThat(tokenRequests).extracting(request -> request.form().get("refresh_token"))
+                .doesNotContain("rt-later", "rt-old");
+
+        // Burst of 2 then 10/s: the sixth request to the host cannot start before ~400 ms
+        assertThat(elapsedMillis).isGreaterThanOrEqualTo(390);
+        assertThat(tokenRequests.get(5).receivedNanos() - started).isGreaterThanOrEqualTo(390_000_000L);
+    }
+
+    @Test
+    void tokensExpiringWithinTheLeadTimeAreRefreshedOncePerScan() {
+        // The stand-in endpoint hands out 60 s tokens for these, so each refresh lands back inside the 5 min lead time,
+        // past the cursor of the first page (batches of 3)
+        Instant now = Instant.now();
+        UserConnection first = connection("rt-short-1", now.plusSeconds(10));
+        for (int i = 2; i <= 4; i++) {
+            connection("rt-short-" + i, now.plusSeconds(10L * i));
+        }
+
+        assertThat(refresher.refreshExpiring()).isEqualTo(4);
+        assertThat(tokenRequests).hasSize(4);
+        assertThat(connectionRepository.findById(first.getId()).orElseThrow().getExpiresAt())
+                .isBefore(Instant.now().plus(Duration.ofMinutes(5)));
+
+        assertThat(refresher.refreshExpiring()).isEqualTo(4); // The next scan picks them up again
+        assertThat(tokenRequests).hasSize(8);
+    }
+
+    @Test
+    void onlyTheSchedulerLeaderScans() {
+        connection("rt-0", Instant.now().plusSeconds(60));
+
+        when(leadership.isLeader()).thenReturn(false);
+        refresher.refreshExpiringConnections();
+        assertThat(tokenRequests).isEmpty();
+
+        when(leadership.isLeader()).thenReturn(true);
+        refresher.refreshExpiringConnections();
+        assertThat(tokenRequests).hasSize(1);
+    }
+
+    @Test
+    void concurrentRefreshesOfOneConnectionShareOneRequest() throws Exception {
+        UserConnection connection = connection("rt-slow", Instant.now().plusSeconds(60));
+
+        List<CompletableFuture<OAuthTokenRefresher.Outcome>> outcomes = new CopyOnWriteArrayList<>();
+        List<Thread> callers = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            Thread caller = new Thread(() -> outcomes.add(refresher.refresh(connection.getId())));
+            callers.add(caller);
+            caller.start();
+        }
+        for (Thread caller : callers) {
+            caller.join();
+        }
+        slowResponse.countDown();
+
+        for (CompletableFuture<OAuthTokenRefresher.Outcome> outcome : outcomes) {
+            assertThat(outcome.get(5, TimeUnit.SECONDS)).isEqualTo(OAuthTokenRefresher.Outcome.REFRESHED);
+        }
+        assertThat(tokenRequests).hasSize(1);
+    }
+
+    @Test
+    void rejectedRefreshTokenDeactivatesConnection() {
+        UserConnection connection = connection("rt-revoked", Instant.now().plusSeconds(60));
+
+        assertThat(refresher.refresh(connection.getId()).join()).isEqualTo(OAuthTokenRefresher.Outcome.REVOKED);
+
+        assertThat(connectionRepository.findById(connection.getId()).orElseThrow().isActive()).isFalse();
+        assertThat(refresher.refreshExpiring()).isZero(); // Inactive connections are no longer scanned
+        assertThat(tokenRequests).hasSize(1);
+    }
+
+    private UserConnection connection(String refreshToken, Instant expiresAt) {
+        UserConnection connection = new UserConnection();
+        connection.setUser(user);
+        connection.setConnectorDefinition(definition);
+        connection.setConnectionName("CRM " + refreshToken);
+        connection.setEncryptedCredentials(credentialVault.seal(user.getId(),
+                Map.of(OAuthTokenRefresher.ACCESS_TOKEN, "at-old", OAuthTokenRefresher.REFRESH_TOKEN, refreshToken)));
+        connection.setExpiresAt(expiresAt);
+        return connectionRepository.save(connection);
+    }
+
+    // Stand-in token endpoint: rotates every refresh token, rejects "rt-revoked", holds "rt-slow" until released,
+    // issues 60 s tokens for "rt-short-*" and one-hour tokens otherwise
+    private void handleTokenRequest(HttpExchange exchange) throws IOException {
+        long receivedNanos = System.nanoTime();
+        Map<String, String> form = new HashMap<>();
+        for (String pair : new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8).split("&")) {
+            String[] parts = pair.split("=", 2);
+            form.put(URLDecoder.decode(parts[0], StandardCharsets.UTF_8), URLDecoder.decode(parts[1], StandardCharsets.UTF_8));
+        }
+        tokenRequests.add(new TokenRequest(form, receivedNanos));
+
+        String refreshToken = form.get("refresh_token");
+        if ("rt-slow".equals(refreshToken)) {
+            try {
+                slowResponse.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        int status = "rt-revoked".equals(refreshToken) ? 400 : 200;
+        String body = status == 400
+                ? "{\"error\":\"invalid_grant\"}"
+                : "{\"access_token\":\"at-new-" + refreshToken + "\",\"refresh_token\":\"rotated-" + refreshToken
+                  + "\",\"token_type\":\"Bearer\",\"expires_in\":" + (refreshToken.contains("short") ? 60 : 3600) + "}";
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private record TokenRequest(Map<String, String> form, long receivedNanos) {
+    }
+}
@@ -0,0 +1,170 @@
+package com.saasautomationbuilder.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.saasautomationbuilder.backend.cache.CacheInvalidationBus;
+import com.saasautomationbuilder.backend.domain.ConnectorDefinition;
+import com.saasautomationbuilder.backend.domain.User;
+import com.saasautomationbuilder.backend.domain.UserConnection;
+import com.saasautomationbuilder.backend.domain.Workflow;
+import com.saasautomationbuilder.backend.dto.UserConnectionDto;
+import com.saasautomationbuilder.backend.dto.WorkflowDto;
+import com.saasautomationbuilder.backend.dto.WorkflowSummaryPageDto;
+import com.saasautomationbuilder.backend.execution.LogActionHandler;
+import com.saasautomationbuilder.backend.execution.TriggerIndex;
+import com.saasautomationbuilder.backend.execution.plan.WorkflowPlanCache;
+import com.saasautomationbuilder.backend.execution.plan.WorkflowPlanCompiler;
+import com.saasautomationbuilder.backend.execution.polling.PollingEngine;
+import com.saasautomationbuilder.backend.execution.schedule.TimeTriggerScheduler;
+import com.saasautomationbuilder.backend.outbox.OutboxWriter;
+import com.saasautomationbuilder.backend.security.CredentialVault;
+import com.saasautomationbuilder.backend.security.EncryptionService;
+import com.saasautomationbuilder.backend.security.LocalFileMasterKeyProvider;
+import com.saasautomationbuilder.backend.security.UserPrincipal;
+import com.saasautomationbuilder.backend.security.WebhookTokenService;
+import com.saasautomationbuilder.backend.support.SqlStatementCounter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Pins the number of SQL statements each service endpoint issues, so N+1 and eager-fetch regressions fail the build.
+ */
+@DataJpaTest
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({ConnectorService.class, ConnectorCatalog.class, WebhookTokenService.class,
+        CredentialVault.class, EncryptionService.class, LocalFileMasterKeyProvider.class,
+        WorkflowService.class, ConnectionOwnershipChecker.class, OutboxWriter.class, WorkflowPlanCompiler.class, WorkflowPlanCache.class, TriggerIndex.class, LogActionHandler.class})
+class SqlStatementCountTest {
+
+    @MockBean
+    private TimeTriggerScheduler timeTriggerScheduler; // Publishes to the broker; not part of this slice
+
+    @MockBean
+    private PollingEngine pollingEngine;
+
+    @MockBean
+    private CacheInvalidationBus invalidationBus;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ConnectorService connectorService;
+
+    @Autowired
+    private WorkflowService workflowService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private SqlStatementCounter statements;
+    private User user;
+    private UserConnection connection;
+    private Workflow workflow;
+
+    @BeforeEach
+    void setUp() {
+        statements = new SqlStatementCounter(entityManagerFactory);
+
+        user = new User();
+        user.setFirebaseUid("uid-1");
+        user.setEmail("user@example.com");
+        entityManager.persist(user);
+
+        for (int i = 0; i < 3; i++) {
+            ConnectorDefinition definition = new ConnectorDefinition();
+            definition.setKey("connector-" + i);
+            definition.setName("Connector " + i);
+            definition.setAuthType(ConnectorDefinition.AuthenticationType.API_KEY);
+            definition.setCredentialFieldsSchema("{\"type\":\"object\"}");
+            entityManager.persist(definition);
+
+            connection = new UserConnection();
+            connection.setUser(user);
+            connection.setConnectorDefinition(definition);
+            connection.setConnectionName("Connection " + i);
+            connection.setEncryptedCredentials("secret");
+            entityManager.persist(connection);
+        }
+
+        for (int i = 0; i < 5; i++) {
+            workflow = new Workflow();
+            workflow.setUser(user);
+            workflow.setName("Workflow " + i);
+            workflow.setTriggerConfig("{\"type\":\"manual\"}");
+            workflow.setActionConfig("[{\"type\":\"log\"}]");
+            entityManager.persist(workflow);
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+        statements.reset();
+    }
+
+    @Test
+    void listingUserConnectionsIsOneStatement() {
+        List<UserConnectionDto> connections = connectorService.getUserConnections(UserPrincipal.of(user));
+
+        assertThat(connections).hasSize(3);
+        assertThat(connections.get(0).getConnectorKey()).isEqualTo("connector-0");
+        assertThat(statements.count()).isEqualTo(1);
+    }
+
+    @Test
+    void deletingUserConnectionIsSelectWorkflowLookupDeleteAndOutboxInsert() {
+        connectorService.deleteUserConnection(connection.getId(), UserPrincipal.of(user));
+        entityManager.flush();
+
+        assertThat(statements.count()).isEqualTo(4);
+    }
+
+    @Test
+    void listingWorkflowSummariesIsOneStatementPerPage() {
+        WorkflowSummaryPageDto firstPage = workflowService.getWorkflowSummaries(user.getId(), null, 3);
+        assertThat(firstPage.getItems()).hasSize(3);
+        assertThat(firstPage.getNextCursor()).isNotNull();
+        assertThat(statements.count()).isEqualTo(1);
+
+        WorkflowSummaryPageDto secondPage = workflowService.getWorkflowSummaries(user.getId(), firstPage.getNextCursor(), 3);
+        assertThat(secondPage.getItems()).hasSize(2);
+        assertThat(secondPage.getNextCursor()).isNull();
+        assertThat(statements.count()).isEqualTo(2);
+    }
+
+    @Test
+    void patchingOneFieldIsSelectUpdateOfThatColumnOnlyAndOutboxInsert() throws Exception {
+        WorkflowDto patched = workflowService.patchWorkflow(workflow.getId(),
+                objectMapper.readTree("{\"enabled\":true}"), 0L, UserPrincipal.of(user));
+
+        assertThat(patched.isEnabled()).isTrue();
+        assertThat(patched.getVersion()).isEqualTo(1);
+        assertThat(statements.count()).isEqualTo(3);
+        String update = statements.statements().get(1).toLowerCase();
+        assertThat(update).startsWith("update workflows").contains("enabled", "version")
+                .doesNotContain("trigger_config", "action_config", "name");
+
+        // Patching to the values already stored writes nothing
+        workflowService.patchWorkflow(workflow.getId(), objectMapper.readTree("{\"enabled\":true}"), null, UserPrincipal.of(user));
+        entityManager.flush();
+        assertThat(statements.count()).isEqualTo(3);
+        assertThat(statements.statements().get(2).toLowerCase()).startsWith("insert into outbox_events");
+    }
+}
@@ -0,0 +1,75 @@
+package com.saasautomationbuilder.backend.service;
+
+import com.saasautomationbuilder.backend.cache.CacheInvalidationBus;
+import com.saasautomationbuilder.backend.domain.User;
+import com.saasautomationbuilder.backend.repository.UserRepository;
+import com.saasautomationbuilder.backend.security.UserPrincipal;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserServiceTest {
+
+    private final CacheInvalidationBus invalidationBus = mock(CacheInvalidationBus.class);
+
+    @Test
+    void concurrentMissesForSameUidShareOneLookup() throws Exception {
+        UserRepository userRepository = mock(UserRepository.class);
+        User user = new User();
+        user.setId(1L);
+        user.setFirebaseUid("uid-1");
+        CountDownLatch release = new CountDownLatch(1);
+        when(userRepository.findByFirebaseUid("uid-1")).thenAnswer(invocation -> {
+            release.await();
+            return Optional.of(user);
+        });
+        UserService userService = new UserService(userRepository, invalidationBus, 100, Duration.ofMinutes(5));
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<UserPrincipal>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            results.add(pool.submit(() -> userService.findOrCreateUser("uid-1")));
+        }
+        Thread.sleep(100);
+        release.countDown();
+        UserPrincipal principal = results.get(0).get();
+        assertThat(principal).isEqualTo(new UserPrincipal(1L, "uid-1", null));
+        for (Future<UserPrincipal> result : results) {
+            assertThat(result.get()).isSameAs(principal);
+        }
+        pool.shutdown();
+
+        // Served from cache afterwards
+        assertThat(userService.findOrCreateUser("uid-1")).isSameAs(principal);
+        verify(userRepository, times(1)).findByFirebaseUid("uid-1");
+    }
+
+    @Test
+    void evictedUserIsReloaded() {
+        UserRepository userRepository = mock(UserRepository.class);
+        User user = new User();
+        user.setFirebaseUid("uid-2");
+        when(userRepository.findByFirebaseUid("uid-2")).thenReturn(Optional.of(user));
+        UserService userService = new UserService(userRepository, invalidationBus, 100, Duration.ofMinutes(5));
+
+        userService.findOrCreateUser("uid-2");
+        userService.evictUser("uid-2");
+        userService.findOrCreateUser("uid-2");
+
+        verify(userRepository, times(2)).findByFirebaseUid("uid-2");
+        verify(invalidationBus).broadcast(UserService.CACHE_NAME, "uid-2");
+    }
+}
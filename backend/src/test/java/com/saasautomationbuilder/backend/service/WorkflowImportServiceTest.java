@@ -0,0 +1,160 @@
+package com.saasautomationbuilder.backend.service;
+
+import com.saasautomationbuilder.backend.domain.User;
+import com.saasautomationbuilder.backend.dto.WorkflowImportItemResultDto;
+import com.saasautomationbuilder.backend.dto.WorkflowImportResultDto;
+import com.saasautomationbuilder.backend.execution.LogActionHandler;
+import com.saasautomationbuilder.backend.execution.TriggerIndex;
+import com.saasautomationbuilder.backend.execution.plan.WorkflowPlanCompiler;
+import com.saasautomationbuilder.backend.execution.polling.PollingEngine;
+import com.saasautomationbuilder.backend.execution.schedule.TimeTriggerScheduler;
+import com.saasautomationbuilder.backend.outbox.OutboxWriter;
+import com.saasautomationbuilder.backend.repository.OutboxEventRepository;
+import com.saasautomationbuilder.backend.repository.UserRepository;
+import com.saasautomationbuilder.backend.repository.WorkflowRepository;
+import com.saasautomationbuilder.backend.security.UserPrincipal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Imports commit in their own transactions (and update the trigger index after commit), so no test transaction here
+@DataJpaTest
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ImportAutoConfiguration({JacksonAutoConfiguration.class, ValidationAutoConfiguration.class})
+@TestPropertySource(properties = "app.workflows.import.max-items=2000")
+@Import({WorkflowImportService.class, ConnectionOwnershipChecker.class, OutboxWriter.class, WorkflowPlanCompiler.class, TriggerIndex.class, LogActionHandler.class})
+class WorkflowImportServiceTest {
+
+    @MockBean
+    private TimeTriggerScheduler timeTriggerScheduler; // Publishes to the broker; not part of this slice
+
+    @MockBean
+    private PollingEngine pollingEngine;
+
+    private static final String VALID_ITEM = "{\"name\":\"Imported %d\",\"enabled\":false," +
+            "\"triggerConfig\":\"{\\\"type\\\":\\\"manual\\\"}\",\"actionConfig\":\"[{\\\"type\\\":\\\"log\\\"}]\"}";
+
+    @Autowired
+    private WorkflowImportService importService;
+
+    @Autowired
+    private WorkflowRepository workflowRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private TriggerIndex triggerIndex;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setFirebaseUid("uid-import");
+        user.setEmail("import@example.com");
+        user = userRepository.save(user);
+    }
+
+    @AfterEach
+    void tearDown() {
+        outboxEventRepository.deleteAllInBatch();
+        workflowRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void importsNdjsonInBatchesAndReportsInvalidItems() throws Exception {
+        int items = 2_000;
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < items; i++) {
+            // Every 100th item has a blank name
+            body.append(i % 100 == 99 ? VALID_ITEM.formatted(i).replace("Imported " + i, "") : VALID_ITEM.formatted(i)).append('\n');
+        }
+
+        WorkflowImportResultDto result = importService.importWorkflows(stream(body.toString()), UserPrincipal.of(user));
+
+        assertThat(result.getTotal()).isEqualTo(items);
+        assertThat(result.getCreated()).isEqualTo(1_980);
+        assertThat(result.getRejected()).isEqualTo(20);
+        assertThat(result.getError()).isNull();
+        assertThat(result.getItems().get(99).getStatus()).isEqualTo(WorkflowImportItemResultDto.Status.INVALID);
+        assertThat(result.getItems().get(99).getErrors()).containsExactly("name: Workflow name cannot be blank");
+        assertThat(result.getItems().get(100).getStatus()).isEqualTo(WorkflowImportItemResultDto.Status.CREATED);
+        assertThat(result.getItems().get(100).getId()).isNotNull();
+        assertThat(workflowRepository.count()).isEqualTo(1_980);
+        // One change event per created workflow, written by the same batch transactions
+        assertThat(outboxEventRepository.count()).isEqualTo(1_980);
+    }
+
+    @Test
+    void importsJsonArrayAndIndexesWebhookTriggers() throws Exception {
+        String webhook = "{\"name\":\"Hook\",\"enabled\":true," +
+                "\"triggerConfig\":\"{\\\"type\\\":\\\"webhook\\\",\\\"connectorKey\\\":\\\"github\\\",\\\"event\\\":\\\"push\\\"}\"," +
+                "\"actionConfig\":\"[{\\\"type\\\":\\\"log\\\"}]\"}";
+        String invalidConfig = "{\"name\":\"Bad\",\"enabled\":true,\"triggerConfig\":\"{}\",\"actionConfig\":\"[]\"}";
+
+        WorkflowImportResultDto result = importService.importWorkflows(
+                stream("[" + VALID_ITEM.formatted(0) + "," + webhook + "," + invalidConfig + "]"), UserPrincipal.of(user));
+
+        assertThat(result.getItems()).extracting(WorkflowImportItemResultDto::getStatus).containsExactly(
+                WorkflowImportItemResultDto.Status.CREATED,
+                WorkflowImportItemResultDto.Status.CREATED,
+                WorkflowImportItemResultDto.Status.INVALID);
+        assertThat(triggerIndex.match("github", "push", user.getId())).containsExactly(result.getItems().get(1).getId());
+        // Configs are stored as JSON documents, not as JSON strings holding the text
+        assertThat(workflowRepository.findIdsUsingConnector("github", true)).containsExactly(result.getItems().get(1).getId());
+    }
+
+    @Test
+    void keepsItemsBeforeMalformedJson() throws Exception {
+        String body = VALID_ITEM.formatted(0) + "\n" + VALID_ITEM.formatted(1) + "\n{\"name\": oops\n" + VALID_ITEM.formatted(3) + "\n";
+
+        WorkflowImportResultDto result = importService.importWorkflows(stream(body), UserPrincipal.of(user));
+
+        assertThat(result.getCreated()).isEqualTo(2);
+        assertThat(result.getError()).startsWith("Malformed JSON at item 2");
+        assertThat(workflowRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    void stopsAtMaxItemsAndReturnsWhatWasCreated() throws Exception {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 2_001; i++) {
+            body.append(VALID_ITEM.formatted(i)).append('\n');
+        }
+
+        WorkflowImportResultDto result = importService.importWorkflows(stream(body.toString()), UserPrincipal.of(user));
+
+        assertThat(result.getCreated()).isEqualTo(2_000);
+        assertThat(result.getError()).startsWith("Import stopped at item 2000");
+        assertThat(result.getItems()).allSatisfy(item -> assertThat(item.getId()).isNotNull());
+        assertThat(workflowRepository.count()).isEqualTo(2_000);
+    }
+
+    private static ByteArrayInputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
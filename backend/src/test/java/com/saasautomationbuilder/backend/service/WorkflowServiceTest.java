@@ -0,0 +1,200 @@
+package com.saasautomationbuilder.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.saasautomationbuilder.backend.cache.CacheInvalidationBus;
+import com.saasautomationbuilder.backend.domain.User;
+import com.saasautomationbuilder.backend.domain.Workflow;
+import com.saasautomationbuilder.backend.dto.CreateWorkflowRequestDto;
+import com.saasautomationbuilder.backend.dto.UpdateWorkflowRequestDto;
+import com.saasautomationbuilder.backend.dto.WorkflowDto;
+import com.saasautomationbuilder.backend.exception.BadRequestException;
+import com.saasautomationbuilder.backend.exception.ConflictException;
+import com.saasautomationbuilder.backend.exception.PreconditionFailedException;
+import com.saasautomationbuilder.backend.exception.InvalidWorkflowConfigException;
+import com.saasautomationbuilder.backend.execution.LogActionHandler;
+import com.saasautomationbuilder.backend.execution.TriggerIndex;
+import com.saasautomationbuilder.backend.execution.plan.WorkflowPlanCache;
+import com.saasautomationbuilder.backend.execution.plan.WorkflowPlanCompiler;
+import com.saasautomationbuilder.backend.execution.polling.PollingEngine;
+import com.saasautomationbuilder.backend.execution.schedule.TimeTriggerScheduler;
+import com.saasautomationbuilder.backend.outbox.OutboxWriter;
+import com.saasautomationbuilder.backend.repository.OutboxEventRepository;
+import com.saasautomationbuilder.backend.repository.UserRepository;
+import com.saasautomationbuilder.backend.repository.WorkflowRepository;
+import com.saasautomationbuilder.backend.security.UserPrincipal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Each service call commits on its own, as it does behind the controller
+@DataJpaTest
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({WorkflowService.class, ConnectionOwnershipChecker.class, OutboxWriter.class, WorkflowPlanCompiler.class, WorkflowPlanCache.class, TriggerIndex.class, LogActionHandler.class})
+class WorkflowServiceTest {
+
+    @MockBean
+    private TimeTriggerScheduler timeTriggerScheduler; // Publishes to the broker; not part of this slice
+
+    @MockBean
+    private PollingEngine pollingEngine;
+
+    @MockBean
+    private CacheInvalidationBus invalidationBus;
+
+    @Autowired
+    private WorkflowService workflowService;
+
+    @Autowired
+    private WorkflowRepository workflowRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private User user;
+    private Workflow workflow;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setFirebaseUid("uid-patch");
+        user.setEmail("patch@example.com");
+        user = userRepository.save(user);
+
+        workflow = new Workflow();
+        workflow.setUser(user);
+        workflow.setName("Sync contacts");
+        workflow.setDescription("Nightly");
+        workflow.setTriggerConfig("{\"type\":\"interval\",\"intervalSeconds\":300}");
+        workflow.setActionConfig("[{\"type\":\"log\"}]");
+        workflow = workflowRepository.save(workflow);
+    }
+
+    @AfterEach
+    void tearDown() {
+        outboxEventRepository.deleteAllInBatch();
+        workflowRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void mergePatchMergesConfigObjectsAndRemovesNulledMembers() throws Exception {
+        WorkflowDto patched = workflowService.patchWorkflow(workflow.getId(), objectMapper.readTree(
+                "{\"description\":null,\"triggerConfig\":{\"intervalSeconds\":60},\"actionConfig\":[{\"type\":\"log\",\"message\":\"hi\"}]}"),
+                0L, UserPrincipal.of(user));
+
+        assertThat(patched.getName()).isEqualTo("Sync contacts");
+        assertThat(patched.getDescription()).isNull();
+        assertThat(objectMapper.readTree(patched.getTriggerConfig()))
+                .isEqualTo(objectMapper.readTree("{\"type\":\"interval\",\"intervalSeconds\":60}"));
+        assertThat(objectMapper.readTree(patched.getActionConfig()))
+                .isEqualTo(objectMapper.readTree("[{\"type\":\"log\",\"message\":\"hi\"}]"));
+        assertThat(patched.getVersion()).isEqualTo(1);
+
+        assertThatThrownBy(() -> workflowService.patchWorkflow(workflow.getId(), objectMapper.readTree("{\"userId\":99}"), null, UserPrincipal.of(user)))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> workflowService.patchWorkflow(workflow.getId(), objectMapper.readTree("{\"enabled\":\"yes\"}"), null, UserPrincipal.of(user)))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void concurrentEditorsCannotOverwriteEachOther() throws Exception {
+        // Both editors loaded version 0; the second save must not silently win
+        workflowService.patchWorkflow(workflow.getId(), objectMapper.readTree("{\"name\":\"Editor A\"}"), 0L, UserPrincipal.of(user));
+        assertThatThrownBy(() -> workflowService.patchWorkflow(workflow.getId(), objectMapper.readTree("{\"name\":\"Editor B\"}"), 0L, UserPrincipal.of(user)))
+                .isInstanceOf(PreconditionFailedException.class);
+        // A stale version in a PUT body is a conflict, not a failed precondition
+        UpdateWorkflowRequestDto update = new UpdateWorkflowRequestDto();
+        update.setName("Editor B");
+        update.setVersion(0L);
+        assertThatThrownBy(() -> workflowService.updateWorkflow(workflow.getId(), update, UserPrincipal.of(user)))
+                .isInstanceOf(ConflictException.class);
+
+        // Same race without If-Match: the version column catches the stale write
+        Workflow stale = workflowRepository.findById(workflow.getId()).orElseThrow();
+        workflowService.patchWorkflow(workflow.getId(), objectMapper.readTree("{\"enabled\":true}"), null, UserPrincipal.of(user));
+        stale.setName("Editor C");
+        assertThatThrownBy(() -> workflowRepository.saveAndFlush(stale)).isInstanceOf(OptimisticLockingFailureException.class);
+
+        Workflow stored = workflowRepository.findById(workflow.getId()).orElseThrow();
+        assertThat(stored.getName()).isEqualTo("Editor A");
+        assertThat(stored.isEnabled()).isTrue();
+        assertThat(stored.getVersion()).isEqualTo(2);
+    }
+
+    @Test
+    void disablesOnlyEnabledWorkflowsBoundToTheConnection() {
+        Workflow triggerBound = workflow("{\"type\":\"polling\",\"connectorKey\":\"http\",\"connectionId\":42,\"intervalSeconds\":60}",
+                "[{\"type\":\"log\"}]", true);
+        Workflow actionBound = workflow("{\"type\":\"manual\"}", "[{\"type\":\"log\"},{\"type\":\"log\",\"connectionId\":42}]", true);
+        workflow("{\"type\":\"manual\"}", "[{\"type\":\"log\",\"connectionId\":43}]", true);
+        workflow("{\"type\":\"manual\"}", "[{\"type\":\"log\",\"connectionId\":42}]", false);
+
+        assertThat(workflowService.disableWorkflowsUsingConnection(42L)).containsExactly(triggerBound.getId(), actionBound.getId());
+
+        assertThat(workflowRepository.findIdsUsingConnection(42L, true)).isEmpty();
+        assertThat(workflowRepository.findIdsUsingConnection(42L, false)).hasSize(3);
+        assertThat(workflowRepository.findIdsUsingConnector("http", false)).containsExactly(triggerBound.getId());
+        Workflow disabled = workflowRepository.findById(actionBound.getId()).orElseThrow();
+        assertThat(disabled.isEnabled()).isFalse();
+        assertThat(disabled.getVersion()).isEqualTo(1);
+    }
+
+    @Test
+    void rejectsConnectionsTheUserDoesNotOwn() throws Exception {
+        CreateWorkflowRequestDto request = new CreateWorkflowRequestDto();
+        request.setName("Borrowed connection");
+        request.setEnabled(true);
+        request.setTriggerConfig("{\"type\":\"polling\",\"connectorKey\":\"http\",\"connectionId\":999,\"intervalSeconds\":60}");
+        request.setActionConfig("[{\"type\":\"log\"}]");
+        assertThatThrownBy(() -> workflowService.createWorkflow(request, UserPrincipal.of(user)))
+                .isInstanceOf(InvalidWorkflowConfigException.class)
+                .hasMessage("Connection 999 does not exist");
+
+        assertThatThrownBy(() -> workflowService.patchWorkflow(workflow.getId(),
+                objectMapper.readTree("{\"actionConfig\":[{\"type\":\"log\",\"connectionId\":999}]}"), null, UserPrincipal.of(user)))
+                .isInstanceOf(InvalidWorkflowConfigException.class);
+        assertThat(workflowRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void triggerConnectionIdMatchesAsTextLikeOnPostgres() {
+        Workflow numeric = workflow("{\"type\":\"polling\",\"connectorKey\":\"http\",\"connectionId\":42}", "[{\"type\":\"log\"}]", true);
+        Workflow string = workflow("{\"type\":\"polling\",\"connectorKey\":\"http\",\"connectionId\":\"42\"}", "[{\"type\":\"log\"}]", true);
+        workflow("{\"type\":\"polling\",\"connectorKey\":\"http\",\"connectionId\":\"420\"}", "[{\"type\":\"log\"}]", true);
+
+        assertThat(workflowRepository.findIdsUsingConnection(42L, false)).containsExactly(numeric.getId(), string.getId());
+    }
+
+    private Workflow workflow(String triggerConfig, String actionConfig, boolean enabled) {
+        Workflow created = new Workflow();
+        created.setUser(user);
+        created.setName("Bound");
+        created.setEnabled(enabled);
+        created.setTriggerConfig(triggerConfig);
+        created.setActionConfig(actionConfig);
+        return workflowRepository.save(created);
+    }
+}
@@ -0,0 +1,44 @@
+package com.saasautomationbuilder.backend.support;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.stat.Statistics;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// Counts JDBC statements prepared by Hibernate, so tests can pin the number of SQL round trips per operation
+public class SqlStatementCounter {
+
+    private static final List<String> RECORDED = new CopyOnWriteArrayList<>();
+
+    private final Statistics statistics;
+
+    public SqlStatementCounter(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        this.statistics.setStatisticsEnabled(true);
+    }
+
+    public void reset() {
+        statistics.clear();
+        RECORDED.clear();
+    }
+
+    // SQL text of the statements since the last reset (needs the Recorder, registered in application-h2.properties)
+    public List<String> statements() {
+        return List.copyOf(RECORDED);
+    }
+
+    public long count() {
+        return statistics.getPrepareStatementCount();
+    }
+
+    public static class Recorder implements StatementInspector {
+        @Override
+        public String inspect(String sql) {
+            RECORDED.add(sql);
+            return sql;
+        }
+    }
+}
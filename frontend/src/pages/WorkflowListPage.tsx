@@ -4,24 +4,30 @@ import axiosInstance from '../api/axiosInstance';
 import { useAuth } from '../context/AuthContext'; // Import useAuth
 import { useNavigate } from 'react-router-dom'; // Import for navigation (optional for edit)
 
-// Define an interface for the Workflow DTO (matching backend DTO)
-interface WorkflowDto {
+// Define an interface for the Workflow summary DTO (matching backend DTO, configs are not included)
+interface WorkflowSummaryDto {
     id: number;
     name: string;
     description?: string;
     enabled: boolean;
-    triggerConfig: string;
-    actionConfig: string;
     userId: number;
     createdAt: string; // Represent Instant as string for simplicity
     updatedAt: string;
 }
 
+// One page of the list; nextCursor is null on the last page
+interface WorkflowSummaryPageDto {
+    items: WorkflowSummaryDto[];
+    nextCursor: string | null;
+}
+
 const WorkflowListPage: React.FC = () => {
     const { currentUser } = useAuth(); // Get the current user
     const navigate = useNavigate(); // For navigating to create/edit pages later
-    const [workflows, setWorkflows] = useState<WorkflowDto[]>([]);
+    const [workflows, setWorkflows] = useState<WorkflowSummaryDto[]>([]);
+    const [nextCursor, setNextCursor] = useState<string | null>(null);
     const [loading, setLoading] = useState<boolean>(true);
+    const [loadingMore, setLoadingMore] = useState<boolean>(false);
     const [error, setError] = useState<string | null>(null);
 
     // Remove temporary user ID
@@ -35,8 +41,9 @@ const WorkflowListPage: React.FC = () => {
         setError(null);
         try {
             // Use the new endpoint that relies on the authenticated user token
-            const response = await axiosInstance.get<WorkflowDto[]>('/v1/workflows');
-            setWorkflows(response.data);
+            const response = await axiosInstance.get<WorkflowSummaryPageDto>('/v1/workflows');
+            setWorkflows(response.data.items);
+            setNextCursor(response.data.nextCursor);
         } catch (err: any) {
             console.error("Error fetching workflows:", err);
             if (err.response && (err.response.status === 403 || err.response.status === 401)) {
@@ -53,6 +60,26 @@ const WorkflowListPage: React.FC = () => {
         fetchWorkflows();
     }, [fetchWorkflows]); // Run fetchWorkflows when component mounts or function changes
 
+    // Append the next page using the cursor returned with the previous one
+    const loadMoreWorkflows = async () => {
+        if (!nextCursor) return;
+
+        setLoadingMore(true);
+        setError(null);
+        try {
+            const response = await axiosInstance.get<WorkflowSummaryPageDto>('/v1/workflows', {
+                params: { cursor: nextCursor }
+            });
+            setWorkflows(prevWorkflows => [...prevWorkflows, ...response.data.items]);
+            setNextCursor(response.data.nextCursor);
+        } catch (err: any) {
+            console.error("Error fetching more workflows:", err);
+            setError("Failed to fetch more workflows.");
+        } finally {
+            setLoadingMore(false);
+        }
+    };
+
     // --- Action Handlers ---
 
     const handleCreateWorkflow = () => {
@@ -143,6 +170,17 @@ const WorkflowListPage: React.FC = () => {
                             ))}
                         </ul>
                     )}
+                    {nextCursor && (
+                        <div className="p-4 text-center">
+                            <button
+                                onClick={loadMoreWorkflows}
+                                disabled={loadingMore}
+                                className="text-sm bg-gray-200 hover:bg-gray-300 text-gray-800 font-semibold py-1 px-3 rounded disabled:opacity-50"
+                            >
+                                {loadingMore ? 'Loading...' : 'Load more'}
+                            </button>
+                        </div>
+                    )}
                 </div>
             )}
         </div>